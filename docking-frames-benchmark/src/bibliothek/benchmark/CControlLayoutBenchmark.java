@@ -0,0 +1,162 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.EventQueue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+
+/**
+ * Measures how long a {@link CControl} needs to store and to restore a layout, and to
+ * write all its layouts into a stream. All operations are executed on the EDT.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class CControlLayoutBenchmark {
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private CControl control;
+	private byte[] data;
+	
+	@Setup( Level.Trial )
+	public void setup() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call() throws Exception{
+				control = new CControl();
+				SyntheticLayouts.fill( control, dockables );
+				control.save( "benchmark" );
+				data = write();
+				return null;
+			}
+		});
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control.destroy();
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public void save() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control.save( "benchmark" );
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public void load() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control.load( "benchmark" );
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public byte[] write() throws Exception{
+		return onEDT( new Callable<byte[]>(){
+			public byte[] call() throws IOException{
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				DataOutputStream data = new DataOutputStream( out );
+				control.write( data );
+				data.flush();
+				return out.toByteArray();
+			}
+		});
+	}
+	
+	@Benchmark
+	public void read() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call() throws IOException{
+				control.read( new DataInputStream( new ByteArrayInputStream( data )));
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * Executes <code>task</code> on the EDT and waits for its result. A {@link CControl} posts events to
+	 * the EDT, so it must not be used by the benchmark thread directly.
+	 * @param task the task to execute
+	 * @return the result of <code>task</code>
+	 * @throws Exception if <code>task</code> failed
+	 */
+	private static <T> T onEDT( Callable<T> task ) throws Exception{
+		if( EventQueue.isDispatchThread() ){
+			return task.call();
+		}
+		FutureTask<T> future = new FutureTask<T>( task );
+		EventQueue.invokeAndWait( future );
+		try{
+			return future.get();
+		}
+		catch( ExecutionException e ){
+			if( e.getCause() instanceof Exception ){
+				throw (Exception)e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.layout.DockLayoutComposition;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+
+/**
+ * Measures how long {@link DockSituation} needs to write and to read the layout of a
+ * {@link SplitDockStation}, both in the binary and in the xml format.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class DockSituationBenchmark {
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private DockController controller;
+	private DockSituation situation;
+	private Map<String, DockStation> roots;
+	
+	private byte[] binary;
+	private byte[] xml;
+	
+	@Setup( Level.Trial )
+	public void setup() throws IOException{
+		controller = new DockController();
+		SplitDockStation station = SyntheticLayouts.createStation( controller, SyntheticLayouts.createDockables( dockables ) );
+		
+		situation = new DockSituation( controller );
+		roots = new HashMap<String, DockStation>();
+		roots.put( "root", station );
+		
+		binary = writeBinary();
+		xml = writeXML();
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown(){
+		controller.kill();
+	}
+	
+	@Benchmark
+	public byte[] writeBinary() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream( out );
+		situation.write( roots, data );
+		data.flush();
+		return out.toByteArray();
+	}
+	
+	@Benchmark
+	public byte[] writeXML() throws IOException{
+		XElement element = new XElement( "root" );
+		situation.writeXML( roots, element );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XIO.writeUTF( element, out );
+		return out.toByteArray();
+	}
+	
+	@Benchmark
+	public Map<String, DockLayoutComposition> readBinary() throws IOException{
+		return situation.readCompositions( new DataInputStream( new ByteArrayInputStream( binary )));
+	}
+	
+	@Benchmark
+	public Map<String, DockLayoutComposition> readXML() throws IOException{
+		return situation.readCompositionsXML( XIO.readUTF( new ByteArrayInputStream( xml )));
+	}
+	
+	@Benchmark
+	public Map<String, DockLayoutComposition> readXMLStreaming() throws IOException{
+		XReader reader = XIO.readerUTF( new ByteArrayInputStream( xml ));
+		try{
+			return situation.readCompositionsXML( reader );
+		}
+		finally{
+			reader.close();
+		}
+	}
+}
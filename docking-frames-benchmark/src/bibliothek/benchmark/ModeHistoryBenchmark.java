@@ -0,0 +1,232 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.EventQueue;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.mode.CLocationModeManager;
+import bibliothek.gui.dock.facile.mode.Location;
+import bibliothek.gui.dock.facile.mode.LocationSettingConverter;
+import bibliothek.gui.dock.station.split.SplitDockProperty;
+import bibliothek.gui.dock.support.mode.ModeManager;
+import bibliothek.gui.dock.support.mode.ModeSettings;
+import bibliothek.util.Path;
+
+/**
+ * Measures how long a {@link ModeManager} needs to read and to write the histories of many closed 
+ * {@link bibliothek.gui.dock.common.MultipleCDockable}s, with and without a {@link ModeManager#setHistoryLimit(int) limited
+ * history}. Running the benchmark with the <code>gc</code> profiler reports how much memory the histories
+ * allocate, the benchmark {@link #footprint(Footprint)} reports how much memory they occupy. All operations
+ * are executed on the EDT.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class ModeHistoryBenchmark {
+	@Param({ "1000", "20000" })
+	public int entries;
+	
+	/** the maximum length of a history, -1 if the length is not limited */
+	@Param({ "-1", "2" })
+	public int historyLimit;
+	
+	private CControl control;
+	private CLocationModeManager manager;
+	private ModeSettings<Location, Location> settings;
+	
+	/** the number of bytes the histories occupied on the heap after they were read */
+	private long retainedBytes;
+	
+	/**
+	 * Reports how much memory the histories occupy.
+	 */
+	@State( Scope.Thread )
+	@AuxCounters( AuxCounters.Type.EVENTS )
+	public static class Footprint {
+		/** the number of bytes the histories occupy on the heap after a garbage collection */
+		public long retainedBytes;
+	}
+	
+	@Setup( Level.Trial )
+	public void setup() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control = new CControl();
+				manager = control.getLocationManager();
+				if( historyLimit != -1 ){
+					manager.setHistoryLimit( historyLimit );
+				}
+				long heapWithoutHistories = usedHeap();
+				for( int i = 0; i < entries; i++ ){
+					manager.addEmpty( "multi entry" + i );
+				}
+				manager.readSettings( create() );
+				retainedBytes = usedHeap() - heapWithoutHistories;
+				
+				settings = create();
+				return null;
+			}
+		});
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control.destroy();
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public void readSettings() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				manager.readSettings( settings );
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public int writeSettings() throws Exception{
+		return onEDT( new Callable<Integer>(){
+			public Integer call() throws IOException{
+				ModeSettings<Location, Location> written = manager.createSettings( new LocationSettingConverter( manager.getController() ) );
+				manager.writeSettings( written );
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				DataOutputStream data = new DataOutputStream( out );
+				written.write( data );
+				data.close();
+				return out.size();
+			}
+		});
+	}
+	
+	/**
+	 * Reports how much memory the histories occupied after they were read in {@link #setup()}. The
+	 * settings that were read are garbage collected before the memory is measured.
+	 * @param footprint the counters to fill
+	 */
+	@Benchmark
+	@BenchmarkMode( Mode.SingleShotTime )
+	public void footprint( Footprint footprint ){
+		footprint.retainedBytes = retainedBytes;
+	}
+	
+	/**
+	 * Gets the number of bytes that are used on the heap after a garbage collection.
+	 * @return the used heap
+	 */
+	private static long usedHeap(){
+		for( int i = 0; i < 3; i++ ){
+			System.gc();
+		}
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+	
+	/**
+	 * Creates settings with one entry for each closed dockable, each entry visited all the modes.
+	 * @return the new settings
+	 */
+	private ModeSettings<Location, Location> create(){
+		Path[] modes = {
+				manager.getNormalMode().getUniqueIdentifier(),
+				manager.getMinimizedMode().getUniqueIdentifier(),
+				manager.getExternalizedMode().getUniqueIdentifier(),
+				manager.getMaximizedMode().getUniqueIdentifier()
+		};
+		
+		ModeSettings<Location, Location> result = manager.createModeSettings( new LocationSettingConverter( manager.getController() ) );
+		for( int i = 0; i < entries; i++ ){
+			List<Path> history = new ArrayList<Path>();
+			Map<Path, Location> properties = new HashMap<Path, Location>();
+			for( Path mode : modes ){
+				Path copy = new Path( mode.toString() );
+				history.add( copy );
+				properties.put( copy, new Location( copy, "root", new SplitDockProperty( 0.25, 0.25, 0.5, 0.5 ) ) );
+			}
+			result.add( "multi entry" + i, null, properties, history );
+		}
+		return result;
+	}
+	
+	/**
+	 * Executes <code>task</code> on the EDT and waits for its result.
+	 * @param task the task to execute
+	 * @return the result of <code>task</code>
+	 * @throws Exception if <code>task</code> failed
+	 */
+	private static <T> T onEDT( Callable<T> task ) throws Exception{
+		if( EventQueue.isDispatchThread() ){
+			return task.call();
+		}
+		FutureTask<T> future = new FutureTask<T>( task );
+		EventQueue.invokeAndWait( future );
+		try{
+			return future.get();
+		}
+		catch( ExecutionException e ){
+			if( e.getCause() instanceof Exception ){
+				throw (Exception)e.getCause();
+			}
+			throw e;
+		}
+	}
+}
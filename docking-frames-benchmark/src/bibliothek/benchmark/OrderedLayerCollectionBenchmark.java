@@ -0,0 +1,99 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.station.layer.DefaultDockStationDropLayerFactory;
+import bibliothek.gui.dock.station.layer.OrderedLayerCollection;
+
+/**
+ * Measures how long {@link OrderedLayerCollection} needs to order the drop layers of many stations. The
+ * stations are {@link StackDockStation}s on one {@link SplitDockStation}, the mouse is assumed to be
+ * over all of them.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class OrderedLayerCollectionBenchmark {
+	@Param({ "10", "100", "1000", "10000" })
+	public int stations;
+	
+	private DockController controller;
+	private OrderedLayerCollection collection;
+	
+	@Setup( Level.Trial )
+	public void setup(){
+		controller = new DockController();
+		Dockable[] stacks = new Dockable[ stations ];
+		for( int i = 0; i < stations; i++ ){
+			StackDockStation stack = new StackDockStation();
+			stack.drop( SyntheticLayouts.createDockables( 1 )[0] );
+			stacks[i] = stack;
+		}
+		SplitDockStation root = SyntheticLayouts.createStation( controller, stacks, 1 );
+		
+		collection = new OrderedLayerCollection( new DefaultDockStationDropLayerFactory() );
+		collection.add( root );
+		for( Dockable stack : stacks ){
+			collection.add( stack.asDockStation() );
+		}
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown(){
+		controller.kill();
+	}
+	
+	@Benchmark
+	public List<DockStation> order(){
+		return collection.order( collection.listLayers() );
+	}
+}
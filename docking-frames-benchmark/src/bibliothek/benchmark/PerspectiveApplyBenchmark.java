@@ -0,0 +1,147 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.EventQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.CGrid;
+import bibliothek.gui.dock.common.CGridArea;
+import bibliothek.gui.dock.common.DefaultSingleCDockable;
+import bibliothek.gui.dock.common.perspective.AbstractCDockablePerspective;
+import bibliothek.gui.dock.common.perspective.CControlPerspective;
+import bibliothek.gui.dock.common.perspective.CPerspective;
+
+/**
+ * Measures how long {@link CControlPerspective#setPerspective(CPerspective, boolean, boolean)} needs to
+ * apply a perspective that differs from the current layout in only one of many areas, once rebuilding
+ * all the stations and once rebuilding only the stations that changed. Each invocation applies two
+ * perspectives, such that the layout is the same before and after the invocation. The perspectives are
+ * converted on the benchmark thread, only the live parts run on the EDT.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class PerspectiveApplyBenchmark {
+	@Param({ "10" })
+	public int areas;
+
+	@Param({ "50" })
+	public int dockables;
+
+	@Param({ "false", "true" })
+	public boolean incremental;
+
+	private CControl control;
+	private CControlPerspective perspectives;
+	private CPerspective original;
+	private CPerspective changed;
+
+	@Setup( Level.Trial )
+	public void setup() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control = new CControl();
+				for( int a = 0; a < areas; a++ ){
+					CGridArea area = control.createGridArea( "area" + a );
+					CGrid grid = new CGrid( control );
+					for( int i = 0; i < dockables; i++ ){
+						grid.add( i % 5, i / 5, 1, 1, new DefaultSingleCDockable( "dockable " + a + " " + i ) );
+					}
+					area.deploy( grid );
+				}
+				return null;
+			}
+		});
+
+		perspectives = control.getPerspectives();
+		original = perspectives.getPerspective( true );
+		changed = perspectives.getPerspective( true );
+		changed.storeLocations();
+		((AbstractCDockablePerspective)changed.getDockable( control.getRegister().toSingleId( "dockable 0 0" ) )).remove();
+	}
+
+	@TearDown( Level.Trial )
+	public void tearDown() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control.destroy();
+				return null;
+			}
+		});
+	}
+
+	@Benchmark
+	public void apply(){
+		perspectives.setPerspective( changed, true, incremental );
+		perspectives.setPerspective( original, true, incremental );
+	}
+
+	/**
+	 * Executes <code>task</code> on the EDT and waits for its result.
+	 * @param task the task to execute
+	 * @return the result of <code>task</code>
+	 * @throws Exception if <code>task</code> failed
+	 */
+	private static <T> T onEDT( Callable<T> task ) throws Exception{
+		if( EventQueue.isDispatchThread() ){
+			return task.call();
+		}
+		FutureTask<T> future = new FutureTask<T>( task );
+		EventQueue.invokeAndWait( future );
+		try{
+			return future.get();
+		}
+		catch( ExecutionException e ){
+			if( e.getCause() instanceof Exception ){
+				throw (Exception)e.getCause();
+			}
+			throw e;
+		}
+	}
+}
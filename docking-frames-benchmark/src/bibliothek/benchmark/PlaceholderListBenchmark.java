@@ -0,0 +1,106 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.station.support.DockablePlaceholderList;
+import bibliothek.gui.dock.station.support.PlaceholderList;
+import bibliothek.gui.dock.station.support.PlaceholderList.Level;
+import bibliothek.util.Path;
+
+/**
+ * Measures searching placeholders, converting indices and moving dockables in a {@link PlaceholderList}
+ * that contains many placeholders.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class PlaceholderListBenchmark {
+	@Param({ "10", "100", "1000", "10000" })
+	public int placeholders;
+	
+	@Param({ "100" })
+	public int dockables;
+	
+	private DockablePlaceholderList<Dockable> list;
+	private Path[] paths;
+	private Random random;
+	
+	@Setup( org.openjdk.jmh.annotations.Level.Trial )
+	public void setup(){
+		random = new Random( 42 );
+		paths = new Path[ placeholders ];
+		list = new DockablePlaceholderList<Dockable>();
+		for( int i = 0; i < placeholders; i++ ){
+			paths[i] = new Path( "benchmark", "placeholder" + i );
+			list.list().insertPlaceholder( random.nextInt( list.list().size() + 1 ), paths[i] );
+		}
+		for( Dockable dockable : SyntheticLayouts.createDockables( dockables ) ){
+			list.dockables().add( random.nextInt( list.dockables().size() + 1 ), dockable );
+		}
+	}
+	
+	@Benchmark
+	public int search(){
+		return list.getListIndex( paths[ random.nextInt( placeholders ) ] );
+	}
+	
+	@Benchmark
+	public int baseToLevel(){
+		return list.baseToLevel( random.nextInt( list.list().size() ), Level.PLACEHOLDER );
+	}
+	
+	@Benchmark
+	public int levelToBase(){
+		return list.levelToBase( random.nextInt( dockables ), Level.DOCKABLE );
+	}
+	
+	@Benchmark
+	public Dockable removeAndAdd(){
+		Dockable dockable = list.dockables().remove( random.nextInt( dockables ) );
+		list.dockables().add( random.nextInt( dockables ), dockable );
+		return dockable;
+	}
+}
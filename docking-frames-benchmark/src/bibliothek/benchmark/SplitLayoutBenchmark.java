@@ -0,0 +1,96 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.Rectangle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.station.split.DockableSplitDockTree;
+import bibliothek.gui.dock.station.split.SplitDockTree;
+import bibliothek.gui.dock.station.split.SplitLayoutEngine;
+
+/**
+ * Compares the cost of updating the boundaries of a live {@link SplitDockStation} with the cost of
+ * computing the same boundaries with a headless {@link SplitLayoutEngine}.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class SplitLayoutBenchmark {
+	@Param({ "10", "100", "1000", "10000" })
+	public int dockables;
+	
+	private DockController controller;
+	private SplitDockStation station;
+	private DockableSplitDockTree tree;
+	private SplitLayoutEngine engine;
+	private Rectangle bounds;
+	
+	@Setup( Level.Trial )
+	public void setup(){
+		controller = new DockController();
+		station = SyntheticLayouts.createStation( controller, SyntheticLayouts.createDockables( dockables ) );
+		tree = station.createTree();
+		engine = new SplitLayoutEngine( station.getDividerSize(), station.getMinimumLeafSize() );
+		bounds = station.getRoot().getBaseBounds();
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown(){
+		controller.kill();
+	}
+	
+	@Benchmark
+	public void station(){
+		station.updateBounds();
+	}
+	
+	@Benchmark
+	public SplitLayoutEngine.Result<SplitDockTree<Dockable>.Key> engine(){
+		return engine.layout( tree, bounds );
+	}
+}
@@ -0,0 +1,159 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.Container;
+import java.awt.EventQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.extension.gui.dock.theme.FlatTheme;
+import bibliothek.gui.DockController;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.station.stack.StackDockComponent;
+import bibliothek.gui.dock.station.stack.tab.AbstractTabPane;
+import bibliothek.gui.dock.station.stack.tab.MenuLineLayout;
+
+/**
+ * Measures one layout pass of a {@link StackDockStation} with many tabs, once while its width changes, as it
+ * happens while the user drags the divider of a split station, and once without any change. The station uses
+ * the {@link FlatTheme}, whose tabs are laid out by a {@link MenuLineLayout}.<br>
+ * A {@link MenuLineLayout} only reuses its layouts while the tabs are valid. The benchmark does not need a frame
+ * to validate the tabs: it makes the stack displayable by calling {@link Container#addNotify()}, which works
+ * in a headless environment as well. Each pass then invalidates and validates the stack, like a frame
+ * would do. The components are built on the EDT, the passes run on the benchmark thread, which is safe since
+ * the components are never shown.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class StackTabLayoutBenchmark {
+	@Param({ "10", "40", "100" })
+	public int dockables;
+	
+	private DockController controller;
+	private Container component;
+	private int pass;
+	
+	@Setup( Level.Trial )
+	public void setup() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				controller = new DockController();
+				controller.setTheme( new FlatTheme() );
+				StackDockStation station = new StackDockStation();
+				controller.add( station );
+				for( int i = 0; i < dockables; i++ ){
+					station.drop( new DefaultDockable( "Dockable with a long title " + i ) );
+				}
+				
+				StackDockComponent stack = station.getStackComponent();
+				if( !(stack instanceof AbstractTabPane) || !(stack.getComponent() instanceof Container) ){
+					throw new IllegalStateException( "the theme does not use a TabPane: " + stack.getClass().getName() );
+				}
+				component = (Container)stack.getComponent();
+				component.setSize( 300, 400 );
+				component.addNotify();
+				component.validate();
+				return null;
+			}
+		});
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				component.removeNotify();
+				controller.kill();
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public int resize(){
+		// resizing back and forth, like a divider that is moved by the user
+		component.setSize( 300 + (pass++ % 50) * 10, 400 );
+		return layout();
+	}
+	
+	@Benchmark
+	public int noResize(){
+		return layout();
+	}
+	
+	private int layout(){
+		int size = component.getPreferredSize().width + component.getMinimumSize().width;
+		component.invalidate();
+		component.validate();
+		return size;
+	}
+	
+	/**
+	 * Executes <code>task</code> on the EDT and waits for its result.
+	 * @param task the task to execute
+	 * @return the result of <code>task</code>
+	 * @throws Exception if <code>task</code> failed
+	 */
+	private static <T> T onEDT( Callable<T> task ) throws Exception{
+		if( EventQueue.isDispatchThread() ){
+			return task.call();
+		}
+		FutureTask<T> future = new FutureTask<T>( task );
+		EventQueue.invokeAndWait( future );
+		try{
+			return future.get();
+		}
+		catch( ExecutionException e ){
+			if( e.getCause() instanceof Exception ){
+				throw (Exception)e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.gui.dock.common.CGrid;
+import bibliothek.gui.dock.common.CGridArea;
+import bibliothek.gui.dock.common.DefaultSingleCDockable;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+
+/**
+ * Builds the synthetic layouts used by the benchmarks. All layouts consist of a grid of cells, each cell
+ * holding a stack of up to {@link #STACK_SIZE} dockables.
+ * @author Benjamin Sigg
+ */
+final class SyntheticLayouts {
+	/** the maximum number of dockables in one stack */
+	public static final int STACK_SIZE = 5;
+	
+	private SyntheticLayouts(){
+		// nothing
+	}
+	
+	/**
+	 * Creates <code>count</code> new dockables.
+	 * @param count the number of dockables
+	 * @return the new dockables
+	 */
+	public static Dockable[] createDockables( int count ){
+		Dockable[] result = new Dockable[ count ];
+		for( int i = 0; i < count; i++ ){
+			result[i] = new DefaultDockable( "dockable " + i );
+		}
+		return result;
+	}
+	
+	/**
+	 * Creates a new {@link SplitDockStation}, registers it at <code>controller</code> and fills it
+	 * with <code>dockables</code>.
+	 * @param controller the controller to use, can be <code>null</code>
+	 * @param dockables the children of the station
+	 * @return the new station
+	 */
+	public static SplitDockStation createStation( DockController controller, Dockable[] dockables ){
+		return createStation( controller, dockables, STACK_SIZE );
+	}
+	
+	/**
+	 * Creates a new {@link SplitDockStation}, registers it at <code>controller</code> and fills it
+	 * with <code>dockables</code>.
+	 * @param controller the controller to use, can be <code>null</code>
+	 * @param dockables the children of the station
+	 * @param stackSize the maximum number of dockables in one cell
+	 * @return the new station
+	 */
+	public static SplitDockStation createStation( DockController controller, Dockable[] dockables, int stackSize ){
+		SplitDockStation station = new SplitDockStation();
+		if( controller != null ){
+			controller.add( station );
+		}
+		station.setSize( 1600, 1200 );
+		
+		SplitDockGrid grid = new SplitDockGrid();
+		int columns = columns( dockables.length, stackSize );
+		for( int i = 0, cell = 0; i < dockables.length; i += stackSize, cell++ ){
+			Dockable[] stack = new Dockable[ Math.min( stackSize, dockables.length - i ) ];
+			System.arraycopy( dockables, i, stack, 0, stack.length );
+			grid.addDockable( cell % columns, cell / columns, 1, 1, stack );
+		}
+		station.dropTree( grid.toTree() );
+		return station;
+	}
+	
+	/**
+	 * Creates <code>count</code> {@link DefaultSingleCDockable}s and deploys them on a new
+	 * {@link CGridArea} of <code>control</code>. The {@link CControl#getContentArea() content area}
+	 * is not used because its minimize areas require a screen.
+	 * @param control the control to fill
+	 * @param count the number of dockables
+	 * @return the area showing the dockables
+	 */
+	public static CGridArea fill( CControl control, int count ){
+		CGrid grid = new CGrid( control );
+		int columns = columns( count, STACK_SIZE );
+		for( int i = 0, cell = 0; i < count; i += STACK_SIZE, cell++ ){
+			int size = Math.min( STACK_SIZE, count - i );
+			DefaultSingleCDockable[] stack = new DefaultSingleCDockable[ size ];
+			for( int j = 0; j < size; j++ ){
+				stack[j] = new DefaultSingleCDockable( "dockable" + (i+j), "Dockable " + (i+j) );
+			}
+			grid.add( cell % columns, cell / columns, 1, 1, stack );
+		}
+		CGridArea area = control.createGridArea( "benchmark" );
+		area.deploy( grid );
+		return area;
+	}
+	
+	private static int columns( int dockables, int stackSize ){
+		int cells = (dockables + stackSize - 1) / stackSize;
+		return Math.max( 1, (int)Math.ceil( Math.sqrt( cells )));
+	}
+}
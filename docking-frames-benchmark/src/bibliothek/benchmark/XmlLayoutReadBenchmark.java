@@ -0,0 +1,165 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.layout.DockLayoutComposition;
+import bibliothek.gui.dock.layout.DockSituation;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+
+/**
+ * Compares the peak heap usage and the time of reading a large layout with {@link XIO#readUTF(java.io.InputStream)}
+ * and {@link DockSituation#readCompositionsXML(XElement)} against reading the same layout with
+ * {@link XIO#readerUTF(java.io.InputStream)} and {@link DockSituation#readCompositionsXML(XReader)}.<br>
+ * Each iteration reads the layout once after a garbage collection, the counter <code>peakHeap</code> reports
+ * by how many bytes the peak usage of the heap grew while reading.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.SingleShotTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 10 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class XmlLayoutReadBenchmark {
+	@Param({ "1000", "5000" })
+	public int dockables;
+	
+	@Param({ "false", "true" })
+	public boolean streaming;
+	
+	private DockController controller;
+	private DockSituation situation;
+	private byte[] data;
+	
+	/**
+	 * Reports how much the heap grew while reading the layout.
+	 */
+	@State( Scope.Thread )
+	@AuxCounters( AuxCounters.Type.EVENTS )
+	public static class Heap {
+		/** by how many bytes the peak usage of the heap grew in the current iteration */
+		public long peakHeap;
+		
+		private long before;
+		
+		@Setup( Level.Iteration )
+		public void before(){
+			System.gc();
+			for( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ){
+				pool.resetPeakUsage();
+			}
+			before = peak();
+			peakHeap = 0;
+		}
+		
+		/**
+		 * Stores the growth of the heap since {@link #before()} was called.
+		 */
+		public void after(){
+			peakHeap = peak() - before;
+		}
+		
+		private long peak(){
+			long sum = 0;
+			for( MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans() ){
+				if( pool.getType() == MemoryType.HEAP ){
+					sum += pool.getPeakUsage().getUsed();
+				}
+			}
+			return sum;
+		}
+	}
+	
+	@Setup( Level.Trial )
+	public void setup() throws IOException{
+		controller = new DockController();
+		SplitDockStation station = SyntheticLayouts.createStation( controller, SyntheticLayouts.createDockables( dockables ) );
+		
+		situation = new DockSituation( controller );
+		Map<String, DockStation> roots = new HashMap<String, DockStation>();
+		roots.put( "root", station );
+		
+		XElement element = new XElement( "root" );
+		situation.writeXML( roots, element );
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XIO.writeUTF( element, out );
+		data = out.toByteArray();
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown(){
+		controller.kill();
+	}
+	
+	@Benchmark
+	public Map<String, DockLayoutComposition> read( Heap heap ) throws IOException{
+		Map<String, DockLayoutComposition> result;
+		if( streaming ){
+			XReader reader = XIO.readerUTF( new ByteArrayInputStream( data ));
+			try{
+				result = situation.readCompositionsXML( reader );
+			}
+			finally{
+				reader.close();
+			}
+		}
+		else{
+			result = situation.readCompositionsXML( XIO.readUTF( new ByteArrayInputStream( data )));
+		}
+		heap.after();
+		return result;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.benchmark;
+
+import java.awt.EventQueue;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bibliothek.gui.dock.common.CControl;
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XWriter;
+
+/**
+ * Compares the time of saving a large {@link CControl} layout with {@link CControl#writeXML(XElement)} and
+ * {@link XIO#writeUTF(XElement, java.io.OutputStream)} against saving the same layout with
+ * {@link CControl#writeXML(java.io.OutputStream)}, which uses a {@link XWriter}. Run with <code>-prof gc</code>
+ * to compare the number of bytes allocated by one write. Every tenth dockable is invisible, hence the layout
+ * also contains the locations of invisible dockables. All operations are executed on the EDT.
+ * @author Benjamin Sigg
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( value = 1, jvmArgsAppend = "-Djava.awt.headless=true" )
+public class XmlLayoutWriteBenchmark {
+	@Param({ "100", "2000" })
+	public int dockables;
+	
+	@Param({ "false", "true" })
+	public boolean streaming;
+	
+	private CControl control;
+	
+	@Setup( Level.Trial )
+	public void setup() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call() throws IOException{
+				control = new CControl();
+				SyntheticLayouts.fill( control, dockables );
+				for( int i = 0; i < dockables; i += 10 ){
+					control.getSingleDockable( "dockable" + i ).setVisible( false );
+				}
+				
+				if( !Arrays.equals( writeTree(), writeStream() )){
+					throw new IllegalStateException( "the tree and the stream do not write the same layout" );
+				}
+				return null;
+			}
+		});
+	}
+	
+	@TearDown( Level.Trial )
+	public void tearDown() throws Exception{
+		onEDT( new Callable<Void>(){
+			public Void call(){
+				control.destroy();
+				return null;
+			}
+		});
+	}
+	
+	@Benchmark
+	public byte[] write() throws Exception{
+		return onEDT( new Callable<byte[]>(){
+			public byte[] call() throws IOException{
+				if( streaming ){
+					return writeStream();
+				}
+				else{
+					return writeTree();
+				}
+			}
+		});
+	}
+	
+	private byte[] writeTree() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XElement root = new XElement( "root" );
+		control.writeXML( root );
+		XIO.writeUTF( root, out );
+		return out.toByteArray();
+	}
+	
+	private byte[] writeStream() throws IOException{
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		control.writeXML( out );
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Executes <code>task</code> on the EDT and waits for its result. A {@link CControl} posts events to
+	 * the EDT, so it must not be used by the benchmark thread directly.
+	 * @param task the task to execute
+	 * @return the result of <code>task</code>
+	 * @throws Exception if <code>task</code> failed
+	 */
+	private static <T> T onEDT( Callable<T> task ) throws Exception{
+		if( EventQueue.isDispatchThread() ){
+			return task.call();
+		}
+		FutureTask<T> future = new FutureTask<T>( task );
+		EventQueue.invokeAndWait( future );
+		try{
+			return future.get();
+		}
+		catch( ExecutionException e ){
+			if( e.getCause() instanceof Exception ){
+				throw (Exception)e.getCause();
+			}
+			throw e;
+		}
+	}
+}
@@ -38,9 +38,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -101,6 +102,7 @@ import bibliothek.gui.dock.common.intern.CommonMultipleDockableLayout;
 import bibliothek.gui.dock.common.intern.CommonSingleDockableFactory;
 import bibliothek.gui.dock.common.intern.ControlVetoClosingListener;
 import bibliothek.gui.dock.common.intern.ControlVetoFocusListener;
+import bibliothek.gui.dock.common.intern.DefaultCControlRegister;
 import bibliothek.gui.dock.common.intern.EfficientControlFactory;
 import bibliothek.gui.dock.common.intern.MutableCControlRegister;
 import bibliothek.gui.dock.common.intern.action.CActionImportanceOrder;
@@ -143,6 +145,7 @@ import bibliothek.gui.dock.control.relocator.DefaultDockRelocator;
 import bibliothek.gui.dock.disable.DisablingStrategy;
 import bibliothek.gui.dock.displayer.SingleTabDecider;
 import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
+import bibliothek.gui.dock.dockable.LazyDockable;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
@@ -153,7 +156,9 @@ import bibliothek.gui.dock.facile.mode.LocationModeManager;
 import bibliothek.gui.dock.facile.station.split.ConflictResolver;
 import bibliothek.gui.dock.facile.station.split.DefaultConflictResolver;
 import bibliothek.gui.dock.focus.DockableSelection;
+import bibliothek.gui.dock.frontend.AsyncLayoutRestore;
 import bibliothek.gui.dock.frontend.FrontendEntry;
+import bibliothek.gui.dock.frontend.LayoutRestoreListener;
 import bibliothek.gui.dock.frontend.MissingDockableStrategy;
 import bibliothek.gui.dock.layout.DockSituationIgnore;
 import bibliothek.gui.dock.layout.DockableProperty;
@@ -176,6 +181,7 @@ import bibliothek.gui.dock.station.support.PlaceholderStrategy;
 import bibliothek.gui.dock.support.mode.HistoryRewriter;
 import bibliothek.gui.dock.support.util.ApplicationResource;
 import bibliothek.gui.dock.support.util.ApplicationResourceManager;
+import bibliothek.gui.dock.support.util.StreamingApplicationResource;
 import bibliothek.gui.dock.themes.BasicTheme;
 import bibliothek.gui.dock.themes.ColorScheme;
 import bibliothek.gui.dock.themes.ThemeFactory;
@@ -202,6 +208,8 @@ import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
 import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * Manages the interaction between {@link SingleCDockable}, {@link MultipleCDockable}
@@ -904,7 +912,7 @@ public class CControl {
         try{
         	addMultipleDockableFactory( "", NullMultipleCDockableFactory.NULL, false );
         	
-            resources.put( "ccontrol.frontend", new ApplicationResource(){
+            resources.put( "ccontrol.frontend", new StreamingApplicationResource(){
                 public void write( DataOutputStream out ) throws IOException {
                     Version.write( out, Version.VERSION_1_1_1 );
                     frontend.write( out );
@@ -920,9 +928,24 @@ public class CControl {
                 public void writeXML( XElement element ) {
                     frontend.writeXML( element.addElement( "frontend" ) );
                 }
+                public void writeXML( XWriter writer ) throws IOException {
+                	writer.startElement( "frontend" );
+                	frontend.writeXML( writer );
+                	writer.endElement();
+                }
                 public void readXML( XElement element ) {
                     frontend.readXML( element.getElement( "frontend" ) );
                 }
+                public void readXML( XReader reader ) throws IOException {
+                	while( reader.nextChild() ){
+                		if( "frontend".equals( reader.getName() )){
+                			frontend.readXML( reader );
+                		}
+                		else{
+                			reader.skipElement();
+                		}
+                	}
+                }
             });
 
             resources.put( "ccontrol.preferences", new ApplicationResource(){
@@ -1750,12 +1773,7 @@ public class CControl {
      * @return the element with that identifier or <code>null</code>
      */
     public SingleCDockable getSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return dockable;
-            }
-        }
-        return null;
+        return register.getSingleDockable( id );
     }
 
     /**
@@ -1765,12 +1783,11 @@ public class CControl {
      * otherwise
      */
     public boolean removeSingleDockable( String id ){
-        for( SingleCDockable dockable : register.getSingleDockables() ){
-            if( dockable.getUniqueId().equals( id )){
-                return removeDockable( dockable );
-            }
+        SingleCDockable dockable = register.getSingleDockable( id );
+        if( dockable == null ){
+            return false;
         }
-        return false;
+        return removeDockable( dockable );
     }
     
     /**
@@ -1935,8 +1952,6 @@ public class CControl {
      * or is not registered (see {@link #addMultipleDockableFactory(String, MultipleCDockableFactory)}).
      */
     public <M extends MultipleCDockable> M addDockable( M dockable) {
-        Set<String> ids = new HashSet<String>();
-
         String factoryId;
         MultipleCDockableFactory<?, ?> factory = dockable.getFactory();
         if( factory == null ){
@@ -1949,15 +1964,9 @@ public class CControl {
         }        	
         
 
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( factoryId.equals( access.getFactoryId( multi.getFactory() ))){
-                ids.add( accesses.get( multi ).getUniqueId() );
-            }
-        }
-
         int count = 0;
         String id = count + " " + factoryId;
-        while( ids.contains( register.toMultiId( id ) ) ){
+        while( findMultipleDockable( id ) != null ){
             count++;
             id = count + " " + factoryId;
         }
@@ -1993,15 +2002,12 @@ public class CControl {
         if( dockable.getControl() != null )
             throw new IllegalStateException( "dockable is already part of a control" );
 
-        uniqueId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            String id = accesses.get( multi ).getUniqueId();
-            if( uniqueId.equals( id )){
-                throw new IllegalArgumentException( "The unique identifier is already in use: " + uniqueId );
-            }
+        if( findMultipleDockable( uniqueId ) != null ){
+            throw new IllegalArgumentException( "The unique identifier is already in use: " + register.toMultiId( uniqueId ) );
         }
 
+        uniqueId = register.toMultiId( uniqueId );
+
         dockable.setControlAccess( access );
         accesses.get( dockable ).setUniqueId( uniqueId );
         
@@ -2067,9 +2073,24 @@ public class CControl {
      * was found
      */
     public MultipleCDockable getMultipleDockable( String id ){
+        return findMultipleDockable( id );
+    }
+    
+    /**
+     * Searches the {@link MultipleCDockable} with unique identifier <code>id</code>. A
+     * {@link DefaultCControlRegister} knows the dockables by their identifiers, other
+     * registers are searched linearly.
+     * @param id the identifier to look out for
+     * @return the element using <code>id</code> or <code>null</code>
+     */
+    private MultipleCDockable findMultipleDockable( String id ){
+        if( register instanceof DefaultCControlRegister ){
+            return ((DefaultCControlRegister)register).getMultipleDockable( id );
+        }
+        
         id = register.toMultiId( id );
         for( MultipleCDockable dockable : register.getMultipleDockables() ){
-            if( accesses.get( dockable ).getUniqueId().equals( id )){
+            if( id.equals( accesses.get( dockable ).getUniqueId() )){
                 return dockable;
             }
         }
@@ -2132,12 +2153,8 @@ public class CControl {
     private boolean shouldCreate( MultipleCDockableFactory<?, ?> factory, CommonMultipleDockableLayout layout ){
         String uniqueId = layout.getId();
 
-        String multiId = register.toMultiId( uniqueId );
-
-        for( MultipleCDockable multi : register.getMultipleDockables() ){
-            if( accesses.get( multi ).getUniqueId().equals( multiId )){
-                return false;
-            }
+        if( findMultipleDockable( uniqueId ) != null ){
+            return false;
         }
 
         String factoryId = access.getFactoryId( factory );
@@ -2619,11 +2636,29 @@ public class CControl {
      * @throws IOException if the file is not writable
      */
     public void writeXML( File file ) throws IOException{
-        XElement root = new XElement( "root" );
-        getResources().writeXML( root );
         BufferedOutputStream out = new BufferedOutputStream( new FileOutputStream( file ));
-        XIO.writeUTF( root, out );
-        out.close();
+        try{
+        	writeXML( out );
+        }
+        finally{
+        	out.close();
+        }
+    }
+    
+    /**
+     * Writes the current and all known layouts into <code>out</code> in xml format using the 
+     * <code>UTF-8</code> encoding. Other than {@link #writeXML(XElement)} this method does not
+     * build up the whole xml tree in memory, the layout is written directly into <code>out</code>.
+     * The stream is not closed by this method.
+     * @param out the stream to write into
+     * @throws IOException if the stream is not writable
+     */
+    public void writeXML( OutputStream out ) throws IOException{
+        XWriter writer = XIO.writerUTF( out );
+        writer.startElement( "root" );
+        getResources().writeXML( writer );
+        writer.endElement();
+        writer.close();
     }
     
     /**
@@ -2664,9 +2699,31 @@ public class CControl {
      */
     public void readXML( File file ) throws IOException{
         BufferedInputStream in = new BufferedInputStream( new FileInputStream( file ));
-        XElement element = XIO.readUTF( in );
-        in.close();
-        readXML( element );
+        try{
+        	readXML( in );
+        }
+        finally{
+        	in.close();
+        }
+    }
+    
+    /**
+     * Reads the current and other known layouts from <code>in</code>, which must contain
+     * a xml file using the <code>UTF-8</code> encoding. Other than {@link #readXML(XElement)} this
+     * method does not build up the whole xml tree in memory, the layout is read directly from
+     * <code>in</code>. The stream is not closed by this method.
+     * @param in the stream to read from
+     * @throws IOException if the stream cannot be read
+     * @throws XException if the xml file has the wrong structure
+     */
+    public void readXML( InputStream in ) throws IOException{
+        XReader reader = XIO.readerUTF( in );
+        try{
+        	getResources().readXML( reader );
+        }
+        finally{
+        	reader.close();
+        }
     }
 
     /**
@@ -2698,18 +2755,22 @@ public class CControl {
     
     /**
      * Stores the current layout with the given name. This creates "entry" (partial) layout information.
+     * Before saving, unused histories are {@link CLocationModeManager#pruneHistory() pruned}.
      * @param name the name of the current layout.
      */
     public void save( String name ){
+        locationManager.pruneHistory();
         frontend.save( name );
     }
     /**
      * Stores the current layout with the given name. This creates "entry" (partial) layout information.
+     * Before saving, unused histories are {@link CLocationModeManager#pruneHistory() pruned}.
      * @param name the name of the current layout.
      * @param includeWorkingAreas whether the content of the {@link CStation}s that are marked as
      * {@link CStation#isWorkingArea() working area} should be stored as well.
      */
     public void save( String name, boolean includeWorkingAreas ){
+        locationManager.pruneHistory();
         frontend.save( name, !includeWorkingAreas );
     }
 
@@ -2732,6 +2793,23 @@ public class CControl {
         frontend.load( name, !includeWorkingAreas );
     }
 
+    /**
+     * Loads an earlier stored layout, but postpones the creation of expensive contents. The layout
+     * itself is applied immediately, {@link CDockable}s whose {@link CDockable#intern() intern} representation
+     * is a {@link LazyDockable} show a placeholder until their content is realized in a later EDT task.
+     * Visible dockables are realized first.
+     * @param name the name of the layout.
+     * @param includeWorkingAreas whether the content of the {@link CStation}s that are marked as
+     * {@link CStation#isWorkingArea() working area} should be updated as well. This value should be the same
+     * as was used to call {@link #save(String, boolean)}.
+     * @param listener informed about the progress of the restore, can be <code>null</code>
+     * @return the object realizing the dockables, can be used to wait for or to cancel the restore
+     * @see DockFrontend#loadAsync(String, boolean, LayoutRestoreListener)
+     */
+    public AsyncLayoutRestore loadAsync( String name, boolean includeWorkingAreas, LayoutRestoreListener listener ){
+        return frontend.loadAsync( name, !includeWorkingAreas, listener );
+    }
+
     /**
      * Deletes a layout that has been stored earlier.
      * @param name the name of the layout to delete
@@ -38,7 +38,10 @@ import bibliothek.util.ClientOnly;
 /**
  * A <code>DefaultSingleCDockable</code> is an element which has a 
  * {@link #getContentPane() content-pane} where clients can add or remove as many
- * {@link java.awt.Component}s as they whish.
+ * {@link java.awt.Component}s as they whish.<br>
+ * If the content is expensive to create, then clients can set a
+ * {@link #setContentSupplier(bibliothek.gui.dock.dockable.DockableContentSupplier) content supplier}
+ * instead of filling the content-pane, the content is then created when the dockable is shown for the first time.
  * @author Benjamin Sigg
  * @see SingleCDockable
  */
@@ -143,7 +143,7 @@ public class CDockFrontend extends DockFrontend{
     }
 
     @Override
-    public void setSetting( final Setting setting, final boolean entry ) {
+    public void setSetting( final Setting setting, final boolean entry, final boolean incremental ) {
     	for( CDockFrontendListener listener : frontendListeners() ){
     		listener.loading( this, (CSetting)setting );
     	}
@@ -159,7 +159,7 @@ public class CDockFrontend extends DockFrontend{
 	        // set new layout as transaction, preventing the manager to react on events
 	        manager.runLayoutTransaction( new Runnable() {
 				public void run(){
-					CDockFrontend.super.setSetting( setting, entry );		
+					CDockFrontend.super.setSetting( setting, entry, incremental );		
 				}
 	        });
 
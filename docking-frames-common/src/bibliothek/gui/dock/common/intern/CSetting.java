@@ -38,6 +38,9 @@ import bibliothek.gui.dock.support.mode.ModeSettings;
 import bibliothek.util.FrameworkOnly;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * A {@link Setting} that stores also the contents of a {@link CLocationModeManager}.
@@ -77,6 +80,23 @@ public class CSetting extends Setting{
         modes.writeXML( element.addElement( "modes" ) );
     }
     
+    @Override
+    public void writeXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XWriter writer ) throws IOException{
+    	writer.startElement( "base" );
+    	super.writeXML( situation, transformer, entry, writer );
+    	writer.endElement();
+    	writer.startElement( "modes" );
+    	if( XIO.isStreamingSupported( modes.getClass(), "writeXML", new Class<?>[]{ XElement.class }, new Class<?>[]{ XWriter.class } )){
+    		modes.writeXML( writer );
+    	}
+    	else{
+    		XElement xmodes = new XElement( "modes" );
+    		modes.writeXML( xmodes );
+    		writer.contents( xmodes );
+    	}
+    	writer.endElement();
+    }
+    
     @Override
     public void read( DockSituation situation, PropertyTransformer transformer, boolean entry, DataInputStream in ) throws IOException {
         
@@ -106,4 +126,20 @@ public class CSetting extends Setting{
         super.readXML( situation, transformer, entry, element.getElement( "base" ) );
         modes.readXML( element.getElement( "modes" ) );
     }
+    
+    @Override
+    public void readXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XReader reader ) throws IOException{
+    	while( reader.nextChild() ){
+    		String name = reader.getName();
+    		if( "base".equals( name )){
+    			super.readXML( situation, transformer, entry, reader );
+    		}
+    		else if( "modes".equals( name )){
+    			modes.readXML( reader.readElement() );
+    		}
+    		else{
+    			reader.skipElement();
+    		}
+    	}
+    }
 }
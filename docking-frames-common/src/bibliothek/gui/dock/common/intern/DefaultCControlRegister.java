@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,6 +44,7 @@ import bibliothek.gui.dock.common.MultipleCDockable;
 import bibliothek.gui.dock.common.MultipleCDockableFactory;
 import bibliothek.gui.dock.common.SingleCDockable;
 import bibliothek.gui.dock.common.SingleCDockableFactory;
+import bibliothek.gui.dock.common.mode.CLocationModeManager;
 import bibliothek.gui.dock.common.mode.ExtendedMode;
 import bibliothek.gui.dock.frontend.FrontendEntry;
 
@@ -82,6 +84,24 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     private List<MultipleCDockable> multiDockables = 
         new ArrayList<MultipleCDockable>();
     
+    /** all {@link SingleCDockable}s accessible through their unique identifier */
+    private Map<String, SingleCDockable> singleDockablesById =
+        new HashMap<String, SingleCDockable>();
+    
+    /** all {@link MultipleCDockable}s accessible through their unique identifier */
+    private Map<String, MultipleCDockable> multiDockablesById =
+        new HashMap<String, MultipleCDockable>();
+    
+    /** the unique identifiers of the {@link MultipleCDockable}s at the time they were added */
+    private Map<MultipleCDockable, String> multiDockableIds =
+        new IdentityHashMap<MultipleCDockable, String>();
+    
+    /** the visible {@link CDockable}s grouped by their {@link ExtendedMode}, <code>null</code> if not yet built or outdated */
+    private Map<ExtendedMode, List<CDockable>> dockablesByMode;
+    
+    /** the {@link CLocationModeManager#getCurrentModeRevision() revision} of the modes when {@link #dockablesByMode} was built */
+    private int dockablesByModeRevision;
+    
     /** the stations known  */
     private List<CStation<?>> stations = new ArrayList<CStation<?>>();
     
@@ -210,18 +230,37 @@ public class DefaultCControlRegister implements MutableCControlRegister {
     }
     
     /**
-     * Gets a list of all visible {@link CDockable}s in the given mode.
+     * Gets a list of all visible {@link CDockable}s in the given mode. The dockables are grouped
+     * by their mode once, the groups are reused until the {@link CLocationModeManager} reports
+     * that the mode of any dockable may have changed, or until a dockable is added or removed.
      * @param mode the mode which each <code>CDockable</code> must have
      * @return the list of <code>CDockable</code>s
      */
     public List<CDockable> listDockablesInMode( ExtendedMode mode ){
-        List<CDockable> list = new ArrayList<CDockable>();
-        for( CDockable check : dockables ){
-            if( check.isVisible() && check.getExtendedMode() == mode ){
-                list.add( check );
-            }
+        CLocationModeManager modes = control.getLocationManager();
+        if( dockablesByMode == null || dockablesByModeRevision != modes.getCurrentModeRevision() ){
+        	dockablesByMode = new HashMap<ExtendedMode, List<CDockable>>();
+        	for( CDockable check : dockables ){
+        		if( check.isVisible() ){
+        			ExtendedMode current = check.getExtendedMode();
+        			if( current != null ){
+        				List<CDockable> group = dockablesByMode.get( current );
+        				if( group == null ){
+        					group = new ArrayList<CDockable>();
+        					dockablesByMode.put( current, group );
+        				}
+        				group.add( check );
+        			}
+        		}
+        	}
+        	dockablesByModeRevision = modes.getCurrentModeRevision();
+        }
+        
+        List<CDockable> group = dockablesByMode.get( mode );
+        if( group == null ){
+        	return new ArrayList<CDockable>();
         }
-        return list;
+        return new ArrayList<CDockable>( group );
     }
     
     /**
@@ -266,23 +305,35 @@ public class DefaultCControlRegister implements MutableCControlRegister {
 
     public void addMultipleDockable( MultipleCDockable dockable ) {
         dockables.add( dockable );
+        dockablesByMode = null;
         multiDockables.add( dockable );
+        String id = control.getUniqueId( dockable );
+        if( id != null ){
+        	multiDockablesById.put( id, dockable );
+        	multiDockableIds.put( dockable, id );
+        }
     }
 
     public void addSingleDockable( SingleCDockable dockable ) {
         dockables.add( dockable );
+        dockablesByMode = null;
         singleDockables.add( dockable );
+        singleDockablesById.put( dockable.getUniqueId(), dockable );
     }
     
     public SingleCDockable getSingleDockable( String id ){
-	    for( SingleCDockable dockable : singleDockables ){
-	    	if( dockable.getUniqueId().equals( id )){
-	    		return dockable;
-	    	}
-	    }
-	    return null;
+	    return singleDockablesById.get( id );
     }
-
+    
+    /**
+     * Searches the one {@link MultipleCDockable} that was registered with unique id <code>id</code>.
+     * @param id some id to search, the id that was used to add the dockable to the control
+     * @return a dockable with the same id or <code>null</code>
+     */
+    public MultipleCDockable getMultipleDockable( String id ){
+    	return multiDockablesById.get( id );
+    }
+    
     public void addStation( CStation<?> station ) {
     	if( !settingDefaultStations ){
     		checkStationIdentifierUniqueness( station.getUniqueId(), station );
@@ -357,7 +408,12 @@ public class DefaultCControlRegister implements MutableCControlRegister {
 
     public boolean removeMultipleDockable( MultipleCDockable dockable ) {
         if( dockables.remove( dockable ) ){
+            dockablesByMode = null;
             multiDockables.remove( dockable );
+            String id = multiDockableIds.remove( dockable );
+            if( id != null && multiDockablesById.get( id ) == dockable ){
+            	multiDockablesById.remove( id );
+            }
             return true;
         }
         return false;
@@ -365,7 +421,11 @@ public class DefaultCControlRegister implements MutableCControlRegister {
 
     public boolean removeSingleDockable( SingleCDockable dockable ) {
         if( dockables.remove( dockable )){
+            dockablesByMode = null;
             singleDockables.remove( dockable );
+            if( singleDockablesById.get( dockable.getUniqueId() ) == dockable ){
+            	singleDockablesById.remove( dockable.getUniqueId() );
+            }
             return true;
         }
         return false;
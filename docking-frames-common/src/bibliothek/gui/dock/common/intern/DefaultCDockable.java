@@ -31,9 +31,11 @@ import java.awt.LayoutManager;
 
 import javax.swing.Icon;
 
+import bibliothek.gui.dock.DefaultDockable;
 import bibliothek.gui.dock.common.CStation;
 import bibliothek.gui.dock.common.action.CAction;
 import bibliothek.gui.dock.common.action.CSeparator;
+import bibliothek.gui.dock.dockable.DockableContentSupplier;
 import bibliothek.gui.dock.dockable.IconHandling;
 import bibliothek.util.FrameworkOnly;
 
@@ -256,6 +258,42 @@ public class DefaultCDockable extends AbstractCDockable{
         getContentPane().remove( component );
     }
     
+    /**
+     * Sets an object that creates the content of this dockable lazily. The content is created once this
+     * dockable becomes visible for the first time, until then the {@link #getContentPane() content pane}
+     * remains empty. Clients with many dockables that are rarely opened can use this to save time and memory.
+     * @param supplier the supplier creating the content, can be <code>null</code>
+     * @see DefaultDockable#setContentSupplier(DockableContentSupplier)
+     */
+    public void setContentSupplier( DockableContentSupplier supplier ){
+    	intern().setContentSupplier( supplier );
+    }
+    
+    /**
+     * Gets the object that creates the content of this dockable lazily.
+     * @return the supplier, can be <code>null</code>
+     */
+    public DockableContentSupplier getContentSupplier(){
+    	return intern().getContentSupplier();
+    }
+    
+    /**
+     * Sets the time after which the content of a hidden dockable is released again, this property
+     * only has an effect if there is a {@link #setContentSupplier(DockableContentSupplier) content supplier}.
+     * @param delay the delay in milliseconds, -1 if the content should never be released
+     */
+    public void setContentReleaseDelay( int delay ){
+    	intern().setContentReleaseDelay( delay );
+    }
+    
+    /**
+     * Gets the time after which the content of a hidden dockable is released.
+     * @return the delay in milliseconds, -1 if the content is never released
+     */
+    public int getContentReleaseDelay(){
+    	return intern().getContentReleaseDelay();
+    }
+    
     /**
      * Sets the text that is shown as title.
      * @param text the title
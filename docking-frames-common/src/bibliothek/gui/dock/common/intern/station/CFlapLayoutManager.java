@@ -42,6 +42,7 @@ import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
 import bibliothek.gui.dock.station.flap.AbstractFlapLayoutManager;
 import bibliothek.gui.dock.station.flap.FlapLayoutManager;
+import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.FrameworkOnly;
 
 /**
@@ -107,14 +108,26 @@ public class CFlapLayoutManager extends AbstractFlapLayoutManager implements Fla
     
     public void install( FlapDockStation station ) {
         station.addDockStationListener( stationListener );
-        for( int i = 0, n = station.getDockableCount(); i<n; i++ )
-            stationListener.dockableAdded( station, station.getDockable( i ) );
+        DockUtilities.enterLayoutLocked( stationListener );
+        try{
+	        for( int i = 0, n = station.getDockableCount(); i<n; i++ )
+	            stationListener.dockableAdded( station, station.getDockable( i ) );
+        }
+        finally{
+        	DockUtilities.exitLayoutLocked();
+        }
     }
 
     public void uninstall( FlapDockStation station ) {
         station.removeDockStationListener( stationListener );
-        for( int i = 0, n = station.getDockableCount(); i<n; i++ )
-            stationListener.dockableRemoved( station, station.getDockable( i ) );
+        DockUtilities.enterLayoutLocked( stationListener );
+        try{
+	        for( int i = 0, n = station.getDockableCount(); i<n; i++ )
+	            stationListener.dockableRemoved( station, station.getDockable( i ) );
+        }
+        finally{
+        	DockUtilities.exitLayoutLocked();
+        }
     }
 
     public int getSize( FlapDockStation station, Dockable dockable ) {
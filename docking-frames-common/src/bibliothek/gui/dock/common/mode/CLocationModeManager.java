@@ -448,7 +448,7 @@ public class CLocationModeManager extends LocationModeManager<CLocationMode>{
 		
 		final Single<Boolean> result = new Single<Boolean>( false );
 		
-		runTransaction( new AffectingRunnable() {
+		runBatch( new AffectingRunnable() {
 			public void run( AffectedSet set ){
 				for( Dockable dockable : listDockables() ){
 					CLocationMode current = getCurrentMode( dockable );
@@ -481,7 +481,7 @@ public class CLocationModeManager extends LocationModeManager<CLocationMode>{
 	 * such mode is found, then the normal-mode is applied.
 	 */
 	public void resetWorkingAreaChildren(){
-		runTransaction( new AffectingRunnable() {
+		runBatch( new AffectingRunnable() {
 			public void run( AffectedSet set ){
 				for( Dockable dockable : listDockables() ){
 					if( dockable instanceof CommonDockable ){
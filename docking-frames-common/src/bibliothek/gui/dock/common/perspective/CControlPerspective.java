@@ -25,6 +25,7 @@
  */
 package bibliothek.gui.dock.common.perspective;
 
+import java.awt.EventQueue;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -32,6 +33,9 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 import bibliothek.gui.DockFrontend;
 import bibliothek.gui.DockStation;
@@ -80,7 +84,20 @@ import bibliothek.util.xml.XException;
 
 /**
  * A {@link CControlPerspective} is a wrapper around a {@link CControl} allowing
- * access to various {@link CPerspective}s.
+ * access to various {@link CPerspective}s.<br>
+ * The methods of this class can be called from any thread. The parts of a method that need to access 
+ * the {@link CControl} or its {@link Dockable}s are executed on the EventDispatchThread, a caller
+ * running on another thread waits until the EventDispatchThread has executed them. Converting, reading and
+ * writing {@link CPerspective}s happens on the thread of the caller. Hence a background thread can prepare
+ * a layout without blocking the user interface for longer than it takes to collect the live information.<br>
+ * The live information is copied on the EventDispatchThread: the {@link DockFrontend#isEntryLayout(String) entry layout flags},
+ * the {@link MultipleCDockableFactory}s, the {@link MissingPerspectiveStrategy} and the settings of the location manager.
+ * A conversion that runs on another thread still uses the {@link bibliothek.gui.dock.DockFactory}s that are registered
+ * at the {@link CControl} and the identifiers created by the {@link CControl#getRegister() register}. Hence clients must
+ * not add or remove {@link bibliothek.gui.dock.DockFactory}s while such a conversion is running.<br>
+ * A background thread must not call these methods while the EventDispatchThread waits for that background
+ * thread. A {@link CPerspective} itself is not synchronized, it must not be used by more than one thread 
+ * at the same time.
  * @author Benjamin Sigg
  */
 @ClientOnly
@@ -113,6 +130,19 @@ public class CControlPerspective {
      * @return the new perspective
      */
     public CPerspective createEmptyPerspective(){
+    	return onEventThread( new Callable<CPerspective>(){
+			public CPerspective call(){
+				return emptyPerspective();
+			}
+		});
+    }
+    
+    /**
+     * Creates a new {@link CPerspective} that is set up with all the stations of the {@link CControl}. Must
+     * be called on the EventDispatchThread.
+     * @return the new perspective
+     */
+    private CPerspective emptyPerspective(){
     	CPerspective perspective = new CPerspective( control );
     	for( CStation<?> station : control.getOwner().getStations() ){
     		perspective.addStation( station.createPerspective() );
@@ -126,9 +156,15 @@ public class CControlPerspective {
      * included in the layout or not
      * @return the current perspective
      */
-    public CPerspective getPerspective( boolean includeWorkingAreas ){
-    	Setting setting = control.getOwner().intern().getSetting( !includeWorkingAreas );
-    	return convert( (CSetting)setting, includeWorkingAreas );
+    public CPerspective getPerspective( final boolean includeWorkingAreas ){
+    	PerspectiveConversion context = onEventThread( new Callable<PerspectiveConversion>(){
+			public PerspectiveConversion call(){
+				PerspectiveConversion result = prepare( null, includeWorkingAreas );
+				result.setting = (CSetting)control.getOwner().intern().getSetting( !includeWorkingAreas );
+				return result;
+			}
+		});
+    	return convert( context );
     }
 
     /**
@@ -136,7 +172,11 @@ public class CControlPerspective {
      * @return all the names
      */
     public String[] getNames(){
-    	return control.getOwner().layouts();
+    	return onEventThread( new Callable<String[]>(){
+			public String[] call(){
+				return control.getOwner().layouts();
+			}
+		});
     }
     
     /**
@@ -155,12 +195,22 @@ public class CControlPerspective {
      * the layout was saved in the first place)
      * @return the perspective or <code>null</code> if <code>name</code> was not found
      */
-    public CPerspective getPerspective( String name, boolean includeWorkingAreas ){
-    	Setting setting = control.getOwner().intern().getSetting( name );
-    	if( setting == null ){
+    public CPerspective getPerspective( final String name, final boolean includeWorkingAreas ){
+    	PerspectiveConversion context = onEventThread( new Callable<PerspectiveConversion>(){
+			public PerspectiveConversion call(){
+				Setting setting = control.getOwner().intern().getSetting( name );
+				if( setting == null ){
+					return null;
+				}
+				PerspectiveConversion result = prepare( null, includeWorkingAreas );
+				result.setting = (CSetting)setting;
+				return result;
+			}
+		});
+    	if( context == null ){
     		return null;
     	}
-    	return convert( (CSetting)setting, includeWorkingAreas );
+    	return convert( context );
     }
     
     /**
@@ -170,7 +220,81 @@ public class CControlPerspective {
      * included in the layout or not
      */
     public void setPerspective( CPerspective perspective, boolean includeWorkingAreas ){
-    	control.getOwner().intern().setSetting( convert( perspective, includeWorkingAreas ), !includeWorkingAreas );
+    	setPerspective( perspective, includeWorkingAreas, false );
+    }
+    
+    /**
+     * Changes the layout of the associated {@link CControl} such that it matches <code>perspective</code>.<br>
+     * If <code>incremental</code> is set, then the current layout and <code>perspective</code> are compared
+     * first. Root stations whose current layout already matches <code>perspective</code> keep their children,
+     * only the other stations are cleared and rebuilt. A root station is compared as a whole, if only one of its
+     * children changed, the entire station is rebuilt. If <code>incremental</code> is not set, then all the
+     * stations are rebuilt.<br>
+     * <code>perspective</code> is converted and compared on the thread of the caller, only reading the current
+     * layout and changing the layout happen on the EventDispatchThread.
+     * @param perspective the perspective to apply, not <code>null</code>
+     * @param includeWorkingAreas whether {@link Dockable}s that are managed by a working-area should be
+     * included in the layout or not
+     * @param incremental whether stations that already show the correct layout should be left untouched
+     */
+    public void setPerspective( CPerspective perspective, final boolean includeWorkingAreas, final boolean incremental ){
+    	final CSetting setting = convert( perspective, includeWorkingAreas );
+    	if( incremental ){
+    		reuseUnchangedRoots( setting, includeWorkingAreas );
+    	}
+    	onEventThread( new Callable<Void>(){
+			public Void call(){
+				control.getOwner().intern().setSetting( setting, !includeWorkingAreas, incremental );
+				return null;
+			}
+		});
+    }
+    
+    /**
+     * Searches the root stations whose current layout is equivalent to the layout stored in <code>setting</code>, and
+     * replaces their layout in <code>setting</code> by their current layout. Only the layouts of the root stations are
+     * read on the EventDispatchThread. Each of them is converted into a {@link PerspectiveElement} and back before
+     * comparing, this way the order of the children is the same as in <code>setting</code>. Afterwards
+     * {@link CDockFrontend#setSetting(Setting, boolean, boolean)} recognizes these stations as unchanged, unless 
+     * the user modified them in the meantime.
+     * @param setting the layout that is going to be applied
+     * @param includeWorkingAreas whether the contents of {@link CStation#isWorkingArea() working areas}
+     * are included in <code>setting</code>
+     */
+    private void reuseUnchangedRoots( final CSetting setting, final boolean includeWorkingAreas ){
+    	final Map<String, DockLayoutComposition> current = new HashMap<String, DockLayoutComposition>();
+    	PerspectiveConversion context = onEventThread( new Callable<PerspectiveConversion>(){
+			public PerspectiveConversion call(){
+				PerspectiveConversion result = prepare( null, includeWorkingAreas );
+				DockSituation situation = result.frontend.getPerspective().getSituation();
+				CDockFrontend frontend = control.getOwner().intern();
+				for( String key : setting.getRootKeys() ){
+					DockStation station = frontend.getRoot( key );
+					if( station != null && (station.asDockable() == null || station.asDockable().getDockParent() == null )){
+						current.put( key, situation.convert( station ) );
+					}
+				}
+				return result;
+			}
+		});
+    	
+    	Perspective conversion = context.frontend.getPerspective();
+    	context.factory.setStations( current );
+    	
+    	for( Map.Entry<String, DockLayoutComposition> entry : current.entrySet() ){
+    		DockLayoutComposition target = setting.getRoot( entry.getKey() );
+    		PerspectiveElement station = conversion.convert( entry.getValue() );
+    		if( target != null && station != null ){
+    			try{
+    				if( conversion.getSituation().isSameLayout( target, conversion.convert( station ) )){
+    					setting.putRoot( entry.getKey(), entry.getValue() );
+    				}
+    			}
+    			catch( IOException e ){
+    				// the layouts cannot be compared, this station will be rebuilt
+    			}
+    		}
+    	}
     }
     
     /**
@@ -191,16 +315,27 @@ public class CControlPerspective {
      * @param perspective the new layout, not <code>null</code>
      * @param includeWorkingAreas whether the contents of working areas should be stored as well
      */
-    public void setPerspective( String name, CPerspective perspective, boolean includeWorkingAreas ){
-    	control.getOwner().intern().setSetting( name, convert( perspective, includeWorkingAreas ) );
+    public void setPerspective( final String name, CPerspective perspective, boolean includeWorkingAreas ){
+    	final CSetting setting = convert( perspective, includeWorkingAreas );
+    	onEventThread( new Callable<Void>(){
+			public Void call(){
+				control.getOwner().intern().setSetting( name, setting );
+				return null;
+			}
+		});
     }
     
     /**
      * Deletes the perspective with name <code>name</code>.
      * @param name the name of the perspective
      */
-    public void removePerspective( String name ){
-    	control.getOwner().delete( name );
+    public void removePerspective( final String name ){
+    	onEventThread( new Callable<Void>(){
+			public Void call(){
+				control.getOwner().delete( name );
+				return null;
+			}
+		});
     }
     
     /**
@@ -212,7 +347,7 @@ public class CControlPerspective {
      * @throws IllegalArgumentException if <code>source</code> does not point to an existing layout
      * @throws IllegalArgumentException if either <code>source</code> or <code>destination</code> are <code>null</code>
      */
-    public void renamePerspective( String source, String destination ){
+    public void renamePerspective( final String source, final String destination ){
     	if( source == null ){
     		throw new IllegalArgumentException( "source is null" );
     	}
@@ -220,6 +355,15 @@ public class CControlPerspective {
     		throw new IllegalArgumentException( "destination is null" );
     	}
     	
+    	onEventThread( new Callable<Void>(){
+			public Void call(){
+				rename( source, destination );
+				return null;
+			}
+		});
+    }
+    
+    private void rename( String source, String destination ){
     	CDockFrontend frontend = control.getOwner().intern();
     	Setting layout = frontend.getSetting( source );
     	if( layout == null ){
@@ -254,8 +398,8 @@ public class CControlPerspective {
     public void writeXML( XElement root, CPerspective perspective, boolean includeWorkingAreas ){
     	perspective.storeLocations();
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
-    	Perspective conversion = frontend.getPerspective();
+    	PerspectiveConversion context = prepare( perspective, includeWorkingAreas );
+    	Perspective conversion = context.frontend.getPerspective();
     	
     	Map<String, DockLayoutComposition> stations = new HashMap<String, DockLayoutComposition>();
     	for( String key : perspective.getStationKeys() ){
@@ -269,7 +413,7 @@ public class CControlPerspective {
     	
     	// Store the last location of all known elements
     	XElement xinvisible = root.addElement( "invisible" );
-    	PropertyTransformer transformer = frontend.getPropertyTransformer();
+    	PropertyTransformer transformer = context.transformer;
     	for( String key : perspective.getDockableKeys() ){
     		CDockablePerspective dockable = perspective.getDockable( key );
     		Location location = getInvisibleLocation( dockable );
@@ -291,7 +435,8 @@ public class CControlPerspective {
     	}
     	
     	// store more location information
-    	ModeSettings<Location, ?> settings = perspective.getLocationManager().writeModes( control );
+    	ModeSettings<Location, Location> settings = context.modes;
+    	perspective.getLocationManager().writeModes( control, settings );
     	
     	settings.writeXML( root.addElement( "modes" ) );
     }
@@ -320,8 +465,8 @@ public class CControlPerspective {
     	perspective.storeLocations();
     	Version.write( out, Version.VERSION_1_1_2 );
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
-    	Perspective conversion = frontend.getPerspective();
+    	PerspectiveConversion context = prepare( perspective, includeWorkingAreas );
+    	Perspective conversion = context.frontend.getPerspective();
     	
     	Map<String, DockLayoutComposition> stations = new HashMap<String, DockLayoutComposition>();
     	for( String key : perspective.getStationKeys() ){
@@ -334,7 +479,7 @@ public class CControlPerspective {
     	// Store the last location of all known elements
     	String[] keys = perspective.getDockableKeys();
     	out.writeInt( keys.length );
-    	PropertyTransformer transformer = frontend.getPropertyTransformer();
+    	PropertyTransformer transformer = context.transformer;
     	
     	for( String key : keys ){
     		CDockablePerspective dockable = perspective.getDockable( key );
@@ -364,7 +509,8 @@ public class CControlPerspective {
     	
     	
     	// write more location information
-    	ModeSettings<Location, ?> settings = perspective.getLocationManager().writeModes( control );
+    	ModeSettings<Location, Location> settings = context.modes;
+    	perspective.getLocationManager().writeModes( control, settings );
     	
     	settings.write( out );
     }
@@ -418,15 +564,10 @@ public class CControlPerspective {
      * @throws XException if the structure of <code>root</code> is not as expected
      */
     public CPerspective readXML( XElement root, boolean includeWorkingAreas ) throws XException{
-    	CPerspective perspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
+    	PerspectiveConversion context = prepare( null, includeWorkingAreas );
+    	CPerspective perspective = context.perspective;
+    	PerspectiveElementFactory factory = context.factory;
+    	Perspective conversion = context.frontend.getPerspective();
     	
     	XElement xstations = root.getElement( "stations" );
     	if( xstations == null ){
@@ -451,7 +592,7 @@ public class CControlPerspective {
     	// read the last known location of all elements
     	XElement xinvisible = root.getElement( "invisible" );
     	if( xinvisible != null ){
-    		PropertyTransformer transformer = frontend.getPropertyTransformer();
+    		PropertyTransformer transformer = context.transformer;
     		for( XElement xdockable : xinvisible.getElements( "dockable" )){
     			String key = xdockable.getString( "key" );
     			CDockablePerspective dockable = perspective.getDockable( key );
@@ -492,8 +633,7 @@ public class CControlPerspective {
     		throw new XException( "missing element 'modes'" );
     	}
     	
-    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
-    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
+    	ModeSettings<Location, Location> modes = context.modes;
     	modes.readXML( xmodes );
     	
     	perspective.getLocationManager().readModes( modes, perspective, control );
@@ -550,15 +690,10 @@ public class CControlPerspective {
     		throw new IOException( "unknown version: " + version );
     	}
     	
-    	CPerspective perspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	DockFrontendPerspective frontend = wrap( perspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
+    	PerspectiveConversion context = prepare( null, includeWorkingAreas );
+    	CPerspective perspective = context.perspective;
+    	PerspectiveElementFactory factory = context.factory;
+    	Perspective conversion = context.frontend.getPerspective();
     	
     	Map<String, DockLayoutComposition> stations = conversion.getSituation().readCompositions( in );
     	factory.setStations( stations );
@@ -575,7 +710,7 @@ public class CControlPerspective {
     	
     	if( version111a || version112 ){
     		perspective.storeLocations();
-    		PropertyTransformer transformer = frontend.getPropertyTransformer();
+    		PropertyTransformer transformer = context.transformer;
     		for( int i = 0, n = in.readInt(); i<n; i++ ){
     			if( in.readBoolean() ){
     				String key = in.readUTF();
@@ -617,8 +752,7 @@ public class CControlPerspective {
     		}
     	}
     	
-    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
-    	ModeSettings<Location, Location> modes = control.getOwner().getLocationManager().createModeSettings( converter );
+    	ModeSettings<Location, Location> modes = context.modes;
     	modes.read( in );
     	
     	perspective.getLocationManager().readModes( modes, perspective, control );
@@ -633,14 +767,16 @@ public class CControlPerspective {
      * @return the layout of <code>setting</code>
      */
     public CPerspective read( CSetting setting, boolean includeWorkingAreas ){
-    	return convert( setting, includeWorkingAreas );
+    	PerspectiveConversion context = prepare( null, includeWorkingAreas );
+    	context.setting = setting;
+    	return convert( context );
     }
     
     private CSetting convert( CPerspective perspective, boolean includeWorkingAreas ){
     	perspective.storeLocations();
     	
-    	DockFrontendPerspective frontend = conversion( perspective, includeWorkingAreas );
-    	Perspective conversion = frontend.getPerspective();
+    	PerspectiveConversion context = prepare( perspective, includeWorkingAreas );
+    	Perspective conversion = context.frontend.getPerspective();
     	CSetting setting = new CSetting();
     	
     	// layout
@@ -660,21 +796,17 @@ public class CControlPerspective {
 	    	}
     	}
     	
-    	ModeSettings<Location, Location> settings = perspective.getLocationManager().writeModes( control );
+    	ModeSettings<Location, Location> settings = context.modes;
+    	perspective.getLocationManager().writeModes( control, settings );
     	setting.setModes( settings );
     	return setting;
     }
     
-    private CPerspective convert( CSetting setting, boolean includeWorkingAreas ){
-    	CPerspective cperspective = createEmptyPerspective();
-    	
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( cperspective );
-    	DockFrontendPerspective frontend = wrap( cperspective, includeWorkingAreas, factory );
-    	Perspective conversion = frontend.getPerspective();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		conversion.getSituation().add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, cperspective ) );
-    	}
+    private CPerspective convert( PerspectiveConversion context ){
+    	CSetting setting = context.setting;
+    	CPerspective cperspective = context.perspective;
+    	PerspectiveElementFactory factory = context.factory;
+    	Perspective conversion = context.frontend.getPerspective();
     	
     	// registered dockables
     	Map<String, DockLayoutComposition> stations = new HashMap<String, DockLayoutComposition>();
@@ -747,19 +879,72 @@ public class CControlPerspective {
      */
     @FrameworkOnly
     public DockFrontendPerspective conversion( CPerspective perspective, boolean includeWorkingAreas ){
-    	DockFrontendPerspective conversion = wrap( perspective, includeWorkingAreas );
-    	DockSituation situation = conversion.getPerspective().getSituation();
-    	
-    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
-    		situation.add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, perspective ) );
-    	}
-    	
-    	return conversion;
+    	return prepare( perspective, includeWorkingAreas ).frontend;
     }
     
-    private DockFrontendPerspective wrap( CPerspective perspective, boolean includeWorkingAreas ){
-    	PerspectiveElementFactory factory = new PerspectiveElementFactory( perspective );
-    	return wrap( perspective, includeWorkingAreas, factory );
+    /**
+     * Collects all the objects that are required to convert <code>perspective</code>. The objects are 
+     * collected on the EventDispatchThread, afterwards they can be used by any thread.
+     * @param perspective the perspective to convert, <code>null</code> if a new, empty perspective should
+     * be created
+     * @param includeWorkingAreas whether the contents of {@link CStation#isWorkingArea() working areas}
+     * should be included in the layout or not
+     * @return the objects required for the conversion
+     */
+    private PerspectiveConversion prepare( final CPerspective perspective, final boolean includeWorkingAreas ){
+    	return onEventThread( new Callable<PerspectiveConversion>(){
+			public PerspectiveConversion call(){
+				PerspectiveConversion result = new PerspectiveConversion();
+				result.perspective = perspective == null ? emptyPerspective() : perspective;
+				result.factory = new PerspectiveElementFactory( result.perspective, control.getOwner().getMissingPerspectiveStrategy() );
+				result.frontend = wrap( result.perspective, includeWorkingAreas, result.factory );
+				
+				DockSituation situation = result.frontend.getPerspective().getSituation();
+		    	for( Map.Entry<String, MultipleCDockableFactory<?, ?>> item : control.getRegister().getFactories().entrySet() ){
+		    		situation.add( new CommonMultipleDockableFactory( item.getKey(), item.getValue(), control, result.perspective ) );
+		    	}
+		    	
+		    	result.transformer = result.frontend.getPropertyTransformer();
+		    	ModeSettingsConverter<Location, Location> converter = new LocationSettingConverter( control.getOwner().getController() );
+		    	result.modes = control.getOwner().getLocationManager().createModeSettings( converter );
+				return result;
+			}
+		});
+    }
+    
+    /**
+     * Executes <code>task</code> on the EventDispatchThread and waits until <code>task</code> has finished.
+     * If the current thread is the EventDispatchThread, then <code>task</code> is executed directly.
+     * @param task the task to execute
+     * @return the result of <code>task</code>
+     */
+    private <T> T onEventThread( Callable<T> task ){
+    	FutureTask<T> future = new FutureTask<T>( task );
+    	if( EventQueue.isDispatchThread() ){
+    		future.run();
+    	}
+    	else{
+    		EventQueue.invokeLater( future );
+    	}
+    	
+    	try{
+    		return future.get();
+    	}
+    	catch( InterruptedException e ){
+    		future.cancel( false );
+    		Thread.currentThread().interrupt();
+    		throw new IllegalStateException( "interrupted while waiting for the EventDispatchThread", e );
+    	}
+    	catch( ExecutionException e ){
+    		Throwable cause = e.getCause();
+    		if( cause instanceof RuntimeException ){
+    			throw (RuntimeException)cause;
+    		}
+    		if( cause instanceof Error ){
+    			throw (Error)cause;
+    		}
+    		throw new IllegalStateException( cause );
+    	}
     }
     
     private DockFrontendPerspective wrap( CPerspective perspective, boolean includeWorkingAreas, PerspectiveElementFactory factory ){
@@ -777,12 +962,33 @@ public class CControlPerspective {
     	return frontend;
     }
     
+    /**
+     * The objects required to convert a {@link CPerspective}. These objects are collected on
+     * the EventDispatchThread, afterwards the conversion can run on any thread.
+     * @author Benjamin Sigg
+     */
+    private class PerspectiveConversion{
+    	/** the perspective that is read or written */
+    	public CPerspective perspective;
+    	/** the layout that is converted into {@link #perspective}, can be <code>null</code> */
+    	public CSetting setting;
+    	/** the cache used by {@link #frontend} */
+    	public PerspectiveElementFactory factory;
+    	/** the algorithms used to convert elements */
+    	public DockFrontendPerspective frontend;
+    	/** used to read and write {@link DockableProperty}s */
+    	public PropertyTransformer transformer;
+    	/** empty settings of the {@link CControl#getLocationManager() location manager}, used to read or write a layout */
+    	public ModeSettings<Location, Location> modes;
+    }
+    
     /**
      * Helper class for converting {@link DockElement}s to {@link PerspectiveElement}s.
      * @author Benjamin Sigg
      */
     private class PerspectiveElementFactory implements FrontendPerspectiveCache{
     	private CPerspective perspective;
+    	private MissingPerspectiveStrategy missingStrategy;
     	private Perspective basePerspective;
     	private Map<String, SingleCDockablePerspective> dockables = new HashMap<String, SingleCDockablePerspective>();
     	private Map<String, DockLayoutComposition> stations;
@@ -790,9 +996,11 @@ public class CControlPerspective {
     	/**
     	 * Creates a new factory.
     	 * @param perspective the perspective for which items are required
+    	 * @param missingStrategy the strategy creating stations which are not yet in <code>perspective</code>
     	 */
-    	public PerspectiveElementFactory( CPerspective perspective ){
+    	public PerspectiveElementFactory( CPerspective perspective, MissingPerspectiveStrategy missingStrategy ){
     		this.perspective = perspective;
+    		this.missingStrategy = missingStrategy;
     		Iterator<PerspectiveElement> elements = perspective.elements();
     		while( elements.hasNext() ){
     			PerspectiveElement element = elements.next();
@@ -873,7 +1081,7 @@ public class CControlPerspective {
 			
 				CStationPerspective station = perspective.getStation( key );
 				if( station == null ){
-					station = control.getOwner().getMissingPerspectiveStrategy().createStation( key, stationType );
+					station = missingStrategy.createStation( key, stationType );
 					if( station != null ){
 						perspective.addStation( station );
 						station.setRoot( rootStation );
@@ -217,7 +217,16 @@ public class LocationModeManagerPerspective {
 	 */
 	public ModeSettings<Location, Location> writeModes( CControlAccess control ){
 		ModeSettings<Location, Location> modes = new CLocationModeSettings<Location>( new LocationSettingConverter( control.getOwner().getController() ) );
-    	
+		writeModes( control, modes );
+		return modes;
+	}
+	
+	/**
+	 * Writes the contents of this {@link LocationModeManagerPerspective} into <code>modes</code>.
+	 * @param control access to factories that may be used for writing the contents
+	 * @param modes the empty settings to fill, usually created by a {@link CLocationModeManager}
+	 */
+	public void writeModes( CControlAccess control, ModeSettings<Location, Location> modes ){
     	LocationModeManagerPerspective manager = perspective.getLocationManager();
     	
     	Iterator<PerspectiveElement> elements = perspective.elements();
@@ -262,8 +271,6 @@ public class LocationModeManagerPerspective {
     			modes.add( setting );
     		}
     	}
-    	
-    	return modes;
 	}
 	
 	/**
@@ -267,6 +267,46 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 		});
 	}
 	
+	/**
+	 * Sets the current mode of many {@link Dockable}s at once. All modes are checked before the 
+	 * first {@link Dockable} is moved, {@link Dockable}s that already are in their new mode are
+	 * ignored. Each other {@link Dockable} is moved like in {@link #setMode(Dockable, ExtendedMode)}.
+	 * The moves are executed as one {@link #runBatch(AffectingRunnable) batch}, hence the 
+	 * {@link DockStation}s update their layout only once.
+	 * @param modes for each {@link Dockable} its new mode, not <code>null</code>
+	 * @throws IllegalArgumentException if one of the modes is unknown
+	 */
+	public void setModes( Map<Dockable, ExtendedMode> modes ){
+		if( modes == null )
+			throw new IllegalArgumentException( "modes is null" );
+		
+		final List<Dockable> plannedDockables = new ArrayList<Dockable>( modes.size() );
+		final List<ExtendedMode> plannedModes = new ArrayList<ExtendedMode>( modes.size() );
+		
+		for( Map.Entry<Dockable, ExtendedMode> entry : modes.entrySet() ){
+			ExtendedMode extendedMode = entry.getValue();
+			if( getMode( extendedMode.getModeIdentifier() ) == null ){
+				throw new IllegalArgumentException( "No mode '" + extendedMode.getModeIdentifier() + "' available" );
+			}
+			if( !extendedMode.equals( getMode( entry.getKey() ) )){
+				plannedDockables.add( entry.getKey() );
+				plannedModes.add( extendedMode );
+			}
+		}
+		
+		if( plannedDockables.isEmpty() ){
+			return;
+		}
+		
+		runBatch( new AffectingRunnable(){
+			public void run( AffectedSet set ){
+				for( int i = 0, n = plannedDockables.size(); i<n; i++ ){
+					setMode( plannedDockables.get( i ), plannedModes.get( i ) );
+				}
+			}
+		});
+	}
+	
 	/**
 	 * Gets the action that is currently carried out.
 	 * @return the current action, can be <code>null</code>
@@ -453,7 +493,7 @@ public class LocationModeManager<M extends LocationMode> extends ModeManager<Loc
 	}
 	
 	@Override
-	public M getCurrentMode( Dockable dockable ){
+	protected M findCurrentMode( Dockable dockable ){
 		while( dockable != null ){
 			for( M mode : modes() ){
 				if( mode.isCurrentMode( dockable ))
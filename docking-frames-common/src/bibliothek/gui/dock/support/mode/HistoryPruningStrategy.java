@@ -0,0 +1,49 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+import bibliothek.gui.Dockable;
+
+/**
+ * A {@link HistoryPruningStrategy} decides when the {@link ModeManager} can forget the history of
+ * a {@link Dockable} that is no longer registered. Without such a strategy the history of closed
+ * {@link Dockable}s and of {@link ModeManager#addEmpty(String) empty} entries is kept forever, and
+ * it is written into every setting.
+ * @author Benjamin Sigg
+ * @see ModeManager#setHistoryPruningStrategy(HistoryPruningStrategy)
+ */
+public interface HistoryPruningStrategy {
+	/**
+	 * Tells whether the history stored under <code>key</code> should be removed. This method is only
+	 * called for entries which are currently not associated with any {@link Dockable}.
+	 * @param key the unique identifier of the entry
+	 * @param empty whether the entry was created or marked by {@link ModeManager#addEmpty(String)}
+	 * @param unusedMillis how many milliseconds ago the entry was last associated with a {@link Dockable}, or
+	 * was read by {@link ModeManager#readSettings(ModeSettings)}
+	 * @return <code>true</code> if the entry should be removed
+	 */
+	public boolean shouldPrune( String key, boolean empty, long unusedMillis );
+}
@@ -0,0 +1,146 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+import java.util.AbstractList;
+
+import bibliothek.gui.Dockable;
+import bibliothek.util.Path;
+
+/**
+ * An array based list of the unique identifiers of the {@link Mode}s a {@link Dockable} visited. No identifier
+ * is more than once in this list, the oldest identifier is at the beginning, the newest at the end. This list is
+ * much smaller than a {@link java.util.LinkedList} and can be limited in size.
+ * @author Benjamin Sigg
+ */
+class ModeHistory extends AbstractList<Path>{
+	/** the shared array of an empty history */
+	private static final Path[] EMPTY = new Path[0];
+	
+	/** the identifiers, only the first {@link #size} entries are valid */
+	private Path[] modes = EMPTY;
+	
+	/** the number of identifiers in this history */
+	private int size = 0;
+	
+	@Override
+	public Path get( int index ){
+		if( index < 0 || index >= size ){
+			throw new IndexOutOfBoundsException( "index: " + index + ", size: " + size );
+		}
+		return modes[ index ];
+	}
+	
+	@Override
+	public int size(){
+		return size;
+	}
+	
+	/**
+	 * Appends <code>mode</code> to the end of this history, if <code>mode</code> is already in the
+	 * history it is moved to the end.
+	 * @param mode the identifier to add, not <code>null</code>
+	 * @return always <code>true</code>
+	 */
+	@Override
+	public boolean add( Path mode ){
+		push( mode, Integer.MAX_VALUE );
+		return true;
+	}
+	
+	/**
+	 * Appends <code>mode</code> to the end of this history, if <code>mode</code> is already in the
+	 * history it is moved to the end. If the history contains more than <code>limit</code> items 
+	 * afterwards, then the oldest item is removed.
+	 * @param mode the identifier to add, not <code>null</code>
+	 * @param limit the maximum number of items in this history
+	 * @return the identifier that was removed because of <code>limit</code>, or <code>null</code>
+	 */
+	public Path push( Path mode, int limit ){
+		remove( mode );
+		if( size == modes.length ){
+			Path[] temp = new Path[ size + 2 ];
+			System.arraycopy( modes, 0, temp, 0, size );
+			modes = temp;
+		}
+		modes[ size++ ] = mode;
+		modCount++;
+		
+		if( size > limit ){
+			Path oldest = modes[0];
+			removeAt( 0 );
+			return oldest;
+		}
+		return null;
+	}
+	
+	@Override
+	public boolean remove( Object mode ){
+		for( int i = 0; i < size; i++ ){
+			if( modes[i].equals( mode )){
+				removeAt( i );
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public Path remove( int index ){
+		Path result = get( index );
+		removeAt( index );
+		return result;
+	}
+	
+	private void removeAt( int index ){
+		System.arraycopy( modes, index+1, modes, index, size-index-1 );
+		modes[ --size ] = null;
+		modCount++;
+	}
+	
+	@Override
+	public void clear(){
+		modes = EMPTY;
+		size = 0;
+		modCount++;
+	}
+	
+	/**
+	 * Releases the unused capacity of this history.
+	 */
+	public void trim(){
+		if( modes.length > size ){
+			if( size == 0 ){
+				modes = EMPTY;
+			}
+			else{
+				Path[] temp = new Path[ size ];
+				System.arraycopy( modes, 0, temp, 0, size );
+				modes = temp;
+			}
+		}
+	}
+}
@@ -31,7 +31,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -45,6 +44,9 @@ import bibliothek.gui.dock.action.DockActionSource;
 import bibliothek.gui.dock.action.LocationHint;
 import bibliothek.gui.dock.action.MultiDockActionSource;
 import bibliothek.gui.dock.control.DockRegister;
+import bibliothek.gui.dock.event.DockHierarchyEvent;
+import bibliothek.gui.dock.event.DockHierarchyListener;
+import bibliothek.gui.dock.station.LayoutSuspendable;
 import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.Path;
 
@@ -91,6 +93,32 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	/** used to change the history of {@link Dockable}s before applying a new mode */
 	private HistoryRewriter<H,M> historyRewriter;
 	
+	/** the maximum number of modes stored in the history of one {@link Dockable} */
+	private int historyLimit = Integer.MAX_VALUE;
+	
+	/** incremented whenever the cached current mode of any {@link Dockable} may become outdated */
+	private int currentModeRevision = 0;
+	
+	/** decides when the history of unused entries can be removed, can be <code>null</code> */
+	private HistoryPruningStrategy historyPruningStrategy;
+	
+	/** a shared instance of each identifier of a mode that was ever stored in a history */
+	private Map<Path, Path> modeIdentifiers = new HashMap<Path, Path>();
+	
+	/** a listener added to all registered {@link Dockable}s, invalidates the cached mode of elements that moved */
+	private DockHierarchyListener hierarchyListener = new DockHierarchyListener(){
+		public void hierarchyChanged( DockHierarchyEvent event ){
+			DockableHandle handle = getHandle( event.getDockable() );
+			if( handle != null ){
+				handle.invalidateCurrentMode();
+			}
+		}
+		
+		public void controllerChanged( DockHierarchyEvent event ){
+			// ignore
+		}
+	};
+	
 	private ActionGuard guard = new ActionGuard() {
 		public boolean react( Dockable dockable ){
 			return getHandle( dockable ) != null;
@@ -100,7 +128,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 			DockableHandle handle = getHandle( dockable );
 			if( handle == null )
 				return null;
-			return handle.source;
+			return handle.getSource();
 		}
 	};
 	
@@ -181,11 +209,13 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 			if( handle.mode.getUniqueIdentifier().equals( mode.getUniqueIdentifier() )){
 				fireRemoved( handle.mode );
 				handle.mode = mode;
+				invalidateCurrentModes();
 				fireAdded( mode );
 				return;
 			}
 		}
 		modes.add( new ModeHandle( mode ) );
+		invalidateCurrentModes();
 		fireAdded( mode );
 	}
 	
@@ -223,6 +253,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 				handle.mode = null;
 				fireRemoved( handle.mode );
 				modes.remove( handle );
+				invalidateCurrentModes();
 				return;
 			}
 		}
@@ -269,6 +300,101 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		return historyRewriter;
 	}
 	
+	/**
+	 * Sets the maximum number of modes the history of one {@link Dockable} remembers. If the
+	 * history grows larger, then the oldest mode and the location that was stored for that mode
+	 * are forgotten. Histories that are already too long are shortened immediately.
+	 * @param historyLimit the maximum size of a history, at least 2
+	 * @throws IllegalArgumentException if <code>historyLimit</code> is smaller than 2
+	 */
+	public void setHistoryLimit( int historyLimit ){
+		if( historyLimit < 2 ){
+			throw new IllegalArgumentException( "the history must be able to store at least 2 modes: " + historyLimit );
+		}
+		this.historyLimit = historyLimit;
+		for( DockableHandle handle : entries.values() ){
+			handle.limitHistory();
+		}
+	}
+	
+	/**
+	 * Gets the maximum number of modes the history of one {@link Dockable} remembers.
+	 * @return the limit, {@link Integer#MAX_VALUE} if there is no limit
+	 * @see #setHistoryLimit(int)
+	 */
+	public int getHistoryLimit(){
+		return historyLimit;
+	}
+	
+	/**
+	 * Gets a number that changes whenever the {@link #getCurrentMode(Dockable) current mode} of any
+	 * registered {@link Dockable} may have changed, e.g. because a {@link Dockable} changed its parent
+	 * or because a {@link Dockable} was added or removed. Clients can use this number to find out whether
+	 * information they derived from the current modes is still valid.
+	 * @return the current revision, the value itself has no meaning
+	 */
+	public int getCurrentModeRevision(){
+		return currentModeRevision;
+	}
+	
+	/**
+	 * Sets the strategy that decides when the history of a {@link Dockable} that is no longer registered
+	 * can be removed. The strategy is applied by {@link #pruneHistory()}, which is never called by this
+	 * manager itself. The {@link bibliothek.gui.dock.common.CControl} calls it every time a layout is saved.
+	 * @param historyPruningStrategy the new strategy, can be <code>null</code> in which case no history is ever pruned
+	 */
+	public void setHistoryPruningStrategy( HistoryPruningStrategy historyPruningStrategy ){
+		this.historyPruningStrategy = historyPruningStrategy;
+	}
+	
+	/**
+	 * Gets the strategy that decides when unused histories are removed.
+	 * @return the strategy, can be <code>null</code>
+	 * @see #setHistoryPruningStrategy(HistoryPruningStrategy)
+	 */
+	public HistoryPruningStrategy getHistoryPruningStrategy(){
+		return historyPruningStrategy;
+	}
+	
+	/**
+	 * Asks the current {@link #setHistoryPruningStrategy(HistoryPruningStrategy) HistoryPruningStrategy} about all
+	 * entries that are not associated with any {@link Dockable}, and removes the entries the strategy does not
+	 * want to keep.
+	 * @return the number of entries that were removed
+	 */
+	public int pruneHistory(){
+		if( historyPruningStrategy == null ){
+			return 0;
+		}
+		long now = System.currentTimeMillis();
+		int count = 0;
+		Iterator<DockableHandle> iterator = entries.values().iterator();
+		while( iterator.hasNext() ){
+			DockableHandle handle = iterator.next();
+			boolean registered = handle.dockable != null && dockables.get( handle.dockable ) == handle;
+			if( !registered && historyPruningStrategy.shouldPrune( handle.id, handle.empty, now - handle.unusedSince )){
+				iterator.remove();
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the one shared instance of the mode identifier <code>id</code>, the histories
+	 * of all {@link Dockable}s use the same instances.
+	 * @param id some identifier of a mode
+	 * @return the shared identifier that equals <code>id</code>
+	 */
+	private Path internModeIdentifier( Path id ){
+		Path result = modeIdentifiers.get( id );
+		if( result == null ){
+			modeIdentifiers.put( id, id );
+			result = id;
+		}
+		return result;
+	}
+	
 	/**
 	 * Gets all the listeners that are currently registered in this manager.
 	 * @return the list of registered listeners
@@ -285,7 +411,13 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	 */
 	protected void fireAdded( Dockable dockable ){
 		for( ModeManagerListener<? super H, ? super M> listener : listeners() ){
-			listener.dockableAdded( this, dockable );
+			DockUtilities.enterLayoutLocked( listener );
+			try{
+				listener.dockableAdded( this, dockable );
+			}
+			finally{
+				DockUtilities.exitLayoutLocked();
+			}
 		}
 	}
 	
@@ -296,7 +428,13 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	 */
 	protected void fireRemoved( Dockable dockable ){
 		for( ModeManagerListener<? super H, ? super M> listener : listeners() ){
-			listener.dockableRemoved( this, dockable );
+			DockUtilities.enterLayoutLocked( listener );
+			try{
+				listener.dockableRemoved( this, dockable );
+			}
+			finally{
+				DockUtilities.exitLayoutLocked();
+			}
 		}
 	}
 	
@@ -365,9 +503,12 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         }
         else{
             entry.dockable = dockable;
+            entry.invalidateCurrentMode();
         }
         
         dockables.put( dockable, entry );
+        currentModeRevision++;
+        dockable.addDockHierarchyListener( hierarchyListener );
         entry.putMode( access( getCurrentMode( dockable ) ) );
         
         fireAdded( dockable );
@@ -397,15 +538,20 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         if( entry != null ){
             if( entry.dockable != null ){
                 dockables.remove( entry.dockable );
+                entry.dockable.removeDockHierarchyListener( hierarchyListener );
                 fireRemoved( entry.dockable );
             }
             entry.dockable = dockable;
+            entry.invalidateCurrentMode();
             dockables.put( dockable, entry );
+            dockable.addDockHierarchyListener( hierarchyListener );
         }
         else{
             // was not inserted
             entry = new DockableHandle( dockable, key );
             dockables.put( dockable, entry );
+            currentModeRevision++;
+            dockable.addDockHierarchyListener( hierarchyListener );
             entries.put( entry.id, entry );
             entry.putMode( access( getCurrentMode( dockable ) ) );
         }
@@ -624,6 +770,88 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     	H history = entry.properties.get( mode.getUniqueIdentifier() );
     	apply( dockable, mode, history, set );
     }
+    
+    /**
+     * Alters the mode of many {@link Dockable}s in one {@link #runBatch(AffectingRunnable) batch}. All arguments
+     * are checked before the first {@link Dockable} is moved. Elements that already are in their new mode are
+     * not touched unless <code>force</code> is set. The remaining elements are moved in the iteration order of 
+     * <code>modes</code>, while the layout of the {@link DockStation}s is suspended.
+     * @param modes for each {@link Dockable} the mode it should be in, not <code>null</code>
+     * @param force if <code>true</code> each {@link Dockable} is relocated even if its
+     * current mode already is the new mode
+     * @throws IllegalArgumentException if a key or a value of <code>modes</code> is <code>null</code> or if
+     * a {@link Dockable} is not registered
+     */
+    public void apply( Map<Dockable, M> modes, final boolean force ){
+    	if( modes == null )
+    		throw new IllegalArgumentException( "modes is null" );
+    	
+    	final List<Dockable> plannedDockables = new ArrayList<Dockable>( modes.size() );
+    	final List<M> plannedModes = new ArrayList<M>( modes.size() );
+    	
+    	for( Map.Entry<Dockable, M> entry : modes.entrySet() ){
+    		Dockable dockable = entry.getKey();
+    		M mode = entry.getValue();
+    		if( dockable == null )
+    			throw new IllegalArgumentException( "dockable is null" );
+    		if( mode == null )
+    			throw new IllegalArgumentException( "mode is null" );
+    		if( getHandle( dockable ) == null )
+    			throw new IllegalArgumentException( "dockable not registered" );
+    		
+    		if( force || getCurrentMode( dockable ) != mode ){
+    			plannedDockables.add( dockable );
+    			plannedModes.add( mode );
+    		}
+    	}
+    	
+    	if( plannedDockables.isEmpty() ){
+    		return;
+    	}
+    	
+    	runBatch( new AffectingRunnable(){
+			public void run( AffectedSet set ){
+				for( int i = 0, n = plannedDockables.size(); i<n; i++ ){
+					Dockable dockable = plannedDockables.get( i );
+					if( getHandle( dockable ) != null ){
+						apply( dockable, plannedModes.get( i ), set, force );
+					}
+				}
+			}
+		});
+    }
+    
+    /**
+     * Runs <code>run</code> as a {@link #runTransaction(AffectingRunnable) transaction} that is going to change
+     * the mode of many {@link Dockable}s. While <code>run</code> is executed the layout of all registered
+     * {@link DockStation}s implementing {@link LayoutSuspendable} is suspended, and the stations update their
+     * layout only once at the end. Afterwards all the {@link Dockable}s that were affected are refreshed once.
+     * @param run the algorithm, <code>null</code> will be ignored
+     */
+    public void runBatch( AffectingRunnable run ){
+    	if( run == null ){
+    		return;
+    	}
+    	
+    	List<LayoutSuspendable> suspended = new ArrayList<LayoutSuspendable>();
+    	openAffected();
+    	try{
+    		for( DockStation station : controller.getRegister().listDockStations() ){
+    			if( station instanceof LayoutSuspendable ){
+    				LayoutSuspendable suspendable = (LayoutSuspendable)station;
+    				suspendable.suspendLayout();
+    				suspended.add( suspendable );
+    			}
+    		}
+    		runTransaction( run );
+    	}
+    	finally{
+    		for( int i = suspended.size()-1; i >= 0; i-- ){
+    			suspended.get( i ).resumeLayout();
+    		}
+    		closeAffected();
+    	}
+    }
 
     /**
      * Gets the history of <code>dockable</code> in mode <code>modeId</code>.
@@ -752,11 +980,18 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     }
 
     /**
-     * Updates the modes of all {@link Dockable}s that
-     * are registered at this {@link ModeManager}.
+     * Updates the modes of all {@link Dockable}s that are registered at this {@link ModeManager}
+     * and that may have changed their mode since they were last refreshed. These are the elements
+     * whose parents changed, and all elements if the set of modes changed or settings were read.
      */
     public void refresh(){
-    	for( Dockable dockable : dockables.keySet() ){
+    	List<Dockable> pending = new ArrayList<Dockable>();
+    	for( Map.Entry<Dockable, DockableHandle> entry : dockables.entrySet() ){
+    		if( entry.getValue().refreshPending ){
+    			pending.add( entry.getKey() );
+    		}
+    	}
+    	for( Dockable dockable : pending ){
     		refresh( dockable, false );
     	}
     }
@@ -773,6 +1008,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     public void refresh( Dockable dockable, boolean recursive ){
     	DockableHandle handle = getHandle( dockable );
     	if( handle != null ){
+    		handle.invalidateCurrentMode();
+    		handle.refreshPending = false;
     		handle.putMode( access( getCurrentMode( dockable ) ) );
     	}
     	if( recursive ){
@@ -792,9 +1029,14 @@ public abstract class ModeManager<H, M extends Mode<H>> {
     public void remove( Dockable dockable ){
         DockableHandle entry = dockables.remove( dockable );
         if( entry != null ){
+        	currentModeRevision++;
+        	dockable.removeDockHierarchyListener( hierarchyListener );
         	if( !entry.empty ){
         		entries.remove( entry.id );
         	}
+        	else{
+        		entry.unusedSince = System.currentTimeMillis();
+        	}
             fireRemoved( dockable );
         }
     }
@@ -808,6 +1050,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         DockableHandle entry = dockables.get( dockable );
         if( entry != null ){
             entry.dockable = null;
+            entry.unusedSince = System.currentTimeMillis();
             fireRemoved( dockable );
         }
     }
@@ -934,11 +1177,33 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 	/**
 	 * Tries to find the mode <code>dockable</code> is currently in. This method
 	 * calls {@link Mode#isCurrentMode(Dockable)} and returns the first
-	 * {@link Mode} where the answer was <code>true</code>.
+	 * {@link Mode} where the answer was <code>true</code>.<br>
+	 * The answer for registered {@link Dockable}s is cached until the parent of the
+	 * {@link Dockable} changes, {@link #refresh(Dockable, boolean)} is called or the set
+	 * of modes changes. While a transaction is running the cache is not used.
 	 * @param dockable some dockable, not <code>null</code>
 	 * @return the current mode or <code>null</code> if not found
 	 */
 	public M getCurrentMode( Dockable dockable ){
+		DockableHandle handle = getHandle( dockable );
+		if( handle == null || onTransaction > 0 || affectedCount > 0 ){
+			return findCurrentMode( dockable );
+		}
+		if( !handle.currentModeValid ){
+			handle.currentMode = findCurrentMode( dockable );
+			handle.currentModeValid = true;
+		}
+		return handle.currentMode;
+	}
+	
+	/**
+	 * Searches the mode <code>dockable</code> is currently in, called by {@link #getCurrentMode(Dockable)}
+	 * if the cached answer is not valid. The default implementation asks all modes whether they
+	 * are the current mode of <code>dockable</code>.
+	 * @param dockable some dockable, not <code>null</code>
+	 * @return the first mode that answered with <code>true</code> or <code>null</code>
+	 */
+	protected M findCurrentMode( Dockable dockable ){
 		for( ModeHandle mode : modes ){
 			if( mode.mode.isCurrentMode( dockable )){
 				return mode.mode;
@@ -1148,6 +1413,18 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 		return dockables.get( dockable );
 	}
 	
+	/**
+	 * Forgets the cached {@link #getCurrentMode(Dockable) current mode} of all registered {@link Dockable}s,
+	 * and marks them for the next call to {@link #refresh()}. Subclasses and {@link Mode}s should
+	 * call this method if the answer of {@link Mode#isCurrentMode(Dockable)} changes for reasons
+	 * other than a {@link Dockable} changing its parent, e.g. because an area was added to a mode.
+	 */
+	public void invalidateCurrentModes(){
+		for( DockableHandle handle : dockables.values() ){
+			handle.invalidateCurrentMode();
+		}
+	}
+	
 	/**
 	 * Creates a new {@link ModeSetting} which is configured to transfer data from
 	 * this {@link ModeManager} to persistent storage or the other way. The new setting
@@ -1255,11 +1532,10 @@ public abstract class ModeManager<H, M extends Mode<H>> {
                 if( current == null )
                     current = old;
                 
-                entry.history.clear();
-                for( Path next : settings.getHistory( i ))
-                    entry.history.add( next );
-                
-                entry.properties = settings.getProperties( i );
+                entry.setHistory( settings.getHistory( i ), settings.getProperties( i ) );
+                if( entry.dockable == null || getHandle( entry.dockable ) != entry ){
+                	entry.unusedSince = System.currentTimeMillis();
+                }
                 
                 if( (old == null && current != null) || (old != null && !old.equals( current ))){
                     applyDuringRead( key, old, current, entry.dockable );
@@ -1277,6 +1553,8 @@ public abstract class ModeManager<H, M extends Mode<H>> {
 			}
 		}
 		
+		invalidateCurrentModes();
+		
 		if( pending == null ){
 			return null;
 		}
@@ -1374,17 +1652,29 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         /** a unique id associated with {@link #dockable} */
         public String id;
         
-        /** the set of actions available for {@link #dockable} */
-        public MultiDockActionSource source;
+        /** the set of actions available for {@link #dockable}, created lazily */
+        private MultiDockActionSource source;
         /** a map that stores some properties mapped to the different modes */
         public Map<Path, H> properties;
 
         /** The modes this entry already visited. No mode is more than once in this list. */
-        private List<Path> history;
+        private ModeHistory history;
+        
+        /** the time when this entry was last associated with a {@link Dockable} or read */
+        private long unusedSince = System.currentTimeMillis();
         
         /** if <code>true</code>, then this entry is not deleted automatically */
         private boolean empty = false;
         
+        /** the cached result of {@link ModeManager#getCurrentMode(Dockable)}, only valid if {@link #currentModeValid} is set */
+        private M currentMode;
+        
+        /** whether {@link #currentMode} can be used */
+        private boolean currentModeValid = false;
+        
+        /** whether {@link #dockable} may have changed its mode since it was last refreshed */
+        private boolean refreshPending = false;
+        
         /**
          * Creates a new entry
          * @param dockable the element whose properties are stores in this entry
@@ -1393,9 +1683,59 @@ public abstract class ModeManager<H, M extends Mode<H>> {
         public DockableHandle( Dockable dockable, String id ){
             this.dockable = dockable;
             this.id = id;
-            source = new MultiDockActionSource( new LocationHint( LocationHint.ACTION_GUARD, LocationHint.RIGHT ) );
-            properties = new HashMap<Path, H>();
-            history = new LinkedList<Path>();
+            properties = new HashMap<Path, H>( 4 );
+            history = new ModeHistory();
+        }
+        
+        /**
+         * Gets the set of actions that are shown for {@link #dockable}.
+         * @return the actions, not <code>null</code>
+         */
+        public MultiDockActionSource getSource(){
+        	if( source == null ){
+        		source = new MultiDockActionSource( new LocationHint( LocationHint.ACTION_GUARD, LocationHint.RIGHT ) );
+        	}
+        	return source;
+        }
+        
+        /**
+         * Replaces the history and the properties of this entry.
+         * @param history the new history, the oldest mode first
+         * @param properties the new properties
+         */
+        public void setHistory( Path[] history, Map<Path, H> properties ){
+        	this.history.clear();
+        	for( Path next : history ){
+        		this.history.push( internModeIdentifier( next ), Integer.MAX_VALUE );
+        	}
+        	this.history.trim();
+        	
+        	this.properties = new HashMap<Path, H>( Math.max( 4, properties.size() * 4 / 3 + 1 ) );
+        	for( Map.Entry<Path, H> entry : properties.entrySet() ){
+        		this.properties.put( internModeIdentifier( entry.getKey() ), entry.getValue() );
+        	}
+        	
+        	limitHistory();
+        }
+        
+        /**
+         * Removes the oldest modes from the history until the history is not larger than
+         * {@link ModeManager#getHistoryLimit()}.
+         */
+        public void limitHistory(){
+        	while( history.size() > historyLimit ){
+        		properties.remove( history.remove( 0 ) );
+        	}
+        }
+        
+        /**
+         * Forgets the cached current mode and marks this entry for the next {@link ModeManager#refresh()}.
+         */
+        public void invalidateCurrentMode(){
+        	currentModeRevision++;
+        	currentModeValid = false;
+        	currentMode = null;
+        	refreshPending = true;
         }
         
         /**
@@ -1403,6 +1743,7 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          */
         public void updateActionSource(){
         	if( dockable != null ){
+	        	MultiDockActionSource source = getSource();
 	        	source.removeAll();
 	        	M mode = getCurrentMode( dockable );
 	        	if( mode == null )
@@ -1444,8 +1785,11 @@ public abstract class ModeManager<H, M extends Mode<H>> {
          * @param data history data associated with mode <code>id</code>
          */
         public void addToHistory( Path id, H data ){
-        	history.remove( id );
-            history.add( id );
+        	id = internModeIdentifier( id );
+        	Path removed = history.push( id, historyLimit );
+        	if( removed != null ){
+        		properties.remove( removed );
+        	}
             properties.put( id, data );
         }
         
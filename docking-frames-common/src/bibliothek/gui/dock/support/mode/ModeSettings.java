@@ -42,6 +42,7 @@ import bibliothek.util.Version;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
+import bibliothek.util.xml.XWriter;
 
 /**
  * A set of properties extracted from a {@link ModeManager} and its {@link Mode}s. The properties
@@ -428,6 +429,49 @@ public class ModeSettings<A,B> {
     	}
     }
     
+    /**
+     * Writes the contents of this setting directly into <code>writer</code>. The output
+     * is the same as the output of {@link #writeXML(XElement)}.
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     * @see #readXML(XElement)
+     */
+    public void writeXML( XWriter writer ) throws IOException{
+    	writer.startElement( "dockables" );
+    	for( DockableEntry entry : dockables ){
+    		writer.startElement( "entry" );
+    		writer.attribute( "id", entry.id );
+    		if( entry.current != null )
+    			writer.attribute( "current", entry.current.toString() );
+    		
+    		writer.startElement( "history" );
+    		for( Path history : entry.history ){
+    			writer.startElement( "mode" ).value( history.toString() ).endElement();
+    		}
+    		writer.endElement();
+    		
+    		writer.startElement( "properties" );
+    		for( Map.Entry<Path, B> next : entry.properties.entrySet() ){
+    			XElement xproperty = new XElement( "property" );
+    			xproperty.addString( "id", next.getKey().toString() );
+    			converter.writePropertyXML( next.getValue(), xproperty );
+    			writer.element( xproperty );
+    		}
+    		writer.endElement();
+    		writer.endElement();
+    	}
+    	writer.endElement();
+    	
+    	writer.startElement( "modes" );
+    	for( ModeSetting<A> mode : modes.values() ){
+    		XElement xmode = new XElement( "entry" );
+    		xmode.addString( "id", mode.getModeId().toString() );
+    		mode.write( xmode, converter );
+    		writer.element( xmode );
+    	}
+    	writer.endElement();
+    }
+    
     /**
      * Clears all properties of this setting and then reads new properties
      * from <code>element</code>.
@@ -0,0 +1,74 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.mode;
+
+/**
+ * A {@link HistoryPruningStrategy} which removes entries that were not used for a certain amount of time.
+ * @author Benjamin Sigg
+ */
+public class TimedHistoryPruningStrategy implements HistoryPruningStrategy {
+	/** how long an entry has to be unused before it is removed */
+	private long timeout;
+	
+	/** whether {@link ModeManager#addEmpty(String) empty} entries may be removed as well */
+	private boolean pruneEmpty;
+	
+	/**
+	 * Creates a new strategy.
+	 * @param timeout how many milliseconds an entry has to be unused before it is removed
+	 * @param pruneEmpty whether entries created by {@link ModeManager#addEmpty(String)} may be removed as well
+	 */
+	public TimedHistoryPruningStrategy( long timeout, boolean pruneEmpty ){
+		if( timeout < 0 ){
+			throw new IllegalArgumentException( "timeout must not be negative: " + timeout );
+		}
+		this.timeout = timeout;
+		this.pruneEmpty = pruneEmpty;
+	}
+	
+	/**
+	 * Gets the time an entry has to be unused before it is removed.
+	 * @return the timeout in milliseconds
+	 */
+	public long getTimeout(){
+		return timeout;
+	}
+	
+	/**
+	 * Tells whether empty entries may be removed.
+	 * @return whether empty entries may be removed
+	 */
+	public boolean isPruneEmpty(){
+		return pruneEmpty;
+	}
+	
+	public boolean shouldPrune( String key, boolean empty, long unusedMillis ){
+		if( empty && !pruneEmpty ){
+			return false;
+		}
+		return unusedMillis >= timeout;
+	}
+}
@@ -32,6 +32,8 @@ import java.util.prefs.Preferences;
 
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * Manages a set of {@link ApplicationResource}s, can load and store the
@@ -181,6 +183,39 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Writes the content of this manager in xml format directly into <code>writer</code>.
+     * {@link StreamingApplicationResource}s write their content without building up a tree of
+     * {@link XElement}s, all other resources write into a temporary {@link XElement}.
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     * @see #writeXML(XElement)
+     */
+    public void writeXML( XWriter writer ) throws IOException{
+    	for( Map.Entry<String, ApplicationResource> resource : resources.entrySet() ){
+    		ApplicationResource value = resource.getValue();
+    		if( value instanceof StreamingApplicationResource ){
+    			writer.startElement( "resource" );
+    			writer.attribute( "name", resource.getKey() );
+    			((StreamingApplicationResource)value).writeXML( writer );
+    			writer.endElement();
+    		}
+    		else{
+    			XElement xresource = new XElement( "resource" );
+    			xresource.addString( "name", resource.getKey() );
+    			value.writeXML( xresource );
+    			writer.element( xresource );
+    		}
+    	}
+    	
+    	for( Map.Entry<String, Object> unknownResource : buffer.entrySet() ){
+    		Object value = unknownResource.getValue();
+    		if( value instanceof XElement ){
+    			writer.element( (XElement)value );
+    		}
+    	}
+    }
+    
     /**
      * Reads the contents of this manager from a xml element.
      * @param element the element to read
@@ -197,6 +232,35 @@ public class ApplicationResourceManager {
         }
     }
     
+    /**
+     * Reads the contents of this manager directly from <code>reader</code>.
+     * {@link StreamingApplicationResource}s read their content without building up a tree of
+     * {@link XElement}s, all other resources read from a temporary {@link XElement}.
+     * @param reader the reader pointing to the element to read, the element will be consumed
+     * @throws IOException if <code>reader</code> cannot be read
+     * @see #readXML(XElement)
+     */
+    public void readXML( XReader reader ) throws IOException{
+    	while( reader.nextChild() ){
+    		if( "resource".equals( reader.getName() )){
+    			String name = reader.getString( "name" );
+    			ApplicationResource resource = resources.get( name );
+    			if( resource instanceof StreamingApplicationResource ){
+    				((StreamingApplicationResource)resource).readXML( reader );
+    			}
+    			else if( resource != null ){
+    				resource.readXML( reader.readElement() );
+    			}
+    			else{
+    				buffer.put( name, reader.readElement() );
+    			}
+    		}
+    		else{
+    			reader.skipElement();
+    		}
+    	}
+    }
+    
     /**
      * Writes the contents of this manager into <code>file</code>.
      * @param file the file to write into
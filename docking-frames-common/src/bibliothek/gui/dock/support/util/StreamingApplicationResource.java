@@ -0,0 +1,59 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.support.util;
+
+import java.io.IOException;
+
+import bibliothek.util.xml.XElement;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
+
+/**
+ * An {@link ApplicationResource} that is able to write its xml content directly into
+ * a {@link XWriter}, and to read it directly from a {@link XReader}, without building up
+ * a tree of {@link XElement}s first. The {@link ApplicationResourceManager} uses
+ * {@link #writeXML(XWriter)} and {@link #readXML(XReader)} when working with a {@link XWriter}
+ * or a {@link XReader}, and {@link #writeXML(XElement)} and {@link #readXML(XElement)} in any
+ * other case.
+ * @author Benjamin Sigg
+ */
+public interface StreamingApplicationResource extends ApplicationResource {
+	/**
+	 * Writes the contents of this resource in xml format. The output must be the same as the
+	 * output of {@link #writeXML(XElement)}.
+	 * @param writer the writer to fill, no attributes must be written into the current element
+	 * @throws IOException if <code>writer</code> cannot be written
+	 */
+	public void writeXML( XWriter writer ) throws IOException;
+	
+	/**
+	 * Reads the contents of this resource in xml format. The result must be the same as the
+	 * result of {@link #readXML(XElement)}.
+	 * @param reader the reader pointing to the element to read, the element must be consumed
+	 * @throws IOException if <code>reader</code> cannot be read
+	 */
+	public void readXML( XReader reader ) throws IOException;
+}
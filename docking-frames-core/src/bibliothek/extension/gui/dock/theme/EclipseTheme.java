@@ -43,6 +43,7 @@ import bibliothek.extension.gui.dock.theme.eclipse.stack.tab.BasicTabDockTitle;
 import bibliothek.extension.gui.dock.theme.eclipse.stack.tab.DockTitleTab;
 import bibliothek.extension.gui.dock.theme.eclipse.stack.tab.RectGradientPainter;
 import bibliothek.extension.gui.dock.theme.eclipse.stack.tab.TabPainter;
+import bibliothek.extension.gui.dock.theme.eclipse.stack.tab.TabShapeCache;
 import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.FlapDockStation;
@@ -123,6 +124,16 @@ public class EclipseTheme extends BasicTheme {
 		}
 	}, true );
 
+	/**
+	 * The cache of pre-rendered tab backgrounds used by the {@link ArchGradientPainter} and the {@link RectGradientPainter}.
+	 * Each {@link DockController} has its own cache, setting this property to <code>null</code> disables caching.
+	 */
+	public static final PropertyKey<TabShapeCache> TAB_SHAPE_CACHE = new PropertyKey<TabShapeCache>( "dock.ui.EclipseTheme.TabShapeCache", new DynamicPropertyFactory<TabShapeCache>(){
+		public TabShapeCache getDefault( PropertyKey<TabShapeCache> key, DockProperties properties ){
+			return new TabShapeCache();
+		}
+	}, false );
+
 	/**
 	 * The id of the {@link DockTitleVersion} that is intended to create
 	 * {@link DockTitle}s used as tabs by the {@link DockTitleTab}. Clients
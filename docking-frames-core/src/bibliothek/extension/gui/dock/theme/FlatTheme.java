@@ -52,6 +52,7 @@ import bibliothek.gui.dock.action.SelectableDockAction;
 import bibliothek.gui.dock.action.view.ActionViewConverter;
 import bibliothek.gui.dock.action.view.ViewGenerator;
 import bibliothek.gui.dock.action.view.ViewTarget;
+import bibliothek.gui.dock.dockable.MovingImageBufferPool;
 import bibliothek.gui.dock.dockable.ScreencaptureMovingImageFactory;
 import bibliothek.gui.dock.station.DisplayerFactory;
 import bibliothek.gui.dock.station.stack.StackDockComponent;
@@ -122,7 +123,9 @@ public class FlatTheme extends BasicTheme {
 				return new FlatTabPane( station );
 			}
 		}, Priority.DEFAULT );
-		setMovingImageFactory( new ScreencaptureMovingImageFactory( new Dimension( 300, 200 ) ), Priority.DEFAULT );
+		ScreencaptureMovingImageFactory movingImageFactory = new ScreencaptureMovingImageFactory( new Dimension( 300, 200 ) );
+		movingImageFactory.setBufferPool( new MovingImageBufferPool() );
+		setMovingImageFactory( movingImageFactory, Priority.DEFAULT );
 		setTabPlacement( TabPlacement.BOTTOM_OF_DOCKABLE, Priority.DEFAULT );
 		setSpanFactory( new NoSpanFactory() );
 	}
@@ -300,10 +300,10 @@ public class ArchGradientPainter extends BaseTabComponent {
 	
 	@Override
 	public void paintBackground( Graphics g ){
-		int x = 0;
-		int y = 0;
-		int w = getWidth();
-		int h = getHeight();
+		final int x = 0;
+		final int y = 0;
+		final int w = getWidth();
+		final int h = getHeight();
 		Graphics2D g2d = (Graphics2D) g;
 
 		Color color1;
@@ -332,34 +332,99 @@ public class ArchGradientPainter extends BaseTabComponent {
 			color2 = colorStackTabBottom.value();
 		}
 
+		TabShapeCache cache = getShapeCache();
+		
 		// draw tab if selected
 		if (isSelected()) {
+			final Color top;
+			final Color bottom;
+			
 			switch( getOrientation() ){
-				case TOP_OF_DOCKABLE:
-				case LEFT_OF_DOCKABLE:
-					paintSelected( g2d, color1, color2 );
-					break;
 				case BOTTOM_OF_DOCKABLE:
 				case RIGHT_OF_DOCKABLE:
-					paintSelected( g2d, color2, color1 );
+					top = color2;
+					bottom = color1;
+					break;
+				default:
+					top = color1;
+					bottom = color2;
 					break;
 			}
+			
+			final Color lineColor = colorStackBorder.value();
+			final Color background = getBackground();
+			final boolean atBorder = isAtBorder();
+			final int labelMin = labelMin();
+			
+			if( cache == null ){
+				paintSelected( g2d, top, bottom, lineColor, background, atBorder, labelMin );
+			}
+			else{
+				TabShapeCache.Key key = new TabShapeCache.Key( getClass(), Boolean.TRUE, getOrientation(), getTransparency(),
+						top, bottom, lineColor, background, atBorder, labelMin );
+				cache.paint( g2d, key, w, h, new TabShapeCache.Renderer(){
+					public void paint( Graphics2D g ){
+						paintSelected( g, top, bottom, lineColor, background, atBorder, labelMin );
+					}
+				});
+				g2d.setColor( lineColor );
+			}
+			g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_DEFAULT);
 		}
 		else{
 			if( getTransparency() != Transparency.TRANSPARENT ){
-				GradientPaint gradient = color1.equals( color2 ) ? null : new GradientPaint( x, y, color1, x, y + h, color2 );
-				Paint old = g2d.getPaint();
-				if( gradient != null )
-					g2d.setPaint(gradient);
-				else
-					g2d.setPaint( color1 );
-	
-				g2d.fillRect( x, y, w, h-1 );
-				g2d.setPaint(old);
+				final GradientPaint gradient = color1.equals( color2 ) ? null : new GradientPaint( x, y, color1, x, y + h, color2 );
+				final Color color = color1;
+				if( cache == null ){
+					paintUnselected( g2d, gradient, color, w, h );
+				}
+				else{
+					TabShapeCache.Key key = new TabShapeCache.Key( getClass(), Boolean.FALSE, color1, color2 );
+					cache.paint( g2d, key, w, h, new TabShapeCache.Renderer(){
+						public void paint( Graphics2D g ){
+							paintUnselected( g, gradient, color, w, h );
+						}
+					});
+				}
 			}
 		}
 	}
 	
+	/**
+	 * Paints the background of a tab that is not selected.
+	 * @param g2d the graphics context to use
+	 * @param gradient the gradient to fill the tab with, can be <code>null</code>
+	 * @param color the color to use if there is no gradient
+	 * @param w the width of the tab
+	 * @param h the height of the tab
+	 */
+	private void paintUnselected( Graphics2D g2d, GradientPaint gradient, Color color, int w, int h ){
+		Paint old = g2d.getPaint();
+		if( gradient != null )
+			g2d.setPaint(gradient);
+		else
+			g2d.setPaint( color );
+
+		g2d.fillRect( 0, 0, w, h-1 );
+		g2d.setPaint(old);
+	}
+	
+	/**
+	 * Tells whether this is the first tab and touches the border of its parent, in which case
+	 * the left side of the selected tab is painted under the border.
+	 * @return whether this tab is at the border of its parent
+	 */
+	private boolean isAtBorder(){
+		if( getTabIndex() != 0 )
+			return false;
+		
+		TabPlacement orientation = getOrientation();
+		if( orientation.isHorizontal() )
+			return getX() <= 1;
+		else
+			return getY() <= 1;
+	}
+	
 	@Override
 	public void paintForeground( Graphics g ){
 		// draw separator lines
@@ -426,16 +491,17 @@ public class ArchGradientPainter extends BaseTabComponent {
 	 * @param g the graphics context to use
 	 * @param top the color at the top
 	 * @param bottom the color at the bottom
+	 * @param lineColor the color of the border
+	 * @param background the background color of this tab, used to paint a shadow
+	 * @param atBorder whether this tab is the first tab and touches the border of its parent
+	 * @param labelMin the minimal space required by the icon of the tab
 	 */
-	private void paintSelected( Graphics g, Color top, Color bottom ){
+	private void paintSelected( Graphics g, Color top, Color bottom, Color lineColor, Color background, boolean atBorder, int labelMin ){
 		int x = 0;
 		int y = 0;
 		int w = getWidth();
 		int h = getHeight();
 		Graphics2D g2d = (Graphics2D) g;
-		Color lineColor = colorStackBorder.value();
-		
-		boolean firstTab = getTabIndex() == 0;
 		
 		TabPlacement orientation = getOrientation();
 		
@@ -447,20 +513,20 @@ public class ArchGradientPainter extends BaseTabComponent {
 			left = leftSide( x-1, y-1, w+1, h );
 		}
 		
-		right = rightSide( x, y, w, h );
+		right = rightSide( x, y, w, h, labelMin );
 		g2d.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF );
 		
 		// draw shadow
-		if ( firstTab ){
+		if ( atBorder ){
 			// draw under border if near border
 			// ... this is not a very good solution ...
-			if( orientation.isHorizontal() && getX() <= 1 )
+			if( orientation.isHorizontal() )
 				left.translate( -1, 0 );
-			else if( orientation.isVertical() && getY() <= 1 )
+			else
 				left.translate( 0, -1 );
 		}
 		
-		g.setColor( Colors.between( lineColor, getBackground(), 0.75 ) );
+		g.setColor( Colors.between( lineColor, background, 0.75 ) );
 		
 		g.drawPolyline( left.xpoints, left.ypoints, left.npoints-1 );
 		g.drawPolyline( right.xpoints, right.ypoints, right.npoints-1 );
@@ -552,9 +618,6 @@ public class ArchGradientPainter extends BaseTabComponent {
 				g.drawRect( x+w-1, y, 0, 0 );
 				break;
 		}
-		
-		
-		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_DEFAULT);
 	}
 	
 	/**
@@ -651,17 +714,19 @@ public class ArchGradientPainter extends BaseTabComponent {
 	 * @return the new polygon
 	 */
 	private Polygon rightSide( int x, int y, int w, int h ){
-		int labelMin = 6;
-		
-		if( getIcon() != null ){
-			if( getOrientation().isHorizontal() ){
-				labelMin += getIcon().getIconWidth() + getLabel().getIconOffset();
-			}
-			else{
-				labelMin += getIcon().getIconHeight() + getLabel().getIconOffset();
-			}
-		}
-		
+		return rightSide( x, y, w, h, labelMin() );
+	}
+	
+	/**
+	 * Creates a polygon to paint the right or bottom side of a tab.
+	 * @param x the x coordinate of the area in which to paint
+	 * @param y the y coordinate of the area in which to paint
+	 * @param w the with of the paintable area
+	 * @param h the height of the paintable area
+	 * @param labelMin the minimal space required by the icon of the tab
+	 * @return the new polygon
+	 */
+	private Polygon rightSide( int x, int y, int w, int h, int labelMin ){
 		if( getOrientation().isVertical() ){
 			int t = x;
 			x = y;
@@ -677,6 +742,25 @@ public class ArchGradientPainter extends BaseTabComponent {
 		return polygon;
 	}
 	
+	/**
+	 * Gets the minimal space the icon of this tab requires, the arch at the right side of
+	 * the tab does not cover that space.
+	 * @return the space required by the icon
+	 */
+	private int labelMin(){
+		int labelMin = 6;
+		
+		if( getIcon() != null ){
+			if( getOrientation().isHorizontal() ){
+				labelMin += getIcon().getIconWidth() + getLabel().getIconOffset();
+			}
+			else{
+				labelMin += getIcon().getIconHeight() + getLabel().getIconOffset();
+			}
+		}
+		return labelMin;
+	}
+	
 	private Polygon rightSideTop( int x, int y, int w, int h, int labelMin ){
 		Arch arch = arch( Math.max( 1, Math.min( w-labelMin, h*34/22 ) ), h );
 		
@@ -39,6 +39,7 @@ import javax.swing.Icon;
 import javax.swing.SwingUtilities;
 import javax.swing.event.MouseInputListener;
 
+import bibliothek.extension.gui.dock.theme.EclipseTheme;
 import bibliothek.extension.gui.dock.theme.eclipse.EclipseDockActionSource;
 import bibliothek.extension.gui.dock.theme.eclipse.EclipseTabStateInfo;
 import bibliothek.extension.gui.dock.theme.eclipse.stack.EclipseTab;
@@ -504,6 +505,19 @@ public abstract class BaseTabComponent extends ConfiguredBackgroundPanel impleme
         return pane.getController();
     }
     
+    /**
+     * Gets the cache of pre-rendered backgrounds that should be used by this tab.
+     * @return the cache or <code>null</code> if this tab is not bound or if caching is disabled
+     * @see EclipseTheme#TAB_SHAPE_CACHE
+     */
+    protected TabShapeCache getShapeCache(){
+    	DockController controller = getController();
+    	if( !isBound() || controller == null ){
+    		return null;
+    	}
+    	return controller.getProperties().get( EclipseTheme.TAB_SHAPE_CACHE );
+    }
+    
     public DockStation getStation() {
         return pane.getStation();
     }
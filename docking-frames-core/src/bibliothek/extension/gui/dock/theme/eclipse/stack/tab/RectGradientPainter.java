@@ -240,7 +240,7 @@ public class RectGradientPainter extends BaseTabComponent {
 	public void paintBackground( Graphics g ){
 		int height = getHeight(), width = getWidth();
 		Graphics2D g2d = (Graphics2D) g;
-		Color lineColor = colorStackBorder.value();
+		final Color lineColor = colorStackBorder.value();
 		Color color1, color2;
 		boolean focusTemporarilyLost = isFocusTemporarilyLost();
 		boolean isSelected = isSelected();
@@ -274,7 +274,7 @@ public class RectGradientPainter extends BaseTabComponent {
         	color2 = temp;
         }
 		
-        GradientPaint gradient = null;
+        final GradientPaint gradient;
         if( !color1.equals( color2 )){
         	if( orientation.isHorizontal() ){
         		gradient = new GradientPaint( 0, 0, color1, 0, height, color2 );		
@@ -283,33 +283,70 @@ public class RectGradientPainter extends BaseTabComponent {
         		gradient = new GradientPaint( 0, 0, color1, width, 0, color2 );
         	}
         }
+        else{
+        	gradient = null;
+        }
         
-		int tabIndex = getTabIndex();
+		final boolean leftBorder;
+		if( isSelected ){
+			leftBorder = getTabIndex() != 0 || (orientation.isHorizontal() ? getX() > 1 : getY() > 1);
+		}
+		else{
+			leftBorder = false;
+		}
+		
+		final Color background = color1;
+		TabShapeCache cache = getShapeCache();
+		if( cache == null ){
+			paintBackground( g2d, gradient, background, lineColor, leftBorder );
+		}
+		else{
+			TabShapeCache.Key key = new TabShapeCache.Key( getClass(), isSelected, orientation, getTransparency(), 
+					color1, color2, lineColor, leftBorder );
+			cache.paint( g2d, key, width, height, new TabShapeCache.Renderer(){
+				public void paint( Graphics2D g ){
+					paintBackground( g, gradient, background, lineColor, leftBorder );
+				}
+			});
+			g2d.setColor( lineColor );
+		}
+	}
+	
+	/**
+	 * Paints the background of this tab.
+	 * @param g2d the graphics context to use
+	 * @param gradient the gradient to fill the tab with, can be <code>null</code>
+	 * @param background the color to fill the tab with if there is no gradient
+	 * @param lineColor the color of the border
+	 * @param leftBorder whether the left or top border of a selected tab has to be painted
+	 */
+	private void paintBackground( Graphics2D g2d, GradientPaint gradient, Color background, Color lineColor, boolean leftBorder ){
+		TabPlacement orientation = getOrientation();
 		
 		g2d.setColor( lineColor );
 		Paint old = g2d.getPaint();
         if( gradient != null )
             g2d.setPaint(gradient);
         else
-            g2d.setPaint( color1 );
+            g2d.setPaint( background );
 		
-		if (isSelected) {
-			paintSelected( g2d, tabIndex, old );
+		if (isSelected()) {
+			paintSelected( g2d, leftBorder, old );
 		}
 		else{
 			if( getTransparency() != Transparency.TRANSPARENT ){
 				switch( orientation ){
 					case TOP_OF_DOCKABLE:
-						g.fillRect( 0, 0, getWidth(), getHeight()-1 );
+						g2d.fillRect( 0, 0, getWidth(), getHeight()-1 );
 						break;
 					case BOTTOM_OF_DOCKABLE:
-						g.fillRect( 0, 1, getWidth(), getHeight()-1 );
+						g2d.fillRect( 0, 1, getWidth(), getHeight()-1 );
 						break;
 					case LEFT_OF_DOCKABLE:
-						g.fillRect( 0, 0, getWidth()-1, getHeight() );
+						g2d.fillRect( 0, 0, getWidth()-1, getHeight() );
 						break;
 					case RIGHT_OF_DOCKABLE:
-						g.fillRect( 1, 0, getWidth()-1, getHeight() );
+						g2d.fillRect( 1, 0, getWidth()-1, getHeight() );
 						break;
 				}
 			}
@@ -341,7 +378,7 @@ public class RectGradientPainter extends BaseTabComponent {
 		}
 	}
 	
-	private void paintSelected( Graphics2D g2d, int tabIndex, Paint normalBackground ){
+	private void paintSelected( Graphics2D g2d, boolean leftBorder, Paint normalBackground ){
 		TabPlacement orientation = getOrientation();
 		int width = getWidth();
 		int height = getHeight();
@@ -354,7 +391,7 @@ public class RectGradientPainter extends BaseTabComponent {
 				g2d.drawLine( 0, 1, 0, height );
 				g2d.setPaint( normalBackground );
 				// left
-				if (tabIndex != 0 || getX() > 1) {
+				if( leftBorder ){
 					g2d.drawLine(1, 0, 1, 0);
 					g2d.drawLine(0, 1, 0, height);
 				}
@@ -369,7 +406,7 @@ public class RectGradientPainter extends BaseTabComponent {
 				g2d.drawLine( 0, height-2, 0, 0 );
 				g2d.setPaint( normalBackground );
 				// left
-				if (tabIndex != 0 || getX() > 1) {
+				if( leftBorder ){
 					g2d.drawLine(1, height-1, 1, height-1 );
 					g2d.drawLine(0, height-2, 0, 0 );
 				}
@@ -384,7 +421,7 @@ public class RectGradientPainter extends BaseTabComponent {
 				g2d.drawLine( 1, 0, width, 0 );
 				g2d.setPaint( normalBackground );
 				// left
-				if (tabIndex != 0 || getY() > 1) {
+				if( leftBorder ){
 					g2d.drawLine( 0, 1, 0, 1 );
 					g2d.drawLine( 1, 0, width, 0 );
 				}
@@ -399,7 +436,7 @@ public class RectGradientPainter extends BaseTabComponent {
 				g2d.drawLine( 0, 0, width-1, 0 );
 				g2d.setPaint( normalBackground );
 				// left
-				if (tabIndex != 0 || getY() > 1) {
+				if( leftBorder ){
 					g2d.drawLine( width-1, 1, width-1, 1 );
 					g2d.drawLine( 0, 0, width-2, 0 );
 				}
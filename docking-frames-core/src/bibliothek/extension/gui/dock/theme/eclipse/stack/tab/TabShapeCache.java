@@ -0,0 +1,293 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.extension.gui.dock.theme.eclipse.stack.tab;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import bibliothek.extension.gui.dock.theme.EclipseTheme;
+import bibliothek.gui.dock.util.color.ColorManager;
+
+/**
+ * A cache of pre-rendered tab backgrounds. Tabs like the {@link ArchGradientPainter} describe everything that
+ * influences their background with a {@link Key}, e.g. size, orientation, selection, focus and colors. If 
+ * the same key is requested again, then the image painted the first time is reused instead of building up
+ * the same polygons and gradients again.<br>
+ * The cache holds at most {@link #getMaxPixels() a limited number of pixels}, the least recently used images
+ * are evicted first. Since the colors are part of the key, images painted with colors that are no longer
+ * used by the {@link ColorManager} are never requested again and are evicted like any other unused image.<br>
+ * Images are only used if the {@link Graphics} to paint on does not scale or rotate its content and uses the 
+ * default composite, otherwise the background is painted directly.<br>
+ * There is one cache for each controller, it is stored in the property {@link EclipseTheme#TAB_SHAPE_CACHE}.
+ * @author Benjamin Sigg
+ */
+public class TabShapeCache {
+	/** the default value for {@link #getMaxPixels()}, enough for some hundred tabs */
+	public static final int DEFAULT_MAX_PIXELS = 1024 * 1024;
+	
+	/** the images of this cache, ordered by their last access */
+	private Map<CacheKey, BufferedImage> images = new LinkedHashMap<CacheKey, BufferedImage>( 16, 0.75f, true );
+	
+	/** the number of pixels currently stored */
+	private long pixels = 0;
+	
+	/** the maximum number of pixels to store */
+	private int maxPixels;
+	
+	/** how many times an image could be reused */
+	private long hits = 0;
+	
+	/** how many times an image had to be painted */
+	private long misses = 0;
+	
+	/**
+	 * Creates a new cache storing up to {@link #DEFAULT_MAX_PIXELS} pixels.
+	 */
+	public TabShapeCache(){
+		this( DEFAULT_MAX_PIXELS );
+	}
+	
+	/**
+	 * Creates a new cache.
+	 * @param maxPixels the maximum number of pixels this cache stores, a value of 0 or less
+	 * disables the cache
+	 */
+	public TabShapeCache( int maxPixels ){
+		this.maxPixels = maxPixels;
+	}
+	
+	/**
+	 * Sets the maximum number of pixels this cache stores. Images are evicted immediately
+	 * if there are too many pixels stored.
+	 * @param maxPixels the new limit, a value of 0 or less disables the cache
+	 */
+	public void setMaxPixels( int maxPixels ){
+		this.maxPixels = maxPixels;
+		evict();
+	}
+	
+	/**
+	 * Gets the maximum number of pixels this cache stores.
+	 * @return the limit
+	 */
+	public int getMaxPixels(){
+		return maxPixels;
+	}
+	
+	/**
+	 * Removes all images from this cache.
+	 */
+	public void invalidate(){
+		images.clear();
+		pixels = 0;
+	}
+	
+	/**
+	 * Gets the number of images currently stored in this cache.
+	 * @return the number of images
+	 */
+	public int size(){
+		return images.size();
+	}
+	
+	/**
+	 * Tells how many times {@link #paint(Graphics, Key, int, int, Renderer)} could reuse an image.
+	 * @return the number of hits
+	 */
+	public long getHitCount(){
+		return hits;
+	}
+	
+	/**
+	 * Tells how many times {@link #paint(Graphics, Key, int, int, Renderer)} had to render a new image.
+	 * @return the number of misses
+	 */
+	public long getMissCount(){
+		return misses;
+	}
+	
+	/**
+	 * Paints a background of size <code>width</code> x <code>height</code> at the origin of <code>g</code>. If
+	 * the cache already contains an image for <code>key</code>, then that image is painted. Otherwise 
+	 * <code>renderer</code> is used to paint a new image, which is then stored in this cache. If <code>g</code>
+	 * is not suited to paint images without changing the result, then <code>renderer</code> paints 
+	 * directly onto <code>g</code>.
+	 * @param g the graphics context to paint on
+	 * @param key describes everything <code>renderer</code> will paint, must not be <code>null</code>
+	 * @param width the width of the area to paint, nothing outside this area will be visible
+	 * @param height the height of the area to paint, nothing outside this area will be visible
+	 * @param renderer the algorithm painting the background
+	 */
+	public void paint( Graphics g, Key key, int width, int height, Renderer renderer ){
+		Graphics2D g2d = (Graphics2D)g;
+		if( width <= 0 || height <= 0 || !isCacheable( g2d, width, height ) ){
+			renderer.paint( g2d );
+			return;
+		}
+		
+		CacheKey cacheKey = new CacheKey( key, width, height, g2d.getRenderingHints() );
+		BufferedImage image = images.get( cacheKey );
+		if( image == null ){
+			misses++;
+			image = new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB_PRE );
+			Graphics2D ig = image.createGraphics();
+			ig.setRenderingHints( cacheKey.hints );
+			ig.setColor( g2d.getColor() );
+			ig.setFont( g2d.getFont() );
+			renderer.paint( ig );
+			ig.dispose();
+			
+			images.put( cacheKey, image );
+			pixels += width * height;
+			evict();
+		}
+		else{
+			hits++;
+		}
+		
+		g2d.drawImage( image, 0, 0, null );
+	}
+	
+	/**
+	 * Tells whether an image can be used to paint onto <code>g</code>.
+	 * @param g the graphics context to paint on
+	 * @param width the width of the image
+	 * @param height the height of the image
+	 * @return <code>true</code> if an image would look exactly like painting directly
+	 */
+	private boolean isCacheable( Graphics2D g, int width, int height ){
+		if( width * (long)height > maxPixels / 4 ){
+			return false;
+		}
+		if( (g.getTransform().getType() & ~AffineTransform.TYPE_TRANSLATION) != 0 ){
+			return false;
+		}
+		return AlphaComposite.SrcOver.equals( g.getComposite() );
+	}
+	
+	/**
+	 * Removes the least recently used images until the limit of pixels is respected.
+	 */
+	private void evict(){
+		Iterator<Map.Entry<CacheKey, BufferedImage>> iterator = images.entrySet().iterator();
+		while( pixels > maxPixels && iterator.hasNext() ){
+			BufferedImage image = iterator.next().getValue();
+			pixels -= image.getWidth() * image.getHeight();
+			iterator.remove();
+		}
+	}
+	
+	/**
+	 * Paints the background of a tab.
+	 * @author Benjamin Sigg
+	 */
+	public static interface Renderer{
+		/**
+		 * Paints a background. The paint, the stroke and the rendering hints of <code>g</code> may be changed.
+		 * @param g the graphics context to paint on
+		 */
+		public void paint( Graphics2D g );
+	}
+	
+	/**
+	 * Describes a background of a tab. Two keys are equal if all their properties are equal.
+	 * @author Benjamin Sigg
+	 */
+	public static final class Key{
+		private final Object[] properties;
+		private final int hashCode;
+		
+		/**
+		 * Creates a new key.
+		 * @param properties all the properties that influence how a background looks like, 
+		 * including the class of the tab. The elements of this array must be immutable.
+		 */
+		public Key( Object... properties ){
+			this.properties = properties;
+			this.hashCode = Arrays.hashCode( properties );
+		}
+		
+		@Override
+		public int hashCode(){
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals( Object obj ){
+			if( obj == this ){
+				return true;
+			}
+			if( obj instanceof Key ){
+				Key other = (Key)obj;
+				return hashCode == other.hashCode && Arrays.equals( properties, other.properties );
+			}
+			return false;
+		}
+	}
+	
+	/**
+	 * Combines a {@link Key} with the properties of the graphics context.
+	 * @author Benjamin Sigg
+	 */
+	private static class CacheKey{
+		private final Key key;
+		private final int width;
+		private final int height;
+		private final RenderingHints hints;
+		private final int hashCode;
+		
+		public CacheKey( Key key, int width, int height, RenderingHints hints ){
+			this.key = key;
+			this.width = width;
+			this.height = height;
+			this.hints = hints;
+			this.hashCode = ((key.hashCode() * 31 + width) * 31 + height) * 31 + hints.hashCode();
+		}
+		
+		@Override
+		public int hashCode(){
+			return hashCode;
+		}
+		
+		@Override
+		public boolean equals( Object obj ){
+			if( obj instanceof CacheKey ){
+				CacheKey other = (CacheKey)obj;
+				return hashCode == other.hashCode && width == other.width && height == other.height &&
+					key.equals( other.key ) && hints.equals( other.hints );
+			}
+			return false;
+		}
+	}
+}
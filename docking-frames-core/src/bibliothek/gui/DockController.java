@@ -84,6 +84,8 @@ import bibliothek.gui.dock.control.focus.MouseFocusObserver;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockRegisterListener;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
@@ -1499,7 +1501,7 @@ public class DockController {
      * Observers the {@link DockRegister}, adds listeners to new {@link Dockable}s
      * and {@link DockTitle}s, and collects the components of these elements
      */
-    private class DockTitleObserver extends DockRegisterAdapter implements DockTitleBindingListener{
+    private class DockTitleObserver extends DockRegisterAdapter implements DockTitleBindingListener, DockRegisterBatchListener{
     	/** a set of all known titles */
     	private Set<DockTitle> titles = new HashSet<DockTitle>();
 
@@ -1596,5 +1598,17 @@ public class DockController {
                 }
             }
         }
+        
+        public void registerBatchChanged( DockRegisterBatchEvent event ){
+        	DockController controller = event.getController();
+        	for( Dockable dockable : event.getRemovedDockables() ){
+        		dockableUnregistered( controller, dockable );
+        	}
+        	for( Dockable dockable : event.getAddedDockables() ){
+        		// titles bound since the registration are found by dockableRegistered
+        		dockable.addDockableListener( dockableListener );
+        		dockableRegistered( controller, dockable );
+        	}
+        }
     }
 }
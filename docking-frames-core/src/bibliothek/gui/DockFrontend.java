@@ -27,6 +27,8 @@
 package bibliothek.gui;
 
 import java.awt.Window;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -58,9 +60,11 @@ import bibliothek.gui.dock.action.LocationHint;
 import bibliothek.gui.dock.action.actions.SimpleButtonAction;
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.dockable.LazyDockable;
 import bibliothek.gui.dock.event.DockFrontendListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
 import bibliothek.gui.dock.event.VetoableDockFrontendListener;
+import bibliothek.gui.dock.frontend.AsyncLayoutRestore;
 import bibliothek.gui.dock.frontend.DefaultFrontendPerspectiveCache;
 import bibliothek.gui.dock.frontend.DefaultLayoutChangeStrategy;
 import bibliothek.gui.dock.frontend.DockFrontendExtension;
@@ -69,6 +73,8 @@ import bibliothek.gui.dock.frontend.DockFrontendPerspective;
 import bibliothek.gui.dock.frontend.FrontendEntry;
 import bibliothek.gui.dock.frontend.FrontendPerspectiveCache;
 import bibliothek.gui.dock.frontend.LayoutChangeStrategy;
+import bibliothek.gui.dock.frontend.LayoutRestoreListener;
+import bibliothek.gui.dock.frontend.LazySetting;
 import bibliothek.gui.dock.frontend.MissingDockableStrategy;
 import bibliothek.gui.dock.frontend.Setting;
 import bibliothek.gui.dock.frontend.SettingsBlop;
@@ -111,6 +117,9 @@ import bibliothek.util.Version;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * A DockFrontend provides some methods to handle the storage of various layouts.
@@ -196,6 +205,10 @@ public class DockFrontend {
     private String currentSetting;
     /** A map of all known settings */
     private Map<String, Setting> settings = new HashMap<String, Setting>();
+    /** A map of all known settings which were read but not yet decoded */
+    private Map<String, LazySetting> lazySettings = new HashMap<String, LazySetting>();
+    /** whether settings that are read are decoded only once they are loaded */
+    private boolean decodeSettingsLazily = true;
     
     /** A list of observers */
     private List<DockFrontendListener> listeners = new ArrayList<DockFrontendListener>();
@@ -1052,16 +1065,33 @@ public class DockFrontend {
      */
     public Set<String> getSettings(){
         Set<String> keys = settings.keySet();
+        if( !lazySettings.isEmpty() ){
+        	keys = new HashSet<String>( keys );
+        	keys.addAll( lazySettings.keySet() );
+        }
         return Collections.unmodifiableSet( keys );
     }
     
     /**
      * Gets the {@link Setting} which stores locations and other information under the key <code>name</code>.
+     * Settings that were read by {@link #read(DataInputStream)} or {@link #readXML(XElement)} are decoded
+     * only when this method is called for the first time, unless {@link #isDecodeSettingsLazily()} is
+     * <code>false</code>.
      * @param name a key that was used for calling {@link #save(String)}
      * @return the setting or <code>null</code> if not found
+     * @throws IllegalArgumentException if the setting was decoded lazily and its data is corrupted
      */
     public Setting getSetting( String name ){
-    	return settings.get( name );
+    	Setting setting = settings.get( name );
+    	if( setting == null ){
+    		LazySetting lazy = lazySettings.get( name );
+    		if( lazy != null ){
+    			setting = lazy.getSetting();
+    			lazySettings.remove( name );
+    			settings.put( name, setting );
+    		}
+    	}
+    	return setting;
     }
     
     /**
@@ -1082,7 +1112,7 @@ public class DockFrontend {
     	if( setting == null )
     		throw new IllegalArgumentException( "the name of a setting must not be null" );
     	
-    	if( settings.containsKey( setting ))
+    	if( settings.containsKey( setting ) || lazySettings.containsKey( setting ))
     		load( setting );
     	else
     		save( setting );
@@ -1108,6 +1138,7 @@ public class DockFrontend {
     		throw new IllegalArgumentException( "setting is null" );
     	}
     	settings.put( name, setting );
+    	lazySettings.remove( name );
     }
     
     /**
@@ -1549,7 +1580,7 @@ public class DockFrontend {
         if( name == null )
     		throw new IllegalArgumentException( "name must not be null" );
     	
-    	Setting setting = settings.get( name );
+    	Setting setting = getSetting( name );
         if( setting == null )
             throw new IllegalArgumentException( "Unknown setting \""+ name +"\"");
         
@@ -1560,6 +1591,36 @@ public class DockFrontend {
         fireLoaded( name );
     }
     
+    /**
+     * Loads a setting of this frontend in two phases. First the layout is applied with
+     * {@link #setSetting(Setting, boolean)}, {@link LazyDockable}s only show their placeholders
+     * at this time. Then the real contents of the {@link LazyDockable}s are created in batches, the
+     * visible dockables first. The {@link DockFrontendListener}s are informed about the new setting
+     * once the first phase is completed.
+     * @param name the name of the setting
+     * @param entry <code>true</code> if only information for normal entries should be extracted, <code>false</code> if
+     * as much information as possible should be read. Should be the same value as was used for {@link #save(String, boolean)}
+     * @param listener informed about the progress of the second phase, can be <code>null</code>
+     * @return the second phase, can be used to wait for or to cancel the restore
+     * @throws IllegalArgumentException if no setting <code>name</code> could be found
+     * @see #setSettingAsync(Setting, boolean, LayoutRestoreListener)
+     */
+    public AsyncLayoutRestore loadAsync( String name, boolean entry, LayoutRestoreListener listener ){
+        if( name == null )
+    		throw new IllegalArgumentException( "name must not be null" );
+    	
+    	Setting setting = getSetting( name );
+        if( setting == null )
+            throw new IllegalArgumentException( "Unknown setting \""+ name +"\"");
+        
+        currentSetting = name;
+        
+        AsyncLayoutRestore restore = setSettingAsync( setting, entry, listener );
+        
+        fireLoaded( name );
+        return restore;
+    }
+    
     /**
      * Creates a new {@link Setting} which describes the current set of
      * properties of this frontend. The setting contains information about
@@ -1614,13 +1675,41 @@ public class DockFrontend {
      * entry should be extracted, <code>false</code> if as much information
      * as possible should be extracted. The value of this argument should
      * be the same as was used when {@link #getSetting(boolean)} was called.
+     * @see #setSetting(Setting, boolean, boolean)
      */
     public void setSetting( Setting setting, boolean entry ){
+        setSetting( setting, entry, false );
+    }
+    
+    /**
+     * Changes the content of all root-stations according to <code>setting</code>.<br>
+     * If <code>incremental</code> is <code>true</code>, then the current layout of each root-station is
+     * compared with the layout stored in <code>setting</code> first. Root-stations whose layout
+     * already matches <code>setting</code> keep their children, only the other root-stations are cleared
+     * and rebuilt. Root-stations are compared as a whole, if only one child of a root-station changed, the entire
+     * root-station is still rebuilt. This is only supported if the {@link #getLayoutChangeStrategy() LayoutChangeStrategy}
+     * is a {@link DefaultLayoutChangeStrategy}, other strategies always rebuild all the root-stations.
+     * @param setting a new set of properties
+     * @param entry <code>true</code> if only information for an ordinary
+     * entry should be extracted, <code>false</code> if as much information
+     * as possible should be extracted. The value of this argument should
+     * be the same as was used when {@link #getSetting(boolean)} was called.
+     * @param incremental whether root-stations which already show the correct layout should be left untouched
+     */
+    public void setSetting( Setting setting, boolean entry, boolean incremental ){
         try{
             onAutoFire++;
             controller.getRegister().setStalled( true );
             
-            if( layoutChangeStrategy.setLayout( new Internals(), setting, entry ) ){
+            boolean applied;
+            if( incremental && layoutChangeStrategy instanceof DefaultLayoutChangeStrategy ){
+            	applied = ((DefaultLayoutChangeStrategy)layoutChangeStrategy).setLayout( new Internals(), setting, entry, true );
+            }
+            else{
+            	applied = layoutChangeStrategy.setLayout( new Internals(), setting, entry );
+            }
+            
+            if( applied ){
                 if( entry ){
                     lastAppliedEntrySetting = setting;
                 }
@@ -1648,6 +1737,36 @@ public class DockFrontend {
         }
     }
     
+    /**
+     * Changes the content of all root-stations according to <code>setting</code>, but postpones the
+     * creation of expensive contents. The layout itself is applied immediately by
+     * {@link #setSetting(Setting, boolean)}, afterwards every {@link LazyDockable} that is not yet
+     * realized is realized in a later EDT task. Dockables the user can see are realized first, then
+     * the selected tabs, and finally all the other dockables. Until the visible dockables are realized,
+     * dockables do not realize themselves when they become visible. Between two batches of dockables the
+     * EDT is free to paint the application or to handle user input.<br>
+     * This method must be called on the EDT.
+     * @param setting a new set of properties
+     * @param entry <code>true</code> if only information for an ordinary
+     * entry should be extracted, <code>false</code> if as much information
+     * as possible should be extracted. The value of this argument should
+     * be the same as was used when {@link #getSetting(boolean)} was called.
+     * @param listener informed about the progress, can be <code>null</code>
+     * @return the object realizing the dockables, can be used to wait for or to cancel the restore
+     */
+    public AsyncLayoutRestore setSettingAsync( Setting setting, boolean entry, LayoutRestoreListener listener ){
+    	AsyncLayoutRestore restore = new AsyncLayoutRestore( controller, AsyncLayoutRestore.DEFAULT_BATCH_SIZE, listener );
+    	try{
+    		setSetting( setting, entry );
+    	}
+    	catch( RuntimeException e ){
+    		restore.cancel( false );
+    		throw e;
+    	}
+    	restore.start();
+    	return restore;
+    }
+    
     /**
      * Creates and returns a new {@link Perspective} which can be used to read, write and convert
      * {@link PerspectiveElement}s. This method creates a new {@link DefaultFrontendPerspectiveCache}.<br>
@@ -1927,6 +2046,7 @@ public class DockFrontend {
     		throw new IllegalArgumentException( "name must not be null" );
     	
         boolean deleted = settings.remove( name ) != null;
+        deleted = lazySettings.remove( name ) != null || deleted;
         if( deleted ){
         	if( name.equals( currentSetting ))
         		currentSetting = null;
@@ -1936,6 +2056,27 @@ public class DockFrontend {
         return deleted;
     }
     
+    /**
+     * Sets whether the {@link Setting}s that are read by {@link #read(DataInputStream)} or
+     * {@link #readXML(XElement)} are decoded only once they are loaded, or immediately. Decoding
+     * the settings lazily is faster if only few of them are ever loaded, but errors in the
+     * data of a setting are only found when the setting is loaded.
+     * @param lazy <code>true</code> if settings should be decoded when they are first loaded,
+     * <code>false</code> if they should be decoded while reading them
+     */
+    public void setDecodeSettingsLazily( boolean lazy ){
+    	this.decodeSettingsLazily = lazy;
+    }
+    
+    /**
+     * Tells whether {@link Setting}s are decoded only once they are loaded.
+     * @return whether settings are decoded lazily
+     * @see #setDecodeSettingsLazily(boolean)
+     */
+    public boolean isDecodeSettingsLazily(){
+    	return decodeSettingsLazily;
+    }
+    
     /**
      * Writes all settings of this frontend, including the current layout,
      * into <code>out</code>.
@@ -1953,7 +2094,7 @@ public class DockFrontend {
      * @throws IOException if there are any problems
      */
     public void writeBlop( SettingsBlop blop, DataOutputStream out ) throws IOException{
-    	Version.write( out, Version.VERSION_1_1_1a );
+    	Version.write( out, Version.VERSION_1_1_3 );
     	
     	String currentSetting = blop.getCurrentName();
     	
@@ -1965,15 +2106,50 @@ public class DockFrontend {
         }
         
         String[] names = blop.getNames();
+        byte[][] sections = new byte[ names.length ][];
+        for( int i = 0; i < names.length; i++ ){
+        	sections[i] = writeSection( blop, names[i] );
+        }
+        
+        // index
         out.writeInt( names.length );
-        for( String name : names ){
-            out.writeUTF( name );
-            write( blop.getSetting( name ), true, out );
+        for( int i = 0; i < names.length; i++ ){
+            out.writeUTF( names[i] );
+            out.writeInt( sections[i].length );
+        }
+        
+        // sections
+        for( byte[] section : sections ){
+        	out.write( section );
         }
         
         write( blop.getCurrentSetting(), false, out );
     }
     
+    /**
+     * Writes the setting <code>name</code> of <code>blop</code> into an independent array of bytes. If
+     * the setting was never decoded, then its raw data is reused.
+     * @param blop the settings to write
+     * @param name the name of the setting to write
+     * @return the setting as array of bytes
+     * @throws IOException if there are any problems
+     */
+    private byte[] writeSection( SettingsBlop blop, String name ) throws IOException{
+    	LazySetting lazy = blop.getLazySetting( name );
+    	if( lazy != null && !lazy.isDecoded() ){
+    		byte[] data = lazy.getData();
+    		if( data != null ){
+    			return data;
+    		}
+    	}
+    	
+    	ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    	DataOutputStream dout = new DataOutputStream( bout );
+    	write( blop.getSetting( name ), true, dout );
+    	dout.close();
+    	return bout.toByteArray();
+    }
+    
     /**
      * Calls {@link Setting#write(DockSituation, PropertyTransformer, boolean, DataOutputStream)}
      * @param setting the setting which will be written
@@ -2014,7 +2190,10 @@ public class DockFrontend {
     
     /**
      * Reads the contents of <code>in</code> using all the factories that are currently installed
-     * on this {@link DockFrontend}, this method does not change any properties of the frontend.
+     * on this {@link DockFrontend}, this method does not change any properties of the frontend.<br>
+     * If {@link #isDecodeSettingsLazily()} is set, then the {@link Setting}s which are not the current
+     * setting are only decoded once {@link SettingsBlop#getSetting(String)} is called. A corrupted
+     * setting is then reported by an {@link IllegalArgumentException} at that time, and not by this method.
      * @param in the stream to read from
      * @return the {@link Setting}s that were read
      * @throws IOException if <code>in</code> cannot be read properly
@@ -2031,10 +2210,38 @@ public class DockFrontend {
             currentSetting = in.readUTF();
         
         int count = in.readInt();
-        for( int i = 0; i < count; i++ ){
-            String key = in.readUTF();
-            Setting setting = read( true, in );
-            blop.put( key, setting );
+        if( Version.VERSION_1_1_3.compareTo( version ) <= 0 ){
+        	// index
+        	String[] keys = new String[ count ];
+        	int[] lengths = new int[ count ];
+        	for( int i = 0; i < count; i++ ){
+        		keys[i] = in.readUTF();
+        		lengths[i] = in.readInt();
+        		if( lengths[i] < 0 ){
+        			throw new IOException( "illegal index entry for setting '" + keys[i] + "'" );
+        		}
+        	}
+        	
+        	// sections
+        	for( int i = 0; i < count; i++ ){
+        		byte[] data = new byte[ lengths[i] ];
+        		in.readFully( data );
+        		if( decodeSettingsLazily ){
+        			blop.putLazy( keys[i], new BinarySetting( data ) );
+        		}
+        		else{
+        			DataInputStream section = new DataInputStream( new ByteArrayInputStream( data ));
+        			blop.put( keys[i], read( true, section ) );
+        			section.close();
+        		}
+        	}
+        }
+        else{
+	        for( int i = 0; i < count; i++ ){
+	            String key = in.readUTF();
+	            Setting setting = read( true, in );
+	            blop.put( key, setting );
+	        }
         }
         
         blop.setCurrent( currentSetting, read( false, in ) );
@@ -2085,7 +2292,17 @@ public class DockFrontend {
             for( String name : names ){
             	XElement xsetting = xsettings.addElement( "setting" );
                 xsetting.addString( "name", name );
-                writeXML( blop.getSetting( name ), true, xsetting );
+                
+                LazySetting lazy = blop.getLazySetting( name );
+                XElement xdata = lazy == null || lazy.isDecoded() ? null : lazy.getXML();
+                if( xdata != null ){
+                	for( XElement xchild : xdata.children() ){
+                		xsetting.addElement( xchild.copy() );
+                	}
+                }
+                else{
+                	writeXML( blop.getSetting( name ), true, xsetting );
+                }
             }
         }
         
@@ -2112,6 +2329,109 @@ public class DockFrontend {
         setting.writeXML( situation, properties, entry, element );
     }
     
+    /**
+     * Writes all properties of this frontend directly into <code>writer</code>. The output is
+     * the same as the output of {@link #writeXML(XElement)}.
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     */
+    public void writeXML( XWriter writer ) throws IOException{
+    	writeBlopXML( writeBlop(), writer );
+    }
+    
+    /**
+     * Writes all the {@link Setting}s of <code>blop</code> directly into <code>writer</code>, this
+     * method does use the factories installed on this {@link DockFrontend}, but does not
+     * change any properties of the frontend.
+     * @param blop the settings to write
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     * @see #writeBlopXML(SettingsBlop, XElement)
+     */
+    public void writeBlopXML( SettingsBlop blop, XWriter writer ) throws IOException{
+    	String[] names = blop.getNames();
+    	boolean streaming = XIO.isStreamingSupported( getClass(), "writeXML",
+    			new Class<?>[]{ Setting.class, boolean.class, XElement.class }, new Class<?>[]{ Setting.class, boolean.class, XWriter.class } );
+    	
+    	if( names.length > 0 ){
+    		writer.startElement( "settings" );
+    		for( String name : names ){
+    			writer.startElement( "setting" );
+    			writer.attribute( "name", name );
+    			
+    			LazySetting lazy = blop.getLazySetting( name );
+    			XElement xdata = lazy == null || lazy.isDecoded() ? null : lazy.getXML();
+    			if( xdata != null ){
+    				for( XElement xchild : xdata.children() ){
+    					writer.element( xchild );
+    				}
+    			}
+    			else{
+    				writeXML( blop.getSetting( name ), true, writer, streaming );
+    			}
+    			writer.endElement();
+    		}
+    		writer.endElement();
+    	}
+    	
+    	writer.startElement( "current" );
+    	String current = blop.getCurrentName();
+    	if( current != null )
+    		writer.attribute( "name", current );
+    	
+    	writeXML( blop.getCurrentSetting(), false, writer, streaming );
+    	writer.endElement();
+    }
+    
+    /**
+     * Writes <code>setting</code> into <code>writer</code>, either by calling {@link #writeXML(Setting, boolean, XWriter)}
+     * or, if a subclass overrides only {@link #writeXML(Setting, boolean, XElement)}, by calling that method and
+     * copying the resulting element into <code>writer</code>.
+     * @param setting the setting to write
+     * @param entry whether <code>setting</code> is an ordinary entry
+     * @param writer the writer to fill
+     * @param streaming whether {@link #writeXML(Setting, boolean, XWriter)} can be used
+     * @throws IOException if <code>writer</code> cannot be written
+     */
+    private void writeXML( Setting setting, boolean entry, XWriter writer, boolean streaming ) throws IOException{
+    	if( streaming ){
+    		writeXML( setting, entry, writer );
+    	}
+    	else{
+    		XElement element = new XElement( "setting" );
+    		writeXML( setting, entry, element );
+    		writer.contents( element );
+    	}
+    }
+    
+    /**
+     * Calls {@link Setting#writeXML(DockSituation, PropertyTransformer, boolean, XWriter)}. If
+     * <code>setting</code> overrides only {@link Setting#writeXML(DockSituation, PropertyTransformer, boolean, XElement)},
+     * then that method is called and its result is copied into <code>writer</code>.
+     * @param setting the setting to write
+     * @param entry whether <code>setting</code> is an ordinary entry, or
+     * the final setting that contains more data.
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     */
+    protected void writeXML( Setting setting, boolean entry, XWriter writer ) throws IOException{
+    	Internals internals = new Internals();
+    	DockSituation situation = layoutChangeStrategy.createSituation( internals, entry );
+    	PropertyTransformer properties = layoutChangeStrategy.createTransformer( internals );
+    	
+    	boolean streaming = XIO.isStreamingSupported( setting.getClass(), "writeXML",
+    			new Class<?>[]{ DockSituation.class, PropertyTransformer.class, boolean.class, XElement.class },
+    			new Class<?>[]{ DockSituation.class, PropertyTransformer.class, boolean.class, XWriter.class } );
+    	if( streaming ){
+    		setting.writeXML( situation, properties, entry, writer );
+    	}
+    	else{
+    		XElement element = new XElement( "setting" );
+    		setting.writeXML( situation, properties, entry, element );
+    		writer.contents( element );
+    	}
+    }
+    
     /**
      * Reads the contents of this frontend from an xml element. All existing settings
      * are deleted (see {@link #deleteAll()}) by this method.
@@ -2133,7 +2453,10 @@ public class DockFrontend {
     
     /**
      * Reads the contents of <code>element</code> using all the factories installed on this
-     * {@link DockFrontend}, without actually changing any property of this frontend.
+     * {@link DockFrontend}, without actually changing any property of this frontend.<br>
+     * If {@link #isDecodeSettingsLazily()} is set, then the {@link Setting}s which are not the current
+     * setting are only decoded once {@link SettingsBlop#getSetting(String)} is called. A corrupted
+     * setting is then reported by an {@link IllegalArgumentException} at that time, and not by this method.
      * @param element the element to read
      * @return all the layouts stored in <code>element</code>
      */
@@ -2144,8 +2467,12 @@ public class DockFrontend {
         if( xsettings != null ){
             for( XElement xsetting : xsettings.getElements( "setting" )){
                 String key = xsetting.getString( "name" );
-                Setting setting = readXML( true, xsetting );
-                blop.put( key, setting );
+                if( decodeSettingsLazily ){
+                	blop.putLazy( key, new XmlSetting( xsetting ) );
+                }
+                else{
+                	blop.put( key, readXML( true, xsetting ) );
+                }
             }
         }
         
@@ -2162,6 +2489,80 @@ public class DockFrontend {
         return blop;
     }
     
+    /**
+     * Reads the contents of this frontend directly from <code>reader</code>. All existing settings
+     * are deleted (see {@link #deleteAll()}) by this method. Other than {@link #readXML(XElement)}
+     * this method does not need the whole xml file in memory.
+     * @param reader the reader pointing to the element to read, the element will be consumed
+     * @throws IOException if <code>reader</code> cannot be read
+     */
+    public void readXML( XReader reader ) throws IOException{
+    	readXML( reader, false );
+    }
+    
+    /**
+     * Reads the contents of this frontend directly from <code>reader</code>.
+     * @param reader the reader pointing to the element to read, the element will be consumed
+     * @param keepExistingSettings whether to keep or to delete (see {@link #deleteAll()}) the
+     * existing settings.
+     * @throws IOException if <code>reader</code> cannot be read
+     */
+    public void readXML( XReader reader, boolean keepExistingSettings ) throws IOException{
+    	readBlop( readBlopXML( reader ), keepExistingSettings );
+    }
+    
+    /**
+     * Reads the contents of <code>reader</code> using all the factories installed on this
+     * {@link DockFrontend}, without actually changing any property of this frontend. The
+     * result is the same as the result of {@link #readBlopXML(XElement)}.<br>
+     * If {@link #isDecodeSettingsLazily()} is set, then the {@link Setting}s which are not the current
+     * setting are only decoded once {@link SettingsBlop#getSetting(String)} is called, the current
+     * setting is always read directly from <code>reader</code>.
+     * @param reader the reader pointing to the element to read, the element will be consumed
+     * @return all the layouts stored in <code>reader</code>
+     * @throws IOException if <code>reader</code> cannot be read
+     */
+    public SettingsBlop readBlopXML( XReader reader ) throws IOException{
+    	SettingsBlop blop = new SettingsBlop();
+    	boolean streaming = XIO.isStreamingSupported( getClass(), "readXML",
+    			new Class<?>[]{ boolean.class, XElement.class }, new Class<?>[]{ boolean.class, XReader.class } );
+    	
+    	while( reader.nextChild() ){
+    		String name = reader.getName();
+    		if( "settings".equals( name )){
+    			while( reader.nextChild() ){
+    				if( "setting".equals( reader.getName() )){
+    					XElement xsetting = reader.readElement();
+    					if( decodeSettingsLazily ){
+    						blop.putLazy( xsetting.getString( "name" ), new XmlSetting( xsetting ) );
+    					}
+    					else{
+    						blop.put( xsetting.getString( "name" ), readXML( true, xsetting ) );
+    					}
+    				}
+    				else{
+    					reader.skipElement();
+    				}
+    			}
+    		}
+    		else if( "current".equals( name )){
+    			String current = reader.getAttribute( "name" );
+    			Setting setting;
+    			if( streaming ){
+    				setting = readXML( false, reader );
+    			}
+    			else{
+    				setting = readXML( false, reader.readElement() );
+    			}
+    			blop.setCurrent( current, setting );
+    		}
+    		else{
+    			reader.skipElement();
+    		}
+    	}
+    	return blop;
+    }
+    
     /**
      * Calls {@link #createSetting()} and then
      * {@link Setting#readXML(DockSituation, PropertyTransformer, boolean, XElement)}.
@@ -2180,6 +2581,37 @@ public class DockFrontend {
         return setting;
     }
     
+    /**
+     * Calls {@link #createSetting()} and then
+     * {@link Setting#readXML(DockSituation, PropertyTransformer, boolean, XReader)}. If the
+     * new setting overrides only {@link Setting#readXML(DockSituation, PropertyTransformer, boolean, XElement)},
+     * then the element is read into memory and that method is called instead.
+     * @param entry whether the set of properties is used as ordinary entry,
+     * or contains more data than usual.
+     * @param reader the reader pointing to the element containing the data for the new
+     * setting, the element will be consumed
+     * @return the new setting
+     * @throws IOException if <code>reader</code> cannot be read
+     * @see #createSetting()
+     */
+    protected Setting readXML( boolean entry, XReader reader ) throws IOException{
+        Setting setting = createSetting();
+        Internals internals = new Internals();
+        DockSituation situation = layoutChangeStrategy.createSituation( internals, entry );
+        PropertyTransformer properties = layoutChangeStrategy.createTransformer( internals );
+        
+        boolean streaming = XIO.isStreamingSupported( setting.getClass(), "readXML",
+        		new Class<?>[]{ DockSituation.class, PropertyTransformer.class, boolean.class, XElement.class },
+        		new Class<?>[]{ DockSituation.class, PropertyTransformer.class, boolean.class, XReader.class } );
+        if( streaming ){
+        	setting.readXML( situation, properties, entry, reader );
+        }
+        else{
+        	setting.readXML( situation, properties, entry, reader.readElement() );
+        }
+        return setting;
+    }
+    
     /**
      * Stores all the current {@link Setting}s of this {@link DockFrontend} in a new {@link SettingsBlop}.
      * @return the blop that contains all the settings of this frontend
@@ -2189,6 +2621,9 @@ public class DockFrontend {
     	for( Map.Entry<String, Setting> entry : settings.entrySet() ){
     		blop.put( entry.getKey(), entry.getValue() );
     	}
+    	for( Map.Entry<String, LazySetting> entry : lazySettings.entrySet() ){
+    		blop.putLazy( entry.getKey(), entry.getValue() );
+    	}
     	blop.setCurrent( currentSetting, getSetting( false ) );
     	return blop;
     }
@@ -2205,7 +2640,15 @@ public class DockFrontend {
     		deleteAll();
     	}
     	for( String name : blop.getNames() ){
-    		settings.put( name, blop.getSetting( name ) );
+    		LazySetting lazy = blop.getLazySetting( name );
+    		if( lazy != null && !lazy.isDecoded() ){
+    			lazySettings.put( name, lazy );
+    			settings.remove( name );
+    		}
+    		else{
+    			settings.put( name, blop.getSetting( name ) );
+    			lazySettings.remove( name );
+    		}
     		fireRead( name );
     	}
     	currentSetting = blop.getCurrentName();
@@ -2505,6 +2948,85 @@ public class DockFrontend {
 		}
     }
     
+    /**
+     * A {@link Setting} that was read by {@link DockFrontend#readBlop(DataInputStream)} and that
+     * is not yet decoded.
+     * @author Benjamin Sigg
+     */
+    private class BinarySetting extends LazySetting{
+    	/** the data written by {@link DockFrontend#write(Setting, boolean, DataOutputStream)} */
+    	private byte[] data;
+    	
+    	/**
+    	 * Creates a new setting.
+    	 * @param data the raw data of the setting
+    	 */
+    	public BinarySetting( byte[] data ){
+    		this.data = data;
+    	}
+    	
+    	@Override
+    	protected Setting decode(){
+    		try{
+    			DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ));
+    			Setting setting = read( true, in );
+    			in.close();
+    			return setting;
+    		}
+    		catch( IOException ex ){
+    			throw new IllegalArgumentException( ex );
+    		}
+    	}
+    	
+    	@Override
+    	public byte[] getData(){
+    		return data;
+    	}
+    	
+    	@Override
+    	public XElement getXML(){
+    		return null;
+    	}
+    }
+    
+    /**
+     * A {@link Setting} that was read by {@link DockFrontend#readBlopXML(XElement)} and that
+     * is not yet decoded.
+     * @author Benjamin Sigg
+     */
+    private class XmlSetting extends LazySetting{
+    	/** the data written by {@link DockFrontend#writeXML(Setting, boolean, XElement)} */
+    	private XElement element;
+    	
+    	/**
+    	 * Creates a new setting.
+    	 * @param element the raw data of the setting
+    	 */
+    	public XmlSetting( XElement element ){
+    		this.element = element;
+    	}
+    	
+    	@Override
+    	protected Setting decode(){
+    		try{
+    			return readXML( true, element );
+    		}
+    		catch( XException ex ){
+    			throw new IllegalArgumentException( ex );
+    		}
+    	}
+    	
+    	@Override
+    	public byte[] getData(){
+    		return null;
+    	}
+    	
+    	@Override
+    	public XElement getXML(){
+    		return element;
+    	}
+    }
+    
     /**
      * Information about a {@link Dockable}.
      * @author Benjamin Sigg
@@ -32,10 +32,15 @@ import java.awt.Container;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
 import java.awt.LayoutManager;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.lang.ref.WeakReference;
 
 import javax.swing.Icon;
 import javax.swing.LayoutFocusTraversalPolicy;
+import javax.swing.Timer;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -44,23 +49,29 @@ import bibliothek.gui.dock.component.DockComponentRootHandler;
 import bibliothek.gui.dock.dockable.AbstractDockable;
 import bibliothek.gui.dock.dockable.DefaultDockableFactory;
 import bibliothek.gui.dock.dockable.DockableBackgroundComponent;
+import bibliothek.gui.dock.dockable.DockableContentSupplier;
 import bibliothek.gui.dock.dockable.DockableIcon;
 import bibliothek.gui.dock.dockable.IconHandling;
+import bibliothek.gui.dock.dockable.LazyDockable;
 import bibliothek.gui.dock.themes.ThemeManager;
 import bibliothek.gui.dock.util.BackgroundAlgorithm;
 import bibliothek.gui.dock.util.BackgroundPanel;
 import bibliothek.gui.dock.util.ConfiguredBackgroundPanel;
 import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.PropertyValue;
 import bibliothek.gui.dock.util.Transparency;
 import bibliothek.gui.dock.util.icon.DockIcon;
 
 /**
  * A {@link Dockable} which consists only of one {@link Component} called
  * "content pane". It's possible to add or remove components from the
- * content pane at any time.
+ * content pane at any time.<br>
+ * Clients that want to postpone the creation of an expensive content can
+ * set a {@link #setContentSupplier(DockableContentSupplier) content supplier},
+ * then the content is only created once the dockable becomes visible.
  * @author Benjamin Sigg
  */
-public class DefaultDockable extends AbstractDockable {
+public class DefaultDockable extends AbstractDockable implements LazyDockable {
     /** the content pane */
     private BackgroundPanel pane = new ConfiguredBackgroundPanel( new BorderLayout(), Transparency.SOLID );
     
@@ -73,6 +84,29 @@ public class DefaultDockable extends AbstractDockable {
     /** the component that was set by the client */
     private WeakReference<Component> clientComponent;
     
+    /** creates the content of this dockable lazily, can be <code>null</code> */
+    private DockableContentSupplier contentSupplier;
+    
+    /** the component created by {@link #contentSupplier}, <code>null</code> if not yet realized */
+    private Component lazyContent;
+    
+    /** observes whether {@link #pane} is showing, only present if there is a {@link #contentSupplier} */
+    private HierarchyListener showingListener;
+    
+    /** milliseconds after which hidden lazy content is released, -1 if the content is never released */
+    private int contentReleaseDelay = -1;
+    
+    /** timer releasing the lazy content, <code>null</code> if not running */
+    private Timer releaseTimer;
+    
+    /** whether the lazy content must not be created when this dockable becomes visible */
+    private PropertyValue<Boolean> deferRealization = new PropertyValue<Boolean>( LazyDockable.DEFER_REALIZATION ){
+    	@Override
+    	protected void valueChanged( Boolean oldValue, Boolean newValue ){
+    		showingChanged();
+    	}
+    };
+    
     /**
      * Constructs a new DefaultDockable
      */
@@ -256,6 +290,143 @@ public class DefaultDockable extends AbstractDockable {
     	return child;
     }
     
+    /**
+     * Sets an object that creates the content of this dockable lazily. The content is created once the
+     * dockable becomes visible, e.g. when its tab is selected for the first time, or once {@link #realize()}
+     * is called. Until then this dockable shows an empty content pane. The content is added to the
+     * {@link #getContentPane() content pane} without changing its layout. If a content was already created by
+     * the old supplier, then that content is released.
+     * @param contentSupplier the new supplier, can be <code>null</code>
+     */
+    public void setContentSupplier( DockableContentSupplier contentSupplier ){
+    	releaseContent();
+    	this.contentSupplier = contentSupplier;
+    	
+    	if( contentSupplier == null ){
+    		if( showingListener != null ){
+    			pane.removeHierarchyListener( showingListener );
+    			showingListener = null;
+    		}
+    	}
+    	else{
+    		if( showingListener == null ){
+    			showingListener = new HierarchyListener(){
+    				public void hierarchyChanged( HierarchyEvent e ){
+    					if( (e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0 ){
+    						showingChanged();
+    					}
+    				}
+    			};
+    			pane.addHierarchyListener( showingListener );
+    		}
+    		showingChanged();
+    	}
+    }
+    
+    /**
+     * Gets the object that creates the content of this dockable lazily.
+     * @return the supplier, can be <code>null</code>
+     */
+    public DockableContentSupplier getContentSupplier(){
+		return contentSupplier;
+	}
+    
+    /**
+     * Sets the time after which the lazy content of a hidden dockable is released. The content is
+     * created again when the dockable becomes visible. This setting has only an effect if
+     * there is a {@link #setContentSupplier(DockableContentSupplier) content supplier}.
+     * @param contentReleaseDelay the delay in milliseconds, -1 if the content should never be released
+     */
+    public void setContentReleaseDelay( int contentReleaseDelay ){
+		this.contentReleaseDelay = contentReleaseDelay;
+		if( releaseTimer != null ){
+			releaseTimer.stop();
+			releaseTimer = null;
+		}
+		showingChanged();
+	}
+    
+    /**
+     * Gets the time after which the lazy content of a hidden dockable is released.
+     * @return the delay in milliseconds, -1 if the content is never released
+     */
+    public int getContentReleaseDelay(){
+		return contentReleaseDelay;
+	}
+    
+    public boolean isRealized(){
+    	return contentSupplier == null || lazyContent != null;
+    }
+    
+    public void realize(){
+    	if( contentSupplier != null && lazyContent == null ){
+    		Component content = contentSupplier.createContent();
+    		if( content == null ){
+    			throw new IllegalStateException( "the content supplier did not create a component" );
+    		}
+    		lazyContent = content;
+    		getContentPane().add( content );
+    		pane.revalidate();
+    		pane.repaint();
+    		
+    		// if realized while hidden, the content may have to be released again
+    		showingChanged();
+    	}
+    }
+    
+    /**
+     * Removes the content that was created by the {@link #setContentSupplier(DockableContentSupplier) content supplier}
+     * and hands it back to the supplier. The content is created again when this dockable becomes visible.
+     * @return <code>true</code> if there was a content to release
+     */
+    public boolean releaseContent(){
+    	if( releaseTimer != null ){
+    		releaseTimer.stop();
+    		releaseTimer = null;
+    	}
+    	if( lazyContent == null ){
+    		return false;
+    	}
+    	Component content = lazyContent;
+    	lazyContent = null;
+    	getContentPane().remove( content );
+    	pane.revalidate();
+    	pane.repaint();
+    	contentSupplier.releaseContent( content );
+    	return true;
+    }
+    
+    /**
+     * Called when the showing state of this dockable may have changed. Realizes the lazy content, unless
+     * {@link LazyDockable#DEFER_REALIZATION} is set, or starts the timer that releases the content.
+     */
+    private void showingChanged(){
+    	if( contentSupplier == null ){
+    		return;
+    	}
+    	if( pane.isShowing() ){
+    		if( releaseTimer != null ){
+    			releaseTimer.stop();
+    			releaseTimer = null;
+    		}
+    		if( !deferRealization.getValue() ){
+    			realize();
+    		}
+    	}
+    	else if( lazyContent != null && contentReleaseDelay >= 0 && releaseTimer == null ){
+    		releaseTimer = new Timer( contentReleaseDelay, new ActionListener(){
+    			public void actionPerformed( ActionEvent e ){
+    				releaseTimer = null;
+    				if( !pane.isShowing() ){
+    					releaseContent();
+    				}
+    			}
+    		});
+    		releaseTimer.setRepeats( false );
+    		releaseTimer.start();
+    	}
+    }
+    
     /**
      * Gets a panel for children of this Dockable. Clients can do whatever
      * they like, except removing the content pane from its parent.
@@ -304,6 +475,7 @@ public class DefaultDockable extends AbstractDockable {
     public void setController( DockController controller ){
     	super.setController( controller );
     	background.setController( controller );
+    	deferRealization.setProperties( controller );
     }
     
     /**
@@ -27,9 +27,12 @@
 package bibliothek.gui.dock;
 
 import java.awt.EventQueue;
-import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
@@ -39,21 +42,39 @@ import bibliothek.gui.Dockable;
  * The {@link DockHierarchyLock} allows {@link DockStation}s to defend
  * themselves against concurrent modifications of the hierarchy. At any time only
  * one {@link DockStation} or a class working with {@link DockStation}s in the realm 
- * of a {@link DockController} can acquire the lock.
+ * of a {@link DockController} can acquire the lock.<br>
+ * The lock does not use any monitor, acquiring and releasing a {@link Token} only 
+ * requires a few atomic operations. Hence the lock is cheap if it is only accessed by the EDT, which
+ * should always be the case.<br>
+ * The lock counts how often it is used, these counters can be used to measure the overhead of the lock 
+ * during large operations, see {@link #getAcquisitionCount()}, {@link #getNestedAcquisitionCount()} and
+ * {@link #getOnReleaseCount()}.
  * @author Benjamin Sigg
  */
 public class DockHierarchyLock {
 	/** the current lock */
-	private volatile Token token = null;
+	private final AtomicReference<Token> token = new AtomicReference<Token>();
+	
+	/** the number of {@link Token}s that are acquired and not yet released, including tokens acquired while {@link #isConcurrent() concurrent} */
+	private final AtomicInteger depth = new AtomicInteger();
 	
 	/** whether to throw an exception or just print one */
 	private boolean hardExceptions = false;
 	
 	/** if greater than 0, no exception is ever thrown */
-	private volatile int concurrent = 0;
+	private final AtomicInteger concurrent = new AtomicInteger();
 	
 	/** the {@link Runnable}s to execute once a {@link Token} is released */
-	private Queue<Runnable> onRelease = new LinkedList<Runnable>();
+	private Queue<Runnable> onRelease = new ConcurrentLinkedQueue<Runnable>();
+	
+	/** how many {@link Token}s were acquired */
+	private final AtomicLong acquisitionCount = new AtomicLong();
+	
+	/** how many {@link Token}s were acquired while another {@link Token} was not yet released */
+	private final AtomicLong nestedAcquisitionCount = new AtomicLong();
+	
+	/** how many {@link Runnable}s from {@link #onRelease} were executed */
+	private final AtomicLong onReleaseCount = new AtomicLong();
 	
 	/** whether a {@link Runnable} from {@link #onRelease} is currently executed */
 	private boolean onReleaseRunning = false;
@@ -80,12 +101,12 @@ public class DockHierarchyLock {
 	 * due to a lock being acquired while a lock is already held. 
 	 * @param concurrent whether to allow concurrent modification or not
 	 */
-	public synchronized void setConcurrent( boolean concurrent ){
+	public void setConcurrent( boolean concurrent ){
 		if( concurrent ){
-			this.concurrent++;
+			this.concurrent.incrementAndGet();
 		}
 		else{
-			this.concurrent--;
+			this.concurrent.decrementAndGet();
 		}
 	}
 	
@@ -95,7 +116,45 @@ public class DockHierarchyLock {
 	 * @see #isConcurrent()
 	 */
 	public boolean isConcurrent(){
-		return concurrent > 0;
+		return concurrent.get() > 0;
+	}
+	
+	/**
+	 * Tells how many {@link Token}s were acquired since this lock was created or since
+	 * {@link #resetCounters()} was called. Fake tokens are not counted.
+	 * @return the number of acquired tokens
+	 */
+	public long getAcquisitionCount(){
+		return acquisitionCount.get();
+	}
+	
+	/**
+	 * Tells how many {@link Token}s were acquired while another token was not yet released, since
+	 * this lock was created or since {@link #resetCounters()} was called. This includes tokens
+	 * that were acquired while this lock was {@link #isConcurrent() concurrent}.
+	 * @return the number of nested acquisitions
+	 */
+	public long getNestedAcquisitionCount(){
+		return nestedAcquisitionCount.get();
+	}
+	
+	/**
+	 * Tells how many {@link Runnable}s that were given to {@link #onRelease(Runnable)} were executed 
+	 * since this lock was created or since {@link #resetCounters()} was called.
+	 * @return the number of executed {@link Runnable}s
+	 */
+	public long getOnReleaseCount(){
+		return onReleaseCount.get();
+	}
+	
+	/**
+	 * Sets the counters of {@link #getAcquisitionCount()}, {@link #getNestedAcquisitionCount()} and
+	 * {@link #getOnReleaseCount()} back to <code>0</code>.
+	 */
+	public void resetCounters(){
+		acquisitionCount.set( 0 );
+		nestedAcquisitionCount.set( 0 );
+		onReleaseCount.set( 0 );
 	}
 	
 	/**
@@ -119,34 +178,32 @@ public class DockHierarchyLock {
 			throw new IllegalArgumentException( "run must not be null" );
 		}
 	
-		synchronized( onRelease ) {
-			onRelease.add( run );
-		}
-		
+		onRelease.add( run );
 		runOnRelease();
 	}
 	
 	private void runOnRelease(){
+		if( onRelease.isEmpty() ){
+			// a Runnable added later is executed by the thread adding it
+			return;
+		}
+		
 		if( EventQueue.isDispatchThread() ){
 			if( !onReleaseRunning ){
-				synchronized( this ) {
-					if( token != null ){
-						return;
-					}
+				if( token.get() != null ){
+					return;
 				}
 				
 				try{
 					onReleaseRunning = true;
 					
 					while( true ){
-						Runnable run = null;
-						synchronized( onRelease ){
-							run = onRelease.poll();
-						}
+						Runnable run = onRelease.poll();
 						if( run == null ){
 							break;
 						}
 						
+						onReleaseCount.incrementAndGet();
 						run.run();
 					}
 					
@@ -269,7 +326,7 @@ public class DockHierarchyLock {
 	 * @throws IllegalStateException if <code>dockable</code> has a parent or <code>station</code>
 	 * thinks that <code>dockable</code> is one of its children
 	 */
-	public synchronized Token acquireLink( DockStation station, Dockable dockable ){
+	public Token acquireLink( DockStation station, Dockable dockable ){
 		if( station == null ){
 			throw new IllegalArgumentException( "station is null" );
 		}
@@ -277,16 +334,7 @@ public class DockHierarchyLock {
 			throw new IllegalArgumentException( "dockable is null" );
 		}
 		ensureUnlinked( station, dockable );
-		
-		if( isConcurrent() ){
-			return new Token( this, station, dockable, true );
-		}
-		
-		if( token != null ){
-			throwException( new IllegalStateException( defaultMessage() ) );
-		}
-		token = new Token( this, station, dockable, true );
-		return token;
+		return acquire( new Token( this, station, dockable, true ) );
 	}
 	
 	/**
@@ -297,7 +345,7 @@ public class DockHierarchyLock {
 	 * @throws IllegalStateException if <code>dockable</code> is not a child of
 	 * <code>station</code>
 	 */
-	public synchronized Token acquireUnlink( DockStation station, Dockable dockable ){
+	public Token acquireUnlink( DockStation station, Dockable dockable ){
 		if( station == null ){
 			throw new IllegalArgumentException( "station is null" );
 		}
@@ -305,16 +353,7 @@ public class DockHierarchyLock {
 			throw new IllegalArgumentException( "dockable is null" );
 		}
 		ensureLinked( station, dockable );
-		
-		if( isConcurrent() ){
-			return new Token( this, station, dockable, false );
-		}
-		
-		if( token != null ){
-			throwException( new IllegalStateException( defaultMessage() ) );
-		}
-		token = new Token( this, station, dockable, false );
-		return token;
+		return acquire( new Token( this, station, dockable, false ) );
 	}
 	
 	/**
@@ -325,16 +364,38 @@ public class DockHierarchyLock {
 	 * @return the acquired token to release the lock
 	 * @throws IllegalStateException if the lock is already acquired
 	 */
-	public synchronized Token acquire( DockStation station ){
-		if( isConcurrent() ){
-			return new Token( this, station );
-		}
+	public Token acquire( DockStation station ){
+		return acquire( new Token( this, station ) );
+	}
+	
+	/**
+	 * Makes <code>next</code> the current lock, unless this lock is {@link #isConcurrent() concurrent}.
+	 * @param next the newly acquired token
+	 * @return <code>next</code>
+	 */
+	private Token acquire( Token next ){
+		acquisitionCount.incrementAndGet();
 		
-		if( token != null ){
+		if( !isConcurrent() && !token.compareAndSet( null, next )){
+			// may throw, in which case next is never released and must not be counted
 			throwException( new IllegalStateException( defaultMessage() ) );
+			token.set( next );
+		}
+		
+		if( depth.getAndIncrement() > 0 ){
+			nestedAcquisitionCount.incrementAndGet();
 		}
-		token = new Token( this, station );
-		return token;
+		return next;
+	}
+	
+	/**
+	 * Called once for each {@link Token} that is released.
+	 * @param released the token that is released
+	 * @return whether <code>released</code> was the current lock
+	 */
+	private boolean release( Token released ){
+		depth.decrementAndGet();
+		return token.compareAndSet( released, null );
 	}
 	
 	private void ensureLinked( DockStation station, Dockable dockable ){
@@ -384,6 +445,8 @@ public class DockHierarchyLock {
 		private DockStation station;
 		private Dockable dockable;
 		private boolean link;
+		/** whether {@link #release()} or {@link #releaseNoCheck()} was already called */
+		private boolean released = false;
 		
 		private Token( DockHierarchyLock lock, DockStation station ){
 			this.lock = lock;
@@ -405,26 +468,28 @@ public class DockHierarchyLock {
 		 * occurred
 		 */
 		public void release(){
-			synchronized( this ){
-				if( lock != null ){
-					boolean release = lock.token == this;
-					if( release ){
-						lock.token = null;
-					}
-					
-					if( dockable != null ){
-						if( link ){
-							lock.ensureLinked( station, dockable );
-						}
-						else{
-							lock.ensureUnlinked( station, dockable );
-						}
+			if( lock != null ){
+				boolean release;
+				if( released ){
+					release = lock.token.compareAndSet( this, null );
+				}
+				else{
+					released = true;
+					release = lock.release( this );
+				}
+				
+				if( dockable != null ){
+					if( link ){
+						lock.ensureLinked( station, dockable );
 					}
-					
-					if( release ){
-						lock.runOnRelease();
+					else{
+						lock.ensureUnlinked( station, dockable );
 					}
 				}
+				
+				if( release ){
+					lock.runOnRelease();
+				}
 			}
 		}
 		
@@ -432,10 +497,12 @@ public class DockHierarchyLock {
 		 * Releases this lock without doing the usual checks.
 		 */
 		public void releaseNoCheck(){
-			synchronized( this ){
-				if( lock != null ){
-					lock.token = null;
+			if( lock != null ){
+				if( !released ){
+					released = true;
+					lock.depth.decrementAndGet();
 				}
+				lock.token.set( null );
 			}
 		}
 	}
@@ -76,7 +76,9 @@ import bibliothek.gui.dock.station.Combiner;
 import bibliothek.gui.dock.station.DisplayerCollection;
 import bibliothek.gui.dock.station.DisplayerFactory;
 import bibliothek.gui.dock.station.DockableDisplayer;
+import bibliothek.gui.dock.station.LayoutSuspendable;
 import bibliothek.gui.dock.station.PlaceholderMapping;
+import bibliothek.gui.dock.station.ReusableStationDropOperation;
 import bibliothek.gui.dock.station.StationBackgroundComponent;
 import bibliothek.gui.dock.station.StationDragOperation;
 import bibliothek.gui.dock.station.StationDropItem;
@@ -143,7 +145,7 @@ import bibliothek.util.Path;
  * which owns the clicked title is shown in this window.
  * @author Benjamin Sigg
  */
-public class FlapDockStation extends AbstractDockableStation {
+public class FlapDockStation extends AbstractDockableStation implements LayoutSuspendable {
     /** 
      * The direction in which the window with the <code>Dockable</code> will popup,
      * in respect to the location of this station.
@@ -259,6 +261,12 @@ public class FlapDockStation extends AbstractDockableStation {
     	}
     };
     
+    /** how often {@link #suspendLayout()} was called without calling {@link #resumeLayout()} */
+    private int layoutSuspended = 0;
+    
+    /** whether {@link #updateWindowBounds()} was called while the layout was suspended */
+    private boolean layoutPending = false;
+    
     /** the minimum size this station has */
     private PropertyValue<Dimension> minimumSize = new PropertyValue<Dimension>( MINIMUM_SIZE ) {
     	protected void valueChanged( Dimension oldValue, Dimension newValue ){
@@ -669,11 +677,36 @@ public class FlapDockStation extends AbstractDockableStation {
     
     /**
      * Recalculates the size and the location of the popup-window, if
-     * there is a window.
+     * there is a window. Does nothing but remember the call if the layout
+     * is {@link #suspendLayout() suspended}.
      */
     protected void updateWindowBounds(){
-        if( window != null )
+    	if( layoutSuspended > 0 ){
+    		layoutPending = true;
+    	}
+    	else if( window != null ){
             window.updateBounds();
+    	}
+    }
+    
+    public void suspendLayout(){
+    	layoutSuspended++;
+    }
+    
+    public void resumeLayout(){
+    	if( layoutSuspended <= 0 ){
+    		throw new IllegalStateException( "layout is not suspended" );
+    	}
+    	layoutSuspended--;
+    	if( layoutSuspended == 0 && layoutPending ){
+    		layoutPending = false;
+    		updateWindowBounds();
+    		buttonPane.revalidate();
+    	}
+    }
+    
+    public boolean isLayoutSuspended(){
+    	return layoutSuspended > 0;
     }
     
     /**
@@ -2228,9 +2261,11 @@ public class FlapDockStation extends AbstractDockableStation {
      * Custom implementation of {@link StationDropOperation}.
      * @author Benjamin Sigg
      */
-    protected class FlapDropOperation implements StationDropOperation{
+    protected class FlapDropOperation implements ReusableStationDropOperation{
     	private FlapDropInfo dropInfo;
     	private boolean move;
+    	/** the number of children when this operation was created */
+    	private int count;
     	
     	/**
     	 * Creates a new operation.
@@ -2244,12 +2279,44 @@ public class FlapDockStation extends AbstractDockableStation {
     		
     		this.dropInfo = dropInfo;
     		this.move = move;
+    		this.count = getDockableCount();
     	}
     	
     	public boolean isMove(){
 	    	return move;
     	}
     	
+    	public boolean isReusable( StationDropItem item ){
+    		if( dropInfo.getCombineTarget() != null || item.getDockable() != dropInfo.getDockable() ){
+    			return false;
+    		}
+    		if( (item.getDockable().getDockParent() == FlapDockStation.this) != move ){
+    			return false;
+    		}
+    		if( getDockableCount() != count ){
+    			return false;
+    		}
+    		
+    		Point mouse = new Point( item.getMouseX(), item.getMouseY() );
+    		if( window != null && window.isWindowVisible() ){
+    			// the mouse may be over the window, and a combination may be possible
+    			if( window.containsScreenPoint( mouse )){
+    				return false;
+    			}
+    			DockTitle title = window.getDockTitle();
+    			if( title != null ){
+    				Point point = new Point( mouse );
+    				SwingUtilities.convertPointFromScreen( point, title.getComponent() );
+    				if( title.getComponent().contains( point )){
+    					return false;
+    				}
+    			}
+    		}
+    		
+    		SwingUtilities.convertPointFromScreen( mouse, buttonPane );
+    		return buttonPane.indexAt( mouse.x, mouse.y ) == dropInfo.getIndex();
+    	}
+    	
     	public void draw(){
 	    	setDropInfo( dropInfo );	
     	}
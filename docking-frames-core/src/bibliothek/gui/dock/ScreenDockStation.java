@@ -64,6 +64,7 @@ import bibliothek.gui.dock.station.Combiner;
 import bibliothek.gui.dock.station.DisplayerCollection;
 import bibliothek.gui.dock.station.DisplayerFactory;
 import bibliothek.gui.dock.station.DockableDisplayer;
+import bibliothek.gui.dock.station.LayoutSuspendable;
 import bibliothek.gui.dock.station.PlaceholderMapping;
 import bibliothek.gui.dock.station.StationDragOperation;
 import bibliothek.gui.dock.station.StationDropItem;
@@ -146,7 +147,7 @@ import bibliothek.util.Todo.Version;
  * 
  * @author Benjamin Sigg
  */
-public class ScreenDockStation extends AbstractDockStation {
+public class ScreenDockStation extends AbstractDockStation implements LayoutSuspendable {
     /** The key for the {@link DockTitleVersion} of this station */
     public static final String TITLE_ID = "screen dock";
     
@@ -245,6 +246,12 @@ public class ScreenDockStation extends AbstractDockStation {
     /** The visibility state of the windows */
     private boolean showing = false;
     
+    /** how often {@link #suspendLayout()} was called without calling {@link #resumeLayout()} */
+    private int layoutSuspended = 0;
+    
+    /** whether some windows need to be validated once the layout is no longer suspended */
+    private boolean layoutPending = false;
+    
     /** A list of all windows that are used by this station */
     private DockablePlaceholderList<ScreenDockWindowHandle> dockables = new DockablePlaceholderList<ScreenDockWindowHandle>();
     
@@ -1377,10 +1384,21 @@ public class ScreenDockStation extends AbstractDockStation {
 	        }
 	        
 	        window.setWindowBounds( bounds );
-	        window.validate();
+	        if( layoutSuspended > 0 ){
+	        	layoutPending = true;
+	        }
+	        else{
+	        	window.validate();
+	        }
 	        
 	        if( !boundsIncludeWindow ){
-	            window.validate();
+	            // the insets are already known from the first validation, only the size of the window changed
+	            if( layoutSuspended > 0 ){
+	            	layoutPending = true;
+	            }
+	            else{
+	            	window.validate();
+	            }
 	            Point offset = window.getOffsetDrop();
 	            if( offset != null ){
 	                Rectangle windowBounds = window.getWindowBounds();
@@ -2130,6 +2148,27 @@ public class ScreenDockStation extends AbstractDockStation {
     	fullscreenStrategy.setValue( strategy );
     }
     
+    public void suspendLayout(){
+    	layoutSuspended++;
+    }
+    
+    public void resumeLayout(){
+    	if( layoutSuspended <= 0 ){
+    		throw new IllegalStateException( "layout is not suspended" );
+    	}
+    	layoutSuspended--;
+    	if( layoutSuspended == 0 && layoutPending ){
+    		layoutPending = false;
+    		for( ScreenDockWindowHandle handle : dockables.dockables() ){
+    			handle.getWindow().validate();
+    		}
+    	}
+    }
+    
+    public boolean isLayoutSuspended(){
+    	return layoutSuspended > 0;
+    }
+    
     /**
      * Tells whether this station shows its children or not.
      * @return <code>true</code> if the windows are visible, <code>false</code>
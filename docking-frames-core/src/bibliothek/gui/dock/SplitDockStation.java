@@ -90,6 +90,7 @@ import bibliothek.gui.dock.station.DisplayerFactory;
 import bibliothek.gui.dock.station.DockStationIcon;
 import bibliothek.gui.dock.station.DockableDisplayer;
 import bibliothek.gui.dock.station.DockableDisplayerListener;
+import bibliothek.gui.dock.station.LayoutSuspendable;
 import bibliothek.gui.dock.station.NoStationDropOperation;
 import bibliothek.gui.dock.station.PlaceholderMapping;
 import bibliothek.gui.dock.station.StationBackgroundComponent;
@@ -129,6 +130,7 @@ import bibliothek.gui.dock.station.split.SplitFullScreenAction;
 import bibliothek.gui.dock.station.split.SplitLayoutManager;
 import bibliothek.gui.dock.station.split.SplitNode;
 import bibliothek.gui.dock.station.split.SplitNodeFactory;
+import bibliothek.gui.dock.station.split.SplitNodeIndex;
 import bibliothek.gui.dock.station.split.SplitNodeVisitor;
 import bibliothek.gui.dock.station.split.SplitPlaceholderConverter;
 import bibliothek.gui.dock.station.split.SplitPlaceholderSet;
@@ -186,7 +188,7 @@ import bibliothek.util.container.Tuple;
  * ID {@link #TITLE_ID}.
  * @author Benjamin Sigg
  */
-public class SplitDockStation extends SecureContainer implements Dockable, DockStation {
+public class SplitDockStation extends SecureContainer implements Dockable, DockStation, LayoutSuspendable {
 	/** The ID under which this station tries to register a {@link DockTitleFactory} */
 	public static final String TITLE_ID = "split";
 
@@ -402,6 +404,9 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	/** Access to the private and protected methods for some friends of this station */
 	private Access access = new Access();
 
+	/** Index of all the nodes of this station, used to find nodes by their unique identifier */
+	private SplitNodeIndex nodeIndex = new SplitNodeIndex( access );
+
 	/** The root of the tree which determines the structure of this station */
 	private Root root;
 	
@@ -413,6 +418,12 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 
 	/** Whether nodes can automatically be removed from the tree or not */
 	private int treeLock = 0;
+	
+	/** how often {@link #suspendLayout()} was called without calling {@link #resumeLayout()} */
+	private int layoutSuspended = 0;
+	
+	/** whether the components need to be validated once the layout is no longer suspended */
+	private boolean layoutPending = false;
 
 	/** Information about the {@link Dockable} which is currently dragged onto this station. */
 	private PutInfo putInfo;
@@ -1977,7 +1988,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 				DockableProperty successor = property.getSuccessor();
 				if( station != null && successor != null ) {
 					if( station.drop(dockable, successor) ) {
-						validate();
+						validateLayout();
 						return true;
 					}
 				}
@@ -1985,12 +1996,12 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 				if( info.bestLeafIntersection > 0.75 ) {
 					if( station != null && DockUtilities.acceptable( station, dockable ) ) {
 						station.drop(dockable);
-						validate();
+						validateLayout();
 						return true;
 					}
 					else {
 						boolean result = dropOver(info.bestLeaf, dockable, property.getSuccessor(), null, null);
-						validate();
+						validateLayout();
 						return result;
 					}
 				}
@@ -2265,7 +2276,7 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 		try{
 			access.arm();
 			DockUtilities.checkLayoutLocked();
-			validate();
+			validateLayout();
 			return root().insert(property, dockable);
 		}
 		finally{
@@ -3158,52 +3169,58 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 	}
 
 	/**
-	 * Searches the node whose {@link SplitNode#getId() id} equals <code>id</code>.
+	 * Searches the node whose {@link SplitNode#getId() id} equals <code>id</code>. The nodes
+	 * are stored in an index, hence this method does not need to visit the entire tree.
 	 * @param id the id to search
 	 * @return the node with the id <code>id</code>
 	 */
-	public SplitNode getNode( final long id ){
-		class Visitor implements SplitNodeVisitor {
-			private SplitNode result;
-
-			public void handleRoot( Root root ){
-				if( root.getId() == id ) {
-					result = root;
-				}
-			}
-
-			public void handleLeaf( Leaf leaf ){
-				if( leaf.getId() == id ) {
-					result = leaf;
-				}
-			}
-
-			public void handlePlaceholder( Placeholder placeholder ){
-				if( placeholder.getId() == id ) {
-					result = placeholder;
-				}
-			}
-
-			public void handleNode( Node node ){
-				if( node.getId() == id ) {
-					result = node;
-				}
-			}
-		}
-		;
-
+	public SplitNode getNode( long id ){
 		if( root == null )
 			return null;
 
-		Visitor visitor = new Visitor();
-		getRoot().visit(visitor);
-		return visitor.result;
+		return nodeIndex.get( id );
 	}
 
 	public String getFactoryID(){
 		return SplitDockStationFactory.ID;
 	}
 
+	public void suspendLayout(){
+		layoutSuspended++;
+	}
+	
+	public void resumeLayout(){
+		if( layoutSuspended <= 0 ){
+			throw new IllegalStateException( "layout is not suspended" );
+		}
+		layoutSuspended--;
+		if( layoutSuspended == 0 && layoutPending ){
+			layoutPending = false;
+			updateBounds();
+			revalidate();
+			repaint();
+		}
+	}
+	
+	public boolean isLayoutSuspended(){
+		return layoutSuspended > 0;
+	}
+	
+	/**
+	 * Called after a {@link Dockable} was dropped onto a child of this station. Validates the
+	 * {@link Component}s of this station, or only updates the bounds of the tree if the layout
+	 * is {@link #suspendLayout() suspended}.
+	 */
+	private void validateLayout(){
+		if( layoutSuspended > 0 ){
+			updateBounds();
+			layoutPending = true;
+		}
+		else{
+			validate();
+		}
+	}
+
 	/**
 	 * Updates all locations and sizes of the {@link Component Components}
 	 * which are in the structure of this tree.
@@ -3486,6 +3503,10 @@ public class SplitDockStation extends SecureContainer implements Dockable, DockS
 			}
 		}
 
+		public void registerNode( SplitNode node ){
+			nodeIndex.put( node );
+		}
+
 		public long uniqueID(){
 			long id = System.currentTimeMillis();
 			if( id <= lastUniqueId ) {
@@ -70,6 +70,7 @@ import bibliothek.gui.dock.station.DisplayerFactory;
 import bibliothek.gui.dock.station.DockableDisplayer;
 import bibliothek.gui.dock.station.DockableDisplayerListener;
 import bibliothek.gui.dock.station.PlaceholderMapping;
+import bibliothek.gui.dock.station.ReusableStationDropOperation;
 import bibliothek.gui.dock.station.StationBackgroundComponent;
 import bibliothek.gui.dock.station.StationChildHandle;
 import bibliothek.gui.dock.station.StationDragOperation;
@@ -1946,10 +1947,12 @@ public class StackDockStation extends AbstractDockableStation implements StackDo
      * Custom implementation of {@link StationDropOperation}.
      * @author Benjamin Sigg
      */
-    protected class StackDropOperation implements StationDropOperation{
+    protected class StackDropOperation implements ReusableStationDropOperation{
     	private Insert insert;
     	private Dockable dropping;
     	private boolean move;
+    	/** the number of children when this operation was created */
+    	private int count;
     	
     	/**
     	 * Creates a new operation.
@@ -1961,12 +1964,30 @@ public class StackDockStation extends AbstractDockableStation implements StackDo
     		this.dropping = dropping;
     		this.insert = insert;
     		this.move = move;
+    		this.count = dockables.dockables().size();
     	}
     	
     	public boolean isMove(){
     		return move;
     	}
     	
+    	public boolean isReusable( StationDropItem item ){
+    		if( insert == null || item.getDockable() != dropping ){
+    			return false;
+    		}
+    		if( (dropping.getDockParent() == StackDockStation.this) != move ){
+    			return false;
+    		}
+    		if( dockables.dockables().size() != count ){
+    			return false;
+    		}
+    		
+    		Point point = new Point( item.getMouseX(), item.getMouseY() );
+    		SwingUtilities.convertPointFromScreen( point, panel );
+    		Insert next = tabIndexAt( point.x, point.y );
+    		return next != null && next.getTab() == insert.getTab() && next.isRight() == insert.isRight();
+    	}
+    	
         public void draw() {
         	StackDockStation.this.insert = insert;
             panel.repaint();
@@ -37,13 +37,15 @@ import bibliothek.gui.dock.action.DockAction;
 import bibliothek.gui.dock.action.DockActionSource;
 import bibliothek.gui.dock.event.DockActionSourceListener;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 
 /**
  * A manager which ensures that every {@link DockAction} is bound to its {@link Dockable}s.
  * @author Benjamin Sigg
  *
  */
-public class ActionBinder extends DockRegisterAdapter{
+public class ActionBinder extends DockRegisterAdapter implements DockRegisterBatchListener{
     /** the observers of each Dockable that is known to this manager */
     private Map<Dockable, SourceObserver> observers = new HashMap<Dockable, SourceObserver>();
     
@@ -76,6 +78,15 @@ public class ActionBinder extends DockRegisterAdapter{
         observers.remove( dockable ).destroy();
     }
     
+    public void registerBatchChanged( DockRegisterBatchEvent event ){
+    	for( Dockable dockable : event.getRemovedDockables() ){
+    		observers.remove( dockable ).destroy();
+    	}
+    	for( Dockable dockable : event.getAddedDockables() ){
+    		observers.put( dockable, new SourceObserver( dockable ) );
+    	}
+    }
+    
     /**
      * Observes the {@link DockAction}s of one {@link Dockable} and makes sure
      * that each action is bound.
@@ -30,6 +30,8 @@ import java.util.*;
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockRegisterListener;
 import bibliothek.gui.dock.event.DockStationAdapter;
 import bibliothek.gui.dock.event.DockStationListener;
@@ -39,7 +41,9 @@ import bibliothek.gui.dock.util.DockUtilities;
 /**
  * A set of all {@link bibliothek.gui.Dockable Dockables} and
  * {@link bibliothek.gui.DockStation DockStations} currently used in the
- * system. 
+ * system. The elements are indexed by their identity, hence searching an element
+ * requires constant time, while the order in which the elements were registered
+ * is preserved.
  * @author Benjamin Sigg
  */
 @LayoutLocked( locked=false )
@@ -47,9 +51,16 @@ public class DockRegister {
 	/** these protected stations can never be removed through a drag and drop operation */
 	private Set<DockStation> protectedStations = new HashSet<DockStation>();
 	/** the known stations */
-    private List<DockStation> stations = new ArrayList<DockStation>();
+    private IndexedList<DockStation> stations = new IndexedList<DockStation>();
     /** the known dockables */
-    private List<Dockable> dockables = new ArrayList<Dockable>();
+    private IndexedList<Dockable> dockables = new IndexedList<Dockable>();
+    
+    /** cached result of {@link #listDockStations()}, <code>null</code> if not yet computed */
+    private DockStation[] stationArray;
+    /** cached result of {@link #listDockables()}, <code>null</code> if not yet computed */
+    private Dockable[] dockableArray;
+    /** cached result of {@link #listRoots()}, <code>null</code> if not yet computed */
+    private DockStation[] rootArray;
     
     /** The controller for which the dockables and stations are stored */
     private DockController controller;
@@ -57,6 +68,9 @@ public class DockRegister {
     /** a list of registerListeners which are informed whenever the registered dockables and stations change */
     private List<DockRegisterListener> registerListeners = new ArrayList<DockRegisterListener>();
     
+    /** cached result of {@link #cachedDockRegisterListeners()}, <code>null</code> if not yet computed */
+    private DockRegisterListener[] registerListenerArray;
+    
     /** an observer of the stations */
     private StationListener stationListener = new StationListener();
     
@@ -68,6 +82,9 @@ public class DockRegister {
 	
 	/** the order in which the elements of {@link #changeMap} first appeared */
 	private LinkedList<Dockable> changeQueue = new LinkedList<Dockable>();
+	
+	/** collects the changes for the {@link DockRegisterBatchListener}s while the stalled events are processed, <code>null</code> otherwise */
+	private Batch batch;
     
     /**
      * Creates a new register.
@@ -97,6 +114,7 @@ public class DockRegister {
      */
     public void addDockRegisterListener( DockRegisterListener listener ){
     	registerListeners.add( listener );
+    	registerListenerArray = null;
     }
     
     /**
@@ -106,6 +124,7 @@ public class DockRegister {
      */
     public void removeDockRegisterListener( DockRegisterListener listener ){
     	registerListeners.remove( listener );
+    	registerListenerArray = null;
     }
     
     /**
@@ -113,8 +132,7 @@ public class DockRegister {
      * known to this register.
      */
     public void kill(){
-        List<DockStation> stations = new ArrayList<DockStation>( this.stations );
-        for( DockStation station : stations )
+        for( DockStation station : listDockStations() )
             remove( station );
     }
     
@@ -255,23 +273,30 @@ public class DockRegister {
      * @return the modifiable array of stations
      */
     public DockStation[] listDockStations(){
-    	return stations.toArray( new DockStation[ stations.size() ] );
+    	if( stationArray == null ){
+    		stationArray = stations.toArray( new DockStation[ stations.size() ] );
+    	}
+    	return stationArray.clone();
     }
 
     /**
      * Gets a list of stations which have no parent and are therefore
-     * the roots of the dock-trees.
+     * the roots of the dock-trees. The list is cached and only recomputed if a
+     * station is added, removed or changes its parent.
      * @return the roots
      */
     public DockStation[] listRoots(){
-        List<DockStation> list = new LinkedList<DockStation>();
-        for( DockStation station : stations ){
-            Dockable dockable = station.asDockable();
-            if( dockable == null || dockable.getDockParent() == null )
-                list.add( station );
-        }
-        
-        return list.toArray( new DockStation[ list.size() ] );
+    	if( rootArray == null ){
+	        List<DockStation> list = new ArrayList<DockStation>();
+	        for( int i = 0, n = stations.size(); i < n; i++ ){
+	        	DockStation station = stations.get( i );
+	            Dockable dockable = station.asDockable();
+	            if( dockable == null || dockable.getDockParent() == null )
+	                list.add( station );
+	        }
+	        rootArray = list.toArray( new DockStation[ list.size() ] );
+    	}
+        return rootArray.clone();
     }
     
     /**
@@ -330,7 +355,10 @@ public class DockRegister {
      * @return the list of Dockables
      */
     public Dockable[] listDockables(){
-    	return dockables.toArray( new Dockable[ dockables.size() ] );
+    	if( dockableArray == null ){
+    		dockableArray = dockables.toArray( new Dockable[ dockables.size() ] );
+    	}
+    	return dockableArray.clone();
     }
     
     /**
@@ -344,6 +372,10 @@ public class DockRegister {
             fireDockableRegistering( dockable );
             
             dockables.add( dockable );
+            dockableArray = null;
+            if( batch != null ){
+            	batch.dockableAdded( dockable );
+            }
             dockable.setController( controller );
             
             fireDockableRegistered( dockable );
@@ -358,6 +390,10 @@ public class DockRegister {
      */
     protected void unregister( Dockable dockable ){
         if( dockables.remove( dockable ) ){
+        	dockableArray = null;
+        	if( batch != null ){
+        		batch.dockableRemoved( dockable );
+        	}
             dockable.setController( null );
             
             fireDockableUnregistered( dockable );
@@ -378,6 +414,11 @@ public class DockRegister {
         	fireDockStationRegistering( station );
             
             stations.add( station );
+            stationArray = null;
+            rootArray = null;
+            if( batch != null ){
+            	batch.stationAdded( station );
+            }
             
             station.setController( controller );
             station.updateTheme();
@@ -398,6 +439,11 @@ public class DockRegister {
      */
     protected void unregister( DockStation station ){
         if( stations.remove( station ) ){
+        	stationArray = null;
+        	rootArray = null;
+        	if( batch != null ){
+        		batch.stationRemoved( station );
+        	}
         	station.setController( null );
             station.removeDockStationListener( stationListener );
             
@@ -407,10 +453,23 @@ public class DockRegister {
 
     /**
      * Gets a list of all registerListeners which are registered.
-     * @return the list of registerListeners
+     * @return the list of registerListeners, a new array that can be modified by the caller
      */
     protected DockRegisterListener[] listDockRegisterListeners(){
-    	return registerListeners.toArray( new DockRegisterListener[ registerListeners.size() ] );
+    	return cachedDockRegisterListeners().clone();
+    }
+    
+    /**
+     * Gets the cached array of all registerListeners, the array is shared and must not be
+     * modified. A new array is created whenever a listener is added or removed, hence the array
+     * can be iterated while listeners are added or removed.
+     * @return the array of registerListeners
+     */
+    private DockRegisterListener[] cachedDockRegisterListeners(){
+    	if( registerListenerArray == null ){
+    		registerListenerArray = registerListeners.toArray( new DockRegisterListener[ registerListeners.size() ] );
+    	}
+    	return registerListenerArray;
     }
     
     /**
@@ -418,8 +477,11 @@ public class DockRegister {
      * @param dockable the Dockable which will be registered
      */
     protected void fireDockableRegistering( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableRegistering( controller, dockable );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableRegistering( controller, dockable );
+        	}
+        }
     }
     
     /**
@@ -427,8 +489,11 @@ public class DockRegister {
      * @param dockable the registered Dockable
      */
     protected void fireDockableRegistered( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableRegistered( controller, dockable );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableRegistered( controller, dockable );
+        	}
+        }
     }
 
     /**
@@ -437,8 +502,11 @@ public class DockRegister {
      * @param dockable the unregistered Dockable
      */
     protected void fireDockableUnregistered( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableUnregistered( controller, dockable );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableUnregistered( controller, dockable );
+        	}
+        }
     }
 
     /**
@@ -446,8 +514,11 @@ public class DockRegister {
      * @param station the new station
      */
     protected void fireDockStationRegistering( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockStationRegistering( controller, station );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockStationRegistering( controller, station );
+        	}
+        }
     }
     
     /**
@@ -455,8 +526,11 @@ public class DockRegister {
      * @param station the new station
      */
     protected void fireDockStationRegistered( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockStationRegistered( controller, station );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockStationRegistered( controller, station );
+        	}
+        }
     }
     
     /**
@@ -464,8 +538,11 @@ public class DockRegister {
      * @param station the unregistered station
      */
     protected void fireDockStationUnregistered( DockStation station ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockStationUnregistered( controller, station );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockStationUnregistered( controller, station );
+        	}
+        }
     }
     
     /**
@@ -474,8 +551,34 @@ public class DockRegister {
      * @param dockable the cycling element
      */
     protected void fireStalledChange( Dockable dockable ){
-        for( DockRegisterListener listener : listDockRegisterListeners() )
-            listener.dockableCycledRegister( controller, dockable );
+        for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+        	if( !isBatched( listener )){
+        		listener.dockableCycledRegister( controller, dockable );
+        	}
+        }
+    }
+    
+    /**
+     * Tells whether <code>listener</code> currently does not receive single events because
+     * it will be informed about all changes by a {@link DockRegisterBatchEvent}.
+     * @param listener the listener to check
+     * @return <code>true</code> if no single event should be sent to <code>listener</code>
+     */
+    private boolean isBatched( DockRegisterListener listener ){
+    	return batch != null && listener instanceof DockRegisterBatchListener;
+    }
+    
+    /**
+     * Informs all {@link DockRegisterBatchListener}s about the changes that happened while
+     * the stalled events were processed.
+     * @param event the collected changes
+     */
+    protected void fireBatchChanged( DockRegisterBatchEvent event ){
+    	for( DockRegisterListener listener : cachedDockRegisterListeners() ){
+    		if( listener instanceof DockRegisterBatchListener ){
+    			((DockRegisterBatchListener)listener).registerBatchChanged( event );
+    		}
+    	}
     }
     
     /**
@@ -483,7 +586,7 @@ public class DockRegister {
      * stalled.
      */
     protected void fireStalled(){
-    	for( DockRegisterListener listener : listDockRegisterListeners() ){
+    	for( DockRegisterListener listener : cachedDockRegisterListeners() ){
     		listener.registerStalled( controller );
     	}
     }
@@ -493,7 +596,7 @@ public class DockRegister {
      * no longer stalled.
      */
     protected void fireUnstalled(){
-    	for( DockRegisterListener listener : listDockRegisterListeners() ){
+    	for( DockRegisterListener listener : cachedDockRegisterListeners() ){
     		listener.registerUnstalled( controller );
     	}
     }
@@ -553,32 +656,46 @@ public class DockRegister {
      * stations and dockables are known even while the tree of elements is changed.
      * @author Benjamin Sigg
      */
+    @LayoutLocked( locked=false )
     private class StationListener extends DockStationAdapter{
     	
         /** whether this listener is currently firing the stalled events */
         private boolean firing = false;
         
         public void fire(){
-            if( !firing ){
+            if( !firing && !changeQueue.isEmpty() ){
                 try{
                     firing = true;
                     
-                    while( !changeQueue.isEmpty() ){
-                    	Dockable next = changeQueue.removeFirst();
-                    	Status status = changeMap.remove( next );
-                    	switch( status ){
-                    		case ADDED:
-                    			addDockable( next, false );
-                    			break;
-                    		case REMOVED:
-                    			removeDockable( next );
-                    			break;
-                    		
-                    		case ADDED_AND_REMOVED:
-                    		case REMOVED_AND_ADDED:
-                    			fireStalledChange( next );
-                    			break;
-                    	}
+                    Batch batch = new Batch();
+                    DockRegister.this.batch = batch;
+                    try{
+	                    while( !changeQueue.isEmpty() ){
+	                    	Dockable next = changeQueue.removeFirst();
+	                    	Status status = changeMap.remove( next );
+	                    	
+	                    	switch( status ){
+	                    		case ADDED:
+	                    			addDockable( next, false );
+	                    			break;
+	                    		case REMOVED:
+	                    			removeDockable( next );
+	                    			break;
+	                    		
+	                    		case ADDED_AND_REMOVED:
+	                    		case REMOVED_AND_ADDED:
+	                    			batch.dockableCycled( next );
+	                    			fireStalledChange( next );
+	                    			break;
+	                    	}
+	                    }
+                    }
+                    finally{
+                    	DockRegister.this.batch = null;
+                    }
+                    
+                    if( !batch.isEmpty() ){
+                    	fireBatchChanged( batch.toEvent() );
                     }
                 }
                 finally{
@@ -694,12 +811,22 @@ public class DockRegister {
             }
         }
         
+        @Override
+        public void dockableAdded( DockStation station, Dockable dockable ){
+        	if( dockable.asDockStation() != null ){
+        		rootArray = null;
+        	}
+        }
+        
         @Override
         public void dockableRemoved( DockStation station, Dockable dockable ) {
         	if( dockable.getDockParent() != null && dockable.getDockParent() != station ){
         		throw new IllegalStateException( "the parent of dockable is wrong: it is neither null nor '" + station + "'" );
         	}
             dockable.setDockParent( null );
+            if( dockable.asDockStation() != null ){
+            	rootArray = null;
+            }
             
             if( stalled == 0 ){
                 removeDockable( dockable );
@@ -724,4 +851,126 @@ public class DockRegister {
             }
         }
     }
+    
+    /**
+     * A list of elements which are indexed by their identity. Adding, removing and searching an element
+     * requires constant time, accessing the elements by their index is fast as long as no element was
+     * removed.
+     * @author Benjamin Sigg
+     * @param <T> the kind of elements in this list
+     */
+    private static class IndexedList<T>{
+    	/** the elements of this list, may contain <code>null</code> where elements were removed */
+    	private List<T> elements = new ArrayList<T>();
+    	/** the location of each element in {@link #elements} */
+    	private Map<T, Integer> positions = new IdentityHashMap<T, Integer>();
+    	/** the number of <code>null</code> entries in {@link #elements} */
+    	private int holes = 0;
+    	
+    	public int size(){
+    		return positions.size();
+    	}
+    	
+    	public boolean contains( T element ){
+    		return positions.containsKey( element );
+    	}
+    	
+    	public T get( int index ){
+    		compact();
+    		return elements.get( index );
+    	}
+    	
+    	public void add( T element ){
+    		positions.put( element, elements.size() );
+    		elements.add( element );
+    	}
+    	
+    	public boolean remove( T element ){
+    		Integer position = positions.remove( element );
+    		if( position == null ){
+    			return false;
+    		}
+    		if( position.intValue() == elements.size()-1 ){
+    			elements.remove( elements.size()-1 );
+    		}
+    		else{
+    			elements.set( position.intValue(), null );
+    			holes++;
+    			if( holes > 16 && holes > positions.size() ){
+    				compact();
+    			}
+    		}
+    		return true;
+    	}
+    	
+    	public T[] toArray( T[] array ){
+    		compact();
+    		return elements.toArray( array );
+    	}
+    	
+    	/**
+    	 * Removes all the holes from {@link #elements}.
+    	 */
+    	private void compact(){
+    		if( holes > 0 ){
+    			List<T> next = new ArrayList<T>( positions.size() );
+    			for( T element : elements ){
+    				if( element != null ){
+    					positions.put( element, next.size() );
+    					next.add( element );
+    				}
+    			}
+    			elements = next;
+    			holes = 0;
+    		}
+    	}
+    }
+    
+    /**
+     * Collects the changes of the register while one of the stalled events is processed.
+     * @author Benjamin Sigg
+     */
+    private class Batch{
+    	private Set<DockStation> addedStations = new LinkedHashSet<DockStation>();
+    	private Set<DockStation> removedStations = new LinkedHashSet<DockStation>();
+    	private Set<Dockable> addedDockables = new LinkedHashSet<Dockable>();
+    	private Set<Dockable> removedDockables = new LinkedHashSet<Dockable>();
+    	private Set<Dockable> cycledDockables = new LinkedHashSet<Dockable>();
+    	
+    	public void stationAdded( DockStation station ){
+    		addedStations.add( station );
+    	}
+    	
+    	public void stationRemoved( DockStation station ){
+    		if( !addedStations.remove( station )){
+    			removedStations.add( station );
+    		}
+    	}
+    	
+    	public void dockableAdded( Dockable dockable ){
+    		addedDockables.add( dockable );
+    	}
+    	
+    	public void dockableRemoved( Dockable dockable ){
+    		cycledDockables.remove( dockable );
+    		if( !addedDockables.remove( dockable )){
+    			removedDockables.add( dockable );
+    		}
+    	}
+    	
+    	public void dockableCycled( Dockable dockable ){
+    		cycledDockables.add( dockable );
+    	}
+    	
+    	public boolean isEmpty(){
+    		return addedStations.isEmpty() && removedStations.isEmpty() && addedDockables.isEmpty() && removedDockables.isEmpty() && cycledDockables.isEmpty();
+    	}
+    	
+    	public DockRegisterBatchEvent toEvent(){
+    		return new DockRegisterBatchEvent( controller, 
+    				Collections.unmodifiableSet( addedStations ), Collections.unmodifiableSet( removedStations ),
+    				Collections.unmodifiableSet( addedDockables ), Collections.unmodifiableSet( removedDockables ),
+    				Collections.unmodifiableSet( cycledDockables ));
+    	}
+    }
 }
@@ -30,6 +30,8 @@ import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.control.focus.DefaultFocusRequest;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockStationAdapter;
 
 /**
@@ -37,7 +39,7 @@ import bibliothek.gui.dock.event.DockStationAdapter;
  * a visible {@link Dockable} has the focus.
  * @author Benjamin Sigg
  */
-public class VisibilityFocusObserver extends DockRegisterAdapter {
+public class VisibilityFocusObserver extends DockRegisterAdapter implements DockRegisterBatchListener {
 	/** a listener added to every {@link DockStation} */
 	private StationListener listener = new StationListener();
 	/** the controller whose focused {@link Dockable} might be exchanged */
@@ -70,6 +72,19 @@ public class VisibilityFocusObserver extends DockRegisterAdapter {
 		if( dockable == controller.getFocusedDockable() )
 			controller.setFocusedDockable( new DefaultFocusRequest( null, null, false ));
 	}
+	
+	public void registerBatchChanged( DockRegisterBatchEvent event ){
+		for( DockStation station : event.getRemovedStations() ){
+			station.removeDockStationListener( listener );
+		}
+		for( DockStation station : event.getAddedStations() ){
+			station.addDockStationListener( listener );
+		}
+		Dockable focused = controller.getFocusedDockable();
+		if( focused != null && event.getRemovedDockables().contains( focused )){
+			controller.setFocusedDockable( new DefaultFocusRequest( null, null, false ));
+		}
+	}
 		
     /**
      * A listener observing all stations and changing the focused {@link Dockable}
@@ -25,13 +25,17 @@
  */
 package bibliothek.gui.dock.control.focus;
 
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import bibliothek.gui.DockController;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockableFocusEvent;
 import bibliothek.gui.dock.event.DockableFocusListener;
 import bibliothek.gui.dock.util.DockUtilities;
@@ -110,7 +114,7 @@ public class DefaultFocusHistory implements FocusHistory{
 	 * focus, and which {@link Dockable}s are to be removed.
 	 * @author Benjamin Sigg
 	 */
-	private class Listener extends DockRegisterAdapter implements DockableFocusListener{
+	private class Listener extends DockRegisterAdapter implements DockableFocusListener, DockRegisterBatchListener{
 		public void dockableUnregistered( DockController controller, Dockable dockable ){
 			history.remove( dockable );
 			unfocused.remove( dockable );
@@ -123,6 +127,25 @@ public class DefaultFocusHistory implements FocusHistory{
 			}
 		}
 		
+		public void registerBatchChanged( DockRegisterBatchEvent event ){
+			Set<Dockable> removed = event.getRemovedDockables();
+			if( !removed.isEmpty() ){
+				history.removeAll( removed );
+				unfocused.removeAll( removed );
+			}
+			
+			Set<Dockable> added = event.getAddedDockables();
+			if( !added.isEmpty() ){
+				Set<Dockable> known = new HashSet<Dockable>( history );
+				known.addAll( unfocused );
+				for( Dockable dockable : added ){
+					if( known.add( dockable )){
+						unfocused.add( dockable );
+					}
+				}
+			}
+		}
+		
 		public void dockableFocused( DockableFocusEvent event ){
 			Dockable owner = event.getNewFocusOwner();
 			if( owner != null ){
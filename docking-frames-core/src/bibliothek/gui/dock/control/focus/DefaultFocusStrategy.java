@@ -37,6 +37,8 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.FlapDockStation;
 import bibliothek.gui.dock.control.DockRegister;
 import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterBatchEvent;
+import bibliothek.gui.dock.event.DockRegisterBatchListener;
 import bibliothek.gui.dock.event.DockRegisterListener;
 
 /**
@@ -52,15 +54,7 @@ public class DefaultFocusStrategy implements FocusStrategy{
 	private Map<Component, Tracker> trackers = new HashMap<Component, Tracker>(); 
 	
 	/** is informed about new {@link Dockable}s */
-	private DockRegisterListener listener = new DockRegisterAdapter(){
-		public void dockableRegistered( DockController controller, Dockable dockable ){
-			add( dockable );
-		}
-		
-		public void dockableUnregistered( DockController controller, Dockable dockable ){
-			remove( dockable );
-		}
-	};
+	private DockRegisterListener listener = new Listener();
 	
 	public DefaultFocusStrategy( DockController controller ){
 		this.controller = controller;
@@ -148,6 +142,31 @@ public class DefaultFocusStrategy implements FocusStrategy{
 		}
 	}
 	
+	/**
+	 * Adds and removes {@link Tracker}s when {@link Dockable}s are registered or unregistered.
+	 * @author Benjamin Sigg
+	 */
+	private class Listener extends DockRegisterAdapter implements DockRegisterBatchListener{
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			add( dockable );
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			remove( dockable );
+		}
+		
+		public void registerBatchChanged( DockRegisterBatchEvent event ){
+			for( Dockable dockable : event.getRemovedDockables() ){
+				remove( dockable );
+			}
+			for( Dockable dockable : event.getAddedDockables() ){
+				add( dockable );
+			}
+		}
+	}
+	
 	private class Tracker extends FocusTracker{
 		private Dockable dockable;
 		
@@ -38,6 +38,7 @@ import java.awt.event.ComponentListener;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -62,10 +63,13 @@ import bibliothek.gui.dock.dockable.DockableMovingImageFactory;
 import bibliothek.gui.dock.dockable.MovingImage;
 import bibliothek.gui.dock.event.ControllerSetupListener;
 import bibliothek.gui.dock.event.DockControllerRepresentativeListener;
+import bibliothek.gui.dock.station.ReusableStationDropOperation;
 import bibliothek.gui.dock.station.StationDragOperation;
 import bibliothek.gui.dock.station.StationDropItem;
 import bibliothek.gui.dock.station.StationDropOperation;
+import bibliothek.gui.dock.station.layer.DockStationDropLayer;
 import bibliothek.gui.dock.station.layer.DockStationDropLayerFactory;
+import bibliothek.gui.dock.station.layer.DropLayerIndex;
 import bibliothek.gui.dock.station.layer.OrderedLayerCollection;
 import bibliothek.gui.dock.title.DockTitle;
 import bibliothek.gui.dock.util.DockUtilities;
@@ -125,6 +129,18 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     /** information about the last dragged dockable */
     private StationDropItem lastItem;
     
+    /** the stations that can be searched during the current drag and drop operation */
+    private DropLayerIndex dropLayerIndex;
+    /** the item that was moved when {@link #dropLayerIndex} was created */
+    private Dockable dropLayerIndexMoved;
+    
+    /** the last operation found by {@link #preparePut(int, int, int, int, Dockable)} that may be reused */
+    private RelocateOperation reusableOperation;
+    /** how many times {@link #reusableOperation} was reused during the current drag and drop operation */
+    private int reuseHits;
+    /** how many times a new operation had to be searched during the current drag and drop operation */
+    private int reuseMisses;
+    
     /** The {@link DockControllerRepresentativeListener} that creates all the {@link MouseListener}s */
     private Listener listeners;
     
@@ -277,7 +293,10 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     
     /**
      * Searches a station which can become the parent of <code>dockable</code> 
-     * if the mouse is released at <code>mouseX/mouseY</code>.
+     * if the mouse is released at <code>mouseX/mouseY</code>.<br>
+     * If the last operation that was found is a {@link ReusableStationDropOperation} and still
+     * valid at the new location of the mouse, then that operation is returned again. In this case no
+     * {@link VetoableDockRelocatorListener#searched(DockRelocatorEvent) searched} event is fired.
      * @param mouseX x-coordinate of the mouse on the screen
      * @param mouseY y-coordinate of the mouse on the screen
      * @param titleX x-coordinate of the dragged title or mouseX
@@ -290,9 +309,18 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 
         Inserter inserter = getInserter();
         StationDropItem item = createStationDropItem( mouseX, mouseY, titleX, titleY, dockable );
+        
+        RelocateOperation reused = reuseOperation( list, inserter, item );
+        if( reused != null ){
+        	reuseHits++;
+        	return reused;
+        }
+        reuseMisses++;
+        reusableOperation = null;
 
         for( DockStation station : list ){
         	StationDropOperation operation = null;
+        	StationDropOperation stationOperation = null;
         	DefaultInserterSource inserterSource = new DefaultInserterSource( station, item );
         	
         	if( inserter != null ){
@@ -300,6 +328,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         	}
         	if( operation == null ){
         		operation = station.prepareDrop( item );
+        		stationOperation = operation;
         		if( inserter != null ){
         			inserterSource.setOperation( operation );
         			operation = inserter.after( inserterSource );
@@ -335,6 +364,9 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 	        		return null;
 	        	}
 	        	if( result != null ){
+	        		if( station == list.get( 0 ) && operation == stationOperation ){
+	        			reusableOperation = result;
+	        		}
 	        		return result;
 	        	}
         	}
@@ -343,6 +375,78 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         return null;
     }
     
+    /**
+     * Checks whether {@link #reusableOperation} is still valid for <code>item</code>.
+     * @param stations the candidates for the new parent of the dragged element
+     * @param inserter the current {@link Inserter}, can be <code>null</code>
+     * @param item the current location of the mouse
+     * @return the operation to reuse or <code>null</code>
+     */
+    private RelocateOperation reuseOperation( List<DockStation> stations, Inserter inserter, StationDropItem item ){
+    	RelocateOperation reusable = reusableOperation;
+    	if( reusable == null || reusable != operation || stations.isEmpty() ){
+    		return null;
+    	}
+    	DockStation station = reusable.getStation();
+    	if( stations.get( 0 ) != station ){
+    		return null;
+    	}
+    	
+    	StationDropOperation stationOperation = reusable.getOperation();
+    	if( !(stationOperation instanceof ReusableStationDropOperation) ){
+    		return null;
+    	}
+    	if( !((ReusableStationDropOperation)stationOperation).isReusable( item )){
+    		return null;
+    	}
+    	
+    	if( inserter != null ){
+    		DefaultInserterSource inserterSource = new DefaultInserterSource( station, item );
+    		if( inserter.before( inserterSource ) != null ){
+    			return null;
+    		}
+    		inserterSource.setOperation( stationOperation );
+    		StationDropOperation replacement = inserter.after( inserterSource );
+    		if( (replacement != null && replacement != stationOperation) || inserterSource.getOperation() != stationOperation ){
+    			return null;
+    		}
+    	}
+    	
+    	return reusable;
+    }
+    
+    /**
+     * Gets the number of mouse movements during the current or the last drag and drop operation for which
+     * the previous {@link StationDropOperation} could be reused.
+     * @return the number of reused operations
+     * @see ReusableStationDropOperation
+     */
+    public int getDropOperationReuseCount(){
+    	return reuseHits;
+    }
+    
+    /**
+     * Gets the number of mouse movements during the current or the last drag and drop operation for which
+     * a new {@link StationDropOperation} had to be searched.
+     * @return the number of searches
+     */
+    public int getDropOperationSearchCount(){
+    	return reuseMisses;
+    }
+    
+    /**
+     * Gets the fraction of mouse movements during the current or the last drag and drop operation for which
+     * the previous {@link StationDropOperation} could be reused.
+     * @return the hit rate, a value between 0 and 1
+     */
+    public double getDropOperationReuseRate(){
+    	int total = reuseHits + reuseMisses;
+    	if( total == 0 ){
+    		return 0;
+    	}
+    	return reuseHits / (double)total;
+    }
+    
     /**
      * Checks whether the current {@link #getMerger() Merger} can merge <code>parent</code>
      * with <code>child</code>.
@@ -391,7 +495,9 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     
     /**
      * Makes a list of all stations which are visible and contain the point
-     * <code>x/y</code>. The stations are ordered by their visibility.
+     * <code>x/y</code>. The stations are ordered by their visibility.<br>
+     * During a drag and drop operation the stations and their {@link DockStationDropLayer}s are collected only
+     * once and stored in a {@link DropLayerIndex}. The index is rebuilt whenever stations are added, removed or moved.
      * @param x x-coordinate on the screen
      * @param y y-coordinate on the screen
      * @param moved a Dockable which is dragged. If this is a 
@@ -401,25 +507,64 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     protected List<DockStation> listStationsOrdered( int x, int y, Dockable moved ){
     	DockController controller = getController();
     	DisablingStrategy disabling = controller.getProperties().get( DisablingStrategy.STRATEGY );
+    	
+    	if( disabling != null && disabling.isDisabled( moved )){
+    		return new ArrayList<DockStation>();
+    	}
+    	if( isCancelLocation( x, y, moved )){
+    		return new ArrayList<DockStation>();
+    	}
+    	
+    	if( pressPointScreen == null ){
+    		// not a drag and drop operation, the index would not be reused
+    		return collectStations( moved ).sort( x, y );
+    	}
+    	
+    	if( dropLayerIndex == null || dropLayerIndexMoved != moved || !dropLayerIndex.isValid() ){
+    		destroyDropLayerIndex();
+    		reusableOperation = null;
+    		dropLayerIndex = new DropLayerIndex( controller, collectStations( moved ) );
+    		dropLayerIndexMoved = moved;
+    	}
+	    return dropLayerIndex.search( x, y );
+    }
+    
+    /**
+     * Collects all the stations which are showing, enabled and valid, and onto which <code>moved</code>
+     * may be dropped.
+     * @param moved the element that is dragged
+     * @return the collection of stations, not yet sorted
+     */
+    private OrderedLayerCollection collectStations( Dockable moved ){
+    	DockController controller = getController();
+    	DisablingStrategy disabling = controller.getProperties().get( DisablingStrategy.STRATEGY );
     	DockStationDropLayerFactory dropLayerFactory = controller.getProperties().get( DockStationDropLayerFactory.DROP_LAYER_FACTORY );
     	
     	OrderedLayerCollection collection = new OrderedLayerCollection( dropLayerFactory );
     	
-    	if( disabling == null || !disabling.isDisabled( moved )){
-	        DockStation movedStation = moved.asDockStation();
-	        if( !isCancelLocation( x, y, moved )){
-	        	for( DockStation station : controller.getRegister().listDockStations() ){
-	        		if( disabling == null || !disabling.isDisabled( station )){
-		        		if( movedStation == null || (!DockUtilities.isAncestor( movedStation, station ) && movedStation != station )){
-		        			if( station.isStationShowing() && isStationValid( station ) ){
-		        				collection.add( station );
-			                }
-			            }
-	        		}
-		        }
-	        }
+        DockStation movedStation = moved.asDockStation();
+    	for( DockStation station : controller.getRegister().listDockStations() ){
+    		if( disabling == null || !disabling.isDisabled( station )){
+        		if( movedStation == null || (!DockUtilities.isAncestor( movedStation, station ) && movedStation != station )){
+        			if( station.isStationShowing() && isStationValid( station ) ){
+        				collection.add( station );
+	                }
+	            }
+    		}
+        }
+    	return collection;
+    }
+    
+    /**
+     * Removes the {@link DropLayerIndex} and the reusable operation that were used during the last drag and drop operation.
+     */
+    private void destroyDropLayerIndex(){
+    	reusableOperation = null;
+    	if( dropLayerIndex != null ){
+    		dropLayerIndex.destroy();
+    		dropLayerIndex = null;
+    		dropLayerIndexMoved = null;
     	}
-	    return collection.sort( x, y );
     }
     
     /**
@@ -458,7 +603,8 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
     
     /**
      * Only stations passing this test are considered during drag and drop operation as new parent. Subclasses 
-     * may override this method.
+     * may override this method. The result of this method is only evaluated when the stations are collected, which
+     * happens once at the beginning of a drag and drop operation and whenever the layout changes during the operation.
      * @param station the station to check
      * @return <code>true</code> if <code>station</code> should be considered as new parent
      */
@@ -641,6 +787,9 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
             movingImageWindow = null;
         }
     	lastItem = null;
+    	reusableOperation = null;
+    	reuseHits = 0;
+    	reuseMisses = 0;
     	
     	Dockable[] implicit = new Dockable[]{};
     	DefaultDockRelocatorEvent event = new DefaultDockRelocatorEvent( getController(), dockable, implicit, null, mouse, false );
@@ -718,7 +867,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
         if( drop ){
         	return dragMouseReleased( mouse.x, mouse.y, 0, dockable );
         }
-        else{
+        else if( next != operation ){
             if( operation != null ){
 	            operation.destroy( next );
             }
@@ -907,6 +1056,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
             movingImageWindow = null;
             pressPointScreen = null;
             pressPointLocal = null;
+            destroyDropLayerIndex();
         }
         
         if( dropped != null ){
@@ -976,6 +1126,7 @@ public class DefaultDockRelocator extends AbstractDockRelocator{
 	        movingImageWindow = null;
 	        pressPointScreen = null;
 	        pressPointLocal = null;
+	        destroyDropLayerIndex();
     	}
     }
     
@@ -75,7 +75,9 @@ public interface VetoableDockRelocatorListener {
 	public void grabbed( DockRelocatorEvent event );
 
 	/**
-	 * Called after the mouse has moved, the {@link Dockable} may have a new target {@link DockStation}.
+	 * Called after the mouse has moved, the {@link Dockable} may have a new target {@link DockStation}. This
+	 * event is not fired again while the previous target remains valid, see
+	 * {@link bibliothek.gui.dock.station.ReusableStationDropOperation}.
 	 * @param event further description
 	 */
 	public void searched( DockRelocatorEvent event );
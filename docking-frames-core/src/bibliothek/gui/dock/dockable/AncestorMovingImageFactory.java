@@ -27,7 +27,6 @@ package bibliothek.gui.dock.dockable;
 
 import java.awt.Component;
 import java.awt.Dimension;
-import java.awt.image.BufferedImage;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -79,12 +78,7 @@ public class AncestorMovingImageFactory extends ScreencaptureMovingImageFactory{
 			return super.create( controller, dockable );
 		}
 		else{
-			BufferedImage image = createImageFrom( controller, best );
-			
-			TrueMovingImage moving = new TrueMovingImage();
-			moving.setAlpha( getAlpha() );
-	        moving.setImage( image );
-	        return moving;
+			return createMovingImage( controller, best, null );
 		}
 	}
 	
@@ -33,6 +33,7 @@ import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.DockElement;
 import bibliothek.gui.dock.event.DockHierarchyEvent;
 import bibliothek.gui.dock.event.DockHierarchyListener;
+import bibliothek.gui.dock.util.DockUtilities;
 
 /**
  * A helper class that is able to send {@link DockHierarchyEvent}s to
@@ -100,7 +101,13 @@ public class DockHierarchyObserver implements DockHierarchyListener{
     	if( !hierarchyListeners.isEmpty() ){
 	    	DockHierarchyEvent event = new DockHierarchyEvent( owner );
 	    	for( DockHierarchyListener listener : hierarchyListeners.toArray( new DockHierarchyListener[ hierarchyListeners.size() ] )){
-	    		listener.hierarchyChanged( event );
+	    		DockUtilities.enterLayoutLocked( listener );
+	    		try{
+	    			listener.hierarchyChanged( event );
+	    		}
+	    		finally{
+	    			DockUtilities.exitLayoutLocked();
+	    		}
 	    	}
     	}
     }
@@ -113,7 +120,13 @@ public class DockHierarchyObserver implements DockHierarchyListener{
     	if( !hierarchyListeners.isEmpty() ){
 	    	DockHierarchyEvent event = new DockHierarchyEvent( owner, controller );
 	    	for( DockHierarchyListener listener : hierarchyListeners.toArray( new DockHierarchyListener[ hierarchyListeners.size() ] )){
-	    		listener.controllerChanged( event );
+	    		DockUtilities.enterLayoutLocked( listener );
+	    		try{
+	    			listener.controllerChanged( event );
+	    		}
+	    		finally{
+	    			DockUtilities.exitLayoutLocked();
+	    		}
 	    	}
     	}
     }
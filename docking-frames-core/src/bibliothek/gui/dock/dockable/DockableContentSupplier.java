@@ -0,0 +1,52 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.dockable;
+
+import java.awt.Component;
+
+import bibliothek.gui.dock.DefaultDockable;
+
+/**
+ * Creates the content of a {@link DefaultDockable} lazily. The content is not created before the
+ * dockable becomes visible for the first time, or before {@link LazyDockable#realize()} is called.
+ * If the dockable has a {@link DefaultDockable#setContentReleaseDelay(int) release delay}, then the
+ * content may be released once the dockable is hidden, and created again later.
+ * @author Benjamin Sigg
+ */
+public interface DockableContentSupplier {
+	/**
+	 * Creates the content of a dockable. This method is called on the EDT.
+	 * @return the new content, not <code>null</code>
+	 */
+	public Component createContent();
+	
+	/**
+	 * Informs this supplier that <code>content</code> is no longer used. Clients may store the state
+	 * of <code>content</code>, the next call to {@link #createContent()} may return a new component.
+	 * @param content the component that was created by {@link #createContent()} and is no longer used
+	 */
+	public void releaseContent( Component content );
+}
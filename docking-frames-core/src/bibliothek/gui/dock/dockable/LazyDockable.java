@@ -0,0 +1,67 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.dockable;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.frontend.AsyncLayoutRestore;
+import bibliothek.gui.dock.util.PropertyKey;
+import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
+
+/**
+ * A {@link Dockable} whose content is expensive to create. Until {@link #realize()} is called such a
+ * dockable only shows a lightweight placeholder, which still allows the framework to build up the
+ * layout around it. Clients may use {@link DockFrontend#setSettingAsync(bibliothek.gui.dock.frontend.Setting, boolean, bibliothek.gui.dock.frontend.LayoutRestoreListener)}
+ * to first apply a layout with placeholders and then to create the real contents in small batches.<br>
+ * This interface is meant to be implemented by {@link Dockable}s, other objects implementing this interface
+ * are ignored by the framework.
+ * @author Benjamin Sigg
+ */
+public interface LazyDockable {
+	/**
+	 * Tells {@link LazyDockable}s not to realize themselves when they become visible. An {@link AsyncLayoutRestore}
+	 * sets this property while the layout is applied and while the visible dockables are realized, such that these
+	 * dockables are realized in batches rather than all at once.
+	 */
+	public static final PropertyKey<Boolean> DEFER_REALIZATION =
+		new PropertyKey<Boolean>( "dock.lazy.defer_realization",
+				new ConstantPropertyFactory<Boolean>( false ),
+				true );
+	
+	/**
+	 * Tells whether the real content of this dockable has already been created.
+	 * @return <code>true</code> if {@link #realize()} would not do anything
+	 */
+	public boolean isRealized();
+	
+	/**
+	 * Creates the real content of this dockable and replaces the placeholder. Calling this method
+	 * more than once has no effect. This method is always called on the EDT. The framework may call this
+	 * method for dockables that are not showing. Implementations should realize themselves once they become
+	 * visible, unless {@link #DEFER_REALIZATION} is set.
+	 */
+	public void realize();
+}
@@ -0,0 +1,146 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.dockable;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A pool of images used by {@link MovingImage}s. For each {@link GraphicsConfiguration} the pool keeps one
+ * image that is compatible with the configuration, and hands out sub images of it. Since usually only one
+ * {@link MovingImage} is visible at any time, starting a drag and drop operation does not require to allocate
+ * a new image.<br>
+ * Clients must {@link #release(BufferedImage) release} the images they acquired once they no longer 
+ * use them. If the buffer of a configuration is already in use, then a new image is allocated, and 
+ * releasing that image has no effect.
+ * @author Benjamin Sigg
+ */
+public class MovingImageBufferPool {
+	/** the buffers for each configuration, the <code>null</code> key is used for components without configuration */
+	private Map<GraphicsConfiguration, Buffer> buffers = new WeakHashMap<GraphicsConfiguration, Buffer>();
+	
+	/** the images currently handed out */
+	private Map<BufferedImage, Buffer> used = new IdentityHashMap<BufferedImage, Buffer>();
+	
+	/** how many images this pool allocated */
+	private int allocations = 0;
+	
+	/**
+	 * Gets an empty, fully transparent image of size <code>width</code> x <code>height</code>. 
+	 * @param configuration the configuration of the screen on which the image will be shown, can be <code>null</code>
+	 * @param width the width of the image, at least 1
+	 * @param height the height of the image, at least 1
+	 * @return the new image, must be {@link #release(BufferedImage) released} once it is no longer used
+	 */
+	public BufferedImage acquire( GraphicsConfiguration configuration, int width, int height ){
+		if( width < 1 || height < 1 ){
+			throw new IllegalArgumentException( "width and height must be at least 1" );
+		}
+		
+		Buffer buffer = buffers.get( configuration );
+		if( buffer != null && buffer.used ){
+			return allocate( configuration, width, height );
+		}
+		
+		if( buffer == null || buffer.image.getWidth() < width || buffer.image.getHeight() < height ){
+			int bufferWidth = width;
+			int bufferHeight = height;
+			if( buffer != null ){
+				bufferWidth = Math.max( bufferWidth, buffer.image.getWidth() );
+				bufferHeight = Math.max( bufferHeight, buffer.image.getHeight() );
+			}
+			buffer = new Buffer( allocate( configuration, bufferWidth, bufferHeight ));
+			buffers.put( configuration, buffer );
+		}
+		else{
+			Graphics2D g = buffer.image.createGraphics();
+			g.setComposite( AlphaComposite.Clear );
+			g.fillRect( 0, 0, width, height );
+			g.dispose();
+		}
+		
+		BufferedImage result = buffer.image.getSubimage( 0, 0, width, height );
+		buffer.used = true;
+		used.put( result, buffer );
+		return result;
+	}
+	
+	/**
+	 * Informs this pool that <code>image</code> is no longer used. Images that were not created
+	 * by {@link #acquire(GraphicsConfiguration, int, int)} or that were already released are ignored.
+	 * @param image the image which is no longer used
+	 */
+	public void release( BufferedImage image ){
+		Buffer buffer = used.remove( image );
+		if( buffer != null ){
+			buffer.used = false;
+		}
+	}
+	
+	/**
+	 * Removes all buffers that are currently not in use from this pool.
+	 */
+	public void clear(){
+		buffers.values().retainAll( used.values() );
+	}
+	
+	/**
+	 * Tells how many images this pool had to allocate so far.
+	 * @return the number of allocations
+	 */
+	public int getAllocationCount(){
+		return allocations;
+	}
+	
+	private BufferedImage allocate( GraphicsConfiguration configuration, int width, int height ){
+		allocations++;
+		if( configuration == null ){
+			return new BufferedImage( width, height, BufferedImage.TYPE_INT_ARGB );
+		}
+		return configuration.createCompatibleImage( width, height, Transparency.TRANSLUCENT );
+	}
+	
+	/**
+	 * An image that can be used by one client at a time.
+	 * @author Benjamin Sigg
+	 */
+	private static class Buffer{
+		/** the image of this buffer */
+		private final BufferedImage image;
+		/** whether a client currently uses {@link #image} */
+		private boolean used = false;
+		
+		public Buffer( BufferedImage image ){
+			this.image = image;
+		}
+	}
+}
@@ -52,6 +52,9 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
     
     /** the transparency */
     private float alpha;
+    
+    /** the pool providing the images of the {@link MovingImage}s, can be <code>null</code> */
+    private MovingImageBufferPool pool;
 
     /**
      * Creates a new factory.
@@ -93,20 +96,125 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
     public float getAlpha(){
 		return alpha;
 	}
+    
+    /**
+     * Sets the pool which provides the images of the {@link MovingImage}s created by this factory. If
+     * a pool is set, then components are painted directly into an image of the pool, and large components are
+     * painted scaled down instead of being painted at full size and shrunk afterwards. The images of 
+     * {@link #createImageFrom(DockController, Component)} are never taken from the pool.
+     * @param pool the new pool or <code>null</code>
+     */
+    public void setBufferPool( MovingImageBufferPool pool ){
+		this.pool = pool;
+	}
+    
+    /**
+     * Gets the pool which provides the images of the {@link MovingImage}s.
+     * @return the pool, can be <code>null</code>
+     * @see #setBufferPool(MovingImageBufferPool)
+     */
+    public MovingImageBufferPool getBufferPool(){
+		return pool;
+	}
 
     public MovingImage create( DockController controller, DockTitle snatched ) {
         return create( controller, snatched.getDockable() );
     }
 
     public MovingImage create( DockController controller, Dockable dockable ) {
-        BufferedImage image = createImageFrom( controller, dockable );
-
-        TrueMovingImage moving = new TrueMovingImage();
+    	return createMovingImage( controller, dockable.getComponent(), dockable );
+    }
+    
+    /**
+     * Creates a new {@link MovingImage} showing the contents of <code>c</code>. If a {@link #setBufferPool(MovingImageBufferPool) pool}
+     * is set, then the image is taken from the pool.
+     * @param controller the controller for which the image is made
+     * @param c the {@link Component} whose image should be taken
+     * @param dockable if not <code>null</code>, then the icon of <code>dockable</code> is shown if <code>c</code> cannot be painted
+     * @return the new moving image
+     */
+    protected MovingImage createMovingImage( DockController controller, Component c, Dockable dockable ){
+    	TrueMovingImage moving = new TrueMovingImage();
         moving.setAlpha( alpha );
-        moving.setImage( image );
+        
+    	BufferedImage image = createPooledImageFrom( controller, c );
+    	if( image != null ){
+    		moving.setImage( image, pool );
+    	}
+    	else if( dockable == null ){
+    		moving.setImage( createImageFrom( controller, c ) );
+    	}
+    	else{
+    		moving.setImage( createImageFrom( controller, dockable ) );
+    	}
         return moving;
     }
     
+    /**
+     * Paints <code>c</code> into an image of the {@link #setBufferPool(MovingImageBufferPool) pool}. The
+     * image must be {@link MovingImageBufferPool#release(BufferedImage) released} once it is no longer used.
+     * @param controller the controller for which the image is made
+     * @param c the {@link Component} whose image should be taken
+     * @return the image, not larger than the maximum {@link Dimension} of this factory, or <code>null</code>
+     * if there is no pool or if <code>c</code> cannot be painted
+     */
+    protected BufferedImage createPooledImageFrom( DockController controller, Component c ){
+    	int width = c.getWidth();
+    	int height = c.getHeight();
+    	
+    	if( pool == null || width < 10 || height < 10 ){
+    		return null;
+    	}
+    	
+    	BufferedImage capture = null;
+    	if( DockSwingUtilities.containsAWTComponents( c )){
+    		capture = controller.getProperties().get( AWTComponentCaptureStrategy.STRATEGY ).createCapture( controller, c );
+    		if( capture == null ){
+    			return null;
+    		}
+    	}
+    	
+    	Dimension size = scaledSize( width, height );
+    	BufferedImage image = pool.acquire( c.getGraphicsConfiguration(), size.width, size.height );
+    	Graphics2D g = image.createGraphics();
+    	if( size.width != width || size.height != height ){
+    		g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR );
+    		g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+    		g.scale( size.width / (double)width, size.height / (double)height );
+    	}
+    	if( capture != null ){
+    		g.drawImage( capture, 0, 0, null );
+    	}
+    	else{
+    		c.paint( g );
+    	}
+    	g.dispose();
+    	return image;
+    }
+    
+    /**
+     * Gets the size of an image showing a component of size <code>width</code> x <code>height</code>, 
+     * respecting the maximum size of this factory.
+     * @param width the width of the component
+     * @param height the height of the component
+     * @return the size of the image, at least 1 x 1
+     */
+    private Dimension scaledSize( int width, int height ){
+    	double factor = 1.0;
+    	if( max != null ){
+    		factor = Math.min( 
+    				max.getWidth() / width, 
+    				max.getHeight() / height );
+    	}
+
+    	if( factor < 1.0 ){
+    		int w = (int)( factor * width );
+    		int h = (int)( factor * height );
+    		return new Dimension( Math.max( w, 1 ), Math.max( h, 1 ) );
+    	}
+    	return new Dimension( width, height );
+    }
+    
     /**
      * This method creates a new image that contains the contents of <code>dockable</code>.
      * @param controller the controller for which the image is made
@@ -164,29 +272,18 @@ public class ScreencaptureMovingImageFactory implements DockableMovingImageFacto
             }
             
             if( image != null ){
-                double factor = 1.0;
-                if( max != null ){
-                	factor = Math.min( 
-                        max.getWidth() / size.getWidth(), 
-                        max.getHeight() / size.getHeight() );
-                }
-
-                if( factor < 1.0 ){
-                    int w = (int)( factor * size.getWidth() );
-                    int h = (int)( factor * size.getHeight() );
-
-                    w = Math.max( w, 1 );
-                    h = Math.max( h, 1 );
-
-                    if( w != size.width || h != size.height ){
-                        BufferedImage small = new BufferedImage( w, h, image.getType() );
-                        Graphics2D g = small.createGraphics();
-                        g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
-                        g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
-                        g.drawImage( image, 0, 0, w, h, 0, 0, size.width, size.height, null );
-                        g.dispose();
-                        image = small;
-                    }
+                Dimension scaled = scaledSize( size.width, size.height );
+                int w = scaled.width;
+                int h = scaled.height;
+                
+                if( w != size.width || h != size.height ){
+                    BufferedImage small = new BufferedImage( w, h, image.getType() );
+                    Graphics2D g = small.createGraphics();
+                    g.setRenderingHint( RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC );
+                    g.setRenderingHint( RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON );
+                    g.drawImage( image, 0, 0, w, h, 0, 0, size.width, size.height, null );
+                    g.dispose();
+                    image = small;
                 }
             }
         }
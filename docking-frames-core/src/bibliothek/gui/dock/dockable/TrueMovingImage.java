@@ -52,6 +52,9 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     /** whether transparency is supported */
     private boolean transparent = true;
     
+    /** the pool which provided {@link #image}, can be <code>null</code> */
+    private MovingImageBufferPool pool;
+    
     /**
      * Sets the transparency, 0 means the image is invisible, 1 means the image is opaque.
      * @param alpha the new transparency
@@ -93,7 +96,19 @@ public class TrueMovingImage extends JPanel implements MovingImage{
      * @param image the new image or <code>null</code>
      */
     public void setImage( BufferedImage image ) {
+        setImage( image, null );
+    }
+    
+    /**
+     * Sets the image that this component will paint. The image is given back to <code>pool</code>
+     * once this component is {@link #unbind() unbound} or gets another image.
+     * @param image the new image or <code>null</code>
+     * @param pool the pool which created <code>image</code>, can be <code>null</code>
+     */
+    public void setImage( BufferedImage image, MovingImageBufferPool pool ){
+    	releaseImage();
         this.image = image;
+        this.pool = pool;
         if( image != null ){
             setPreferredSize( new Dimension( image.getWidth(), image.getHeight() ) );
         }
@@ -110,7 +125,22 @@ public class TrueMovingImage extends JPanel implements MovingImage{
     }
     
     public void unbind() {
-        // ignore
+        if( pool != null ){
+        	releaseImage();
+        	image = null;
+        }
+    }
+    
+    /**
+     * Gives the current image back to the pool which created it.
+     */
+    private void releaseImage(){
+    	if( pool != null ){
+    		if( image != null ){
+    			pool.release( image );
+    		}
+    		pool = null;
+    	}
     }
     
     public Component getComponent() {
@@ -0,0 +1,136 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import java.util.Set;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockRegister;
+
+/**
+ * Describes all the changes a {@link DockRegister} made while it processed the events that were collected
+ * while it was {@link DockRegister#setStalled(boolean) stalled}. The sets contain the elements in the order
+ * in which they were registered or unregistered. An element that was registered and then unregistered
+ * again is not part of any set. An element that was unregistered and then registered again is part of
+ * both, the removed and the added elements, clients should handle the removed elements first.
+ * @author Benjamin Sigg
+ */
+public class DockRegisterBatchEvent {
+	/** the controller whose register changed */
+	private DockController controller;
+	/** the new stations */
+	private Set<DockStation> addedStations;
+	/** the removed stations */
+	private Set<DockStation> removedStations;
+	/** the new dockables */
+	private Set<Dockable> addedDockables;
+	/** the removed dockables */
+	private Set<Dockable> removedDockables;
+	/** the dockables which cycled the register */
+	private Set<Dockable> cycledDockables;
+	
+	/**
+	 * Creates a new event.
+	 * @param controller the controller whose register changed
+	 * @param addedStations the stations that were registered
+	 * @param removedStations the stations that were unregistered
+	 * @param addedDockables the dockables that were registered
+	 * @param removedDockables the dockables that were unregistered
+	 * @param cycledDockables the dockables whose changes were suppressed by the register
+	 */
+	public DockRegisterBatchEvent( DockController controller, Set<DockStation> addedStations, Set<DockStation> removedStations,
+			Set<Dockable> addedDockables, Set<Dockable> removedDockables, Set<Dockable> cycledDockables ){
+		this.controller = controller;
+		this.addedStations = addedStations;
+		this.removedStations = removedStations;
+		this.addedDockables = addedDockables;
+		this.removedDockables = removedDockables;
+		this.cycledDockables = cycledDockables;
+	}
+	
+	/**
+	 * Gets the controller whose {@link DockRegister} changed.
+	 * @return the controller
+	 */
+	public DockController getController(){
+		return controller;
+	}
+	
+	/**
+	 * Gets all the {@link DockStation}s that were registered.
+	 * @return the new stations, not <code>null</code>
+	 */
+	public Set<DockStation> getAddedStations(){
+		return addedStations;
+	}
+	
+	/**
+	 * Gets all the {@link DockStation}s that were unregistered. Stations that were registered again are
+	 * also part of {@link #getAddedStations()}.
+	 * @return the removed stations, not <code>null</code>
+	 */
+	public Set<DockStation> getRemovedStations(){
+		return removedStations;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were registered.
+	 * @return the new dockables, not <code>null</code>
+	 */
+	public Set<Dockable> getAddedDockables(){
+		return addedDockables;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that were unregistered. Dockables that were registered again are
+	 * also part of {@link #getAddedDockables()}.
+	 * @return the removed dockables, not <code>null</code>
+	 */
+	public Set<Dockable> getRemovedDockables(){
+		return removedDockables;
+	}
+	
+	/**
+	 * Gets all the {@link Dockable}s that cycled the register, these are the elements for which
+	 * {@link DockRegisterListener#dockableCycledRegister(DockController, Dockable)} would have been called.
+	 * These elements were neither unregistered nor registered, they were removed and added again while
+	 * the register was stalled.
+	 * @return the dockables that cycled, not <code>null</code>
+	 */
+	public Set<Dockable> getCycledDockables(){
+		return cycledDockables;
+	}
+	
+	/**
+	 * Tells whether this event does not contain any change.
+	 * @return <code>true</code> if all sets are empty
+	 */
+	public boolean isEmpty(){
+		return addedStations.isEmpty() && removedStations.isEmpty() && addedDockables.isEmpty() && removedDockables.isEmpty() && cycledDockables.isEmpty();
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.event;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.control.DockRegister;
+
+/**
+ * A {@link DockRegisterListener} that prefers to receive the changes that happen while a {@link DockRegister} 
+ * was {@link DockRegister#setStalled(boolean) stalled} all at once. Once the register is no longer stalled, it 
+ * processes all the pending changes without calling {@link #dockableRegistering(DockController, Dockable) dockableRegistering},
+ * {@link #dockableRegistered(DockController, Dockable) dockableRegistered}, {@link #dockableUnregistered(DockController, Dockable) dockableUnregistered},
+ * {@link #dockStationRegistering(DockController, DockStation) dockStationRegistering}, {@link #dockStationRegistered(DockController, DockStation) dockStationRegistered},
+ * {@link #dockStationUnregistered(DockController, DockStation) dockStationUnregistered} or
+ * {@link #dockableCycledRegister(DockController, Dockable) dockableCycledRegister} of this listener. Instead
+ * {@link #registerBatchChanged(DockRegisterBatchEvent)} is called once after all changes have been processed.<br>
+ * Changes that happen while the register is not stalled are still reported by the single methods.
+ * @author Benjamin Sigg
+ */
+public interface DockRegisterBatchListener extends DockRegisterListener {
+	/**
+	 * Called after a {@link DockRegister} processed all the changes that were collected while it was stalled.
+	 * @param event all the elements that were registered or unregistered, not <code>null</code>
+	 */
+	public void registerBatchChanged( DockRegisterBatchEvent event );
+}
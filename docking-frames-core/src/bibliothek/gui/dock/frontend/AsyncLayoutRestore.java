@@ -0,0 +1,392 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.FlapDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.dockable.LazyDockable;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+import bibliothek.gui.dock.event.DockRegisterListener;
+
+/**
+ * The second phase of an asynchronous layout restore started by
+ * {@link DockFrontend#setSettingAsync(Setting, boolean, LayoutRestoreListener)}. At the time this object is
+ * created the layout is already applied, but {@link LazyDockable}s may still show their placeholders. This
+ * object realizes these dockables in batches, between two batches the EDT is free to handle other events.
+ * The dockables the user can actually see are realized first, followed by the selected tabs of hidden
+ * stations, and finally by all the tabs that are not selected. Dockables that are registered while this
+ * restore is running are realized after all the other dockables.<br>
+ * From the creation of this object until the visible dockables are realized, the property
+ * {@link LazyDockable#DEFER_REALIZATION} is set. Hence dockables that become visible while the layout is
+ * applied do not realize themselves all at once, but wait for their batch.<br>
+ * Calling {@link #get()} on the EDT realizes all the remaining dockables at once.
+ * @author Benjamin Sigg
+ */
+public class AsyncLayoutRestore implements Future<Void>{
+	/** the default number of dockables realized in one batch */
+	public static final int DEFAULT_BATCH_SIZE = 8;
+	
+	/** the controller whose dockables are realized */
+	private DockController controller;
+	/** the dockables that have to be realized, in the order in which they are realized */
+	private List<Dockable> pending = new ArrayList<Dockable>();
+	/** the elements of {@link #pending} */
+	private Set<Dockable> pendingSet = new HashSet<Dockable>();
+	/** the number of dockables in {@link #pending} which were visible when this restore started */
+	private int showing = 0;
+	/** whether {@link LazyDockable#DEFER_REALIZATION} is set by this restore */
+	private boolean deferring = false;
+	/** the index of the next dockable to realize */
+	private int next = 0;
+	/** how many dockables are realized in one go */
+	private int batchSize;
+	/** informed about the progress, can be <code>null</code> */
+	private LayoutRestoreListener listener;
+	
+	/** whether {@link #cancel(boolean)} was called */
+	private volatile boolean cancelled = false;
+	/** whether this restore is finished */
+	private volatile boolean finished = false;
+	/** released once this restore is finished and the listener was informed */
+	private CountDownLatch done = new CountDownLatch( 1 );
+	/** the first exception thrown by a dockable */
+	private volatile RuntimeException failure;
+	
+	/** adds dockables that are registered while this restore is running to {@link #pending} */
+	private DockRegisterListener registerListener = new DockRegisterAdapter(){
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			if( dockable instanceof LazyDockable && !((LazyDockable)dockable).isRealized() && pendingSet.add( dockable )){
+				pending.add( dockable );
+			}
+		}
+	};
+	
+	/**
+	 * Creates a new restore for the {@link LazyDockable}s of <code>controller</code>. From now on the
+	 * dockables of <code>controller</code> do not realize themselves when they become visible. The
+	 * layout should be applied after this restore is created and before {@link #start()} is called.
+	 * This constructor must be called on the EDT.
+	 * @param controller the controller whose dockables have to be realized
+	 * @param batchSize how many dockables are realized in one EDT task, at least 1
+	 * @param listener informed about the progress, can be <code>null</code>
+	 */
+	public AsyncLayoutRestore( DockController controller, int batchSize, LayoutRestoreListener listener ){
+		if( batchSize < 1 ){
+			throw new IllegalArgumentException( "batchSize must be at least 1: " + batchSize );
+		}
+		this.batchSize = batchSize;
+		this.listener = listener;
+		this.controller = controller;
+		
+		deferring = true;
+		controller.getProperties().set( LazyDockable.DEFER_REALIZATION, true );
+	}
+	
+	/**
+	 * Searches all the {@link LazyDockable}s of <code>controller</code> that are not yet realized and
+	 * orders them by their {@link #getPriority(Dockable) priority}.
+	 * @param controller the controller to search
+	 * @return the dockables to realize
+	 */
+	protected List<Dockable> collect( DockController controller ){
+		final Map<Dockable, Integer> priorities = new HashMap<Dockable, Integer>();
+		List<Dockable> result = new ArrayList<Dockable>();
+		for( Dockable dockable : controller.getRegister().listDockables() ){
+			if( dockable instanceof LazyDockable && !((LazyDockable)dockable).isRealized() ){
+				priorities.put( dockable, getPriority( dockable ) );
+				result.add( dockable );
+			}
+		}
+		
+		// a stable sort, dockables with the same priority keep their order
+		Collections.sort( result, new Comparator<Dockable>(){
+			public int compare( Dockable a, Dockable b ){
+				return priorities.get( a ).compareTo( priorities.get( b ) );
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Tells how urgent it is to realize <code>dockable</code>, dockables with a small value are realized first.
+	 * The default implementation returns 0 for dockables the user can see, 1 for dockables that will be visible
+	 * once their root station is shown, and 2 for dockables that are hidden behind another tab or inside a closed
+	 * flap.
+	 * @param dockable the dockable whose priority is asked
+	 * @return the priority, smaller values are realized first
+	 */
+	protected int getPriority( Dockable dockable ){
+		if( dockable.isDockableShowing() ){
+			return 0;
+		}
+		Dockable child = dockable;
+		DockStation parent = child.getDockParent();
+		while( parent != null ){
+			if( parent instanceof StackDockStation || parent instanceof FlapDockStation ){
+				if( parent.getFrontDockable() != child ){
+					return 2;
+				}
+			}
+			child = parent.asDockable();
+			parent = child == null ? null : child.getDockParent();
+		}
+		return 1;
+	}
+	
+	/**
+	 * Collects all the unrealized {@link LazyDockable}s that are currently registered and starts realizing
+	 * them, the first batch is executed in a later EDT task. If there is nothing to realize, then this
+	 * restore finishes immediately. This method must be called on the EDT and has no effect if this
+	 * restore was already cancelled.
+	 */
+	public void start(){
+		if( isDone() ){
+			return;
+		}
+		for( Dockable dockable : collect( controller ) ){
+			if( pendingSet.add( dockable ) ){
+				pending.add( dockable );
+			}
+		}
+		while( showing < pending.size() && getPriority( pending.get( showing ) ) <= 0 ){
+			showing++;
+		}
+		controller.getRegister().addDockRegisterListener( registerListener );
+		
+		if( showing == 0 ){
+			stopDeferring();
+		}
+		if( pending.isEmpty() ){
+			finish();
+		}
+		else{
+			schedule();
+		}
+	}
+	
+	private void schedule(){
+		EventQueue.invokeLater( new Runnable(){
+			public void run(){
+				if( !isDone() ){
+					if( !cancelled ){
+						step();
+					}
+					if( next < pending.size() && !cancelled ){
+						schedule();
+					}
+					else{
+						finish();
+					}
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Realizes the next batch of dockables and informs the listener about the progress. Once all the
+	 * visible dockables are realized, the dockables are again allowed to realize themselves.
+	 */
+	private void step(){
+		int end = Math.min( pending.size(), next + batchSize );
+		while( next < end ){
+			Dockable dockable = pending.get( next++ );
+			if( !controller.getRegister().isRegistered( dockable )){
+				continue;
+			}
+			try{
+				((LazyDockable)dockable).realize();
+			}
+			catch( RuntimeException e ){
+				if( failure == null ){
+					failure = e;
+				}
+			}
+		}
+		if( next >= showing ){
+			stopDeferring();
+		}
+		if( listener != null ){
+			listener.progress( this, next, pending.size() );
+		}
+	}
+	
+	private void finish(){
+		synchronized( this ){
+			if( finished ){
+				return;
+			}
+			finished = true;
+		}
+		try{
+			fireFinished();
+		}
+		finally{
+			done.countDown();
+		}
+	}
+	
+	/**
+	 * Allows the dockables to realize themselves when they become visible.
+	 */
+	private void stopDeferring(){
+		if( deferring ){
+			deferring = false;
+			controller.getProperties().unset( LazyDockable.DEFER_REALIZATION );
+		}
+	}
+	
+	/**
+	 * Stops observing the controller and informs the listener that this restore is finished.
+	 */
+	private void fireFinished(){
+		stopDeferring();
+		controller.getRegister().removeDockRegisterListener( registerListener );
+		if( listener != null ){
+			listener.finished( this );
+		}
+	}
+	
+	/**
+	 * Gets the number of dockables that have been handled so far, including the dockables that were
+	 * skipped because they were no longer registered.
+	 * @return the number of handled dockables
+	 */
+	public int getRealizedCount(){
+		return next;
+	}
+	
+	/**
+	 * Gets the total number of dockables this restore has to realize.
+	 * @return the total number of dockables
+	 */
+	public int getTotalCount(){
+		return pending.size();
+	}
+	
+	/**
+	 * Stops this restore. The dockables that are not yet realized keep showing their placeholders until
+	 * someone else calls {@link LazyDockable#realize()}. This restore is finished immediately, if not called
+	 * on the EDT then the listener is informed in a later EDT task.
+	 * @param mayInterruptIfRunning ignored, batches are never interrupted
+	 * @return <code>true</code> if this restore was not yet finished
+	 */
+	public boolean cancel( boolean mayInterruptIfRunning ){
+		if( EventQueue.isDispatchThread() ){
+			if( isDone() ){
+				return false;
+			}
+			cancelled = true;
+			finish();
+			return true;
+		}
+		
+		// the restore may not yet be started, so there might be no task that would ever call finish
+		synchronized( this ){
+			if( finished ){
+				return false;
+			}
+			cancelled = true;
+			finished = true;
+		}
+		done.countDown();
+		EventQueue.invokeLater( new Runnable(){
+			public void run(){
+				fireFinished();
+			}
+		});
+		return true;
+	}
+	
+	public boolean isCancelled(){
+		return cancelled;
+	}
+	
+	public boolean isDone(){
+		return finished;
+	}
+	
+	/**
+	 * Waits until all dockables are handled. If called on the EDT, then all remaining dockables are
+	 * realized immediately.
+	 * @return always <code>null</code>
+	 * @throws CancellationException if this restore was cancelled
+	 * @throws ExecutionException if one of the dockables threw an exception while being realized
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public Void get() throws InterruptedException, ExecutionException{
+		if( EventQueue.isDispatchThread() ){
+			while( !isDone() && !cancelled && next < pending.size() ){
+				step();
+			}
+			finish();
+		}
+		else{
+			done.await();
+		}
+		return result();
+	}
+	
+	public Void get( long timeout, TimeUnit unit ) throws InterruptedException, ExecutionException, TimeoutException{
+		if( EventQueue.isDispatchThread() ){
+			return get();
+		}
+		if( !done.await( timeout, unit ) ){
+			throw new TimeoutException();
+		}
+		return result();
+	}
+	
+	private Void result() throws ExecutionException{
+		if( cancelled ){
+			throw new CancellationException();
+		}
+		if( failure != null ){
+			throw new ExecutionException( failure );
+		}
+		return null;
+	}
+}
@@ -28,6 +28,7 @@ package bibliothek.gui.dock.frontend;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -54,6 +55,7 @@ import bibliothek.gui.dock.perspective.PerspectiveStation;
 import bibliothek.gui.dock.perspective.PredefinedMap;
 import bibliothek.gui.dock.perspective.PredefinedPerspective;
 import bibliothek.gui.dock.station.support.PlaceholderStrategy;
+import bibliothek.gui.dock.util.DockUtilities;
 import bibliothek.util.xml.XException;
 
 /**
@@ -64,13 +66,36 @@ import bibliothek.util.xml.XException;
 public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
 	private boolean updatingFullLayout = false;
 	
+	/** the names of the roots which are not touched by the current update */
+	private Set<String> unchangedRoots = Collections.emptySet();
+	
 	public boolean setLayout( DockFrontendInternals frontend, Setting setting, boolean entry ) throws IOException, XException{
+		return setLayout( frontend, setting, entry, false );
+	}
+	
+	/**
+	 * Applies <code>setting</code> to <code>frontend</code>. If <code>incremental</code> is set, then only
+	 * the root stations whose current layout differs from the layout stored in <code>setting</code> are cleared
+	 * and rebuilt. The other root stations, and all the stations they contain, are left untouched. A root station
+	 * is compared as a whole: if only one of its children changed, the entire root station is still cleared and
+	 * rebuilt.
+	 * @param frontend the frontend whose layout is changed
+	 * @param setting the new layout
+	 * @param entry whether the layout is a full or regular layout
+	 * @param incremental whether root stations that already show the correct layout should be skipped
+	 * @return <code>true</code> if the layout was applied, <code>false</code> if the operation was canceled
+	 * @throws IOException if the layout cannot be converted
+	 * @throws XException if the layout cannot be converted
+	 * @see #listUnchangedRoots(DockFrontendInternals, SettingAccess, boolean)
+	 */
+	public boolean setLayout( DockFrontendInternals frontend, Setting setting, boolean entry, boolean incremental ) throws IOException, XException{
 		try{
 			updatingFullLayout = true;
-			return updateLayout( frontend, setting, entry );
+			return updateLayout( frontend, setting, entry, incremental );
 		}
 		finally{
 			updatingFullLayout = false;
+			unchangedRoots = Collections.emptySet();
 		}
 	}
 	
@@ -78,7 +103,7 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
 		return !updatingFullLayout;
 	}
 	
-	private boolean updateLayout( DockFrontendInternals frontend, Setting setting, boolean entry ) throws IOException, XException{
+	private boolean updateLayout( DockFrontendInternals frontend, Setting setting, boolean entry, boolean incremental ) throws IOException, XException{
 		DockSituation situation = createSituation( frontend, entry, true );
         
         DockSituationIgnore ignore = situation.getIgnore();
@@ -106,6 +131,13 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
         	return false;
         }
         
+        if( incremental ){
+        	unchangedRoots = listUnchangedRoots( frontend, access, entry );
+        	if( !unchangedRoots.isEmpty() ){
+        		ignore = ignoreUnchangedRoots( frontend, ignore );
+        	}
+        }
+        
         // split up all child parent relations
         frontend.clean( ignore );
         
@@ -116,6 +148,84 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
         return true;
 	}
 	
+	/**
+	 * Searches all the root stations whose current layout is exactly the layout that is stored in
+	 * <code>setting</code>. The layouts are compared with 
+	 * {@link DockSituation#isSameLayout(DockLayoutComposition, DockLayoutComposition)}. Only root stations 
+	 * that do not have a parent are checked.
+	 * @param frontend the frontend whose layout is about to change
+	 * @param setting the new layout
+	 * @param entry whether the layout is a full or regular layout
+	 * @return the names of the root stations which do not need to be changed
+	 * @throws IOException if a layout cannot be converted
+	 * @throws XException if a layout cannot be converted
+	 */
+	protected Set<String> listUnchangedRoots( DockFrontendInternals frontend, SettingAccess setting, boolean entry ) throws IOException, XException{
+		DockSituation situation = createSituation( frontend, entry, false );
+		Set<String> result = new HashSet<String>();
+		
+		for( RootInfo info : frontend.getRoots() ){
+			DockStation station = info.getStation();
+			if( station.asDockable() == null || station.asDockable().getDockParent() == null ){
+				DockLayoutComposition layout = setting.getSetting().getRoot( info.getName() );
+				if( layout != null ){
+					layout = situation.fillMissing( layout );
+					if( situation.isSameLayout( layout, situation.convert( station ) )){
+						result.add( info.getName() );
+					}
+				}
+			}
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Tells whether the root station <code>name</code> keeps its current layout during the update that
+	 * is currently running.
+	 * @param name the name of a root station
+	 * @return <code>true</code> if the station is neither cleared nor rebuilt
+	 */
+	protected boolean isUnchangedRoot( String name ){
+		return unchangedRoots.contains( name );
+	}
+	
+	/**
+	 * Creates a filter which ignores all the {@link #isUnchangedRoot(String) unchanged} root stations
+	 * and all the elements they contain.
+	 * @param frontend the frontend whose layout is about to change
+	 * @param ignore the original filter
+	 * @return the new filter
+	 */
+	private DockSituationIgnore ignoreUnchangedRoots( DockFrontendInternals frontend, final DockSituationIgnore ignore ){
+		final List<DockStation> unchanged = new ArrayList<DockStation>();
+		for( RootInfo info : frontend.getRoots() ){
+			if( isUnchangedRoot( info.getName() )){
+				unchanged.add( info.getStation() );
+			}
+		}
+		
+		return new DockSituationIgnore(){
+			public boolean ignoreElement( DockElement element ){
+				for( DockStation station : unchanged ){
+					if( station == element || DockUtilities.isAncestor( station, element )){
+						return true;
+					}
+				}
+				return ignore.ignoreElement( element );
+			}
+			public boolean ignoreChildren( DockStation station ){
+				return ignore.ignoreChildren( station );
+			}
+			public boolean ignoreElement( PerspectiveElement element ){
+				return ignore.ignoreElement( element );
+			}
+			public boolean ignoreChildren( PerspectiveStation station ){
+				return ignore.ignoreChildren( station );
+			}
+		};
+	}
+	
 	/**
 	 * Creates a wrapper around <code>setting</code> that allows the algorithm of this 
 	 * {@link LayoutChangeStrategy} to access the setting.
@@ -137,7 +247,8 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
     
     /**
      * Creates a {@link DockSituation} which represents all the knowledge
-     * <code>frontend</code> currently has.
+     * <code>frontend</code> currently has. Whether the layout of a {@link PerspectiveElement} is stored is decided
+     * with the {@link DockInfo#isEntryLayout() entry layout flags} the entries have when this method is called.
      * @param frontend the frontend for which the situation is required
      * @param entry <code>true</code> if the situation is used for a regular setting,
      * <code>false</code> if the situation is used as the final setting which will
@@ -149,6 +260,14 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
      */
     @SuppressWarnings("unchecked")
     protected PredefinedDockSituation createSituation( final DockFrontendInternals frontend, final boolean entry, boolean onSetLayout ){
+        // perspectives may be converted by another thread, the entries must not be accessed by that thread
+        final Map<String, Boolean> entryLayouts = new HashMap<String, Boolean>();
+        if( entry ){
+        	for( DockInfo info : frontend.getDockables() ){
+        		entryLayouts.put( info.getKey(), info.isEntryLayout() );
+        	}
+        }
+        
         PredefinedDockSituation situation = new PredefinedDockSituation( frontend.getFrontend().getController() ){
             @Override
             protected boolean shouldLayout( DockElement element ) {
@@ -169,9 +288,9 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
             	if( entry ){
             		String key = perspective.get( element );
             		if( key != null ){
-            			DockInfo info = frontend.getInfo( key );
-            			if( info != null ){
-            				return info.isEntryLayout();
+            			Boolean entryLayout = entryLayouts.get( key );
+            			if( entryLayout != null ){
+            				return entryLayout.booleanValue();
             			}
             		}
             	}
@@ -278,7 +397,8 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
     /**
      * Applies the layout described in <code>setting</code> to the visible elements. 
      * This implementation tries to estimate the location of missing dockables using
-     * {@link #listEstimateLocations(DockSituation, DockLayoutComposition)}. 
+     * {@link #listEstimateLocations(DockSituation, DockLayoutComposition)}. Root stations
+     * which are {@link #isUnchangedRoot(String) unchanged} are not converted.
      * @param frontend the caller of this method
      * @param situation used to convert the layout
      * @param setting the new layout
@@ -335,7 +455,9 @@ public class DefaultLayoutChangeStrategy implements LayoutChangeStrategy{
                     
                 }
                 
-                situation.convert( layout );
+                if( !isUnchangedRoot( info.getName() )){
+                	situation.convert( layout );
+                }
             }
         }
     }
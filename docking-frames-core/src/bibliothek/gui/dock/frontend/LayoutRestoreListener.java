@@ -0,0 +1,52 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.Dockable;
+
+/**
+ * An observer of an {@link AsyncLayoutRestore}, is informed each time a batch of {@link Dockable}s
+ * was realized.
+ * @author Benjamin Sigg
+ * @see DockFrontend#setSettingAsync(Setting, boolean, LayoutRestoreListener)
+ */
+public interface LayoutRestoreListener {
+	/**
+	 * Called on the EDT after a batch of {@link bibliothek.gui.dock.dockable.LazyDockable}s has been realized.
+	 * @param restore the source of the event
+	 * @param realized how many dockables have been realized so far
+	 * @param total how many dockables have to be realized in total
+	 */
+	public void progress( AsyncLayoutRestore restore, int realized, int total );
+	
+	/**
+	 * Called on the EDT once <code>restore</code> finished, either because all dockables are realized
+	 * or because <code>restore</code> was {@link AsyncLayoutRestore#cancel(boolean) cancelled}.
+	 * @param restore the source of the event
+	 */
+	public void finished( AsyncLayoutRestore restore );
+}
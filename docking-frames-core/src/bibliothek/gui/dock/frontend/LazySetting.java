@@ -0,0 +1,85 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.frontend;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.util.xml.XElement;
+
+/**
+ * A {@link Setting} that was read from a file, but whose content is not yet decoded. Decoding
+ * a {@link Setting} means converting the layout of all the {@link bibliothek.gui.Dockable}s and
+ * {@link bibliothek.gui.DockStation}s that are stored in it, this can take some time. Since most
+ * of the {@link Setting}s of a {@link DockFrontend} are never loaded, the frontend postpones
+ * this work until {@link #getSetting()} is called the first time. As a consequence corrupted data
+ * is only reported when the setting is decoded, see {@link DockFrontend#setDecodeSettingsLazily(boolean)}.
+ * @author Benjamin Sigg
+ */
+public abstract class LazySetting {
+	/** the setting that was decoded, <code>null</code> if not yet decoded */
+	private Setting setting;
+	
+	/**
+	 * Gets the setting that is represented by this {@link LazySetting}, decodes the setting
+	 * if this method is called for the first time.
+	 * @return the decoded setting, not <code>null</code>
+	 * @throws IllegalArgumentException if the data is corrupted
+	 */
+	public Setting getSetting(){
+		if( setting == null ){
+			setting = decode();
+		}
+		return setting;
+	}
+	
+	/**
+	 * Tells whether {@link #getSetting()} was called and the setting is already decoded.
+	 * @return whether the setting was decoded
+	 */
+	public boolean isDecoded(){
+		return setting != null;
+	}
+	
+	/**
+	 * Decodes the setting.
+	 * @return the new setting, not <code>null</code>
+	 * @throws IllegalArgumentException if the data is corrupted
+	 */
+	protected abstract Setting decode();
+	
+	/**
+	 * Gets the raw data of this setting, as it was written by
+	 * {@link Setting#write(bibliothek.gui.dock.layout.DockSituation, bibliothek.gui.dock.layout.PropertyTransformer, boolean, java.io.DataOutputStream)}.
+	 * @return the raw data or <code>null</code> if this setting was not read from a binary file
+	 */
+	public abstract byte[] getData();
+	
+	/**
+	 * Gets the raw data of this setting, as it was written by
+	 * {@link Setting#writeXML(bibliothek.gui.dock.layout.DockSituation, bibliothek.gui.dock.layout.PropertyTransformer, boolean, XElement)}.
+	 * @return the raw data or <code>null</code> if this setting was not read from a xml file
+	 */
+	public abstract XElement getXML();
+}
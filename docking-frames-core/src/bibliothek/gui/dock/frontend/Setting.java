@@ -36,6 +36,9 @@ import bibliothek.util.Version;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
+import bibliothek.util.xml.XIO;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 
 /**
@@ -256,6 +259,82 @@ public class Setting{
         }
     }
     
+    /**
+     * Writes the properties of this setting in xml format directly into <code>writer</code>. The
+     * output is the same as the output of {@link #writeXML(DockSituation, PropertyTransformer, boolean, XElement)}.
+     * Subclasses overriding {@link #writeXML(DockSituation, PropertyTransformer, boolean, XElement)} should
+     * override this method as well.
+     * @param situation can be used to write {@link DockLayout}s
+     * @param transformer can be used to write {@link DockableProperty}s
+     * @param entry if <code>true</code>, then this setting is used as one of
+     * the settings a user can choose. If <code>false</code> then this setting
+     * is used as the final setting that is written when the application
+     * shuts down.
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     */
+    public void writeXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XWriter writer ) throws IOException{
+        boolean streaming = XIO.isStreamingSupported( situation.getClass(), "writeCompositionXML",
+        		new Class<?>[]{ DockLayoutComposition.class, XElement.class }, new Class<?>[]{ DockLayoutComposition.class, XWriter.class } );
+        
+        writer.startElement( "roots" );
+        for( String root : getRootKeys() ){
+            writer.startElement( "root" );
+            writer.attribute( "name", root );
+            writeCompositionXML( situation, getRoot( root ), writer, streaming );
+            writer.endElement();
+        }
+        writer.endElement();
+        
+        writer.startElement( "children" );
+        for( int i = 0, n = getInvisibleCount(); i<n; i++ ){
+            writer.startElement( "child" );
+            writer.attribute( "key", getInvisibleKey( i ) );
+            String root = getInvisibleRoot( i );
+            if( root != null ){
+                writer.attribute( "root", root );
+            }
+            
+            DockableProperty location = getInvisibleLocation( i );
+            writer.attribute( "location", location != null );
+            if( location != null ){
+                XElement xlocation = new XElement( "location" );
+                transformer.writeXML( location, xlocation );
+                writer.element( xlocation );
+            }
+            
+            DockLayoutComposition layout = getInvisibleLayout( i );
+            if( layout != null ){
+                writer.startElement( "layout" );
+                writeCompositionXML( situation, layout, writer, streaming );
+                writer.endElement();
+            }
+            writer.endElement();
+        }
+        writer.endElement();
+    }
+    
+    /**
+     * Writes <code>composition</code> into <code>writer</code> using either the streaming or, if a subclass
+     * of {@link DockSituation} overrides only {@link DockSituation#writeCompositionXML(DockLayoutComposition, XElement)},
+     * the {@link XElement} variant of <code>situation</code>.
+     * @param situation the situation to use
+     * @param composition the composition to write
+     * @param writer the writer whose current element is filled
+     * @param streaming whether {@link DockSituation#writeCompositionXML(DockLayoutComposition, XWriter)} can be used
+     * @throws IOException if <code>writer</code> cannot be written
+     */
+    private void writeCompositionXML( DockSituation situation, DockLayoutComposition composition, XWriter writer, boolean streaming ) throws IOException{
+    	if( streaming ){
+    		situation.writeCompositionXML( composition, writer );
+    	}
+    	else{
+    		XElement element = new XElement( "layout" );
+    		situation.writeCompositionXML( composition, element );
+    		writer.contents( element );
+    	}
+    }
+    
     /**
      * Reads the properties of this setting. Old properties are deleted without
      * further notice.
@@ -352,43 +431,105 @@ public class Setting{
         XElement xchildren = element.getElement( "children" );
         if( xchildren != null ){
             for( XElement xchild : xchildren.getElements( "child" )){
-                String key = xchild.getString( "key" );
-                String root = null;
-                
-                XAttribute aroot = xchild.getAttribute( "root" );
-                if( aroot != null ){
-                    root = aroot.getString();
-                }
-                
-                boolean oldStyle = true;
-                boolean hasLocation = false;
-                XAttribute alocation = xchild.getAttribute( "location" );
-                if( alocation != null ){
-                    oldStyle = false;
-                    hasLocation = alocation.getBoolean();
-                }
-                
-                DockableProperty location = null;
-                DockLayoutComposition layout = null;
-                
-                if( oldStyle ){
-                    location = transformer.readXML( xchild );
+                readInvisibleXML( situation, transformer, xchild );
+            } 
+        }
+    }
+    
+    /**
+     * Reads the properties of this setting directly from <code>reader</code>. Old properties are
+     * deleted without further notice. The result is the same as the result of
+     * {@link #readXML(DockSituation, PropertyTransformer, boolean, XElement)}, but only the layout of
+     * one root station has to be held in memory at any time. Subclasses overriding
+     * {@link #readXML(DockSituation, PropertyTransformer, boolean, XElement)} should override this
+     * method as well.
+     * @param situation can be used to read {@link DockLayout}s
+     * @param transformer can be used to read {@link DockableProperty}s
+     * @param entry if <code>true</code>, then this setting is used as one of
+     * the settings a user can choose. If <code>false</code> then this setting
+     * is used as the first setting that is read when the application
+     * starts up.
+     * @param reader the reader pointing to the element from which to read, the element will be consumed
+     * @throws IOException if <code>reader</code> cannot be read
+     */
+    public void readXML( DockSituation situation, PropertyTransformer transformer, boolean entry, XReader reader ) throws IOException{
+        roots.clear();
+        dockables.clear();
+        
+        while( reader.nextChild() ){
+            String name = reader.getName();
+            if( "roots".equals( name )){
+                while( reader.nextChild() ){
+                    if( "root".equals( reader.getName() )){
+                        String root = reader.getString( "name" );
+                        DockLayoutComposition composition = situation.readCompositionXML( reader );
+                        if( composition != null ){
+                            putRoot( root, composition );
+                        }
+                    }
+                    else{
+                        reader.skipElement();
+                    }
                 }
-                else{
-                    if( hasLocation ){
-                        XElement xlocation = xchild.getElement( "location" );
-                        location = transformer.readXML( xlocation );
+            }
+            else if( "children".equals( name )){
+                while( reader.nextChild() ){
+                    if( "child".equals( reader.getName() )){
+                        readInvisibleXML( situation, transformer, reader.readElement() );
                     }
-                    
-                    XElement xlayout = xchild.getElement( "layout" );
-                    if( xlayout != null ){
-                        layout = situation.readCompositionXML( xlayout );
+                    else{
+                        reader.skipElement();
                     }
                 }
-                
-                addInvisible( key, root, layout, location );
-            } 
+            }
+            else{
+                reader.skipElement();
+            }
+        }
+    }
+    
+    /**
+     * Reads the location of one invisible element.
+     * @param situation used to read the layout of the element
+     * @param transformer used to read the location of the element
+     * @param xchild the element to read
+     */
+    private void readInvisibleXML( DockSituation situation, PropertyTransformer transformer, XElement xchild ){
+        String key = xchild.getString( "key" );
+        String root = null;
+        
+        XAttribute aroot = xchild.getAttribute( "root" );
+        if( aroot != null ){
+            root = aroot.getString();
+        }
+        
+        boolean oldStyle = true;
+        boolean hasLocation = false;
+        XAttribute alocation = xchild.getAttribute( "location" );
+        if( alocation != null ){
+            oldStyle = false;
+            hasLocation = alocation.getBoolean();
         }
+        
+        DockableProperty location = null;
+        DockLayoutComposition layout = null;
+        
+        if( oldStyle ){
+            location = transformer.readXML( xchild );
+        }
+        else{
+            if( hasLocation ){
+                XElement xlocation = xchild.getElement( "location" );
+                location = transformer.readXML( xlocation );
+            }
+            
+            XElement xlayout = xchild.getElement( "layout" );
+            if( xlayout != null ){
+                layout = situation.readCompositionXML( xlayout );
+            }
+        }
+        
+        addInvisible( key, root, layout, location );
     }
     
     /**
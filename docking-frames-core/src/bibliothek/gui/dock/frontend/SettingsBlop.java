@@ -42,6 +42,9 @@ public class SettingsBlop {
 	/** all the settings that are known */
 	private Map<String, Setting> settings = new HashMap<String, Setting>();
 	
+	/** all the settings that are known, but not yet decoded */
+	private Map<String, LazySetting> lazySettings = new HashMap<String, LazySetting>();
+	
 	/** The name of {@link #currentSetting}, can be <code>null</code> */
 	private String currentName;
 	
@@ -61,6 +64,24 @@ public class SettingsBlop {
 			throw new IllegalArgumentException( "setting must not be null" );
 		}
 		settings.put( name, setting );
+		lazySettings.remove( name );
+	}
+	
+	/**
+	 * Stores <code>setting</code> in a {@link Map} using <code>name</code> as key. The setting
+	 * is not decoded until {@link #getSetting(String)} is called.
+	 * @param name the key of <code>setting</code>
+	 * @param setting the data to store
+	 */
+	public void putLazy( String name, LazySetting setting ){
+		if( name == null ){
+			throw new IllegalArgumentException( "name must not be null" );
+		}
+		if( setting == null ){
+			throw new IllegalArgumentException( "setting must not be null" );
+		}
+		lazySettings.put( name, setting );
+		settings.remove( name );
 	}
 	
 	/**
@@ -69,6 +90,7 @@ public class SettingsBlop {
 	 */
 	public void remove( String name ){
 		settings.remove( name );
+		lazySettings.remove( name );
 	}
 	
 	/**
@@ -76,17 +98,44 @@ public class SettingsBlop {
 	 * @return all the names
 	 */
 	public String[] getNames(){
-		return settings.keySet().toArray( new String[ settings.size() ] );
+		String[] result = new String[ settings.size() + lazySettings.size() ];
+		int index = 0;
+		for( String name : settings.keySet() ){
+			result[ index++ ] = name;
+		}
+		for( String name : lazySettings.keySet() ){
+			result[ index++ ] = name;
+		}
+		return result;
 	}
 	
 	/**
 	 * Gets the {@link Setting} which was {@link #put(String, Setting) stored} using the
-	 * key <code>name</code>.
+	 * key <code>name</code>. If the setting was {@link #putLazy(String, LazySetting) stored lazily},
+	 * then it is decoded by this method.
 	 * @param name the name of a setting
 	 * @return the setting or <code>null</code> if <code>name</code> is not known
 	 */
 	public Setting getSetting( String name ){
-		return settings.get( name );
+		Setting setting = settings.get( name );
+		if( setting == null ){
+			LazySetting lazy = lazySettings.get( name );
+			if( lazy != null ){
+				setting = lazy.getSetting();
+			}
+		}
+		return setting;
+	}
+	
+	/**
+	 * Gets the {@link LazySetting} which was {@link #putLazy(String, LazySetting) stored} using
+	 * the key <code>name</code>.
+	 * @param name the name of a setting
+	 * @return the setting or <code>null</code> if <code>name</code> is not known or was not
+	 * stored lazily
+	 */
+	public LazySetting getLazySetting( String name ){
+		return lazySettings.get( name );
 	}
 	
 	/**
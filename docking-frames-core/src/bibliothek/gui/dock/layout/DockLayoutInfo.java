@@ -64,6 +64,9 @@ public class DockLayoutInfo {
 	/** the name of this element */
 	private Path placeholder;
 	
+	/** the strings the byte data refers to */
+	private String[] stringTable;
+	
 	/**
 	 * Creates a new info.
 	 */
@@ -79,6 +82,17 @@ public class DockLayoutInfo {
 		setData( data );
 	}
 	
+	/**
+	 * Creates a new info containing data that was written into a {@link StringTableOutputStream}.
+	 * @param data the data of this info
+	 * @param stringTable the strings <code>data</code> refers to, can be <code>null</code>
+	 * @see #getStringTable()
+	 */
+	public DockLayoutInfo( byte[] data, String[] stringTable ){
+		setData( data );
+		this.stringTable = stringTable;
+	}
+	
 	/**
 	 * Creates a new info.
 	 * @param data the data of this info
@@ -145,6 +159,7 @@ public class DockLayoutInfo {
 	 * of the specified types
 	 */
 	public void setData( Object data ){
+		stringTable = null;
 		if( data == null ){
 			this.data = null;
 			kind = Data.NULL;
@@ -188,6 +203,18 @@ public class DockLayoutInfo {
 		return null;
 	}
 	
+	/**
+	 * Gets the strings the {@link #getDataByte() byte data} of this info refers to. The byte data
+	 * has to be read using a {@link StringTableInputStream} with these strings.
+	 * @return the strings or <code>null</code> if the byte data does not refer to any strings
+	 * @see StringTableInputStream#open(byte[], String[])
+	 */
+	public String[] getStringTable(){
+		if( kind == Data.BYTE )
+			return stringTable;
+		return null;
+	}
+	
 	/**
 	 * Gets the data of this info as {@link DockLayout}.
 	 * @return the {@link DockLayout} data or <code>null</code>
@@ -33,6 +33,7 @@ import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -66,6 +67,8 @@ import bibliothek.util.Todo.Priority;
 import bibliothek.util.xml.XAttribute;
 import bibliothek.util.xml.XElement;
 import bibliothek.util.xml.XException;
+import bibliothek.util.xml.XReader;
+import bibliothek.util.xml.XWriter;
 
 /**
  * A <code>DockSituation</code> is a converter: the relationship of {@link DockStation}s and {@link Dockable}s,
@@ -103,6 +106,9 @@ public class DockSituation {
     
     /** strategy used to filter placeholders when converting the intermediate format to real {@link DockElement}s */
     private PlaceholderStrategy placeholders;
+    
+    /** whether {@link #writeComposition(DockLayoutComposition, DataOutputStream)} uses the compact format */
+    private boolean compactFormat = true;
 
     /**
      * Constructs a new DockSituation and sets some factories which are
@@ -213,6 +219,28 @@ public class DockSituation {
 		return intermediatePlaceholders;
 	}
     
+    /**
+     * Sets the binary format used by {@link #writeComposition(DockLayoutComposition, DataOutputStream)}. The
+     * compact format stores the identifiers of factories and placeholders only once per composition, and
+     * uses variable length integers for counts and sizes. The compact format cannot be read by versions of
+     * this library older than 1.1.3, hence clients that need to exchange files with older applications
+     * should disable it. Both formats can always be read.
+     * @param compactFormat whether to write the compact format, the default value is <code>true</code>
+     */
+    public void setCompactFormat( boolean compactFormat ){
+		this.compactFormat = compactFormat;
+	}
+    
+    /**
+     * Tells whether {@link #writeComposition(DockLayoutComposition, DataOutputStream)} uses the compact
+     * binary format.
+     * @return whether the compact format is used
+     * @see #setCompactFormat(boolean)
+     */
+    public boolean isCompactFormat(){
+		return compactFormat;
+	}
+    
     /**
      * Gets a placeholder for <code>element</code> using the current {@link PlaceholderStrategy}.
      * @param element some element, not <code>null</code>
@@ -424,6 +452,29 @@ public class DockSituation {
         return result;
     }
 
+    /**
+     * Tells whether <code>a</code> and <code>b</code> describe the same layout. Two compositions are
+     * considered to be the same if {@link #writeComposition(DockLayoutComposition, DataOutputStream)} 
+     * writes the same bytes for them. Note that the order of the children is part of a composition, 
+     * hence two compositions describing the same layout with children in a different order are not 
+     * considered to be the same.
+     * @param a the first composition, not <code>null</code>
+     * @param b the second composition, not <code>null</code>
+     * @return <code>true</code> if both compositions are written identically
+     * @throws IOException if one of the compositions cannot be written
+     */
+    public boolean isSameLayout( DockLayoutComposition a, DockLayoutComposition b ) throws IOException{
+        return Arrays.equals( toBytes( a ), toBytes( b ) );
+    }
+    
+    private byte[] toBytes( DockLayoutComposition composition ) throws IOException{
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        writeComposition( composition, out );
+        out.close();
+        return bytes.toByteArray();
+    }
+    
     /**
      * Writes the contents of <code>composition</code> and all its children
      * to <code>out</code>.
@@ -434,8 +485,14 @@ public class DockSituation {
      * @throws IOException if an I/O-error occurs
      */
     public void writeComposition( DockLayoutComposition composition, DataOutputStream out ) throws IOException{
-        Version.write( out, Version.VERSION_1_0_8 );
-        writeCompositionStream( composition, out );
+        if( compactFormat ){
+            Version.write( out, Version.VERSION_1_1_3 );
+            writeCompactStream( composition, out );
+        }
+        else{
+            Version.write( out, Version.VERSION_1_0_8 );
+            writeCompositionStream( composition, out );
+        }
     }
 
     /**
@@ -459,6 +516,9 @@ public class DockSituation {
         }
     	
         if( info.getKind() == DockLayoutInfo.Data.BYTE ){
+            if( info.getStringTable() != null )
+                throw new IOException( "Cannot store layout in the old format: the data of the missing factory " + getFactoryID( info ) + " refers to a table of strings" );
+            
             // data
             out.write( info.getDataByte() );
         }
@@ -528,6 +588,9 @@ public class DockSituation {
     public DockLayoutComposition readComposition( DataInputStream in ) throws IOException{
         Version version = Version.read( in );
         version.checkCurrent();
+        if( Version.VERSION_1_1_3.compareTo( version ) <= 0 ){
+            return readCompactStream( in );
+        }
         return readCompositionStream( in, version );
     }
 
@@ -551,7 +614,7 @@ public class DockSituation {
     	
         byte[] entry = readBuffer( in );
 
-        DockLayoutInfo info = readEntry( entry, entryPlaceholder );
+        DockLayoutInfo info = readEntry( entry, null, entryPlaceholder );
 
         List<DockLayout<?>> adjacentLayouts = null;
         if( Version.VERSION_1_0_7.compareTo( version ) <= 0 ){
@@ -610,19 +673,284 @@ public class DockSituation {
         return new DockLayoutComposition( info, adjacentLayouts, children, ignore );
     }
 
+    /**
+     * Writes <code>composition</code> and all its children in the compact format. The compact
+     * format starts with a table of all the identifiers of factories, all placeholders and all the strings
+     * the factories wrote into a {@link StringTableOutputStream}, the compositions then only refer to the
+     * index of a string in that table. All counts and sizes are written as variable length integers. The
+     * data of each factory is prefixed by its size, allowing a reader to skip data of unknown factories.
+     * @param composition the composition to write
+     * @param out the stream to write into
+     * @throws IOException if an I/O-error occurs
+     */
+    private void writeCompactStream( DockLayoutComposition composition, DataOutputStream out ) throws IOException{
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        StringTableOutputStream dbody = new StringTableOutputStream( body );
+        writeCompactComposition( composition, dbody );
+        dbody.close();
+
+        String[] table = dbody.getStrings();
+        StringTableOutputStream.writeVarInt( table.length, out );
+        for( String string : table ){
+            out.writeUTF( string );
+        }
+        body.writeTo( out );
+    }
+
+    /**
+     * Writes one composition and all its children in the compact format.
+     * @param composition the composition to write
+     * @param out the stream to write into, its string table is shared with the data of all factories
+     * @throws IOException if an I/O-error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private void writeCompactComposition( DockLayoutComposition composition, StringTableOutputStream out ) throws IOException{
+        DockLayoutInfo info = composition.getLayout();
+
+        // placeholder
+        Path placeholder = info.getPlaceholder();
+        if( placeholder == null ){
+            StringTableOutputStream.writeVarInt( 0, out );
+        }
+        else{
+            StringTableOutputStream.writeVarInt( 1, out );
+            out.writeString( placeholder.toString() );
+        }
+
+        if( info.getKind() == DockLayoutInfo.Data.BYTE ){
+            // data, the entry has the format of the old stream
+            DataInputStream entry = new DataInputStream( new ByteArrayInputStream( info.getDataByte() ));
+            String factoryId = entry.readUTF();
+            int count = entry.readInt();
+            byte[] data = new byte[ count ];
+            entry.readFully( data );
+            entry.close();
+
+            ByteArrayOutputStream bout = new ByteArrayOutputStream( count );
+            StringTableOutputStream dout = new StringTableOutputStream( bout, out );
+            if( info.getStringTable() != null ){
+                dout.useTable( info.getStringTable() );
+            }
+            dout.write( data );
+            dout.close();
+            writeCompactData( factoryId, dout, bout, out );
+        }
+        else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
+            DockLayout<?> layout = info.getDataLayout();
+            DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( layout.getFactoryID() );
+            if( factory == null )
+                throw new IOException( "Missing factory: " + layout.getFactoryID() );
+
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            StringTableOutputStream dout = new StringTableOutputStream( bout, out );
+            factory.write( layout.getData(), dout );
+            dout.close();
+            writeCompactData( getID( factory ), dout, bout, out );
+        }
+        else{
+            throw new IllegalArgumentException( "Cannot store layout in stream: it was never translated and its raw format is not a byte stream" );
+        }
+
+        // adjacent
+        List<DockLayout<?>> adjacentLayouts = composition.getAdjacent();
+        if( adjacentLayouts == null ){
+            StringTableOutputStream.writeVarInt( 0, out );
+        }
+        else{
+            StringTableOutputStream.writeVarInt( adjacentLayouts.size(), out );
+            for( DockLayout<?> adjacentLayout : adjacentLayouts ){
+                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+                if( adjacentFactory == null )
+                    throw new IOException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
+
+                ByteArrayOutputStream adjacentBOut = new ByteArrayOutputStream();
+                StringTableOutputStream adjacentOut = new StringTableOutputStream( adjacentBOut, out );
+                adjacentFactory.write( adjacentLayout.getData(), adjacentOut );
+                adjacentOut.close();
+                writeCompactData( getAdjacentID( adjacentFactory ), adjacentOut, adjacentBOut, out );
+            }
+        }
+
+        // ignore
+        out.writeBoolean( composition.isIgnoreChildren() );
+
+        // children
+        List<DockLayoutComposition> children = composition.getChildren();
+        StringTableOutputStream.writeVarInt( children.size(), out );
+        for( DockLayoutComposition child : children ){
+            writeCompactComposition( child, out );
+        }
+    }
+    
+    /**
+     * Writes the data of a factory in the compact format.
+     * @param factoryId the unique identifier of the factory
+     * @param data the stream into which the factory wrote its data
+     * @param buffer the bytes that were written into <code>data</code>
+     * @param out the stream to write into
+     * @throws IOException if an I/O-error occurs
+     */
+    private void writeCompactData( String factoryId, StringTableOutputStream data, ByteArrayOutputStream buffer, StringTableOutputStream out ) throws IOException{
+        out.writeString( factoryId );
+        StringTableOutputStream.writeVarInt( data.getBase(), out );
+        StringTableOutputStream.writeVarInt( buffer.size(), out );
+        buffer.writeTo( out );
+    }
+
+    /**
+     * Reads a composition that was written by {@link #writeCompactStream(DockLayoutComposition, DataOutputStream)}.
+     * @param in the stream to read from
+     * @return the composition that was read
+     * @throws IOException if an I/O-error occurs
+     */
+    private DockLayoutComposition readCompactStream( DataInputStream in ) throws IOException{
+        String[] table = new String[ StringTableInputStream.readVarInt( in ) ];
+        for( int i = 0; i < table.length; i++ ){
+            table[i] = in.readUTF();
+        }
+        return readCompactComposition( new StringTableInputStream( in, table, 0 ), table, new HashMap<String, Path>() );
+    }
+
+    /**
+     * Reads one composition and all its children in the compact format.
+     * @param in the stream to read from
+     * @param table the strings the composition refers to
+     * @param placeholders cache of {@link Path}s that were already created, allowing to share the same
+     * {@link Path} between all elements having the same placeholder
+     * @return the composition that was read
+     * @throws IOException if an I/O-error occurs
+     */
+    @SuppressWarnings("unchecked")
+    private DockLayoutComposition readCompactComposition( StringTableInputStream in, String[] table, Map<String, Path> placeholders ) throws IOException{
+        // placeholder
+        Path placeholder = null;
+        if( StringTableInputStream.readVarInt( in ) != 0 ){
+            String name = in.readString();
+            placeholder = placeholders.get( name );
+            if( placeholder == null ){
+                placeholder = new Path( name );
+                placeholders.put( name, placeholder );
+            }
+        }
+
+        // layout
+        String factoryId = in.readString();
+        int base = StringTableInputStream.readVarInt( in );
+        byte[] data = new byte[ StringTableInputStream.readVarInt( in ) ];
+        in.readFully( data );
+        DockLayoutInfo info = readCompactEntry( factoryId, new StringTableInputStream( new ByteArrayInputStream( data ), table, base ), data, placeholder );
+
+        // adjacent
+        List<DockLayout<?>> adjacentLayouts = null;
+        int layoutCount = StringTableInputStream.readVarInt( in );
+        if( layoutCount > 0 ){
+            adjacentLayouts = new ArrayList<DockLayout<?>>( layoutCount );
+            for( int i = 0; i < layoutCount; i++ ){
+                String adjacentFactoryId = in.readString();
+                int adjacentBase = StringTableInputStream.readVarInt( in );
+                int adjacentCount = StringTableInputStream.readVarInt( in );
+                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentFactoryId );
+                if( adjacentFactory == null && missingAdjacent == null ){
+                    // skip
+                    while( adjacentCount > 0 ){
+                        int skipped = (int)in.skip( adjacentCount );
+                        if( skipped <= 0 )
+                            throw new EOFException();
+                        adjacentCount -= skipped;
+                    }
+                }
+                else{
+                    byte[] adjacentBytes = new byte[ adjacentCount ];
+                    in.readFully( adjacentBytes );
+                    DataInputStream din = new StringTableInputStream( new ByteArrayInputStream( adjacentBytes ), table, adjacentBase );
+                    Object adjacentData;
+                    if( adjacentFactory == null ){
+                        adjacentData = missingAdjacent.read( getAdjacentFactoryID( adjacentFactoryId ), din, adjacentCount );
+                    }
+                    else{
+                        adjacentData = adjacentFactory.read( din, intermediatePlaceholders );
+                    }
+                    if( adjacentData != null ){
+                        adjacentLayouts.add( new DockLayout<Object>( adjacentFactoryId, adjacentData ) );
+                    }
+                    din.close();
+                }
+            }
+        }
+
+        // ignore
+        boolean ignore = in.readBoolean();
+
+        // children
+        int count = StringTableInputStream.readVarInt( in );
+        List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>( count );
+        for( int i = 0; i < count; i++ ){
+            children.add( readCompactComposition( in, table, placeholders ) );
+        }
+
+        return new DockLayoutComposition( info, adjacentLayouts, children, ignore );
+    }
+
+    /**
+     * Converts the data of a {@link DockFactory} into a {@link DockLayoutInfo}.
+     * @param factoryId the unique identifier of the factory that wrote <code>data</code>
+     * @param in the stream reading <code>data</code>
+     * @param data the data written by the factory
+     * @param placeholder the placeholder which is associated with this element
+     * @return the information that was obtained, may be <code>null</code>
+     * @throws IOException if <code>data</code> has not the correct format
+     */
+    @SuppressWarnings("unchecked")
+    private DockLayoutInfo readCompactEntry( String factoryId, StringTableInputStream in, byte[] data, Path placeholder ) throws IOException{
+        DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
+        DockLayoutInfo info = null;
+
+        if( factory == null ){
+            if( missingFactory != null ){
+                Object result = missingFactory.read( getFactoryID( factoryId ), in, data.length );
+                if( result != null ){
+                    info = new DockLayoutInfo( new DockLayout<Object>( factoryId, result ));
+                }
+            }
+            if( info == null ){
+                // store in the same format as the old stream, allowing fillMissing to read the entry later
+                ByteArrayOutputStream entry = new ByteArrayOutputStream( factoryId.length()*4 + 4 + data.length );
+                DataOutputStream dentry = new DataOutputStream( entry );
+                dentry.writeUTF( factoryId );
+                dentry.writeInt( data.length );
+                dentry.write( data );
+                dentry.close();
+                info = new DockLayoutInfo( entry.toByteArray(), in.getStrings() );
+            }
+        }
+        else{
+            Object result = factory.read( in, intermediatePlaceholders );
+            if( result != null ){
+                info = new DockLayoutInfo( new DockLayout<Object>( factoryId, result ) );
+            }
+        }
+        in.close();
+
+        if( info != null ){
+            info.setPlaceholder( placeholder );
+        }
+        return info;
+    }
+
     /**
      * Tries to read <code>entry</code>. Entry will be read by a {@link DataInputStream},
      * it must start with an utf-String used as id for a {@link DockFactory},
      * then followed by an int telling how many bytes are in the remaining
      * array. The rest of the array will be given to a {@link DockFactory}.
      * @param entry the entry to read
+     * @param strings the strings the data of the factory refers to, can be <code>null</code>
      * @param placeholder the placeholder which is associated with this element
      * @return the information that was obtained, may be <code>null</code>
      * @throws IOException if <code>entry</code> has not the correct format
      */
     @SuppressWarnings("unchecked")
-    private DockLayoutInfo readEntry( byte[] entry, Path placeholder ) throws IOException{
-        DataInputStream entryIn = new DataInputStream( new ByteArrayInputStream( entry ));
+    private DockLayoutInfo readEntry( byte[] entry, String[] strings, Path placeholder ) throws IOException{
+        DataInputStream entryIn = StringTableInputStream.open( entry, strings );
         
         String factoryId = entryIn.readUTF();
         
@@ -647,7 +975,7 @@ public class DockSituation {
             }
 
             if( info == null ){
-                info = new DockLayoutInfo( entry );
+                info = new DockLayoutInfo( entry, strings );
                 info.setPlaceholder( placeholder );
             }
         }
@@ -839,11 +1167,71 @@ public class DockSituation {
      * @param element the element to write into
      * @throws IllegalArgumentException if a factory is missing
      */
-    @SuppressWarnings("unchecked")
     public void writeCompositionXML( DockLayoutComposition composition, XElement element ){
-        DockLayoutInfo info = composition.getLayout();
+        element.addElement( writeLayoutXML( composition.getLayout() ) );
+
+        List<DockLayout<?>> adjacentLayouts = composition.getAdjacent();
+        if( adjacentLayouts != null ){
+            XElement xadjacent = element.addElement( "adjacent" );
+
+            for( DockLayout<?> adjacentLayout : adjacentLayouts ){
+                xadjacent.addElement( writeAdjacentXML( adjacentLayout ) );
+            }
+        }
+
+        XElement xchildren = element.addElement( "children" );
+        xchildren.addBoolean( "ignore", composition.isIgnoreChildren() );
+
+        for( DockLayoutComposition child : composition.getChildren() ){
+            XElement xchild = xchildren.addElement( "child" );
+            writeCompositionXML( child, xchild );
+        }
+    }
+
+    /**
+     * Writes the contents of <code>composition</code> into the currently open element of
+     * <code>writer</code>. The output is the same as the output of {@link #writeCompositionXML(DockLayoutComposition, XElement)},
+     * but only the <code>layout</code> element of one {@link DockFactory} is held in memory at
+     * any time.
+     * @param composition the composition to write
+     * @param writer the writer whose current element is filled, no attributes are written
+     * into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     * @throws IllegalArgumentException if a factory is missing
+     */
+    public void writeCompositionXML( DockLayoutComposition composition, XWriter writer ) throws IOException{
+        writer.element( writeLayoutXML( composition.getLayout() ) );
+
+        List<DockLayout<?>> adjacentLayouts = composition.getAdjacent();
+        if( adjacentLayouts != null ){
+            writer.startElement( "adjacent" );
+            for( DockLayout<?> adjacentLayout : adjacentLayouts ){
+                writer.element( writeAdjacentXML( adjacentLayout ) );
+            }
+            writer.endElement();
+        }
+
+        writer.startElement( "children" );
+        writer.attribute( "ignore", composition.isIgnoreChildren() );
+        for( DockLayoutComposition child : composition.getChildren() ){
+            writer.startElement( "child" );
+            writeCompositionXML( child, writer );
+            writer.endElement();
+        }
+        writer.endElement();
+    }
+
+    /**
+     * Creates the <code>layout</code> element describing <code>info</code>.
+     * @param info the layout to write
+     * @return the new element
+     * @throws IllegalArgumentException if the factory is missing or if <code>info</code> cannot
+     * be stored as xml
+     */
+    @SuppressWarnings("unchecked")
+    private XElement writeLayoutXML( DockLayoutInfo info ){
         if( info.getKind() == DockLayoutInfo.Data.XML ){
-            element.addElement( info.getDataXML() );
+            return info.getDataXML();
         }
         else if( info.getKind() == DockLayoutInfo.Data.DOCK_LAYOUT ){
             DockLayout<?> layout = info.getDataLayout();
@@ -852,41 +1240,37 @@ public class DockSituation {
             if( factory == null )
                 throw new IllegalArgumentException( "Missing factory: " + layout.getFactoryID() );
 
-            XElement xfactory = element.addElement( "layout" );
+            XElement xfactory = new XElement( "layout" );
             xfactory.addString( "factory", getID( factory ) );
             Path placeholder = info.getPlaceholder();
             if( placeholder != null ){
             	xfactory.addString( "placeholder", placeholder.toString() );
             }
             factory.write( layout.getData(), xfactory );
+            return xfactory;
         }
         else{
             // there is nothing to write...
             throw new IllegalArgumentException( "Cannot store layout as XML: it was never translated and its raw format is not XML" );
         }
+    }
 
-        List<DockLayout<?>> adjacentLayouts = composition.getAdjacent();
-        if( adjacentLayouts != null ){
-            XElement xadjacent = element.addElement( "adjacent" );
-
-            for( DockLayout<?> adjacentLayout : adjacentLayouts ){
-                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
-                if( adjacentFactory == null )
-                    throw new IllegalArgumentException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
-
-                XElement xlayout = xadjacent.addElement( "layout" );
-                xlayout.addString( "factory", getAdjacentID( adjacentFactory ) );
-                adjacentFactory.write( adjacentLayout.getData(), xlayout );
-            }
-        }
-
-        XElement xchildren = element.addElement( "children" );
-        xchildren.addBoolean( "ignore", composition.isIgnoreChildren() );
-
-        for( DockLayoutComposition child : composition.getChildren() ){
-            XElement xchild = xchildren.addElement( "child" );
-            writeCompositionXML( child, xchild );
-        }
+    /**
+     * Creates the <code>layout</code> element describing the layout of an {@link AdjacentDockFactory}.
+     * @param adjacentLayout the layout to write
+     * @return the new element
+     * @throws IllegalArgumentException if the factory is missing
+     */
+    @SuppressWarnings("unchecked")
+    private XElement writeAdjacentXML( DockLayout<?> adjacentLayout ){
+        AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( adjacentLayout.getFactoryID() );
+        if( adjacentFactory == null )
+            throw new IllegalArgumentException( "Missing adjacent factory: " + adjacentLayout.getFactoryID() );
+
+        XElement xlayout = new XElement( "layout" );
+        xlayout.addString( "factory", getAdjacentID( adjacentFactory ) );
+        adjacentFactory.write( adjacentLayout.getData(), xlayout );
+        return xlayout;
     }
 
     /**
@@ -895,7 +1279,6 @@ public class DockSituation {
      * @return the composition that was read
      * @throws XException if something is missing or malformed in <code>element</code>
      */
-    @SuppressWarnings("unchecked")
     public DockLayoutComposition readCompositionXML( XElement element ){
         XElement xfactory = element.getElement( "layout" );
         DockLayoutInfo layout = readEntry( xfactory );
@@ -903,24 +1286,7 @@ public class DockSituation {
         XElement xadjacent = element.getElement( "adjacent" );
         List<DockLayout<?>> adjacentLayouts = null;
         if( xadjacent != null ){
-            adjacentLayouts = new ArrayList<DockLayout<?>>();
-
-            for( XElement xlayout : xadjacent.getElements( "layout" )){
-                String factoryId = xlayout.getString( "factory" );
-                AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( factoryId );
-                if( adjacentFactory != null ){
-                    Object data = adjacentFactory.read( xlayout, intermediatePlaceholders );
-                    if( data != null ){
-                        adjacentLayouts.add( new DockLayout<Object>( factoryId, data ));
-                    }
-                }
-                else if( missingAdjacent != null ){
-                    Object data = missingAdjacent.readXML( getAdjacentFactoryID( factoryId ), xlayout );
-                    if( data != null ){
-                        adjacentLayouts.add( new DockLayout<Object>( factoryId, data ) );
-                    }
-                }
-            }
+            adjacentLayouts = readAdjacent( xadjacent );
         }
 
         XElement xchildren = element.getElement( "children" );
@@ -937,6 +1303,79 @@ public class DockSituation {
         return new DockLayoutComposition( layout, adjacentLayouts, children, ignore );
     }
 
+    /**
+     * Reads a {@link DockLayoutComposition} from a stream of xml elements. Other than
+     * {@link #readCompositionXML(XElement)} this method does never hold more than the
+     * <code>layout</code> element of one {@link DockFactory} in memory.
+     * @param reader the reader pointing to the element that was given to
+     * {@link #writeCompositionXML(DockLayoutComposition, XElement)}. When this method
+     * returns, the element is consumed and the parent of the element is the current element
+     * of <code>reader</code>.
+     * @return the composition that was read
+     * @throws IOException if <code>reader</code> cannot be read
+     * @throws XException if something is missing or malformed in <code>reader</code>
+     */
+    public DockLayoutComposition readCompositionXML( XReader reader ) throws IOException{
+        DockLayoutInfo layout = null;
+        List<DockLayout<?>> adjacentLayouts = null;
+        boolean ignore = true;
+        List<DockLayoutComposition> children = new ArrayList<DockLayoutComposition>();
+
+        while( reader.nextChild() ){
+            String name = reader.getName();
+            if( "layout".equals( name ) && layout == null ){
+                layout = readEntry( reader.readElement() );
+            }
+            else if( "adjacent".equals( name ) && adjacentLayouts == null ){
+                adjacentLayouts = readAdjacent( reader.readElement() );
+            }
+            else if( "children".equals( name ) ){
+                ignore = reader.getBoolean( "ignore" );
+                while( reader.nextChild() ){
+                    if( "child".equals( reader.getName() )){
+                        children.add( readCompositionXML( reader ));
+                    }
+                    else{
+                        reader.skipElement();
+                    }
+                }
+            }
+            else{
+                reader.skipElement();
+            }
+        }
+
+        return new DockLayoutComposition( layout, adjacentLayouts, children, ignore );
+    }
+
+    /**
+     * Reads the layouts of the {@link AdjacentDockFactory}s that were stored in <code>xadjacent</code>.
+     * @param xadjacent the element to read
+     * @return the layouts that were read
+     */
+    @SuppressWarnings("unchecked")
+    private List<DockLayout<?>> readAdjacent( XElement xadjacent ){
+        List<DockLayout<?>> adjacentLayouts = new ArrayList<DockLayout<?>>();
+
+        for( XElement xlayout : xadjacent.getElements( "layout" )){
+            String factoryId = xlayout.getString( "factory" );
+            AdjacentDockFactory<Object> adjacentFactory = (AdjacentDockFactory<Object>)getAdjacentFactory( factoryId );
+            if( adjacentFactory != null ){
+                Object data = adjacentFactory.read( xlayout, intermediatePlaceholders );
+                if( data != null ){
+                    adjacentLayouts.add( new DockLayout<Object>( factoryId, data ));
+                }
+            }
+            else if( missingAdjacent != null ){
+                Object data = missingAdjacent.readXML( getAdjacentFactoryID( factoryId ), xlayout );
+                if( data != null ){
+                    adjacentLayouts.add( new DockLayout<Object>( factoryId, data ) );
+                }
+            }
+        }
+        return adjacentLayouts;
+    }
+
     /**
      * Reads an entry that was stored in xml format. The entry should have
      * one attribute <code>factory</code>.
@@ -989,6 +1428,22 @@ public class DockSituation {
      * not be changed
      */
     public void writeXML( Map<String, DockStation> stations, XElement element ) {
+    	writeCompositionsXML( convertStations( stations ), element );
+    }
+
+    /**
+     * Writes all locations and relationships of the {@link DockStation}s
+     * <code>stations</code> and their children into the currently open element of <code>writer</code>.
+     * @param stations The stations to store, only the roots are needed.
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     * @see #readCompositionsXML(XReader)
+     */
+    public void writeXML( Map<String, DockStation> stations, XWriter writer ) throws IOException{
+    	writeCompositionsXML( convertStations( stations ), writer );
+    }
+
+    private Map<String, DockLayoutComposition> convertStations( Map<String, DockStation> stations ){
     	Map<String, DockLayoutComposition> map = new HashMap<String, DockLayoutComposition>();
     	for( Map.Entry<String, DockStation> entry : stations.entrySet() ){
     		DockLayoutComposition composition = convert( entry.getValue() );
@@ -996,7 +1451,7 @@ public class DockSituation {
     			map.put( entry.getKey(), composition );
     		}
     	}
-    	writeCompositionsXML( map, element );
+    	return map;
     }
 
     /**
@@ -1012,6 +1467,21 @@ public class DockSituation {
             writeCompositionXML( entry.getValue(), xchild );
         }
     }
+
+    /**
+     * Writes the contents of <code>stations</code> into the currently open element of <code>writer</code>.
+     * @param stations the items to write
+     * @param writer the writer to fill, no attributes are written into the current element
+     * @throws IOException if <code>writer</code> cannot be written
+     */
+    public void writeCompositionsXML( Map<String, DockLayoutComposition> stations, XWriter writer ) throws IOException{
+    	for( Map.Entry<String, DockLayoutComposition> entry : stations.entrySet() ){
+    		writer.startElement( "element" );
+    		writer.attribute( "name", entry.getKey() );
+    		writeCompositionXML( entry.getValue(), writer );
+    		writer.endElement();
+    	}
+    }
     
     /**
      * Reads a set of {@link DockStation}s that were stored earlier.
@@ -1048,6 +1518,53 @@ public class DockSituation {
         return result;
     }
     
+    /**
+     * Reads a set of {@link DockStation}s that were stored earlier. Other than {@link #readXML(XElement)}
+     * this method does not require the whole file to be loaded into memory.
+     * @param reader the reader pointing to the element from which to read, the element will be consumed
+     * @return the set of stations
+     * @throws IOException if <code>reader</code> cannot be read
+     */
+    public Map<String, DockStation> readXML( XReader reader ) throws IOException{
+        Map<String, DockStation> result = new HashMap<String, DockStation>();
+        while( reader.nextChild() ){
+            if( "element".equals( reader.getName() )){
+                String name = reader.getString( "name" );
+                DockLayoutComposition composition = readCompositionXML( reader );
+                DockElement element = convert( composition );
+                DockStation station = element == null ? null : element.asDockStation();
+                if( station != null )
+                    result.put( name, station );
+            }
+            else{
+                reader.skipElement();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a set of {@link DockLayoutComposition}s that were stored earlier. Other than
+     * {@link #readCompositionsXML(XElement)} this method does not require the whole file to
+     * be loaded into memory.
+     * @param reader the reader pointing to the element from which to read, the element will be consumed
+     * @return the set of compositions
+     * @throws IOException if <code>reader</code> cannot be read
+     */
+    public Map<String, DockLayoutComposition> readCompositionsXML( XReader reader ) throws IOException{
+        Map<String, DockLayoutComposition> result = new HashMap<String, DockLayoutComposition>();
+        while( reader.nextChild() ){
+            if( "element".equals( reader.getName() )){
+                String name = reader.getString( "name" );
+                result.put( name, readCompositionXML( reader ) );
+            }
+            else{
+                reader.skipElement();
+            }
+        }
+        return result;
+    }
+    
     /**
      * Using the factories currently known to this {@link DockSituation}, this
      * method tries to fill gaps in <code>composition</code>. It checks
@@ -1066,7 +1583,7 @@ public class DockSituation {
         DockLayoutInfo original = info;
 
         if( info.getKind() == DockLayoutInfo.Data.BYTE ){
-            info = readEntry( info.getDataByte(), info.getPlaceholder() );
+            info = readEntry( info.getDataByte(), info.getStringTable(), info.getPlaceholder() );
             if( info != null && info.getKind() == DockLayoutInfo.Data.BYTE ){
                 info = original;
             }
@@ -26,7 +26,6 @@
 
 package bibliothek.gui.dock.layout;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -416,7 +415,7 @@ public class PredefinedDockSituation extends DockSituation {
         byte[] bytes = layout.getDelegate().getDataByte();
 
         try{
-            DataInputStream in = new DataInputStream( new ByteArrayInputStream( bytes ));
+            DataInputStream in = StringTableInputStream.open( bytes, layout.getDelegate().getStringTable() );
             String factoryId = in.readUTF();
 
             DockFactory<DockElement,?,Object> factory = (DockFactory<DockElement,?,Object>)getFactory( factoryId );
@@ -793,6 +792,12 @@ public class PredefinedDockSituation extends DockSituation {
             out.writeUTF( layout.getPredefined() );
 
             if( info.getKind() == DockLayoutInfo.Data.BYTE ){
+                String[] strings = info.getStringTable();
+                if( strings != null ){
+                    if( !(out instanceof StringTableOutputStream) )
+                        throw new IOException( "Cannot store layout, the data of a missing factory refers to a table of strings" );
+                    ((StringTableOutputStream)out).useTable( strings );
+                }
                 out.writeBoolean( true );
                 out.write( info.getDataByte() );
             }
@@ -857,7 +862,12 @@ public class PredefinedDockSituation extends DockSituation {
                         }
 
                         dout.close();
-                        info = new DockLayoutInfo( out.toByteArray() );
+                        if( in instanceof StringTableInputStream ){
+                            info = new DockLayoutInfo( out.toByteArray(), ((StringTableInputStream)in).getStrings() );
+                        }
+                        else{
+                            info = new DockLayoutInfo( out.toByteArray() );
+                        }
                     }
                 }
                 else{
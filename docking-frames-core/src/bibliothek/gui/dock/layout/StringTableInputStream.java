@@ -0,0 +1,128 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link DataInputStream} reading the data that was written into a {@link StringTableOutputStream}.
+ * @author Benjamin Sigg
+ */
+public class StringTableInputStream extends DataInputStream {
+	/** all the strings of the composition */
+	private final String[] table;
+	
+	/** the offset of the strings of this stream in {@link #table} */
+	private final int base;
+	
+	/** the strings starting at {@link #base}, lazily created */
+	private String[] strings;
+	
+	/**
+	 * Creates a new stream.
+	 * @param in the stream to read from
+	 * @param table all the strings the data of <code>in</code> may refer to
+	 * @param base the offset of the strings in <code>table</code>, as told by {@link StringTableOutputStream#getBase()}
+	 */
+	public StringTableInputStream( InputStream in, String[] table, int base ){
+		super( in );
+		if( base < 0 || base > table.length ){
+			throw new IllegalArgumentException( "base out of bounds: " + base );
+		}
+		this.table = table;
+		this.base = base;
+	}
+	
+	/**
+	 * Creates a stream reading <code>data</code>.
+	 * @param data the data to read
+	 * @param strings the strings <code>data</code> refers to, can be <code>null</code> if <code>data</code>
+	 * was not written into a {@link StringTableOutputStream}
+	 * @return either a {@link StringTableInputStream} or an ordinary {@link DataInputStream}
+	 */
+	public static DataInputStream open( byte[] data, String[] strings ){
+		if( strings == null ){
+			return new DataInputStream( new ByteArrayInputStream( data ));
+		}
+		return new StringTableInputStream( new ByteArrayInputStream( data ), strings, 0 );
+	}
+	
+	/**
+	 * Reads a string that was written by {@link StringTableOutputStream#writeString(String)}.
+	 * @return the string
+	 * @throws IOException if an I/O-error occurs or the index is out of bounds
+	 */
+	public String readString() throws IOException{
+		int index = readVarInt( this ) + base;
+		if( index >= table.length ){
+			throw new IOException( "illegal index into string table: " + index );
+		}
+		return table[ index ];
+	}
+	
+	/**
+	 * Gets the strings this stream refers to. Clients which store the raw data of this stream
+	 * have to store these strings as well, and later call {@link StringTableOutputStream#useTable(String[])}
+	 * before writing the data again.
+	 * @return the strings, the result is always the same array
+	 */
+	public String[] getStrings(){
+		if( strings == null ){
+			if( base == 0 ){
+				strings = table;
+			}
+			else{
+				strings = new String[ table.length - base ];
+				System.arraycopy( table, base, strings, 0, strings.length );
+			}
+		}
+		return strings;
+	}
+	
+	/**
+	 * Reads a value that was written by {@link StringTableOutputStream#writeVarInt(int, java.io.DataOutput)}.
+	 * @param in the stream to read from
+	 * @return the value
+	 * @throws IOException if an I/O-error occurs or the value is malformed
+	 */
+	public static int readVarInt( DataInput in ) throws IOException{
+		int value = 0;
+		for( int shift = 0; shift < 32; shift += 7 ){
+			int read = in.readUnsignedByte();
+			value |= (read & 0x7F) << shift;
+			if( (read & 0x80) == 0 ){
+				if( value < 0 )
+					break;
+				return value;
+			}
+		}
+		throw new IOException( "malformed variable length integer" );
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.layout;
+
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bibliothek.gui.dock.DockFactory;
+import bibliothek.gui.dock.station.support.PlaceholderMap;
+
+/**
+ * A {@link DataOutputStream} used by the compact format of {@link DockSituation}. Strings written
+ * with {@link #writeString(String)} are stored only once in a table that is shared by all the
+ * streams of one composition, the stream itself only contains the index of the string. The
+ * table is written by the {@link DockSituation} once all the data of the {@link DockFactory}s
+ * is known. Clients like {@link PlaceholderMap} check whether the stream they get is a
+ * {@link StringTableOutputStream} and use the table if possible.<br>
+ * Data that was read from another {@link StringTableInputStream}, but could not be interpreted because
+ * a factory was missing, still refers to the table of that stream. Such data can only be
+ * written after calling {@link #useTable(String[])}.
+ * @author Benjamin Sigg
+ */
+public class StringTableOutputStream extends DataOutputStream {
+	/** the table shared by all streams of one composition */
+	private final Table table;
+	
+	/** the offset of the strings of this stream in {@link #table} */
+	private int base = 0;
+	
+	/** whether {@link #useTable(String[])} was called */
+	private boolean foreign = false;
+	
+	/** whether {@link #writeString(String)} was called */
+	private boolean interned = false;
+	
+	/**
+	 * Creates a new stream with a new, empty table.
+	 * @param out the stream to write into
+	 */
+	public StringTableOutputStream( OutputStream out ){
+		super( out );
+		table = new Table();
+	}
+	
+	/**
+	 * Creates a new stream sharing the table of <code>shared</code>.
+	 * @param out the stream to write into
+	 * @param shared the stream whose table is used
+	 */
+	public StringTableOutputStream( OutputStream out, StringTableOutputStream shared ){
+		super( out );
+		table = shared.table;
+	}
+	
+	/**
+	 * Writes <code>value</code> as index into the table of strings, adding <code>value</code> to the
+	 * table if necessary.
+	 * @param value the string to write, not <code>null</code>
+	 * @throws IOException if an I/O-error occurs, or if this stream already uses the table of another stream
+	 */
+	public void writeString( String value ) throws IOException{
+		if( foreign ){
+			throw new IOException( "this stream uses a foreign string table and cannot store new strings" );
+		}
+		interned = true;
+		writeVarInt( table.intern( value ), this );
+	}
+	
+	/**
+	 * Tells this stream that the following data refers to <code>strings</code>, which is the table that
+	 * was {@link StringTableInputStream#getStrings() read} together with the data. The strings are appended
+	 * to the table of this stream and all data written into this stream is then relative to these strings.
+	 * Calling this method more than once with the same table has no effect.
+	 * @param strings the table the data refers to, not <code>null</code>
+	 * @throws IOException if {@link #writeString(String)} or this method with another table was already called
+	 */
+	public void useTable( String[] strings ) throws IOException{
+		if( interned ){
+			throw new IOException( "this stream already uses its own string table" );
+		}
+		int next = table.append( strings );
+		if( foreign && base != next ){
+			throw new IOException( "this stream already uses another string table" );
+		}
+		foreign = true;
+		base = next;
+	}
+	
+	/**
+	 * Gets the offset of the strings this stream refers to in the shared table. A reader
+	 * needs this offset to find the strings.
+	 * @return the offset, 0 unless {@link #useTable(String[])} was called
+	 */
+	public int getBase(){
+		return base;
+	}
+	
+	/**
+	 * Gets all the strings that were written into this or any other stream sharing the same table.
+	 * @return all the strings, the index of a string is its position in the array
+	 */
+	public String[] getStrings(){
+		return table.strings.toArray( new String[ table.strings.size() ] );
+	}
+	
+	/**
+	 * Writes <code>value</code> using as few bytes as possible. Each byte stores 7 bits of
+	 * <code>value</code>, the highest bit tells whether another byte follows.
+	 * @param value the value to write, must not be negative
+	 * @param out the stream to write into
+	 * @throws IOException if an I/O-error occurs
+	 * @see StringTableInputStream#readVarInt(java.io.DataInput)
+	 */
+	public static void writeVarInt( int value, DataOutput out ) throws IOException{
+		if( value < 0 )
+			throw new IllegalArgumentException( "value must not be negative: " + value );
+		while( (value & ~0x7F) != 0 ){
+			out.writeByte( (value & 0x7F) | 0x80 );
+			value >>>= 7;
+		}
+		out.writeByte( value );
+	}
+	
+	/**
+	 * The strings shared by a set of {@link StringTableOutputStream}s.
+	 * @author Benjamin Sigg
+	 */
+	private static class Table{
+		/** all strings in the order they were added */
+		private List<String> strings = new ArrayList<String>();
+		/** the index of each string */
+		private Map<String, Integer> indices = new HashMap<String, Integer>();
+		/** the offsets of the tables that were appended by {@link #append(String[])} */
+		private Map<String[], Integer> appended = new IdentityHashMap<String[], Integer>();
+		
+		/**
+		 * Gets the index of <code>value</code>, adds <code>value</code> if not yet present.
+		 * @param value the string whose index is searched
+		 * @return the index of <code>value</code>
+		 */
+		public int intern( String value ){
+			Integer index = indices.get( value );
+			if( index == null ){
+				index = strings.size();
+				strings.add( value );
+				indices.put( value, index );
+			}
+			return index;
+		}
+		
+		/**
+		 * Appends all strings of <code>table</code>, unless they were already appended.
+		 * @param table the strings to append
+		 * @return the index of the first string of <code>table</code>
+		 */
+		public int append( String[] table ){
+			Integer offset = appended.get( table );
+			if( offset == null ){
+				offset = strings.size();
+				for( String value : table ){
+					if( !indices.containsKey( value )){
+						indices.put( value, strings.size() );
+					}
+					strings.add( value );
+				}
+				appended.put( table, offset );
+			}
+			return offset;
+		}
+	}
+}
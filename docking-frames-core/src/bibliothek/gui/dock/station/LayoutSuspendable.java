@@ -0,0 +1,56 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station;
+
+import bibliothek.gui.DockStation;
+
+/**
+ * A {@link DockStation} that can postpone the expensive updates of its layout. While the layout is
+ * suspended children can still be added, moved and removed, but the station does not validate its
+ * components after each change. Instead all the pending work is done once, when the layout is resumed.<br>
+ * Calls to {@link #suspendLayout()} and {@link #resumeLayout()} can be nested, the layout is updated
+ * when the last call to {@link #resumeLayout()} happens. Clients should always call these methods in a
+ * <code>try/finally</code> block.
+ * @author Benjamin Sigg
+ */
+public interface LayoutSuspendable {
+	/**
+	 * Stops updating the layout after each change until {@link #resumeLayout()} is called.
+	 */
+	public void suspendLayout();
+	
+	/**
+	 * Undoes one call to {@link #suspendLayout()}. If this was the last call, then any update that was
+	 * postponed is executed now.
+	 */
+	public void resumeLayout();
+	
+	/**
+	 * Tells whether {@link #suspendLayout()} was called more often than {@link #resumeLayout()}.
+	 * @return whether updates of the layout are currently postponed
+	 */
+	public boolean isLayoutSuspended();
+}
@@ -0,0 +1,48 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station;
+
+import bibliothek.gui.DockStation;
+
+/**
+ * A {@link StationDropOperation} that can tell whether it is still valid after the mouse moved. During
+ * a drag and drop operation the {@link bibliothek.gui.dock.control.relocator.DefaultDockRelocator DefaultDockRelocator}
+ * remembers the last operation it found, and if that operation is a {@link ReusableStationDropOperation} 
+ * it asks the operation whether it can be reused instead of calling {@link DockStation#prepareDrop(StationDropItem)} 
+ * again.
+ * @author Benjamin Sigg
+ */
+public interface ReusableStationDropOperation extends StationDropOperation {
+	/**
+	 * Tells whether this operation describes exactly what would happen if <code>item</code> were dropped, in
+	 * other words whether {@link DockStation#prepareDrop(StationDropItem)} would create an operation
+	 * that is equal to this operation. This method is called often and should be much faster than 
+	 * {@link DockStation#prepareDrop(StationDropItem)}. If in doubt, this method should return <code>false</code>.
+	 * @param item the new location of the mouse and the item that is dragged
+	 * @return <code>true</code> if this operation can be used for <code>item</code> as well
+	 */
+	public boolean isReusable( StationDropItem item );
+}
@@ -0,0 +1,44 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.layer;
+
+import java.awt.Rectangle;
+
+/**
+ * A {@link DockStationDropLayer} that knows which part of the screen it covers. An index of 
+ * {@link DockStationDropLayer}s, like the {@link DropLayerIndex}, can use this information to 
+ * skip layers that are far away from the mouse without calling {@link #contains(int, int)}.
+ * @author Benjamin Sigg
+ */
+public interface BoundedDropLayer extends DockStationDropLayer {
+	/**
+	 * Gets a rectangle, in screen coordinates, that contains all the points for which
+	 * {@link #contains(int, int)} may return <code>true</code>.
+	 * @return the bounds of this layer, or <code>null</code> if the bounds are unknown or if
+	 * this layer is not limited to some area
+	 */
+	public Rectangle getScreenBounds();
+}
@@ -26,7 +26,11 @@
 package bibliothek.gui.dock.station.layer;
 
 import java.awt.Component;
+import java.awt.IllegalComponentStateException;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import javax.swing.SwingUtilities;
 
@@ -39,7 +43,10 @@ import bibliothek.gui.Dockable;
  * {@link Dockable#getComponent()} (assuming the station is also a dockable). 
  * @author Benjamin Sigg
  */
-public class DefaultDropLayer implements DockStationDropLayer{
+public class DefaultDropLayer implements BoundedDropLayer{
+	/** caches for each subclass of this class whether {@link #contains(int, int)} was overridden */
+	private static final Map<Class<?>, Boolean> CONTAINS_OVERRIDDEN = new WeakHashMap<Class<?>, Boolean>();
+	
 	private DockStation station;
 	private LayerPriority priority = LayerPriority.BASE;
 	
@@ -69,6 +76,47 @@ public class DefaultDropLayer implements DockStationDropLayer{
 		return component.contains( point );
 	}
 	
+	/**
+	 * Gets the bounds of {@link #getComponent() the component} on the screen. If a subclass overrides 
+	 * {@link #contains(int, int)} without overriding this method, then <code>null</code> is returned.
+	 */
+	public Rectangle getScreenBounds(){
+		if( isContainsOverridden() ){
+			return null;
+		}
+		Component component = getComponent();
+		if( component == null || !component.isShowing() ){
+			return null;
+		}
+		try{
+			Point location = component.getLocationOnScreen();
+			return new Rectangle( location.x, location.y, component.getWidth(), component.getHeight() );
+		}
+		catch( IllegalComponentStateException e ){
+			return null;
+		}
+	}
+	
+	private boolean isContainsOverridden(){
+		Class<?> type = getClass();
+		if( type == DefaultDropLayer.class ){
+			return false;
+		}
+		synchronized( CONTAINS_OVERRIDDEN ){
+			Boolean result = CONTAINS_OVERRIDDEN.get( type );
+			if( result == null ){
+				try{
+					result = type.getMethod( "contains", int.class, int.class ).getDeclaringClass() != DefaultDropLayer.class;
+				}
+				catch( NoSuchMethodException e ){
+					result = Boolean.TRUE;
+				}
+				CONTAINS_OVERRIDDEN.put( type, result );
+			}
+			return result;
+		}
+	}
+	
 	public Component getComponent(){
 		Dockable dockable = station.asDockable();
 		if( dockable == null ){
@@ -0,0 +1,358 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.layer;
+
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.HierarchyBoundsListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DockElement;
+import bibliothek.gui.dock.control.DockRegister;
+import bibliothek.gui.dock.disable.DisablingStrategy;
+import bibliothek.gui.dock.disable.DisablingStrategyListener;
+import bibliothek.gui.dock.event.DockRegisterAdapter;
+
+/**
+ * A spatial index over the {@link DockStationDropLayer}s of an {@link OrderedLayerCollection}. The
+ * index creates the layers only once, and sorts the {@link BoundedDropLayer}s into a grid of cells. A
+ * {@link #search(int, int) search} then only has to check the layers of one cell, and the layers whose bounds
+ * are unknown. The result of a search is the same as the result of {@link OrderedLayerCollection#sort(int, int)}.<br>
+ * The index observes the {@link DockRegister}, the {@link DisablingStrategy} and the {@link Component}s of
+ * the layers, and marks itself as {@link #isValid() invalid} as soon as anything changes that could 
+ * lead to a different result. An invalid index has to be replaced by a new index. Clients must call
+ * {@link #destroy()} once the index is no longer needed.
+ * @author Benjamin Sigg
+ */
+public class DropLayerIndex {
+	/** the size of one cell of the grid in pixels */
+	private static final int CELL_SIZE = 100;
+	
+	/** the controller whose elements are observed */
+	private DockController controller;
+	
+	/** the collection that created the layers */
+	private OrderedLayerCollection collection;
+	
+	/** all the layers, in the order of {@link OrderedLayerCollection#listLayers()} */
+	private DockStationDropLayer[] layers;
+	
+	/** the screen bounds of {@link #layers}, <code>null</code> where the bounds are unknown */
+	private Rectangle[] bounds;
+	
+	/** the indices of the layers which have to be checked always, in ascending order */
+	private int[] unbounded;
+	
+	/** the indices of the bounded layers that touch a cell, in ascending order */
+	private Map<Long, int[]> cells = new HashMap<Long, int[]>();
+	
+	/** the {@link DisablingStrategy} that was used when creating this index */
+	private DisablingStrategy disabling;
+	
+	/** the factory that was used when creating this index */
+	private DockStationDropLayerFactory factory;
+	
+	/** stations without {@link Component}, and whether they were showing when this index was created */
+	private Map<DockStation, Boolean> showing = new HashMap<DockStation, Boolean>();
+	
+	/** all the components which are observed by {@link #listener} */
+	private Set<Component> components = new HashSet<Component>();
+	
+	/** whether this index still represents the current state of the application */
+	private boolean valid = true;
+	
+	/** observes all elements which could invalidate this index */
+	private Listener listener = new Listener();
+	
+	/**
+	 * Creates a new index. The index creates the {@link DockStationDropLayer}s of <code>collection</code>
+	 * once, clients should not add stations to <code>collection</code> afterwards.
+	 * @param controller the controller in whose realm this index is used
+	 * @param collection the stations that are searched
+	 */
+	public DropLayerIndex( DockController controller, OrderedLayerCollection collection ){
+		if( controller == null ){
+			throw new IllegalArgumentException( "controller must not be null" );
+		}
+		if( collection == null ){
+			throw new IllegalArgumentException( "collection must not be null" );
+		}
+		this.controller = controller;
+		this.collection = collection;
+		
+		disabling = controller.getProperties().get( DisablingStrategy.STRATEGY );
+		factory = controller.getProperties().get( DockStationDropLayerFactory.DROP_LAYER_FACTORY );
+		
+		controller.getRegister().addDockRegisterListener( listener );
+		if( disabling != null ){
+			disabling.addDisablingStrategyListener( listener );
+		}
+		
+		for( DockStation station : controller.getRegister().listDockStations() ){
+			Dockable dockable = station.asDockable();
+			Component component = dockable == null ? null : dockable.getComponent();
+			if( component == null ){
+				showing.put( station, station.isStationShowing() );
+			}
+			else{
+				observe( component );
+			}
+		}
+		
+		List<DockStationDropLayer> list = collection.listLayers();
+		layers = list.toArray( new DockStationDropLayer[ list.size() ] );
+		bounds = new Rectangle[ layers.length ];
+		
+		Map<Long, List<Integer>> cellLists = new HashMap<Long, List<Integer>>();
+		List<Integer> unboundedList = new ArrayList<Integer>();
+		
+		for( int i = 0; i < layers.length; i++ ){
+			DockStationDropLayer layer = layers[i];
+			Rectangle rect = null;
+			if( layer instanceof BoundedDropLayer ){
+				rect = ((BoundedDropLayer)layer).getScreenBounds();
+			}
+			Component component = layer.getComponent();
+			if( rect == null || component == null ){
+				unboundedList.add( i );
+			}
+			else{
+				observe( component );
+				bounds[i] = rect;
+				if( !rect.isEmpty() ){
+					for( int cx = cell( rect.x ), cxMax = cell( rect.x + rect.width - 1 ); cx <= cxMax; cx++ ){
+						for( int cy = cell( rect.y ), cyMax = cell( rect.y + rect.height - 1 ); cy <= cyMax; cy++ ){
+							Long key = key( cx, cy );
+							List<Integer> cellList = cellLists.get( key );
+							if( cellList == null ){
+								cellList = new ArrayList<Integer>();
+								cellLists.put( key, cellList );
+							}
+							cellList.add( i );
+						}
+					}
+				}
+			}
+		}
+		
+		unbounded = toArray( unboundedList );
+		for( Map.Entry<Long, List<Integer>> entry : cellLists.entrySet() ){
+			cells.put( entry.getKey(), toArray( entry.getValue() ) );
+		}
+	}
+	
+	private void observe( Component component ){
+		if( components.add( component )){
+			component.addComponentListener( listener );
+			component.addHierarchyListener( listener );
+			component.addHierarchyBoundsListener( listener );
+		}
+	}
+	
+	private static int[] toArray( List<Integer> list ){
+		int[] result = new int[ list.size() ];
+		for( int i = 0; i < result.length; i++ ){
+			result[i] = list.get( i );
+		}
+		return result;
+	}
+	
+	private static int cell( int coordinate ){
+		return Math.floorDiv( coordinate, CELL_SIZE );
+	}
+	
+	private static Long key( int cx, int cy ){
+		return Long.valueOf( ((long)cx << 32) | (cy & 0xFFFFFFFFL) );
+	}
+	
+	/**
+	 * Tells whether this index still represents the current state of the application. An index
+	 * becomes invalid if stations are added or removed, if components are moved or resized, or if the
+	 * {@link DisablingStrategy} changes.
+	 * @return whether the result of {@link #search(int, int)} is still accurate
+	 */
+	public boolean isValid(){
+		if( !valid ){
+			return false;
+		}
+		if( controller.getProperties().get( DisablingStrategy.STRATEGY ) != disabling ||
+				controller.getProperties().get( DockStationDropLayerFactory.DROP_LAYER_FACTORY ) != factory ){
+			valid = false;
+			return false;
+		}
+		for( Map.Entry<DockStation, Boolean> entry : showing.entrySet() ){
+			if( entry.getKey().isStationShowing() != entry.getValue().booleanValue() ){
+				valid = false;
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the {@link OrderedLayerCollection} which is searched by this index.
+	 * @return the collection, not <code>null</code>
+	 */
+	public OrderedLayerCollection getCollection(){
+		return collection;
+	}
+	
+	/**
+	 * Finds all the stations whose layers contain <code>x/y</code> and orders them. The result of this
+	 * method is the same as the result of {@link OrderedLayerCollection#sort(int, int)} as long as
+	 * this index {@link #isValid() is valid}.
+	 * @param x the x-coordinate of the mouse on the screen
+	 * @param y the y-coordinate of the mouse on the screen
+	 * @return the stations that contain <code>x/y</code>, the first station has the highest priority
+	 */
+	public List<DockStation> search( int x, int y ){
+		int[] cell = cells.get( key( cell( x ), cell( y ) ));
+		List<DockStationDropLayer> hits = new ArrayList<DockStationDropLayer>();
+		
+		int c = 0;
+		int u = 0;
+		int cellLength = cell == null ? 0 : cell.length;
+		
+		// merge the two sorted arrays to preserve the original order of the layers
+		while( c < cellLength || u < unbounded.length ){
+			int index;
+			if( u == unbounded.length || (c < cellLength && cell[c] < unbounded[u]) ){
+				index = cell[c++];
+				if( !bounds[index].contains( x, y )){
+					continue;
+				}
+			}
+			else{
+				index = unbounded[u++];
+			}
+			DockStationDropLayer layer = layers[index];
+			if( layer.contains( x, y )){
+				hits.add( layer );
+			}
+		}
+		
+		return collection.order( hits );
+	}
+	
+	/**
+	 * Removes all listeners that were added by this index. Afterwards this index is invalid.
+	 */
+	public void destroy(){
+		valid = false;
+		controller.getRegister().removeDockRegisterListener( listener );
+		if( disabling != null ){
+			disabling.removeDisablingStrategyListener( listener );
+		}
+		for( Component component : components ){
+			component.removeComponentListener( listener );
+			component.removeHierarchyListener( listener );
+			component.removeHierarchyBoundsListener( listener );
+		}
+		components.clear();
+	}
+	
+	/**
+	 * Observes all the elements which are relevant for the index, and invalidates the index
+	 * if any of them changes.
+	 * @author Benjamin Sigg
+	 */
+	private class Listener extends DockRegisterAdapter implements ComponentListener, HierarchyListener, HierarchyBoundsListener, DisablingStrategyListener{
+		private void invalidate(){
+			valid = false;
+		}
+		
+		@Override
+		public void dockableRegistered( DockController controller, Dockable dockable ){
+			invalidate();
+		}
+		
+		@Override
+		public void dockableUnregistered( DockController controller, Dockable dockable ){
+			invalidate();
+		}
+		
+		@Override
+		public void dockStationRegistered( DockController controller, DockStation station ){
+			invalidate();
+		}
+		
+		@Override
+		public void dockStationUnregistered( DockController controller, DockStation station ){
+			invalidate();
+		}
+		
+		@Override
+		public void dockableCycledRegister( DockController controller, Dockable dockable ){
+			invalidate();
+		}
+		
+		public void changed( DockElement item ){
+			invalidate();
+		}
+		
+		public void componentResized( ComponentEvent e ){
+			invalidate();
+		}
+		
+		public void componentMoved( ComponentEvent e ){
+			invalidate();
+		}
+		
+		public void componentShown( ComponentEvent e ){
+			invalidate();
+		}
+		
+		public void componentHidden( ComponentEvent e ){
+			invalidate();
+		}
+		
+		public void hierarchyChanged( HierarchyEvent e ){
+			if( (e.getChangeFlags() & (HierarchyEvent.SHOWING_CHANGED | HierarchyEvent.PARENT_CHANGED)) != 0 ){
+				invalidate();
+			}
+		}
+		
+		public void ancestorMoved( HierarchyEvent e ){
+			invalidate();
+		}
+		
+		public void ancestorResized( HierarchyEvent e ){
+			invalidate();
+		}
+	}
+}
@@ -79,6 +79,23 @@ public class OrderedLayerCollection {
 	 * @return the ordered stations, where the first station is the station with the highest priority 
 	 */
 	public List<DockStation> sort( int x, int y ){
+		List<DockStationDropLayer> layers = new ArrayList<DockStationDropLayer>();
+		for( DockStationDropLayer layer : listLayers() ){
+			if( layer.contains( x, y )){
+				layers.add( layer );
+			}
+		}
+		return order( layers );
+	}
+	
+	/**
+	 * Creates the {@link DockStationDropLayer}s of all the stations currently known to this collection, and
+	 * applies {@link DockStationDropLayer#modify(DockStationDropLayer) modifications} of the parent stations. 
+	 * The layers are returned in the order in which {@link #sort(int, int)} visits them. Each call to this
+	 * method creates new layers.
+	 * @return all the layers, ignoring the location of the mouse
+	 */
+	public List<DockStationDropLayer> listLayers(){
 		Map<DockStation, Node> nodes = new HashMap<DockStation, OrderedLayerCollection.Node>();
 		for( DockStation station : stations ){
 			nodes.put( station, new Node( station ) );
@@ -97,14 +114,24 @@ public class OrderedLayerCollection {
 		
 		List<DockStationDropLayer> layers = new ArrayList<DockStationDropLayer>();
 		for( Node root : roots ){
-			root.collect( layers, x, y );
+			root.collect( layers );
 		}
-		
+		return layers;
+	}
+	
+	/**
+	 * Orders the stations of <code>layers</code>.
+	 * @param layers some layers from {@link #listLayers()} which contain the location of the mouse, in
+	 * the order in which they appear in {@link #listLayers()}
+	 * @return the stations of <code>layers</code>, where the first station is the station with the highest priority 
+	 */
+	public List<DockStation> order( List<DockStationDropLayer> layers ){
 		layers = sort( layers );
 		
+		Set<DockStation> added = new HashSet<DockStation>();
 		List<DockStation> result = new ArrayList<DockStation>();
 		for( DockStationDropLayer layer : layers ){
-			if( nodes.remove( layer.getStation() ) != null ){
+			if( added.add( layer.getStation() )){
 				result.add( layer.getStation() );
 			}
 		}
@@ -342,22 +369,17 @@ public class OrderedLayerCollection {
 		}
 		
 		/**
-		 * Collects all layers of this node and of its children. Layers which do not contain
-		 * the point <code>x/y</code> are ignored.
+		 * Collects all layers of this node and of its children.
 		 * @param layers the list to fill
-		 * @param x the x-coordinate of the mouse on the screen
-		 * @param y the y-coordinate of the mouse on the screen 
 		 */
-		public void collect( List<DockStationDropLayer> layers, int x, int y ){
+		public void collect( List<DockStationDropLayer> layers ){
 			if( children != null ){
 				for( Node child : children ){
-					child.collect( layers, x, y );
+					child.collect( layers );
 				}
 			}
 			for( DockStationDropLayer layer : this.layers ){
-				if( layer.contains( x, y )){
-					layers.add( layer );
-				}
+				layers.add( layer );
 			}
 		}
 	}
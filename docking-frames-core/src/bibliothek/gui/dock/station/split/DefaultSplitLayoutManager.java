@@ -332,21 +332,7 @@ public class DefaultSplitLayoutManager implements SplitLayoutManager{
             right = minimumRight.height;
         }
         
-        if( factor <= 0 || Double.isNaN( factor ))
-            return divider;
-        
-        double leftNeed = left / factor;
-        double rightNeed = right / factor;
-        double dividerNeed = station.getDividerSize() / factor;
-
-        if( leftNeed + rightNeed + dividerNeed >= size )
-            divider = (leftNeed + dividerNeed / 2) / ( leftNeed + rightNeed + dividerNeed );
-        else if( divider * size < leftNeed + dividerNeed / 2 )
-            divider = (leftNeed + dividerNeed / 2) / size;
-        else if( divider * size > size - rightNeed - dividerNeed / 2 )
-            divider = (size - rightNeed - dividerNeed / 2) / size;
-        
-        return divider;
+        return SplitLayoutEngine.validateDivider( divider, left, right, station.getDividerSize(), factor, size );
     }
     
     public PutInfo validatePutInfo( SplitDockStation station, PutInfo putInfo ){
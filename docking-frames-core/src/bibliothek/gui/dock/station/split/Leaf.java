@@ -491,6 +491,47 @@ public class Leaf extends SpanSplitNode{
         }
     }
     
+    /**
+     * Tells whether the mouse at <code>x/y</code> is in the area where {@link #getPut(int, int, double, double, Dockable)}
+     * suggests to put a {@link Dockable} at the side <code>put</code> of this {@link Leaf}, without being in the area
+     * of a combining {@link Put}. Whether the {@link SplitDockStation} accepts the suggestion is not checked.
+     * @param x the x-coordinate of the mouse
+     * @param y the y-coordinate of the mouse
+     * @param put one of {@link Put#LEFT}, {@link Put#RIGHT}, {@link Put#TOP} or {@link Put#BOTTOM}
+     * @return whether <code>x/y</code> is in the area of <code>put</code>
+     */
+    public boolean isSidePut( int x, int y, PutInfo.Put put ){
+    	if( getDisplayer() == null ){
+    		return false;
+    	}
+    	
+    	Rectangle bounds = getBounds();
+    	if( !bounds.contains( x, y )){
+    		return false;
+    	}
+    	
+    	bounds = removeTitle( bounds );
+    	if( isTitlePut( bounds, x, y ) || isCenterPut( bounds, x, y )){
+    		return false;
+    	}
+    	
+    	boolean topRight = above( bounds.x, bounds.y, bounds.x + bounds.width, bounds.y + bounds.height, x, y );
+    	boolean topLeft = above( bounds.x, bounds.y + bounds.height, bounds.x + bounds.width, bounds.y, x, y );
+    	
+    	switch( put ){
+    		case TOP:
+    			return topRight && topLeft;
+    		case RIGHT:
+    			return topRight && !topLeft;
+    		case LEFT:
+    			return !topRight && topLeft;
+    		case BOTTOM:
+    			return !topRight && !topLeft;
+    		default:
+    			return false;
+    	}
+    }
+    
     @Override
     public boolean isInOverrideZone( int x, int y, double factorW, double factorH ){
         float sideSnapSize = getAccess().getOwner().getSideSnapSize();
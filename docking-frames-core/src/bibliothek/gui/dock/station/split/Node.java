@@ -54,6 +54,10 @@ public class Node extends VisibleSplitNode implements Divideable{
     private Orientation orientation = Orientation.VERTICAL;
     /** The area of the divider between the two children */
     private Rectangle dividerBounds = new Rectangle();
+    /** The relative area of the left child, filled by {@link #updateBounds(double, double, double, double, double, double, boolean)} */
+    private double[] leftBounds = new double[4];
+    /** The relative area of the right child, filled by {@link #updateBounds(double, double, double, double, double, double, boolean)} */
+    private double[] rightBounds = new double[4];
     
     /** whether this node is visible or not */
     private boolean visible;
@@ -373,32 +377,14 @@ public class Node extends VisibleSplitNode implements Divideable{
         	right.updateBounds( x, y, width, height, factorW, factorH, components );
         }
         else if( leftVisible && rightVisible ){
-        	double divider = getActualDivider();
-        	int dividerSize = getAccess().getOwner().getDividerSize();
-
-        	if( orientation == Orientation.HORIZONTAL ){
-        		// Components are left and right
-        		double dividerWidth = factorW > 0 ? Math.max( 0, dividerSize / factorW) : 0.0;
-        		double dividerLocation = width * divider;
-
-        		if( left != null )
-        			left.updateBounds( x, y, dividerLocation - dividerWidth/2, height, factorW, factorH, components );
-
-        		if( right != null )
-        			right.updateBounds( x + dividerLocation + dividerWidth/2, y, 
-        					width - dividerLocation - dividerWidth/2, height, factorW, factorH, components );
-        	}
-        	else{
-        		double dividerHeight = factorH > 0 ? Math.max( 0, dividerSize / factorH ) : 0.0;
-        		double dividerLocation = height * divider;
-
-        		if( left != null)
-        			left.updateBounds( x, y, width, dividerLocation - dividerHeight / 2, factorW, factorH, components );
+        	split( orientation, getActualDivider(), getAccess().getOwner().getDividerSize(), 
+        			x, y, width, height, factorW, factorH, leftBounds, rightBounds );
+        	
+        	if( left != null )
+        		left.updateBounds( leftBounds[0], leftBounds[1], leftBounds[2], leftBounds[3], factorW, factorH, components );
 
-        		if( right != null)
-        			right.updateBounds( x, y + dividerLocation + dividerHeight / 2,
-        					width, height - dividerLocation - dividerHeight/2, factorW, factorH, components );
-        	}
+        	if( right != null )
+        		right.updateBounds( rightBounds[0], rightBounds[1], rightBounds[2], rightBounds[3], factorW, factorH, components );
         }
     }
     
@@ -410,31 +396,97 @@ public class Node extends VisibleSplitNode implements Divideable{
         boolean rightVisible = right == null || right.isVisible();
         
         if( leftVisible && rightVisible ){
-        	double divider = getActualDivider();
-        	int dividerSize = getAccess().getOwner().getDividerSize();
-        	
-        	if( orientation == Orientation.HORIZONTAL ){
-        		// Components are left and right
-        		double dividerWidth = factorW > 0 ? Math.max( 0, dividerSize / factorW) : 0.0;
-        		double dividerLocation = width * divider;
+        	dividerBounds( orientation, getActualDivider(), getAccess().getOwner().getDividerSize(), 
+        			x, y, width, height, factorW, factorH, dividerBounds );
+        }
+    }
+    
+    /**
+     * Divides the area of a node into the areas of its two children. This is the algorithm used by 
+     * {@link #updateBounds(double, double, double, double, double, double, boolean)}, the {@link SplitLayoutEngine}
+     * uses it as well.
+     * @param orientation the orientation of the divider
+     * @param divider the location of the divider, a value between 0 and 1
+     * @param dividerSize the size of the divider in pixels
+     * @param x the relative x-coordinate of the node
+     * @param y the relative y-coordinate of the node
+     * @param width the relative width of the node
+     * @param height the relative height of the node
+     * @param factorW a factor to be multiplied with <code>x</code> and <code>width</code> to get pixels
+     * @param factorH a factor to be multiplied with <code>y</code> and <code>height</code> to get pixels
+     * @param left an array of length 4, filled with the relative x, y, width and height of the left or top child
+     * @param right an array of length 4, filled with the relative x, y, width and height of the right or bottom child
+     */
+    static void split( Orientation orientation, double divider, int dividerSize, double x, double y, double width, double height, 
+    		double factorW, double factorH, double[] left, double[] right ){
+    	if( orientation == Orientation.HORIZONTAL ){
+    		// Components are left and right
+    		double dividerWidth = factorW > 0 ? Math.max( 0, dividerSize / factorW) : 0.0;
+    		double dividerLocation = width * divider;
+    		
+    		left[0] = x;
+    		left[1] = y;
+    		left[2] = dividerLocation - dividerWidth/2;
+    		left[3] = height;
+    		
+    		right[0] = x + dividerLocation + dividerWidth/2;
+    		right[1] = y;
+    		right[2] = width - dividerLocation - dividerWidth/2;
+    		right[3] = height;
+    	}
+    	else{
+    		double dividerHeight = factorH > 0 ? Math.max( 0, dividerSize / factorH ) : 0.0;
+    		double dividerLocation = height * divider;
+    		
+    		left[0] = x;
+    		left[1] = y;
+    		left[2] = width;
+    		left[3] = dividerLocation - dividerHeight / 2;
+    		
+    		right[0] = x;
+    		right[1] = y + dividerLocation + dividerHeight / 2;
+    		right[2] = width;
+    		right[3] = height - dividerLocation - dividerHeight/2;
+    	}
+    }
+    
+    /**
+     * Calculates the boundaries of the divider of a node in pixels. This is the algorithm used by
+     * {@link #setBounds(double, double, double, double, double, double, boolean)}, the {@link SplitLayoutEngine}
+     * uses it as well.
+     * @param orientation the orientation of the divider
+     * @param divider the location of the divider, a value between 0 and 1
+     * @param dividerSize the size of the divider in pixels
+     * @param x the relative x-coordinate of the node
+     * @param y the relative y-coordinate of the node
+     * @param width the relative width of the node
+     * @param height the relative height of the node
+     * @param factorW a factor to be multiplied with <code>x</code> and <code>width</code> to get pixels
+     * @param factorH a factor to be multiplied with <code>y</code> and <code>height</code> to get pixels
+     * @param bounds the rectangle to fill with the boundaries of the divider
+     */
+    static void dividerBounds( Orientation orientation, double divider, int dividerSize, double x, double y, double width, double height, 
+    		double factorW, double factorH, Rectangle bounds ){
+    	if( orientation == Orientation.HORIZONTAL ){
+    		double dividerWidth = factorW > 0 ? Math.max( 0, dividerSize / factorW) : 0.0;
+    		double dividerLocation = width * divider;
 
-        		dividerBounds.setBounds(
-        				(int)(( x+dividerLocation-dividerWidth/2 )*factorW ),
-        				(int)( y*factorH ),
-        				dividerSize,
-        				(int)( height*factorH + 0.5 ));
-        	}
-        	else{
-        		double dividerHeight = factorH > 0 ? Math.max( 0, dividerSize / factorH ) : 0.0;
-        		double dividerLocation = height * divider;
+    		bounds.setBounds(
+    				(int)(( x+dividerLocation-dividerWidth/2 )*factorW ),
+    				(int)( y*factorH ),
+    				dividerSize,
+    				(int)( height*factorH + 0.5 ));
+    	}
+    	else{
+    		double dividerHeight = factorH > 0 ? Math.max( 0, dividerSize / factorH ) : 0.0;
+    		double dividerLocation = height * divider;
 
-        		dividerBounds.setBounds(
-        				(int)(x*factorW),
-        				(int)((y+dividerLocation-dividerHeight/2)*factorH ),
-        				(int)(width*factorW + 0.5),
-        				dividerSize );
-        	}
-        }
+    		bounds.setBounds(
+    				(int)(x*factorW),
+    				(int)((y+dividerLocation-dividerHeight/2)*factorH ),
+    				(int)(width*factorW + 0.5),
+    				dividerSize );
+    	}
     }
     
     public Rectangle getDividerBounds( double divider, Rectangle bounds ){
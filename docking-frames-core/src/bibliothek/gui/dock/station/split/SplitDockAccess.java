@@ -125,6 +125,13 @@ public interface SplitDockAccess {
      */
     public long uniqueID();
     
+    /**
+     * Informs the owner of this access that <code>node</code> was created or that
+     * its {@link SplitNode#getId() unique identifier} changed.
+     * @param node the new or changed node
+     */
+    public void registerNode( SplitNode node );
+    
     /**
      * Tells whether nodes can currently be automatically removed from the tree.
      * @return <code>true</code> if auto-removal is enabled
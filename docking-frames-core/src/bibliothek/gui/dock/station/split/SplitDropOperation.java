@@ -25,19 +25,26 @@
  */
 package bibliothek.gui.dock.station.split;
 
+import java.awt.Component;
+import java.awt.Point;
+
+import javax.swing.SwingUtilities;
+
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.SplitDockStation;
 import bibliothek.gui.dock.displayer.DisplayerCombinerTarget;
+import bibliothek.gui.dock.station.ReusableStationDropOperation;
 import bibliothek.gui.dock.station.StationDropItem;
 import bibliothek.gui.dock.station.StationDropOperation;
 import bibliothek.gui.dock.station.support.CombinerTarget;
+import bibliothek.gui.dock.station.support.Enforcement;
 
 /**
  * Implementation of {@link StationDropOperation}.
  * @author Benjamin Sigg
  */
-public class SplitDropOperation implements StationDropOperation{
+public class SplitDropOperation implements ReusableStationDropOperation{
 	private SplitDockAccess access;
 	private PutInfo putInfo;
 	private StationDropItem item;
@@ -61,6 +68,73 @@ public class SplitDropOperation implements StationDropOperation{
 		return move;
 	}
 	
+	/**
+	 * Only operations that put a {@link Dockable} at the side of a {@link Leaf} can be reused. While the mouse stays in
+	 * the area of that side of the {@link Leaf}, see {@link Leaf#isSidePut(int, int, PutInfo.Put)}, the {@link SplitLayoutManager} is
+	 * assumed to offer the same location again and is not asked. While the mouse is also over the {@link Dockable} of the
+	 * {@link Leaf} itself, and not over its title or tabs, the {@link SplitDockStation#getCombiner() combiner} is assumed to still
+	 * not want to combine the {@link Dockable}s. Once the mouse leaves these areas, the operation is reused if the
+	 * {@link SplitLayoutManager} still offers the same side of the same {@link Leaf} with the same divider, and if the combiner
+	 * still does not want to combine the {@link Dockable}s.
+	 */
+	public boolean isReusable( StationDropItem item ){
+		if( putInfo.getCombinerTarget() != null || item.getDockable() != putInfo.getDockable() ){
+			return false;
+		}
+		if( !(putInfo.getNode() instanceof Leaf) ){
+			return false;
+		}
+		if( putInfo.isCombining() && putInfo.getDockable().asDockStation() != null ){
+			// a merge might be possible, and that depends on the exact location of the mouse
+			return false;
+		}
+		switch( putInfo.getPut() ){
+			case LEFT:
+			case RIGHT:
+			case TOP:
+			case BOTTOM:
+				break;
+			default:
+				return false;
+		}
+		
+		SplitDockStation station = access.getOwner();
+		if( station.isFullScreen() || (item.getDockable().getDockParent() == station) != move ){
+			return false;
+		}
+		
+		Point point = new Point( item.getMouseX(), item.getMouseY() );
+		SwingUtilities.convertPointFromScreen( point, station );
+		
+		Leaf leaf = (Leaf)putInfo.getNode();
+		if( leaf.getRoot() == station.getRoot() && leaf.isSidePut( point.x, point.y, putInfo.getPut() )){
+			Dockable old = leaf.getDockable();
+			if( old != null ){
+				Component component = old.getComponent();
+				Point mouse = SwingUtilities.convertPoint( station, point, component );
+				if( component.contains( mouse )){
+					return true;
+				}
+			}
+		}
+		else{
+			SplitLayoutManager manager = station.getCurrentSplitLayoutManager();
+			PutInfo next;
+			if( move ){
+				next = manager.prepareMove( station, item );
+			}
+			else{
+				next = manager.prepareDrop( station, item );
+			}
+			if( next == null || next.getNode() != putInfo.getNode() || next.getPut() != putInfo.getPut() || next.getDivider() != putInfo.getDivider() ){
+				return false;
+			}
+		}
+		
+		SplitDockCombinerSource source = new SplitDockCombinerSource( putInfo, station, point );
+		return station.getCombiner().prepare( source, Enforcement.WHISHED ) == null;
+	}
+	
 	public void draw(){
 		access.setDropInfo( putInfo );
 	}
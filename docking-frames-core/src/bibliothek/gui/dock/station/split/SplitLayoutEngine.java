@@ -0,0 +1,412 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.split;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.SplitDockStation.Orientation;
+
+/**
+ * Computes the boundaries of the leaves and dividers of a split tree without the need of a {@link SplitDockStation} or
+ * any other {@link java.awt.Component}. The engine shares its arithmetic with {@link DefaultSplitLayoutManager},
+ * {@link Node#updateBounds(double, double, double, double, double, double, boolean)} and {@link SplitNode#getBounds()}, but instead of the minimum
+ * size of the real {@link java.awt.Component}s a constant {@link #getMinimumLeafSize() minimum leaf size} is used.<br>
+ * An engine is immutable and does not store any state, it can be used by any thread. Trees can be described
+ * by a {@link SplitDockTree}, by a {@link SplitDockPerspective} or by any other structure for which a {@link Model}
+ * exists. As long as the tree is not modified concurrently, the engine does not need to run on the EDT.
+ * @author Benjamin Sigg
+ */
+public class SplitLayoutEngine {
+	/** the size of a divider in pixels */
+	private final int dividerSize;
+	
+	/** the minimum size of a leaf in pixels */
+	private final Dimension minimumLeafSize;
+	
+	/**
+	 * Creates a new engine using the same default values as a new {@link SplitDockStation}.
+	 */
+	public SplitLayoutEngine(){
+		this( 4, new Dimension( 20, 20 ) );
+	}
+	
+	/**
+	 * Creates a new engine.
+	 * @param dividerSize the size of a divider in pixels, see {@link SplitDockStation#getDividerSize()}
+	 * @param minimumLeafSize the minimum size of each leaf, see {@link SplitDockStation#getMinimumLeafSize()}
+	 */
+	public SplitLayoutEngine( int dividerSize, Dimension minimumLeafSize ){
+		if( dividerSize < 0 ){
+			throw new IllegalArgumentException( "dividerSize must not be negative: " + dividerSize );
+		}
+		if( minimumLeafSize == null ){
+			throw new IllegalArgumentException( "minimumLeafSize must not be null" );
+		}
+		this.dividerSize = dividerSize;
+		this.minimumLeafSize = new Dimension( minimumLeafSize );
+	}
+	
+	/**
+	 * Gets the size of a divider in pixels.
+	 * @return the size of a divider
+	 */
+	public int getDividerSize(){
+		return dividerSize;
+	}
+	
+	/**
+	 * Gets the minimum size of a leaf in pixels.
+	 * @return a copy of the minimum size
+	 */
+	public Dimension getMinimumLeafSize(){
+		return new Dimension( minimumLeafSize );
+	}
+	
+	/**
+	 * Computes the layout of <code>tree</code>.
+	 * @param tree the tree whose layout is computed
+	 * @param bounds the area that is available for the tree, in pixels
+	 * @return the boundaries of all the visible keys of <code>tree</code>
+	 */
+	public <D> Result<SplitDockTree<D>.Key> layout( final SplitDockTree<D> tree, Rectangle bounds ){
+		return layout( new Model<SplitDockTree<D>.Key>(){
+			public boolean isNode( SplitDockTree<D>.Key node ){
+				return tree.isNode( node );
+			}
+			public boolean isVisible( SplitDockTree<D>.Key leaf ){
+				return tree.isDockable( leaf );
+			}
+			public Orientation getOrientation( SplitDockTree<D>.Key node ){
+				return tree.isHorizontal( node ) ? Orientation.HORIZONTAL : Orientation.VERTICAL;
+			}
+			public double getDivider( SplitDockTree<D>.Key node ){
+				return tree.getDivider( node );
+			}
+			public SplitDockTree<D>.Key getLeft( SplitDockTree<D>.Key node ){
+				return tree.getLeft( node );
+			}
+			public SplitDockTree<D>.Key getRight( SplitDockTree<D>.Key node ){
+				return tree.getRight( node );
+			}
+		}, tree.getRoot(), bounds );
+	}
+	
+	/**
+	 * Computes the layout of <code>perspective</code>.
+	 * @param perspective the station whose layout is computed
+	 * @param bounds the area that is available for the children of <code>perspective</code>, in pixels
+	 * @return the boundaries of all the visible entries of <code>perspective</code>
+	 */
+	public Result<SplitDockPerspective.Entry> layout( SplitDockPerspective perspective, Rectangle bounds ){
+		return layout( new Model<SplitDockPerspective.Entry>(){
+			public boolean isNode( SplitDockPerspective.Entry node ){
+				return node.asNode() != null;
+			}
+			public boolean isVisible( SplitDockPerspective.Entry leaf ){
+				return leaf.asLeaf() != null && leaf.asLeaf().getDockable() != null;
+			}
+			public Orientation getOrientation( SplitDockPerspective.Entry node ){
+				return node.asNode().getOrientation();
+			}
+			public double getDivider( SplitDockPerspective.Entry node ){
+				return node.asNode().getDivider();
+			}
+			public SplitDockPerspective.Entry getLeft( SplitDockPerspective.Entry node ){
+				return node.asNode().getChildA();
+			}
+			public SplitDockPerspective.Entry getRight( SplitDockPerspective.Entry node ){
+				return node.asNode().getChildB();
+			}
+		}, perspective.getRoot().getChild(), bounds );
+	}
+	
+	/**
+	 * Computes the layout of the tree starting at <code>root</code>.
+	 * @param model access to the tree
+	 * @param root the root of the tree, can be <code>null</code>
+	 * @param bounds the area that is available for the tree, in pixels
+	 * @return the boundaries of all the visible elements of the tree
+	 */
+	public <N> Result<N> layout( Model<N> model, N root, Rectangle bounds ){
+		Result<N> result = new Result<N>( new Rectangle( bounds ) );
+		if( root == null ){
+			return result;
+		}
+		
+		Map<N, Dimension> minimumSizes = new IdentityHashMap<N, Dimension>();
+		if( minimumSize( model, root, minimumSizes ) == null ){
+			return result;
+		}
+		
+		double factorW = bounds.width;
+		double factorH = bounds.height;
+		if( factorW <= 0 || factorH <= 0 ){
+			layout( model, root, 0, 0, 1, 1, 0, 0, minimumSizes, result );
+		}
+		else{
+			layout( model, root, bounds.x / factorW, bounds.y / factorH, 1, 1, factorW, factorH, minimumSizes, result );
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes the minimum size of all visible elements of a tree.
+	 * @param model access to the tree
+	 * @param element the current element, can be <code>null</code>
+	 * @param minimumSizes the map to fill
+	 * @return the minimum size of <code>element</code> or <code>null</code> if <code>element</code> is not visible
+	 */
+	private <N> Dimension minimumSize( Model<N> model, N element, Map<N, Dimension> minimumSizes ){
+		if( element == null ){
+			return null;
+		}
+		Dimension result;
+		if( model.isNode( element ) ){
+			Dimension left = minimumSize( model, model.getLeft( element ), minimumSizes );
+			Dimension right = minimumSize( model, model.getRight( element ), minimumSizes );
+			if( left == null ){
+				result = right;
+			}
+			else if( right == null ){
+				result = left;
+			}
+			else if( model.getOrientation( element ) == Orientation.HORIZONTAL ){
+				result = new Dimension( left.width + dividerSize + right.width, Math.max( left.height, right.height ) );
+			}
+			else{
+				result = new Dimension( Math.max( left.width, right.width ), left.height + dividerSize + right.height );
+			}
+		}
+		else if( model.isVisible( element ) ){
+			result = minimumLeafSize;
+		}
+		else{
+			result = null;
+		}
+		if( result != null ){
+			minimumSizes.put( element, result );
+		}
+		return result;
+	}
+	
+	private <N> void layout( Model<N> model, N element, double x, double y, double width, double height, double factorW, double factorH, Map<N, Dimension> minimumSizes, Result<N> result ){
+		result.put( element, x, y, width, height, factorW, factorH );
+		if( !model.isNode( element ) ){
+			result.leaves.add( element );
+			return;
+		}
+		
+		N left = model.getLeft( element );
+		N right = model.getRight( element );
+		boolean leftVisible = left != null && minimumSizes.containsKey( left );
+		boolean rightVisible = right != null && minimumSizes.containsKey( right );
+		
+		if( leftVisible && !rightVisible ){
+			layout( model, left, x, y, width, height, factorW, factorH, minimumSizes, result );
+		}
+		else if( !leftVisible && rightVisible ){
+			layout( model, right, x, y, width, height, factorW, factorH, minimumSizes, result );
+		}
+		else if( leftVisible && rightVisible ){
+			Orientation orientation = model.getOrientation( element );
+			Dimension leftMin = minimumSizes.get( left );
+			Dimension rightMin = minimumSizes.get( right );
+			double divider;
+			
+			if( orientation == Orientation.HORIZONTAL ){
+				divider = validateDivider( clamp( model.getDivider( element )), leftMin.width, rightMin.width, dividerSize, factorW, width );
+			}
+			else{
+				divider = validateDivider( clamp( model.getDivider( element )), leftMin.height, rightMin.height, dividerSize, factorH, height );
+			}
+			
+			double[] leftBounds = new double[4];
+			double[] rightBounds = new double[4];
+			Node.split( orientation, divider, dividerSize, x, y, width, height, factorW, factorH, leftBounds, rightBounds );
+			
+			layout( model, left, leftBounds[0], leftBounds[1], leftBounds[2], leftBounds[3], factorW, factorH, minimumSizes, result );
+			layout( model, right, rightBounds[0], rightBounds[1], rightBounds[2], rightBounds[3], factorW, factorH, minimumSizes, result );
+			
+			Rectangle dividerBounds = new Rectangle();
+			Node.dividerBounds( orientation, divider, dividerSize, x, y, width, height, factorW, factorH, dividerBounds );
+			result.dividers.put( element, dividerBounds );
+			result.actualDividers.put( element, divider );
+		}
+	}
+	
+	private double clamp( double divider ){
+		return Math.min( 1, Math.max( 0, divider ));
+	}
+	
+	/**
+	 * Ensures that <code>divider</code> leaves enough space for the minimum sizes of the two children of a node. This
+	 * is the algorithm used by {@link DefaultSplitLayoutManager#validateDivider(SplitDockStation, double, Node)}.
+	 * @param divider the divider to validate
+	 * @param minimumLeft the minimum number of pixels on the left or top side of the divider
+	 * @param minimumRight the minimum number of pixels on the right or bottom side of the divider
+	 * @param dividerSize the size of the divider in pixels
+	 * @param factor the factor converting relative sizes into pixels
+	 * @param size the relative size of the node along the axis of the divider
+	 * @return a legal value as near as possible to <code>divider</code>
+	 */
+	public static double validateDivider( double divider, int minimumLeft, int minimumRight, int dividerSize, double factor, double size ){
+		if( factor <= 0 || Double.isNaN( factor ))
+            return divider;
+        
+        double leftNeed = minimumLeft / factor;
+        double rightNeed = minimumRight / factor;
+        double dividerNeed = dividerSize / factor;
+
+        if( leftNeed + rightNeed + dividerNeed >= size )
+            divider = (leftNeed + dividerNeed / 2) / ( leftNeed + rightNeed + dividerNeed );
+        else if( divider * size < leftNeed + dividerNeed / 2 )
+            divider = (leftNeed + dividerNeed / 2) / size;
+        else if( divider * size > size - rightNeed - dividerNeed / 2 )
+            divider = (size - rightNeed - dividerNeed / 2) / size;
+        
+        return divider;
+	}
+	
+	/**
+	 * Gives an {@link SplitLayoutEngine} access to a tree of nodes and leaves.
+	 * @author Benjamin Sigg
+	 * @param <N> the type of the elements of the tree
+	 */
+	public static interface Model<N>{
+		/**
+		 * Tells whether <code>element</code> is a node with two children or a leaf.
+		 * @param element some element of the tree
+		 * @return <code>true</code> if <code>element</code> is a node
+		 */
+		public boolean isNode( N element );
+		
+		/**
+		 * Tells whether the leaf <code>leaf</code> is visible. Placeholders are not visible.
+		 * @param leaf some leaf of the tree
+		 * @return whether <code>leaf</code> occupies space
+		 */
+		public boolean isVisible( N leaf );
+		
+		/**
+		 * Gets the orientation of the divider of <code>node</code>.
+		 * @param node some node
+		 * @return the orientation of <code>node</code>
+		 */
+		public Orientation getOrientation( N node );
+		
+		/**
+		 * Gets the divider of <code>node</code>.
+		 * @param node some node
+		 * @return the location of the divider, a value between 0 and 1
+		 */
+		public double getDivider( N node );
+		
+		/**
+		 * Gets the left or top child of <code>node</code>.
+		 * @param node some node
+		 * @return the left child, can be <code>null</code>
+		 */
+		public N getLeft( N node );
+		
+		/**
+		 * Gets the right or bottom child of <code>node</code>.
+		 * @param node some node
+		 * @return the right child, can be <code>null</code>
+		 */
+		public N getRight( N node );
+	}
+	
+	/**
+	 * The boundaries computed by a {@link SplitLayoutEngine}.
+	 * @author Benjamin Sigg
+	 * @param <N> the type of the elements of the tree
+	 */
+	public static class Result<N>{
+		/** the area available for the tree */
+		private final Rectangle base;
+		/** the boundaries of all visible elements */
+		private final Map<N, Rectangle> bounds = new IdentityHashMap<N, Rectangle>();
+		/** the boundaries of all visible dividers */
+		private final Map<N, Rectangle> dividers = new IdentityHashMap<N, Rectangle>();
+		/** the validated dividers */
+		private final Map<N, Double> actualDividers = new IdentityHashMap<N, Double>();
+		/** all the visible leaves in the order in which they were visited */
+		private final List<N> leaves = new ArrayList<N>();
+		
+		private Result( Rectangle base ){
+			this.base = base;
+		}
+		
+		private void put( N element, double x, double y, double width, double height, double factorW, double factorH ){
+			bounds.put( element, SplitNode.toPixels( x, y, width, height, factorW, factorH, base ));
+		}
+		
+		/**
+		 * Gets the boundaries of a node or leaf of the tree.
+		 * @param element some node or leaf
+		 * @return the boundaries in pixels or <code>null</code> if <code>element</code> is not visible
+		 */
+		public Rectangle getBounds( N element ){
+			Rectangle result = bounds.get( element );
+			return result == null ? null : new Rectangle( result );
+		}
+		
+		/**
+		 * Gets the boundaries of the divider of <code>node</code>.
+		 * @param node some node
+		 * @return the boundaries in pixels or <code>null</code> if <code>node</code> does not show two children
+		 */
+		public Rectangle getDividerBounds( N node ){
+			Rectangle result = dividers.get( node );
+			return result == null ? null : new Rectangle( result );
+		}
+		
+		/**
+		 * Gets the divider of <code>node</code> after it was corrected to respect the minimum sizes of the children.
+		 * @param node some node
+		 * @return the validated divider or <code>-1</code> if <code>node</code> does not show two children
+		 */
+		public double getDivider( N node ){
+			Double result = actualDividers.get( node );
+			return result == null ? -1 : result.doubleValue();
+		}
+		
+		/**
+		 * Gets all the visible leaves of the tree, from left to right and from top to bottom.
+		 * @return an unmodifiable list of leaves
+		 */
+		public List<N> getLeaves(){
+			return Collections.unmodifiableList( leaves );
+		}
+	}
+}
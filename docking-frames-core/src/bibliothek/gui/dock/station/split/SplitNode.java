@@ -85,6 +85,7 @@ public abstract class SplitNode{
         	this.id = access.uniqueID();
         else
         	this.id = id;
+        access.registerNode( this );
     }
     
     /**
@@ -487,6 +488,7 @@ public abstract class SplitNode{
     		for( int i = 0; i < delta; i++ ){
     			if( ids[offset+i] == id ){
     				this.id = access.uniqueID();
+    				access.registerNode( this );
     				issue = true;
     				break;
     			}
@@ -819,16 +821,28 @@ public abstract class SplitNode{
      */
     public Rectangle getBounds(){
         Root root = getRoot();
-        double fw = root.getWidthFactor();
-        double fh = root.getHeightFactor();
+        return toPixels( x, y, width, height, root.getWidthFactor(), root.getHeightFactor(), root.getBaseBounds() );
+    }
+    
+    /**
+     * Converts relative boundaries into pixels and ensures that the result does not leave <code>base</code>.
+     * This is the algorithm used by {@link #getBounds()}, the {@link SplitLayoutEngine} uses it as well.
+     * @param x the relative x-coordinate
+     * @param y the relative y-coordinate
+     * @param width the relative width
+     * @param height the relative height
+     * @param fw a factor to be multiplied with <code>x</code> and <code>width</code> to get pixels
+     * @param fh a factor to be multiplied with <code>y</code> and <code>height</code> to get pixels
+     * @param base the boundaries of the whole tree in pixels
+     * @return the boundaries in pixels
+     */
+    static Rectangle toPixels( double x, double y, double width, double height, double fw, double fh, Rectangle base ){
         Rectangle rec = new Rectangle( 
                 (int)(x * fw + 0.5),
                 (int)(y * fh + 0.5),
                 (int)(width * fw + 0.5),
                 (int)(height * fh + 0.5 ));
         
-        Rectangle base = root.getBaseBounds();
-        
         rec.x = Math.min( base.width, Math.max( base.x, rec.x ));
         rec.y = Math.min( base.height, Math.max( base.y, rec.y ));
         
@@ -0,0 +1,176 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2010 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.gui.dock.station.split;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.util.FrameworkOnly;
+
+/**
+ * An index of all the {@link SplitNode}s of a {@link SplitDockStation}, allowing to search a
+ * node by its {@link SplitNode#getId() unique identifier} without visiting the entire tree.<br>
+ * Each node registers itself when it is created and when its identifier changes. Nodes that are
+ * removed from the tree are not removed from the index, as they may be inserted again later.
+ * Instead the index only keeps weak references to the nodes and forgets nodes that are
+ * collected by the garbage collector. A node found in the index is only returned if it is
+ * still part of the tree.
+ * @author Benjamin Sigg
+ */
+@FrameworkOnly
+public class SplitNodeIndex {
+	/** access to the owner of this index */
+	private SplitDockAccess access;
+	
+	/** all the nodes that are known to this index, nodes with the same identifier are chained */
+	private Map<Long, Entry> nodes = new HashMap<Long, Entry>();
+	
+	/** queue of nodes that were collected by the garbage collector */
+	private ReferenceQueue<SplitNode> queue = new ReferenceQueue<SplitNode>();
+	
+	/**
+	 * Creates a new index.
+	 * @param access access to the owner of this index, not <code>null</code>
+	 */
+	public SplitNodeIndex( SplitDockAccess access ){
+		this.access = access;
+	}
+	
+	/**
+	 * Stores <code>node</code> in this index using its current {@link SplitNode#getId() identifier}. This
+	 * method must be called whenever a node is created or its identifier changes.
+	 * @param node the node to store
+	 */
+	public void put( SplitNode node ){
+		purge();
+		long id = node.getId();
+		Entry first = nodes.get( id );
+		for( Entry entry = first; entry != null; entry = entry.next ){
+			if( entry.get() == node ){
+				return;
+			}
+		}
+		Entry entry = new Entry( id, node, queue );
+		entry.next = first;
+		nodes.put( id, entry );
+	}
+	
+	/**
+	 * Searches the node of the tree whose {@link SplitNode#getId() identifier} is <code>id</code>.
+	 * @param id the identifier to search
+	 * @return the node or <code>null</code> if no such node is in the tree
+	 */
+	public SplitNode get( long id ){
+		purge();
+		Entry entry = nodes.get( id );
+		Entry previous = null;
+		SplitNode result = null;
+		
+		while( entry != null ){
+			SplitNode node = entry.get();
+			if( node == null || node.getId() != id ){
+				// the node was collected or is now stored with another identifier
+				remove( previous, entry );
+			}
+			else{
+				if( result == null && isAttached( node )){
+					result = node;
+				}
+				previous = entry;
+			}
+			entry = entry.next;
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Tells whether <code>node</code> is part of the tree of the station.
+	 * @param node the node to check
+	 * @return whether <code>node</code> is reachable from the root of the station
+	 */
+	private boolean isAttached( SplitNode node ){
+		while( node.getParent() != null ){
+			node = node.getParent();
+		}
+		return node == access.getOwner().getRoot();
+	}
+	
+	/**
+	 * Removes all the entries whose nodes were collected by the garbage collector.
+	 */
+	private void purge(){
+		Entry entry;
+		while( (entry = (Entry)queue.poll()) != null ){
+			Entry previous = null;
+			for( Entry current = nodes.get( entry.id ); current != null; current = current.next ){
+				if( current == entry ){
+					remove( previous, current );
+					break;
+				}
+				previous = current;
+			}
+		}
+	}
+	
+	/**
+	 * Removes <code>entry</code> from its chain.
+	 * @param previous the predecessor of <code>entry</code>, <code>null</code> if <code>entry</code> is the first element
+	 * @param entry the entry to remove
+	 */
+	private void remove( Entry previous, Entry entry ){
+		if( previous == null ){
+			if( entry.next == null ){
+				nodes.remove( entry.id );
+			}
+			else{
+				nodes.put( entry.id, entry.next );
+			}
+		}
+		else{
+			previous.next = entry.next;
+		}
+	}
+	
+	/**
+	 * A weak reference to a {@link SplitNode} which remembers the identifier under which it is stored.
+	 * @author Benjamin Sigg
+	 */
+	private static class Entry extends WeakReference<SplitNode>{
+		/** the key of this entry */
+		private final long id;
+		/** the next node with the same identifier */
+		private Entry next;
+		
+		public Entry( long id, SplitNode node, ReferenceQueue<SplitNode> queue ){
+			super( node, queue );
+			this.id = id;
+		}
+	}
+}
@@ -30,9 +30,13 @@ import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import bibliothek.gui.DockController;
 import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DockElementRepresentative;
+import bibliothek.gui.dock.station.stack.tab.layouting.AbstractTabsLayoutBlock;
 import bibliothek.gui.dock.station.stack.tab.layouting.LayoutBlock;
 import bibliothek.gui.dock.station.stack.tab.layouting.MenuLayoutBlock;
 import bibliothek.gui.dock.station.stack.tab.layouting.Size;
@@ -49,6 +53,19 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 	private TabsLayoutBlock tabs;
 	private MenuLineLayout layout;
 	
+	/** the result of the last call to {@link #listLayouts()}, can be <code>null</code> */
+	private List<MenuLineLayoutPossibility> cachedLayouts;
+	/** the sizes of the elements of {@link #cachedLayouts} */
+	private Dimension[] cachedSizes;
+	/** the scores of the elements of {@link #cachedLayouts}, <code>NaN</code> if not yet known */
+	private double[] cachedScores;
+	/** the input that was used to create {@link #cachedLayouts} */
+	private LayoutsKey cachedKey;
+	/** the amount of space that was available when {@link #cachedBest} was selected */
+	private int cachedSpace = -1;
+	/** the layout that was selected by {@link #layout()}, can be <code>null</code> */
+	private MenuLineLayoutPossibility cachedBest;
+	
 	/**
 	 * Creates new layout information for <code>pane</code>.
 	 * @param layout the layout using this pane
@@ -103,9 +120,10 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		}
 		
 		if( getPane().getDockTabPlacement().isHorizontal() ){
-			for( MenuLineLayoutPossibility layout : layouts ){
+			for( int i = 0, n = layouts.size(); i<n; i++ ){
+				MenuLineLayoutPossibility layout = layouts.get( i );
 				if( layout.isPreferred() ){
-					Dimension size = layout.getSize();
+					Dimension size = getSize( i );
 					if( size.width > bestSize.width ){
 						bestSize = size;
 					}
@@ -115,9 +133,10 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			bestSize.height += dockableSize.height;
 		}
 		else{
-			for( MenuLineLayoutPossibility layout : layouts ){
+			for( int i = 0, n = layouts.size(); i<n; i++ ){
+				MenuLineLayoutPossibility layout = layouts.get( i );
 				if( layout.isPreferred() ){
-					Dimension size = layout.getSize();
+					Dimension size = getSize( i );
 					if( size.height > bestSize.height ){
 						bestSize = size;
 					}
@@ -147,8 +166,8 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		}
 		
 		if( getPane().getDockTabPlacement().isHorizontal() ){
-			for( MenuLineLayoutPossibility layout : layouts ){
-				Dimension size = layout.getSize();
+			for( int i = 0, n = layouts.size(); i<n; i++ ){
+				Dimension size = getSize( i );
 				if( bestSize == null || size.width < bestSize.width ){
 					bestSize = size;
 				}
@@ -162,8 +181,8 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			bestSize.height += dockableSize.height;
 		}
 		else{
-			for( MenuLineLayoutPossibility layout : layouts ){
-				Dimension size = layout.getSize();
+			for( int i = 0, n = layouts.size(); i<n; i++ ){
+				Dimension size = getSize( i );
 				if( bestSize == null || size.height < bestSize.height ){
 					bestSize = size;
 				}
@@ -219,65 +238,177 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 		
 		int space = available.width;
 		
-		MenuLineLayoutPossibility best = null;
-		int bestSize = -1;
-		double bestScore = 0.0;
-		
-		MenuLineLayoutPossibility smallest = null;
-		int smallestSize = -1;
-		
-		for( MenuLineLayoutPossibility layout : layouts ){
-			Dimension size = conversion.viewToModel( layout.getSize() );
-			if( size.width <= space ){
-				double score = layout.getScore();
+		if( cachedBest == null || cachedSpace != space || layouts != cachedLayouts ){
+			MenuLineLayoutPossibility best = null;
+			int bestSize = -1;
+			double bestScore = 0.0;
+			
+			MenuLineLayoutPossibility smallest = null;
+			int smallestSize = -1;
+			
+			for( int i = 0, n = layouts.size(); i<n; i++ ){
+				MenuLineLayoutPossibility layout = layouts.get( i );
+				Dimension size = conversion.viewToModel( getSize( i ) );
+				if( size.width <= space ){
+					double score = getScore( i );
+					
+					if( best == null || (bestScore == score && bestSize < size.width ) || (bestScore < score)){
+						bestScore = score;
+						best = layout;
+					}
+				}
 				
-				if( best == null || (bestScore == score && bestSize < size.width ) || (bestScore < score)){
-					bestScore = score;
-					best = layout;
+				if( smallest == null || size.width < smallestSize ){
+					smallest = layout;
+					smallestSize = size.width;
 				}
 			}
 			
-			if( smallest == null || size.width < smallestSize ){
-				smallest = layout;
-				smallestSize = size.width;
-			}
+			cachedBest = best != null ? best : smallest;
+			cachedSpace = space;
 		}
 		
-		if( best != null ){
-			best.apply();
+		if( cachedBest != null ){
+			cachedBest.apply();
 		}
-		else if( smallest != null ){
-			smallest.apply();
+	}
+	
+	/**
+	 * Forgets all the layouts that were calculated so far. This method is called when tabs are
+	 * added or removed, or when the selection changes. Subclasses should call this method if they
+	 * know that the size of some tab changed.
+	 */
+	public void invalidateLayouts(){
+		cachedLayouts = null;
+		cachedSizes = null;
+		cachedScores = null;
+		cachedKey = null;
+		cachedBest = null;
+		cachedSpace = -1;
+	}
+	
+	/**
+	 * Gets a copy of the size of the <code>index</code>'th layout of the current list of layouts.
+	 * @param index the index of a layout
+	 * @return the size of the layout
+	 */
+	private Dimension getSize( int index ){
+		Dimension size = cachedSizes[ index ];
+		if( size == null ){
+			size = cachedLayouts.get( index ).getSize();
+			cachedSizes[ index ] = size;
+		}
+		return new Dimension( size );
+	}
+	
+	/**
+	 * Gets the score of the <code>index</code>'th layout of the current list of layouts.
+	 * @param index the index of a layout
+	 * @return the score of the layout
+	 */
+	private double getScore( int index ){
+		double score = cachedScores[ index ];
+		if( Double.isNaN( score )){
+			score = cachedLayouts.get( index ).getScore();
+			cachedScores[ index ] = score;
 		}
+		return score;
 	}
 	
 	/**
-	 * Creates a list of all available layouts.
+	 * Creates a list of all available layouts. The list is reused as long as the tabs do not change and
+	 * are not waiting for a revalidation, and as long as the sizes of the menu and of the info component
+	 * do not change.
 	 * @return the list of all available layouts
 	 */
 	private List<MenuLineLayoutPossibility> listLayouts(){
-		List<MenuLineLayoutPossibility> results = new ArrayList<MenuLineLayoutPossibility>();
 		TabPlacement orientation = getPane().getDockTabPlacement();
 		
 		tabs.setOrientation( orientation );
-		Size[] sizesTabs = tabs.getSizes();
-		
 		menu.setOrientation( orientation );
 		Size[] sizesMenu = menu.getSizes();
 		
+		Size[] sizesInfo = null;
 		if( info != null ){
 			info.setOrientation( orientation );
-			Size[] sizesInfo = info.getSizes();
+			sizesInfo = info.getSizes();
+		}
+		
+		LayoutsKey key = createKey( orientation, sizesMenu, sizesInfo );
+		if( key != null && key.isValid() && cachedLayouts != null && key.isSame( cachedKey )){
+			return cachedLayouts;
+		}
+		
+		List<MenuLineLayoutPossibility> results = new ArrayList<MenuLineLayoutPossibility>();
+		Size[] sizesTabs = tabs.getSizes();
+		
+		if( info != null ){
 			for( Size size : sizesInfo ){
 				listLayouts( results, size, sizesMenu, sizesTabs );
 			}
 		}
 		else{
 			listLayouts( results, null, sizesMenu, sizesTabs );
-		}	
+		}
+		
+		cachedLayouts = results;
+		cachedKey = key;
+		cachedSizes = new Dimension[ results.size() ];
+		cachedScores = new double[ results.size() ];
+		Arrays.fill( cachedScores, Double.NaN );
+		cachedBest = null;
+		cachedSpace = -1;
+		
 		return results;
 	}
 	
+	/**
+	 * Collects all the properties that have an influence on the result of {@link #listLayouts()}. The
+	 * properties of the tabs can only be collected if the tabs are an {@link AbstractTabsLayoutBlock}
+	 * and if each tab is represented by a {@link Component}. The sizes of the tabs that are shown are not collected,
+	 * instead a tab whose {@link Component} is not valid is considered to have changed its size. Tabs that are
+	 * not shown, e.g. because they are in the menu, are never validated. Of these tabs only the ones that are
+	 * invalid report their minimum and preferred size.
+	 * @param orientation the current orientation of the tabs
+	 * @param sizesMenu the sizes the menu offers
+	 * @param sizesInfo the sizes the info component offers, can be <code>null</code>
+	 * @return the key describing the input, or <code>null</code> if the result cannot be reused
+	 */
+	private LayoutsKey createKey( TabPlacement orientation, Size[] sizesMenu, Size[] sizesInfo ){
+		if( !(tabs instanceof AbstractTabsLayoutBlock) ){
+			return null;
+		}
+		
+		TabPane pane = getPane();
+		Dockable[] dockables = pane.getDockables();
+		Tab[] onTab = new Tab[ dockables.length ];
+		Dimension[] hiddenSizes = null;
+		boolean valid = true;
+		for( int i = 0; i < dockables.length; i++ ){
+			Tab tab = pane.getOnTab( dockables[i] );
+			if( !(tab instanceof DockElementRepresentative) ){
+				return null;
+			}
+			onTab[i] = tab;
+			Component component = ((DockElementRepresentative)tab).getComponent();
+			if( !component.isValid() ){
+				if( component.getParent() == null ){
+					if( hiddenSizes == null ){
+						hiddenSizes = new Dimension[ dockables.length * 2 ];
+					}
+					hiddenSizes[ i*2 ] = component.getMinimumSize();
+					hiddenSizes[ i*2+1 ] = component.getPreferredSize();
+				}
+				else{
+					valid = false;
+				}
+			}
+		}
+		
+		return new LayoutsKey( orientation, layout.getStrategy(), info, dockables, pane.getSelectedDockable(), onTab,
+				((AbstractTabsLayoutBlock)tabs).getTabs(), valid, hiddenSizes, sizesMenu, sizesInfo );
+	}
+	
 	private void listLayouts( List<MenuLineLayoutPossibility> list, Size infoSize, Size[] menuSizes, Size[] tabSizes ){
 		for( Size tab : tabSizes ){
 			if( tabs.isAllTabs( tab ) ){
@@ -326,5 +457,122 @@ public class MenuLineLayoutPane extends AbstractTabLayoutManagerPane{
 			info = null;
 		else
 			info = newInfo.toLayoutBlock();
+		invalidateLayouts();
+	}
+	
+	@Override
+	public void added( TabPane pane, Dockable dockable ){
+		super.added( pane, dockable );
+		invalidateLayouts();
+	}
+	
+	@Override
+	public void removed( TabPane pane, Dockable dockable ){
+		super.removed( pane, dockable );
+		invalidateLayouts();
+	}
+	
+	@Override
+	public void selectionChanged( TabPane pane ){
+		super.selectionChanged( pane );
+		invalidateLayouts();
+	}
+	
+	@Override
+	public void controllerChanged( TabPane pane, DockController controller ){
+		super.controllerChanged( pane, controller );
+		invalidateLayouts();
+	}
+	
+	/**
+	 * Describes all the properties that were used to create a list of {@link MenuLineLayoutPossibility}s.
+	 * Two keys are the same if all their properties, except the validity of the tabs, are equal.
+	 * @author Benjamin Sigg
+	 */
+	private static class LayoutsKey{
+		private final TabPlacement orientation;
+		private final MenuLineLayoutStrategy strategy;
+		private final LayoutBlock info;
+		private final Dockable[] dockables;
+		private final Dockable selected;
+		private final Tab[] onTab;
+		private final Tab[] visibleTabs;
+		private final boolean valid;
+		private final Dimension[] hiddenSizes;
+		private final Size[] sizesMenu;
+		private final Size[] sizesInfo;
+		
+		public LayoutsKey( TabPlacement orientation, MenuLineLayoutStrategy strategy, LayoutBlock info, Dockable[] dockables,
+				Dockable selected, Tab[] onTab, Tab[] visibleTabs, boolean valid, Dimension[] hiddenSizes, Size[] sizesMenu, Size[] sizesInfo ){
+			this.orientation = orientation;
+			this.strategy = strategy;
+			this.info = info;
+			this.dockables = dockables;
+			this.selected = selected;
+			this.onTab = onTab;
+			this.visibleTabs = visibleTabs;
+			this.valid = valid;
+			this.hiddenSizes = hiddenSizes;
+			this.sizesMenu = sizesMenu;
+			this.sizesInfo = sizesInfo;
+		}
+		
+		/**
+		 * Tells whether none of the shown tabs was waiting for a revalidation when this key was created. If
+		 * a tab was invalid, its size may have changed.
+		 * @return whether all the tabs were valid
+		 */
+		public boolean isValid(){
+			return valid;
+		}
+		
+		/**
+		 * Tells whether <code>other</code> describes the same input as this key.
+		 * @param other the key to compare with, can be <code>null</code>
+		 * @return whether the properties of both keys are equal
+		 */
+		public boolean isSame( LayoutsKey other ){
+			if( other == this ){
+				return true;
+			}
+			if( other == null ){
+				return false;
+			}
+			return orientation == other.orientation && 
+				strategy == other.strategy &&
+				info == other.info &&
+				selected == other.selected &&
+				Arrays.equals( dockables, other.dockables ) &&
+				Arrays.equals( onTab, other.onTab ) &&
+				Arrays.equals( visibleTabs, other.visibleTabs ) &&
+				Arrays.equals( hiddenSizes, other.hiddenSizes ) &&
+				equals( sizesMenu, other.sizesMenu ) &&
+				equals( sizesInfo, other.sizesInfo );
+		}
+		
+		private static boolean equals( Size[] a, Size[] b ){
+			if( a == b ){
+				return true;
+			}
+			if( a == null || b == null || a.length != b.length ){
+				return false;
+			}
+			for( int i = 0; i < a.length; i++ ){
+				if( !equals( a[i], b[i] )){
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		private static boolean equals( Size a, Size b ){
+			if( a == b ){
+				return true;
+			}
+			if( a == null || b == null || a.getClass() != b.getClass() ){
+				return false;
+			}
+			return a.getType() == b.getType() && a.getWidth() == b.getWidth() && a.getHeight() == b.getHeight() && a.getScore() == b.getScore();
+		}
 	}
 }
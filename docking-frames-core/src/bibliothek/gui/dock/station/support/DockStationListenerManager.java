@@ -32,6 +32,7 @@ import java.util.List;
 import bibliothek.gui.DockStation;
 import bibliothek.gui.Dockable;
 import bibliothek.gui.dock.event.DockStationListener;
+import bibliothek.gui.dock.util.DockUtilities;
 
 /**
  * This manager stores {@link DockStationListener DockStationListeners}
@@ -85,8 +86,15 @@ public class DockStationListenerManager {
      * @param value the new state
      */
     public void fireDockableVisibilitySet( Dockable dockable, boolean value ){
-    	for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockableShowingChanged( station, dockable, value );
+    	for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+    		DockUtilities.enterLayoutLocked( listener );
+    		try{
+    			listener.dockableShowingChanged( station, dockable, value );
+    		}
+    		finally{
+    			DockUtilities.exitLayoutLocked();
+    		}
+    	}
     }
     
     /**
@@ -95,8 +103,15 @@ public class DockStationListenerManager {
      * @param dockable the {@link Dockable} which was added
      */
     public void fireDockableAdded( Dockable dockable ){
-        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockableAdded( station, dockable );
+        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+        	DockUtilities.enterLayoutLocked( listener );
+        	try{
+        		listener.dockableAdded( station, dockable );
+        	}
+        	finally{
+        		DockUtilities.exitLayoutLocked();
+        	}
+        }
     }
     
     /**
@@ -105,8 +120,15 @@ public class DockStationListenerManager {
      * @param dockable the {@link Dockable} which was removed
      */
     public void fireDockableRemoved( Dockable dockable ){
-        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockableRemoved( station, dockable );
+        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+        	DockUtilities.enterLayoutLocked( listener );
+        	try{
+        		listener.dockableRemoved( station, dockable );
+        	}
+        	finally{
+        		DockUtilities.exitLayoutLocked();
+        	}
+        }
     }
     
     /**
@@ -115,8 +137,15 @@ public class DockStationListenerManager {
      * @param dockable the {@link Dockable} which will be added
      */
     public void fireDockableAdding( Dockable dockable ){
-        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockableAdding( station, dockable );
+        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+        	DockUtilities.enterLayoutLocked( listener );
+        	try{
+        		listener.dockableAdding( station, dockable );
+        	}
+        	finally{
+        		DockUtilities.exitLayoutLocked();
+        	}
+        }
     }
     
     /**
@@ -125,8 +154,15 @@ public class DockStationListenerManager {
      * @param dockable the {@link Dockable} which will be removed
      */
     public void fireDockableRemoving( Dockable dockable ){
-        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockableRemoving( station, dockable );
+        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+        	DockUtilities.enterLayoutLocked( listener );
+        	try{
+        		listener.dockableRemoving( station, dockable );
+        	}
+        	finally{
+        		DockUtilities.exitLayoutLocked();
+        	}
+        }
     }
     
     /**
@@ -136,8 +172,15 @@ public class DockStationListenerManager {
      * @param newSelected the selected {@link Dockable}
      */
     public void fireDockableSelected( Dockable oldSelected, Dockable newSelected ){
-        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockableSelected( station, oldSelected, newSelected );
+        for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+        	DockUtilities.enterLayoutLocked( listener );
+        	try{
+        		listener.dockableSelected( station, oldSelected, newSelected );
+        	}
+        	finally{
+        		DockUtilities.exitLayoutLocked();
+        	}
+        }
     }
     
     /**
@@ -146,7 +189,14 @@ public class DockStationListenerManager {
      * @param dockables the elements that have a new position
      */
     public void fireDockablesRepositioned( Dockable... dockables ){
-    	for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] ))
-            listener.dockablesRepositioned( station, dockables );
+    	for( DockStationListener listener : listeners.toArray( new DockStationListener[ listeners.size() ] )){
+    		DockUtilities.enterLayoutLocked( listener );
+    		try{
+    			listener.dockablesRepositioned( station, dockables );
+    		}
+    		finally{
+    			DockUtilities.exitLayoutLocked();
+    		}
+    	}
     }
 }
@@ -25,10 +25,15 @@
  */
 package bibliothek.gui.dock.station.support;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 
 import bibliothek.gui.DockStation;
@@ -42,6 +47,9 @@ import bibliothek.util.Path;
  * of placeholders.<br>
  * Clients should call {@link #bind()} and {@link #unbind()} to manage the
  * lifecycle of this list.<br>
+ * The entries of the list are additionally stored in a balanced tree, and all placeholders are
+ * stored in a hash index. Hence searching placeholders and converting indices between the
+ * different {@link Level}s requires only logarithmic time.<br>
  * A {@link PlaceholderList} is not thread-safe.
  * @author Benjamin Sigg
  * @param <D> the kind of object that should be treated as {@link Dockable}
@@ -66,6 +74,15 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	/** head of the dockables sublist */
 	private Entry headDockable = null;
 
+	/** the root of the tree which contains all the entries of this list, ordered like {@link #head} */
+	private Entry treeRoot = null;
+
+	/** source of the random priorities of the entries in the tree */
+	private Random treePriorities = new Random();
+
+	/** all the {@link Item}s of this list which contain a certain placeholder */
+	private Map<Path, List<Item>> placeholderIndex = new HashMap<Path, List<Item>>();
+
 	/** identifiers for the various sublists this list consists of */
 	public static enum Level {
 		BASE, DOCKABLE, PLACEHOLDER;
@@ -492,8 +509,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				if( placeholders != null ) {
 					Iterator<Path> paths = placeholders.iterator();
 					while( paths.hasNext() ) {
-						if( !strategy.isValidPlaceholder( paths.next() ) ) {
+						Path path = paths.next();
+						if( !strategy.isValidPlaceholder( path ) ) {
 							paths.remove();
+							unindexPlaceholder( path, item );
 						}
 					}
 				}
@@ -913,15 +932,83 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( Path placeholder ){
-		Entry entry = this.head;
-		while( entry != null ) {
-			Set<Path> set = entry.item.getPlaceholderSet();
-			if( set != null && set.contains( placeholder ) ) {
-				return entry;
+		return search( placeholder, Level.BASE );
+	}
+	
+	/**
+	 * Searches the first entry of the sublist <code>level</code> whose placeholder set
+	 * contains <code>placeholder</code>.
+	 * @param placeholder the placeholder to search
+	 * @param level the sublist to search in
+	 * @return the entry or <code>null</code> if not found
+	 */
+	private Entry search( Path placeholder, Level level ){
+		List<Item> items = placeholderIndex.get( placeholder );
+		if( items == null ) {
+			return null;
+		}
+		
+		Entry result = null;
+		int resultIndex = -1;
+		
+		Iterator<Item> iter = items.iterator();
+		while( iter.hasNext() ) {
+			Item item = iter.next();
+			Entry entry = item.owner;
+			if( entry == null || !entry.isAttached() || !item.hasPlaceholder( placeholder ) ) {
+				iter.remove();
+			}
+			else if( entry.inLevel( level ) ) {
+				if( result == null ) {
+					result = entry;
+				}
+				else {
+					if( resultIndex == -1 ) {
+						resultIndex = result.index( Level.BASE );
+					}
+					int index = entry.index( Level.BASE );
+					if( index < resultIndex ) {
+						result = entry;
+						resultIndex = index;
+					}
+				}
+			}
+		}
+		if( items.isEmpty() ) {
+			placeholderIndex.remove( placeholder );
+		}
+		return result;
+	}
+	
+	/**
+	 * Stores in the placeholder index that <code>item</code> contains <code>placeholder</code>.
+	 * @param placeholder the placeholder that was added to <code>item</code>
+	 * @param item an item of this list
+	 */
+	private void indexPlaceholder( Path placeholder, Item item ){
+		List<Item> items = placeholderIndex.get( placeholder );
+		if( items == null ) {
+			items = new ArrayList<Item>( 1 );
+			placeholderIndex.put( placeholder, items );
+		}
+		if( !items.contains( item ) ) {
+			items.add( item );
+		}
+	}
+	
+	/**
+	 * Removes the information that <code>item</code> contains <code>placeholder</code> from the placeholder index.
+	 * @param placeholder the placeholder that was removed from <code>item</code>
+	 * @param item an item of this list
+	 */
+	private void unindexPlaceholder( Path placeholder, Item item ){
+		List<Item> items = placeholderIndex.get( placeholder );
+		if( items != null ) {
+			items.remove( item );
+			if( items.isEmpty() ) {
+				placeholderIndex.remove( placeholder );
 			}
-			entry = entry.next( Level.BASE );
 		}
-		return null;
 	}
 	
 	private Entry search( D dockable ){
@@ -947,13 +1034,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 	}
 
 	private Entry search( int index, Level level ){
-		Entry entry = head( level );
-
-		while( entry != null && index > 0 ) {
-			entry = entry.next( level );
-			index--;
-		}
-		return entry;
+		return select( Math.max( index, 0 ), level );
 	}
 
 	/**
@@ -995,7 +1076,8 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		head = null;
 		headDockable = null;
 		headPlaceholder = null;
-		invalidate();
+		treeRoot = null;
+		placeholderIndex.clear();
 	}
 
 	private Entry head( Level level ){
@@ -1010,11 +1092,182 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		throw new IllegalArgumentException();
 	}
 
-	private void invalidate(){
-		dockables.invalidate();
-		allPlaceholders.invalidate();
-		purePlaceholders.invalidate();
-		allItems.invalidate();
+	/**
+	 * Gets the number of entries of the subtree <code>node</code> that are part of <code>level</code>.
+	 * @param node the root of some subtree, can be <code>null</code>
+	 * @param level the sublist to count
+	 * @return the number of entries
+	 */
+	private int count( Entry node, Level level ){
+		if( node == null ) {
+			return 0;
+		}
+		switch( level ){
+			case BASE:
+				return node.treeCount;
+			case PLACEHOLDER:
+				return node.treePlaceholderCount;
+			case DOCKABLE:
+				return node.treeCount - node.treePlaceholderCount;
+		}
+		throw new IllegalArgumentException();
+	}
+
+	/**
+	 * Searches the <code>index</code>'th entry of the sublist <code>level</code>.
+	 * @param index the index of the entry
+	 * @param level the sublist
+	 * @return the entry or <code>null</code> if <code>index</code> is out of bounds
+	 */
+	private Entry select( int index, Level level ){
+		Entry node = treeRoot;
+		while( node != null ) {
+			int left = count( node.treeLeft, level );
+			if( index < left ) {
+				node = node.treeLeft;
+			}
+			else {
+				index -= left;
+				if( node.inLevel( level ) ) {
+					if( index == 0 ) {
+						return node;
+					}
+					index--;
+				}
+				node = node.treeRight;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Inserts <code>node</code> into the tree as direct successor of <code>predecessor</code>.
+	 * @param node the new node
+	 * @param predecessor the predecessor of <code>node</code> or <code>null</code> if <code>node</code> is the new first node
+	 */
+	private void treeInsert( Entry node, Entry predecessor ){
+		node.treeLeft = null;
+		node.treeRight = null;
+		node.treeParent = null;
+		node.treePriority = treePriorities.nextInt();
+		node.updateCount();
+
+		if( treeRoot == null ) {
+			treeRoot = node;
+			return;
+		}
+
+		Entry parent;
+		if( predecessor == null ) {
+			parent = treeRoot;
+			while( parent.treeLeft != null ) {
+				parent = parent.treeLeft;
+			}
+			parent.treeLeft = node;
+		}
+		else if( predecessor.treeRight == null ) {
+			parent = predecessor;
+			parent.treeRight = node;
+		}
+		else {
+			parent = predecessor.treeRight;
+			while( parent.treeLeft != null ) {
+				parent = parent.treeLeft;
+			}
+			parent.treeLeft = node;
+		}
+		node.treeParent = parent;
+		treeUpdate( parent );
+
+		while( node.treeParent != null && node.treeParent.treePriority < node.treePriority ) {
+			treeRotateUp( node );
+		}
+	}
+
+	/**
+	 * Removes <code>node</code> from the tree.
+	 * @param node the node to remove
+	 */
+	private void treeRemove( Entry node ){
+		while( node.treeLeft != null && node.treeRight != null ) {
+			if( node.treeLeft.treePriority > node.treeRight.treePriority ) {
+				treeRotateUp( node.treeLeft );
+			}
+			else {
+				treeRotateUp( node.treeRight );
+			}
+		}
+
+		Entry child = node.treeLeft != null ? node.treeLeft : node.treeRight;
+		Entry parent = node.treeParent;
+		if( child != null ) {
+			child.treeParent = parent;
+		}
+		treeReplace( parent, node, child );
+
+		node.treeParent = null;
+		node.treeLeft = null;
+		node.treeRight = null;
+		treeUpdate( parent );
+	}
+
+	/**
+	 * Recalculates the counters of <code>node</code> and all its parents.
+	 * @param node the first node to update, can be <code>null</code>
+	 */
+	private void treeUpdate( Entry node ){
+		while( node != null ) {
+			node.updateCount();
+			node = node.treeParent;
+		}
+	}
+
+	/**
+	 * Rotates <code>node</code> such that it takes the place of its parent.
+	 * @param node the node to rotate, must have a parent
+	 */
+	private void treeRotateUp( Entry node ){
+		Entry parent = node.treeParent;
+		Entry grandParent = parent.treeParent;
+
+		if( parent.treeLeft == node ) {
+			parent.treeLeft = node.treeRight;
+			if( node.treeRight != null ) {
+				node.treeRight.treeParent = parent;
+			}
+			node.treeRight = parent;
+		}
+		else {
+			parent.treeRight = node.treeLeft;
+			if( node.treeLeft != null ) {
+				node.treeLeft.treeParent = parent;
+			}
+			node.treeLeft = parent;
+		}
+		parent.treeParent = node;
+		node.treeParent = grandParent;
+		treeReplace( grandParent, parent, node );
+
+		parent.updateCount();
+		node.updateCount();
+	}
+
+	/**
+	 * Replaces the child <code>oldChild</code> of <code>parent</code> by <code>newChild</code>.
+	 * @param parent the parent, <code>null</code> if <code>oldChild</code> is the root of the tree
+	 * @param oldChild the current child
+	 * @param newChild the replacement, can be <code>null</code>
+	 */
+	private void treeReplace( Entry parent, Entry oldChild, Entry newChild ){
+		if( parent == null ) {
+			treeRoot = newChild;
+		}
+		else if( parent.treeLeft == oldChild ) {
+			parent.treeLeft = newChild;
+		}
+		else {
+			parent.treeRight = newChild;
+		}
 	}
 
 	@Override
@@ -1029,19 +1282,24 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		private Entry next, previous;
 		private Entry nextLevel, previousLevel;
 
+		/** the location of this entry in the tree */
+		private Entry treeParent, treeLeft, treeRight;
+		/** the priority of this entry in the tree, parents always have a higher priority than their children */
+		private int treePriority;
+		/** the number of entries in the subtree starting with this entry */
+		private int treeCount;
+		/** the number of pure placeholders in the subtree starting with this entry */
+		private int treePlaceholderCount;
+
 		public Entry( Entry predecessor, Item item ){
 			this.item = item;
 			insertAfter( predecessor );
 		}
 
 		public void insertAfter( Entry predecessor ){
-			invalidate();
-
 			item.setOwner( this );
 			itemWasPlaceholder = item.isPlaceholder();
 
-			Entry predecessorLevel = null;
-
 			if( predecessor == null ) {
 				next = head;
 				if( head != null ) {
@@ -1049,7 +1307,6 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				}
 
 				head = this;
-				predecessorLevel = null;
 			}
 			else {
 				next = predecessor.next;
@@ -1059,15 +1316,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 				predecessor.next = this;
 				this.previous = predecessor;
-
-				Entry search = predecessor;
-				while( search != null && predecessorLevel == null ) {
-					if( search.item.isPlaceholder() == item.isPlaceholder() ) {
-						predecessorLevel = search;
-					}
-					search = search.previous( Level.BASE );
-				}
 			}
+			
+			treeInsert( this, predecessor );
+			Entry predecessorLevel = findLevelPredecessor();
 
 			Entry successorLevel = null;
 			if( predecessorLevel == null ) {
@@ -1100,22 +1352,20 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( delta == 0 ) {
 				return;
 			}
-			Entry newPredecessor = this;
+			int index = index( level );
+			Entry newPredecessor;
 			if( delta > 0 ) {
-				for( int i = 0; i < delta; i++ ) {
-					newPredecessor = newPredecessor.next( level );
-					if( newPredecessor == null ) {
-						throw new IllegalArgumentException( "delta too big" );
-					}
+				newPredecessor = select( index + delta, level );
+				if( newPredecessor == null ) {
+					throw new IllegalArgumentException( "delta too big" );
 				}
 			}
 			else {
-				for( int i = -delta; i >= 0; i-- ) {
-					if( newPredecessor == null ) {
-						throw new IllegalArgumentException( "delta too big" );
-					}
-					newPredecessor = newPredecessor.previous( level );
+				int target = index + delta - 1;
+				if( target < -1 ) {
+					throw new IllegalArgumentException( "delta too big" );
 				}
+				newPredecessor = target == -1 ? null : select( target, level );
 			}
 
 			remove();
@@ -1147,18 +1397,55 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		public int index( Level level ){
-			Entry entry = head( level );
-			int index = 0;
-			while( entry != this && entry != null ) {
-				entry = entry.next( level );
-				index++;
-			}
-			if( entry == null ) {
+			if( !inLevel( level ) || !isAttached() ) {
 				return -1;
 			}
+			int index = count( treeLeft, level );
+			for( Entry node = this; node.treeParent != null; node = node.treeParent ) {
+				Entry parent = node.treeParent;
+				if( parent.treeRight == node ) {
+					index += count( parent.treeLeft, level );
+					if( parent.inLevel( level ) ) {
+						index++;
+					}
+				}
+			}
 			return index;
 		}
 
+		/**
+		 * Tells whether this entry is part of the sublist <code>level</code>.
+		 * @param level the sublist
+		 * @return whether this entry is visible in <code>level</code>
+		 */
+		public boolean inLevel( Level level ){
+			switch( level ){
+				case BASE:
+					return true;
+				case PLACEHOLDER:
+					return itemWasPlaceholder;
+				case DOCKABLE:
+					return !itemWasPlaceholder;
+			}
+			throw new IllegalArgumentException();
+		}
+
+		/**
+		 * Tells whether this entry is currently stored in the list.
+		 * @return <code>true</code> if this entry is in the list
+		 */
+		public boolean isAttached(){
+			return treeParent != null || treeRoot == this;
+		}
+
+		/**
+		 * Recalculates the counters of this entry assuming the counters of its children are correct.
+		 */
+		public void updateCount(){
+			treeCount = 1 + count( treeLeft, Level.BASE ) + count( treeRight, Level.BASE );
+			treePlaceholderCount = (itemWasPlaceholder ? 1 : 0) + count( treeLeft, Level.PLACEHOLDER ) + count( treeRight, Level.PLACEHOLDER );
+		}
+
 		public void refresh(){
 			set( item );
 		}
@@ -1170,11 +1457,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( itemWasPlaceholder != item.isPlaceholder() ) {
 				itemWasPlaceholder = item.isPlaceholder();
 
-				invalidate();
 				removeLevel();
+				treeUpdate( this );
 
-				Entry levelPredecessor = findLevelPredecessor( item.isPlaceholder() );
-				Entry levelSuccessor = findLevelSuccessor( item.isPlaceholder() );
+				Entry levelPredecessor = findLevelPredecessor();
+				Entry levelSuccessor = findLevelSuccessor();
 
 				if( levelPredecessor == null ) {
 					if( item.isPlaceholder() ) {
@@ -1201,31 +1488,25 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			this.item = item;
 		}
 
-		private Entry findLevelPredecessor( boolean placeholder ){
-			Entry entry = previous;
-			while( entry != null ) {
-				if( entry.item.isPlaceholder() == placeholder ) {
-					return entry;
-				}
-				entry = entry.previous;
+		private Level level(){
+			return itemWasPlaceholder ? Level.PLACEHOLDER : Level.DOCKABLE;
+		}
+		
+		private Entry findLevelPredecessor(){
+			Level level = level();
+			int index = index( level );
+			if( index == 0 ) {
+				return null;
 			}
-			return null;
+			return select( index - 1, level );
 		}
 
-		private Entry findLevelSuccessor( boolean placeholder ){
-			Entry entry = next;
-			while( entry != null ) {
-				if( entry.item.isPlaceholder() == placeholder ) {
-					return entry;
-				}
-				entry = entry.next;
-			}
-			return null;
+		private Entry findLevelSuccessor(){
+			Level level = level();
+			return select( index( level ) + 1, level );
 		}
 
 		public void remove(){
-			invalidate();
-
 			if( next != null ) {
 				next.previous = previous;
 			}
@@ -1243,11 +1524,10 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			this.item.setOwner( null );
 
 			removeLevel();
+			treeRemove( this );
 		}
 
 		private void removeLevel(){
-			invalidate();
-
 			if( nextLevel != null ) {
 				nextLevel.previousLevel = previousLevel;
 			}
@@ -1347,6 +1627,16 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 				}
 			}
 
+			if( this.owner != owner && placeholderSet != null ) {
+				for( Path placeholder : placeholderSet ) {
+					if( this.owner != null ) {
+						unindexPlaceholder( placeholder, this );
+					}
+					if( owner != null ) {
+						indexPlaceholder( placeholder, this );
+					}
+				}
+			}
 			this.owner = owner;
 		}
 
@@ -1360,7 +1650,8 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 
 		/**
-		 * Returns the value of this placeholder.
+		 * Returns the value of this placeholder. Clients should not add new placeholders
+		 * directly to the returned set, but call {@link #add(Path)}.
 		 * @return the placeholder or <code>null</code> if <code>this</code>
 		 * has no a placeholders
 		 * @see #isPlaceholder()
@@ -1377,6 +1668,18 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet != null && placeholderSet.contains( null ) ) {
 				throw new IllegalArgumentException( "placeholderSet contains a null value" );
 			}
+			if( owner != null ) {
+				if( this.placeholderSet != null ) {
+					for( Path placeholder : this.placeholderSet ) {
+						unindexPlaceholder( placeholder, this );
+					}
+				}
+				if( placeholderSet != null ) {
+					for( Path placeholder : placeholderSet ) {
+						indexPlaceholder( placeholder, this );
+					}
+				}
+			}
 			this.placeholderSet = placeholderSet;
 		}
 
@@ -1387,6 +1690,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		public void removeAll( Set<Path> placeholders ){
 			if( placeholderSet != null ) {
 				placeholderSet.removeAll( placeholders );
+				if( owner != null ) {
+					for( Path placeholder : placeholders ) {
+						unindexPlaceholder( placeholder, this );
+					}
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1405,7 +1713,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		 */
 		public void remove( Path placeholder ){
 			if( placeholderSet != null ) {
-				placeholderSet.remove( placeholder );
+				if( placeholderSet.remove( placeholder ) && owner != null ) {
+					unindexPlaceholder( placeholder, this );
+				}
 				if( placeholderSet.isEmpty() ) {
 					placeholderSet = null;
 				}
@@ -1430,7 +1740,9 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			if( placeholderSet == null ) {
 				placeholderSet = new HashSet<Path>();
 			}
-			placeholderSet.add( placeholder );
+			if( placeholderSet.add( placeholder ) && owner != null ) {
+				indexPlaceholder( placeholder, this );
+			}
 		}
 
 		/**
@@ -1650,7 +1962,6 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 
 	private abstract class SubList<A> implements Filter<A> {
 		private Level level;
-		private int size = -1;
 
 		protected abstract A unwrap( Item item );
 
@@ -1670,25 +1981,14 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 			return PlaceholderList.this;
 		}
 		
-		public void invalidate(){
-			size = -1;
-		}
-
 		private Entry getEntry( int index ){
 			if( index < 0 )
 				throw new IndexOutOfBoundsException("index < 0: " + index);
 
-			Entry entry = head( level );
-			int start = index;
-			
-			while( index > 0 ) {
-				entry = entry.next( level );
-				index--;
-				if( entry == null ) {
-					throw new IndexOutOfBoundsException( "index=" + start + ", size=" + size() );
-				}
+			Entry entry = select( index, level );
+			if( entry == null ) {
+				throw new IndexOutOfBoundsException( "index=" + index + ", size=" + size() );
 			}
-
 			return entry;
 		}
 
@@ -1723,13 +2023,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		
 		private void insert( int index, Item item ){
 			if( size() == index ) {
-				Entry entry = head;
-				Entry predecessor = null;
-				while( entry != null ) {
-					predecessor = entry;
-					entry = entry.next;
-				}
-				new Entry( predecessor, item );
+				new Entry( select( count( treeRoot, Level.BASE ) - 1, Level.BASE ), item );
 			}
 			else {
 				Entry entry = getEntry( index );
@@ -1759,16 +2053,11 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int indexOfPlaceholder( Path placeholder ){
-			int index = 0;
-			Entry entry = head( level );
-			while( entry != null ) {
-				if( entry.item.hasPlaceholder( placeholder )){
-					return index;
-				}
-				entry = entry.next( level );
-				index++;
+			Entry entry = search( placeholder, level );
+			if( entry == null ){
+				return -1;
 			}
-			return -1;
+			return entry.index( level );
 		}
 
 		public A remove( int index ){
@@ -1799,15 +2088,7 @@ public abstract class PlaceholderList<D, S, P extends PlaceholderListItem<D>> {
 		}
 		
 		public int size(){
-			if( size == -1 ) {
-				size = 0;
-				Entry entry = head( level );
-				while( entry != null ) {
-					size++;
-					entry = entry.next( level );
-				}
-			}
-			return size;
+			return count( treeRoot, level );
 		}
 
 		public void move( int source, int destination ){
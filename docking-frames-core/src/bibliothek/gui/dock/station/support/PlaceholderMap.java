@@ -34,6 +34,8 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
+import bibliothek.gui.dock.layout.StringTableInputStream;
+import bibliothek.gui.dock.layout.StringTableOutputStream;
 import bibliothek.util.Path;
 import bibliothek.util.Version;
 import bibliothek.util.xml.XElement;
@@ -96,14 +98,20 @@ public class PlaceholderMap {
 		setPlaceholderStrategy( strategy );
 		
 		Version version = Version.read( in );
-		if( Version.VERSION_1_1_1a.compareTo( version ) < 0 ){
+		boolean compact = Version.VERSION_1_1_3.compareTo( version ) == 0;
+		if( compact ){
+			if( !(in instanceof StringTableInputStream) ){
+				throw new IOException( "the map refers to a table of strings, but the stream does not offer a table" );
+			}
+		}
+		else if( Version.VERSION_1_1_1a.compareTo( version ) < 0 ){
 			throw new IOException( "unknown version: " + version );
 		}
 		
 		this.version = in.readInt();
-		format = new Path( in.readUTF() );
+		format = new Path( readString( in, compact ) );
 	
-		int size = in.readInt();
+		int size = readCount( in, compact );
 		
 		for( int i = 0; i < size; i++ ){
 			PlaceholderKey key = new PlaceholderKey( in, version );
@@ -112,18 +120,18 @@ public class PlaceholderMap {
 			if( key != null ){
 				add(key);
 				Map<String, Object> map = data.get( key );
-				int length = in.readInt();
+				int length = readCount( in, compact );
 				for( int j = 0; j < length; j++ ){
-					String subkey = in.readUTF();
-					Object value = read( in, strategy );
+					String subkey = readString( in, compact );
+					Object value = read( in, strategy, compact );
 					map.put( subkey, value );
 				}
 			}
 			else{
-				int length = in.readInt();
+				int length = readCount( in, compact );
 				for( int j = 0; j < length; j++ ){
-					in.readUTF();
-					read( in, strategy );
+					readString( in, compact );
+					read( in, strategy, compact );
 				}
 			}
 		}
@@ -172,31 +180,98 @@ public class PlaceholderMap {
 	}
 	
 	/**
-	 * Writes the contents of this map into <code>out</code>.
+	 * Writes the contents of this map into <code>out</code>. If <code>out</code> is a
+	 * {@link StringTableOutputStream}, then all the placeholders, keys and strings are written into
+	 * the table of <code>out</code> and the map itself only contains their indices.
 	 * @param out the stream to write into
 	 * @throws IOException in case of an I/O error
 	 */
 	public void write( DataOutputStream out ) throws IOException{
-		Version.write( out, Version.VERSION_1_1_1a );
+		if( out instanceof StringTableOutputStream ){
+			Version.write( out, Version.VERSION_1_1_3 );
+		}
+		else{
+			Version.write( out, Version.VERSION_1_1_1a );
+		}
 		out.writeInt( version );
-		out.writeUTF( format.toString() );
+		writeString( format.toString(), out );
 		
-		out.writeInt( data.size() );
+		writeCount( data.size(), out );
 		for( Map.Entry<Key, Map<String, Object>> entry : data.entrySet() ){
 			((PlaceholderKey)entry.getKey()).write( out );
 			Map<String, Object> map = entry.getValue();
-			out.writeInt( map.size() );
+			writeCount( map.size(), out );
 			for( Map.Entry<String, Object> mapEntry : map.entrySet() ){
-				out.writeUTF( mapEntry.getKey() );
+				writeString( mapEntry.getKey(), out );
 				write( mapEntry.getValue(), out );
 			}
 		}
 	}
+	
+	/**
+	 * Writes <code>value</code> into <code>out</code>, using the table of strings of <code>out</code> if
+	 * <code>out</code> is a {@link StringTableOutputStream}.
+	 * @param value the value to write
+	 * @param out the stream to write into
+	 * @throws IOException in case of an I/O error
+	 */
+	private static void writeString( String value, DataOutputStream out ) throws IOException{
+		if( out instanceof StringTableOutputStream ){
+			((StringTableOutputStream)out).writeString( value );
+		}
+		else{
+			out.writeUTF( value );
+		}
+	}
+	
+	/**
+	 * Reads a value that was written by {@link #writeString(String, DataOutputStream)}.
+	 * @param in the stream to read from
+	 * @param compact whether <code>in</code> is a {@link StringTableInputStream} whose table is used
+	 * @return the value that was read
+	 * @throws IOException in case of an I/O error
+	 */
+	private static String readString( DataInputStream in, boolean compact ) throws IOException{
+		if( compact ){
+			return ((StringTableInputStream)in).readString();
+		}
+		return in.readUTF();
+	}
+	
+	/**
+	 * Writes the size of a collection into <code>out</code>, using a variable length integer
+	 * if <code>out</code> is a {@link StringTableOutputStream}.
+	 * @param count the size to write
+	 * @param out the stream to write into
+	 * @throws IOException in case of an I/O error
+	 */
+	private static void writeCount( int count, DataOutputStream out ) throws IOException{
+		if( out instanceof StringTableOutputStream ){
+			StringTableOutputStream.writeVarInt( count, out );
+		}
+		else{
+			out.writeInt( count );
+		}
+	}
+	
+	/**
+	 * Reads a value that was written by {@link #writeCount(int, DataOutputStream)}.
+	 * @param in the stream to read from
+	 * @param compact whether the value is a variable length integer
+	 * @return the value that was read
+	 * @throws IOException in case of an I/O error
+	 */
+	private static int readCount( DataInputStream in, boolean compact ) throws IOException{
+		if( compact ){
+			return StringTableInputStream.readVarInt( in );
+		}
+		return in.readInt();
+	}
 
 	private void write( Object value, DataOutputStream out ) throws IOException{
 		if( value instanceof String ){
 			out.writeByte( 0 );
-			out.writeUTF( (String)value );
+			writeString( (String)value, out );
 		}
 		else if( value instanceof Integer ){
 			out.writeByte( 1 );
@@ -221,37 +296,37 @@ public class PlaceholderMap {
 		else if( value instanceof Object[] ){
 			out.writeByte( 6 );
 			Object[] array = (Object[])value;
-			out.writeInt( array.length );
+			writeCount( array.length, out );
 			for( Object item : array ){
 				write( item, out );
 			}
 		}
 		else if( value instanceof Path ){
 			out.writeByte( 7 );
-			out.writeUTF( ((Path)value).toString() );
+			writeString( ((Path)value).toString(), out );
 		}
 		else{
 			throw new IOException( "unknown type: " + value.getClass() );
 		}
 	}
 
-	private Object read( DataInputStream in, PlaceholderStrategy strategy ) throws IOException{
+	private Object read( DataInputStream in, PlaceholderStrategy strategy, boolean compact ) throws IOException{
 		byte kind = in.readByte();
 		switch( kind ){
-			case 0: return in.readUTF();
+			case 0: return readString( in, compact );
 			case 1: return in.readInt();
 			case 2: return in.readLong();
 			case 3: return in.readDouble();
 			case 4: return in.readBoolean();
 			case 5: return new PlaceholderMap( in, strategy );
 			case 6:
-				int length = in.readInt();
+				int length = readCount( in, compact );
 				Object[] result = new Object[length];
 				for( int i = 0; i < length; i++ ){
-					result[i] = read( in, strategy );
+					result[i] = read( in, strategy, compact );
 				}
 				return result;
-			case 7: return new Path( in.readUTF() );
+			case 7: return new Path( readString( in, compact ) );
 		}
 		throw new IOException( "illegal format" );
 	}
@@ -1084,17 +1159,18 @@ public class PlaceholderMap {
 		}
 		
 		public PlaceholderKey( DataInputStream in, Version version ) throws IOException{
+			boolean compact = Version.VERSION_1_1_3.compareTo( version ) == 0;
 			shared = in.readBoolean();
 			
 			if( Version.VERSION_1_1_1.compareTo( version ) <= 0 ){
 				if( in.readBoolean() ){
-					anchor = in.readUTF();
+					anchor = readString( in, compact );
 				}
 			}
 			
-			placeholders = new Path[ in.readInt() ];
+			placeholders = new Path[ readCount( in, compact ) ];
 			for( int i = 0; i < placeholders.length; i++ ){
-				placeholders[i] = new Path( in.readUTF() );
+				placeholders[i] = new Path( readString( in, compact ) );
 			}
 		}
 		
@@ -1118,15 +1194,15 @@ public class PlaceholderMap {
 			
 			if( anchor != null ){
 				out.writeBoolean( true );
-				out.writeUTF( anchor );
+				writeString( anchor, out );
 			}
 			else{
 				out.writeBoolean( false );
 			}
 			
-			out.writeInt( placeholders.length );
+			writeCount( placeholders.length, out );
 			for( Path path : placeholders ){
-				out.writeUTF( path.toString() );
+				writeString( path.toString(), out );
 			}
 		}
 		
@@ -35,6 +35,8 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.Robot;
 import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import javax.swing.SwingUtilities;
 
@@ -49,9 +51,13 @@ import bibliothek.gui.dock.util.property.ConstantPropertyFactory;
 public interface AWTComponentCaptureStrategy {
     /**
      * This strategy just takes a real screen capture of the area in which the
-     * component is supposed to be.
+     * component is supposed to be. One {@link Robot} is created for each {@link GraphicsDevice}
+     * and reused for all captures.
      */
     public static final AWTComponentCaptureStrategy SCREEN_CAPTURE_STRATEGY = new AWTComponentCaptureStrategy(){
+    	/** the robots that were already created */
+    	private Map<GraphicsDevice, Robot> robots = new WeakHashMap<GraphicsDevice, Robot>();
+    	
         public BufferedImage createCapture( DockController controller, Component component ){
             try {
                 if( !component.isShowing() )
@@ -65,7 +71,7 @@ public interface AWTComponentCaptureStrategy {
                 if( device == null )
                     return null;
 
-                Robot deviceRobot = new Robot( device );
+                Robot deviceRobot = robot( device );
 
                 Point location = new Point( 0, 0 );
                 SwingUtilities.convertPointToScreen( location, component );
@@ -81,6 +87,21 @@ public interface AWTComponentCaptureStrategy {
                 return null;
             }
         }
+        
+        /**
+         * Gets the {@link Robot} which takes screen captures of <code>device</code>.
+         * @param device the device to capture
+         * @return the robot, not <code>null</code>
+         * @throws AWTException if the robot cannot be created
+         */
+        private synchronized Robot robot( GraphicsDevice device ) throws AWTException{
+        	Robot robot = robots.get( device );
+        	if( robot == null ){
+        		robot = new Robot( device );
+        		robots.put( device, robot );
+        	}
+        	return robot;
+        }
     };
     
     /**
@@ -42,6 +42,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
@@ -91,6 +92,17 @@ public class DockUtilities {
     /** whether {@link DockUtilities#checkLayoutLocked()} is enabled */
     private static boolean checkLayoutLock = true;
     
+    /** the listeners that are currently executed by each thread, see {@link #enterLayoutLocked(Object)} */
+    private static final ThreadLocal<LayoutLockCalls> layoutLockCalls = new ThreadLocal<LayoutLockCalls>(){
+    	@Override
+    	protected LayoutLockCalls initialValue(){
+    		return new LayoutLockCalls();
+    	}
+    };
+    
+    /** cache telling for each class whether it is marked with {@link LayoutLocked} */
+    private static final Map<Class<?>, Boolean> layoutLockedClasses = new WeakHashMap<Class<?>, Boolean>();
+    
     /**
      * Visits <code>dockable</code> and all its children.
      * @param dockable the first element to visit
@@ -710,11 +722,31 @@ public class DockUtilities {
     }
     
     /**
-     * Searches for a class or interface that is marked with {@link LayoutLocked} in the current
-     * callstack and prints a warning if found.
+     * Informs the framework that <code>listener</code> is about to be called. Until {@link #exitLayoutLocked()} is
+     * called, {@link #checkLayoutLocked()} knows that a listener of this type is active. Each call to this method must
+     * be followed by exactly one call to {@link #exitLayoutLocked()}, usually in a <code>finally</code> block. Calls
+     * are recorded even if the check is {@link #disableCheckLayoutLocked() disabled}.
+     * @param listener the listener that is going to be called, not <code>null</code>
+     */
+    public static void enterLayoutLocked( Object listener ){
+    	layoutLockCalls.get().push( listener.getClass() );
+    }
+    
+    /**
+     * Informs the framework that the call that was announced with {@link #enterLayoutLocked(Object)} has finished.
+     */
+    public static void exitLayoutLocked(){
+    	layoutLockCalls.get().pop();
+    }
+    
+    /**
+     * Checks whether the current thread is executing code of a class that is marked with {@link LayoutLocked}, and
+     * prints a warning if so. The innermost class on the call stack that is marked with {@link LayoutLocked} decides
+     * whether the layout is locked. The call stack is only searched if a listener that is marked as locked was
+     * announced with {@link #enterLayoutLocked(Object)}, otherwise this method returns immediately.
      */
     public static void checkLayoutLocked(){
-    	if( checkLayoutLock ){
+    	if( checkLayoutLock && layoutLockCalls.get().isLocked() ){
 	    	StackTraceElement[] elements = Thread.currentThread().getStackTrace();
 	    	Set<Class<?>> tested = new HashSet<Class<?>>();
 	    	
@@ -772,4 +804,97 @@ public class DockUtilities {
     	}
     	return false;
     }
+    
+    /**
+     * Tells whether <code>clazz</code> is marked with {@link LayoutLocked}. The result is cached.
+     * @param clazz the class to check
+     * @return the value of the {@link LayoutLocked} annotation or <code>null</code> if there is no annotation
+     */
+    private static Boolean isLayoutLocked( Class<?> clazz ){
+    	synchronized( layoutLockedClasses ){
+    		if( layoutLockedClasses.containsKey( clazz )){
+    			return layoutLockedClasses.get( clazz );
+    		}
+    		Class<?> annotated = findLayoutLocked( clazz, new HashSet<Class<?>>() );
+    		Boolean result = annotated == null ? null : Boolean.valueOf( annotated.getAnnotation( LayoutLocked.class ).locked() );
+    		layoutLockedClasses.put( clazz, result );
+    		return result;
+    	}
+    }
+    
+    /**
+     * Searches <code>clazz</code>, its superclasses and its interfaces for a type that is marked with {@link LayoutLocked}.
+     * @param clazz the class to check
+     * @param tested the types that were already checked
+     * @return the first type with the annotation, <code>null</code> if not found
+     */
+    private static Class<?> findLayoutLocked( Class<?> clazz, Set<Class<?>> tested ){
+    	if( clazz != null && tested.add( clazz )){
+    		if( clazz.getAnnotation( LayoutLocked.class ) != null ){
+    			return clazz;
+    		}
+    		
+    		Class<?> result = findLayoutLocked( clazz.getSuperclass(), tested );
+    		if( result != null ){
+    			return result;
+    		}
+    		for( Class<?> interfaze : clazz.getInterfaces() ){
+    			result = findLayoutLocked( interfaze, tested );
+    			if( result != null ){
+    				return result;
+    			}
+    		}
+    	}
+    	return null;
+    }
+    
+    /**
+     * The classes of the listeners that are currently executed by one thread.
+     * @author Benjamin Sigg
+     */
+    private static class LayoutLockCalls{
+    	/** the classes, the innermost call is at the end of the array */
+    	private Class<?>[] classes = new Class<?>[ 8 ];
+    	/** the number of valid entries in {@link #classes} */
+    	private int size = 0;
+    	/** for each entry of {@link #classes} whether it is marked as locked */
+    	private boolean[] locks = new boolean[ 8 ];
+    	/** how many of the entries in {@link #classes} are marked as locked */
+    	private int locked = 0;
+    	
+    	public void push( Class<?> clazz ){
+    		if( size == classes.length ){
+    			Class<?>[] temp = new Class<?>[ size * 2 ];
+    			System.arraycopy( classes, 0, temp, 0, size );
+    			classes = temp;
+    			boolean[] tempLocks = new boolean[ size * 2 ];
+    			System.arraycopy( locks, 0, tempLocks, 0, size );
+    			locks = tempLocks;
+    		}
+    		boolean lock = Boolean.TRUE.equals( isLayoutLocked( clazz ) );
+    		if( lock ){
+    			locked++;
+    		}
+    		locks[ size ] = lock;
+    		classes[ size++ ] = clazz;
+    	}
+    	
+    	public void pop(){
+    		if( size > 0 ){
+    			size--;
+    			if( locks[ size ] ){
+    				locked--;
+    			}
+    			classes[ size ] = null;
+    		}
+    	}
+    	
+    	/**
+    	 * Tells whether at least one of the active listeners is marked as locked.
+    	 * @return whether a locked listener is active
+    	 */
+    	public boolean isLocked(){
+    		return locked > 0;
+    	}
+    }
 }
@@ -25,13 +25,17 @@
  */
 package bibliothek.gui.dock.util;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -65,12 +69,33 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     /** all the listeners to the {@link #schemes} */
     private PriorityValue<UISchemeListener<V, U, B>> schemeListeners = new PriorityValue<UISchemeListener<V,U,B>>();
     
-    /** a list of all observers */
-    private List<Observer> observers = new LinkedList<Observer>();
+    /** all observers in the order they were added */
+    private Set<Observer> observers = new LinkedHashSet<Observer>();
+    
+    /** the observers grouped by the id of the resource they observe */
+    private Map<String, Set<Observer>> observersById = new HashMap<String, Set<Observer>>();
+    
+    /** the observers grouped by the kind of their bridge */
+    private Map<Path, Set<Observer>> observersByPath = new HashMap<Path, Set<Observer>>();
+    
+    /** the observers grouped by the {@link UIValue} they wrap */
+    private Map<U, List<Observer>> observersByValue = new IdentityHashMap<U, List<Observer>>();
+    
+    /** the number of observers that were ever created, used to keep the observers in order */
+    private long observerCount = 0;
     
     /** whether to stall updates or not */
     private int updateLock = 0;
     
+    /** the resources that changed while updates were stalled */
+    private Set<String> pendingResources = new HashSet<String>();
+    
+    /** the bridges that changed while updates were stalled */
+    private Set<Path> pendingBridges = new HashSet<Path>();
+    
+    /** whether all observers need to be updated once updates are no longer stalled */
+    private boolean pendingAll = false;
+    
     /** the owner of this properties map */
     private DockController controller;
     
@@ -99,17 +124,95 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     /**
-     * Tells this manager no longer to stall updates. This triggers a full
-     * update on all {@link UIValue}s.
+     * Tells this manager no longer to stall updates. This triggers one
+     * update on all {@link UIValue}s whose resource or bridge changed
+     * while updates were stalled.
      */
     public void unlockUpdate(){
         updateLock--;
         if( updateLock == 0 ){
-            for( Observer observer : observers )
-                observer.resetAll();
+        	List<Observer> affected;
+        	if( pendingAll ){
+        		affected = new ArrayList<Observer>( observers );
+        	}
+        	else{
+        		Set<Observer> collected = new HashSet<Observer>();
+        		for( String id : pendingResources ){
+        			Set<Observer> set = observersById.get( id );
+        			if( set != null ){
+        				collected.addAll( set );
+        			}
+        		}
+        		for( Path path : pendingBridges ){
+        			collectObservers( path, collected );
+        		}
+        		affected = sort( collected );
+        	}
+        	
+        	pendingAll = false;
+        	pendingResources.clear();
+        	pendingBridges.clear();
+        	
+        	for( Observer observer : affected ){
+        		if( observer.isAlive() ){
+        			observer.resetAll();
+        		}
+        	}
         }
     }
     
+    /**
+     * Collects all the observers whose bridge is affected if the bridge at <code>path</code>
+     * changes. These are all the observers whose kind starts with <code>path</code>.
+     * @param path the kind of a bridge
+     * @param result the collection to fill
+     */
+    private void collectObservers( Path path, Collection<Observer> result ){
+    	for( Map.Entry<Path, Set<Observer>> entry : observersByPath.entrySet() ){
+    		if( entry.getKey().startsWith( path )){
+    			result.addAll( entry.getValue() );
+    		}
+    	}
+    }
+    
+    /**
+     * Orders <code>observers</code> by the time they were added to this map.
+     * @param observers the observers to order
+     * @return the ordered list
+     */
+    private List<Observer> sort( Collection<Observer> observers ){
+    	List<Observer> result = new ArrayList<Observer>( observers );
+    	Collections.sort( result, new Comparator<Observer>(){
+    		public int compare( Observer a, Observer b ){
+    			return a.index < b.index ? -1 : (a.index == b.index ? 0 : 1);
+    		}
+		});
+    	return result;
+    }
+    
+    /**
+     * Calls {@link Observer#resetBridge()} on all observers whose bridge may be affected
+     * by a change of the bridges at <code>paths</code>. If updates are stalled, then
+     * the paths are remembered for later.
+     * @param paths the kinds of bridges that changed
+     */
+    private void bridgesChanged( Collection<Path> paths ){
+    	if( updateLock == 0 ){
+    		Set<Observer> collected = new HashSet<Observer>();
+    		for( Path path : paths ){
+    			collectObservers( path, collected );
+    		}
+    		for( Observer observer : sort( collected )){
+    			if( observer.isAlive() ){
+    				observer.resetBridge();
+    			}
+    		}
+    	}
+    	else{
+    		pendingBridges.addAll( paths );
+    	}
+    }
+    
     /**
      * Gets the {@link UIScheme} that is used to fill up missing values in
      * the level <code>priority</code>.
@@ -207,6 +310,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     		
     		UIScheme<V, U, B> scheme = schemes.get( priority );
     		
+    		pendingResources.addAll( changedResources );
+    		pendingBridges.addAll( changedBridges );
+    		
     		// resources
     		for( String name : changedResources ){
     			UIPriorityValue<V> value = resources.get( name );
@@ -277,19 +383,11 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
     }
     
     private Set<String> getAllUsedResources(){
-    	Set<String> result = new HashSet<String>();
-    	for( Observer observer : observers ){
-    		result.add( observer.id );
-    	}
-    	return result;
+    	return new HashSet<String>( observersById.keySet() );
     }
     
     private Set<Path> getAllUsedBridges(){
-    	Set<Path> result = new HashSet<Path>();
-    	for( Observer observer : observers ){
-    		result.add( observer.path );
-    	}
-    	return result;
+    	return new HashSet<Path>( observersByPath.keySet() );
     }
     
     /**
@@ -314,11 +412,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
         
         if( value.set( priority, bridge, null )){
-            if( updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
-            }
+        	bridgesChanged( Collections.singleton( path ) );
         }
     }
     
@@ -345,10 +439,8 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
                 bridges.remove( path );
             }
             
-            if( change && updateLock == 0 ){
-                for( Observer check : observers ){
-                    check.resetBridge();
-                }
+            if( change ){
+            	bridgesChanged( Collections.singleton( path ) );
             }   
         }
     }
@@ -363,7 +455,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      */
     public void unpublish( Priority priority, B bridge ){
         Iterator<Map.Entry<Path, UIPriorityValue<B>>> iterator = bridges.entrySet().iterator();
-        boolean change = false;
+        List<Path> changed = new LinkedList<Path>();
         
         UIScheme<V, U, B> scheme = schemes.get( priority );
         
@@ -378,7 +470,9 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             			replacement = scheme.getBridge( entry.getKey(), this );
             		}
             		
-	                change = next.set( priority, replacement, scheme ) || change;
+	                if( next.set( priority, replacement, scheme )){
+	                	changed.add( entry.getKey() );
+	                }
 	                if( isRemoveable( entry.getKey(), next ) ){
 	                    iterator.remove();
 	                }
@@ -386,10 +480,8 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             }
         }
         
-        if( change && updateLock == 0 ){
-            for( Observer check : observers ){
-                check.resetBridge();
-            }
+        if( !changed.isEmpty() ){
+        	bridgesChanged( changed );
         }
     }
     
@@ -480,6 +572,16 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         
         Observer combination = new Observer( id, path, value );
         observers.add( combination );
+        index( observersById, id, combination );
+        index( observersByPath, path, combination );
+        
+        List<Observer> list = observersByValue.get( value );
+        if( list == null ){
+        	list = new LinkedList<Observer>();
+        	observersByValue.put( value, list );
+        }
+        list.add( combination );
+        
         combination.resetAll();
     }
     
@@ -488,15 +590,36 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
      * @param value the observer to remove
      */
     public void remove( U value ){
-        ListIterator<Observer> list = observers.listIterator();
-        while( list.hasNext() ){
-            Observer next = list.next();
-            if( next.getValue() == value ){
-                list.remove();
-                next.destroy();
-                return;
-            }
-        }
+    	List<Observer> list = observersByValue.get( value );
+    	if( list != null ){
+    		Observer next = list.remove( 0 );
+    		if( list.isEmpty() ){
+    			observersByValue.remove( value );
+    		}
+    		observers.remove( next );
+    		unindex( observersById, next.id, next );
+    		unindex( observersByPath, next.path, next );
+    		next.destroy();
+    	}
+    }
+    
+    private <K> void index( Map<K, Set<Observer>> map, K key, Observer observer ){
+    	Set<Observer> set = map.get( key );
+    	if( set == null ){
+    		set = new LinkedHashSet<Observer>();
+    		map.put( key, set );
+    	}
+    	set.add( observer );
+    }
+    
+    private <K> void unindex( Map<K, Set<Observer>> map, K key, Observer observer ){
+    	Set<Observer> set = map.get( key );
+    	if( set != null ){
+    		set.remove( observer );
+    		if( set.isEmpty() ){
+    			map.remove( key );
+    		}
+    	}
     }
     
     /**
@@ -582,11 +705,18 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         	
 	        if( value.set( priority, resource, scheme ) ){
 	            if( updateLock == 0 ){
-	                for( Observer observer : observers ){
-	                    if( observer.id.equals( id )){
-	                        observer.update( resource );
-	                    }
-	                }
+	            	Set<Observer> set = observersById.get( id );
+	            	if( set != null ){
+	            		V current = value.getValue();
+	            		for( Observer observer : new ArrayList<Observer>( set )){
+	            			if( observer.isAlive() ){
+	            				observer.update( current );
+	            			}
+	            		}
+	            	}
+	            }
+	            else{
+	            	pendingResources.add( id );
 	            }
 	        }
 	        
@@ -675,10 +805,15 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         }
         
         if( updateLock == 0 ){
-            for( Observer observer : observers ){
-                observer.resetAll();
+            for( Observer observer : new ArrayList<Observer>( observers ) ){
+            	if( observer.isAlive() ){
+            		observer.resetAll();
+            	}
             }
         }
+        else{
+        	pendingAll = true;
+        }
     }
     
     /**
@@ -738,6 +873,10 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
         private U value;
         /** a bridge for modified resources */
         private B bridge;
+        /** tells when this observer was added, smaller values were added earlier */
+        private final long index = observerCount++;
+        /** whether this observer is still registered */
+        private boolean alive = true;
         
         /**
          * Creates a new observer
@@ -773,6 +912,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
          * Tells this observer to release resources.
          */
         public void destroy(){
+        	alive = false;
         	setBridge( null, false );
         	
         	Integer count = bridgesAccess.get( path );
@@ -794,6 +934,14 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
             }
         }
         
+        /**
+         * Tells whether this observer is still registered.
+         * @return <code>true</code> unless {@link #destroy()} was called
+         */
+        public boolean isAlive(){
+        	return alive;
+        }
+        
         /**
          * Gets the listener for changed resources.
          * @return the listener
@@ -806,11 +954,7 @@ public class UIProperties<V, U extends UIValue<V>, B extends UIBridge<V, U>> {
          * Updates resource and bridge of this <code>Observer</code>.
          */
         public void resetAll(){
-            B bridge = getBridgeFor( path );
-            if( bridge == null )
-                update( get( id ));
-            else
-                setBridge( bridge, true );
+            setBridge( getBridgeFor( path ), true );
         }
         
         /**
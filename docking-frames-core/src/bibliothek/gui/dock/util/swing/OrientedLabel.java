@@ -68,10 +68,12 @@ public class OrientedLabel extends ConfiguredBackgroundPanel{
      * @param icon the icon, can be <code>null</code>
      */
     public void setIcon( Icon icon ){
-		this.icon = icon;
-		disabledIcon = null;
-		revalidate();
-		repaint();
+    	if( this.icon != icon ){
+			this.icon = icon;
+			disabledIcon = null;
+			revalidate();
+			repaint();
+    	}
 	}
     
     /**
@@ -183,10 +185,12 @@ public class OrientedLabel extends ConfiguredBackgroundPanel{
      * @param text the text, <code>null</code> is allowed
      */
     public void setText( String text ){
-        this.text = text;
-        label.setText( (text == null || text.length() == 0) ? null : text );
-        revalidate();
-        repaint();
+    	if( text == null ? this.text != null : !text.equals( this.text )){
+	        this.text = text;
+	        label.setText( (text == null || text.length() == 0) ? null : text );
+	        revalidate();
+	        repaint();
+    	}
     }
     
     /**
@@ -553,18 +553,25 @@ public class XElement extends XContainer implements Iterable<XElement>{
     
     @Override
     public void setString( String s ) {
+        super.setString( wrapString( s ) );
+    }
+    
+    /**
+     * Encodes <code>s</code> such that leading and trailing whitespaces survive a 
+     * round trip through a file, {@link #getString()} reverses the encoding.
+     * @param s the string to encode
+     * @return the encoded string
+     */
+    static String wrapString( String s ){
         if( s.length() == 0 )
-            s = "[]";
-        else{
-            if( Character.isWhitespace( s.charAt( 0 ) ) || Character.isWhitespace( s.charAt( s.length()-1 ) )){
-                s = "[" + s + "]";
-            }
-            else if( s.charAt( 0 ) == '[' && s.charAt( s.length()-1 ) == ']' ){
-                s = "[" + s + "]";
-            }
+            return "[]";
+        if( Character.isWhitespace( s.charAt( 0 ) ) || Character.isWhitespace( s.charAt( s.length()-1 ) )){
+            return "[" + s + "]";
         }
-        
-        super.setString( s );
+        if( s.charAt( 0 ) == '[' && s.charAt( s.length()-1 ) == ']' ){
+            return "[" + s + "]";
+        }
+        return s;
     }
     
     @Override
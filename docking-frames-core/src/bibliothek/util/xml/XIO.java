@@ -40,7 +40,10 @@ import org.xml.sax.helpers.DefaultHandler;
 /**
  * Class used to read and write xml-files. Clients should use
  * {@link #writeUTF(XElement, OutputStream)} and {@link #readUTF(InputStream)} to
- * guarantee maximal independence from the underlying file system.
+ * guarantee maximal independence from the underlying file system. Large files
+ * can be read step by step using a {@link XReader}, see {@link #readerUTF(InputStream)}, and
+ * written without building up a tree of {@link XElement}s using a {@link XWriter}, see
+ * {@link #writerUTF(OutputStream)}.
  * @author Benjamin Sigg
  */
 public class XIO {
@@ -51,8 +54,7 @@ public class XIO {
      * @throws IOException if an I/O-error occurs
      */
     public static void write( XElement element, Appendable out ) throws IOException{
-        out.append( "<?xml version='1.0'?>\n" );
-        write( element, 0, out );
+        new XWriter( out ).element( element );
     }
     
     /**
@@ -83,6 +85,36 @@ public class XIO {
         write( element, writer );
         writer.flush();
     }
+    
+    /**
+     * Creates a {@link XWriter} which writes into <code>out</code> using the <code>UTF-8</code>
+     * encoding. Other than {@link #writeUTF(XElement, OutputStream)} the file does not have to be
+     * built up in memory as a tree of {@link XElement}s. Closing the writer does not close <code>out</code>.
+     * @param out the stream to write into
+     * @return the new writer, the xml declaration is already written
+     * @throws IOException if an I/O-error occurs
+     */
+    public static XWriter writerUTF( OutputStream out ) throws IOException{
+        return writer( out, "UTF-8" );
+    }
+    
+    /**
+     * Creates a {@link XWriter} which writes into <code>out</code> using <code>encoding</code>.
+     * Closing the writer does not close <code>out</code>.
+     * @param out the stream to write into
+     * @param encoding the encoding for the characters
+     * @return the new writer, the xml declaration is already written
+     * @throws IOException if an I/O-error occurs
+     */
+    public static XWriter writer( OutputStream out, String encoding ) throws IOException{
+        OutputStreamWriter writer = new OutputStreamWriter( out, encoding ){
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        return new XWriter( writer );
+    }
 
     /**
      * Reads a xml file provided from <code>in</code> using <code>UTF-8</code>
@@ -115,91 +147,6 @@ public class XIO {
     }
 
     
-    /**
-     * Writes the contents of <code>element</code> into <code>out</code>.
-     * @param element the element to write
-     * @param tabs the number of tabs before the element
-     * @param out the stream to write into
-     * @throws IOException if an I/O-error occurs
-     */
-    private static void write( XElement element, int tabs, Appendable out ) throws IOException{
-        for( int i = 0; i < tabs; i++ )
-            out.append( "\t" );
-        
-        out.append( "<" );
-        out.append( element.getName() );
-        for( XAttribute attribute : element.attributes() ){
-            out.append( " " );
-            out.append( attribute.getName() );
-            out.append( "=\"" );
-            encode( attribute.getString(), out );
-            out.append( "\"" );
-        }
-        String value = element.getValue();
-        XElement[] children = element.children();
-        
-        if( value.length() == 0 && children.length == 0 ){
-            out.append( "/>" );
-        }
-        else{
-            out.append( ">" );
-            if( value.length() > 0 ){
-                if( children.length > 0 ){
-                    out.append( "\n\t" );
-                    for( int i = 0; i < tabs; i++ )
-                        out.append( "\t" );
-                }
-                    
-                encode( value, out );
-            }
-            if( children.length > 0 ){
-                out.append( "\n" );
-                for( XElement child : children ){
-                    write( child, tabs+1, out );
-                    out.append( "\n" );
-                }
-                
-                for( int i = 0; i < tabs; i++ )
-                    out.append( "\t" );
-            }
-            
-            out.append( "</" );
-            out.append( element.getName() );
-            out.append( ">" );
-        }
-    }
-    
-    /**
-     * Encodes <code>value</code> such that it is a valid string in a xml-file.
-     * @param value the value to encode
-     * @param out the stream to write into
-     */
-    private static void encode( String value, Appendable out ) throws IOException{
-        for( int i = 0, n = value.length(); i<n; i++ ){
-            char c = value.charAt( i );
-            switch( c ){
-                case '<':
-                    out.append( "&lt;" );
-                    break;
-                case '>':
-                    out.append( "&gt;" );
-                    break;
-                case '\'':
-                    out.append( "&apos;" );
-                    break;
-                case '"':
-                    out.append( "&quot;" );
-                    break;
-                case '&':
-                    out.append( "&amp;" );
-                    break;
-                default:
-                    out.append( c );
-                    break;
-            }
-        }
-    }
-    
     /**
      * Interprets <code>text</code> as a xml-file and reads it.
      * @param text the content to read, in xml format
@@ -244,6 +191,90 @@ public class XIO {
         return read( new InputSource( reader ));
     }
     
+    /**
+     * Creates a {@link XReader} which reads the xml file provided from <code>in</code>
+     * using <code>UTF-8</code> as encoding. Other than {@link #readUTF(InputStream)} the
+     * file is not read into memory at once.
+     * @param in the stream to read from
+     * @return the new reader, pointing to the root element
+     * @throws IOException if an I/O-error occurs
+     */
+    public static XReader readerUTF( InputStream in ) throws IOException{
+        return reader( in, "UTF-8" );
+    }
+    
+    /**
+     * Creates a {@link XReader} which reads the xml file provided from <code>in</code>
+     * using <code>encoding</code> as encoding.
+     * @param in the stream to read from
+     * @param encoding the encoding used to decode characters
+     * @return the new reader, pointing to the root element
+     * @throws IOException if an I/O-error occurs
+     */
+    public static XReader reader( InputStream in, String encoding ) throws IOException{
+        return reader( new InputStreamReader( in, encoding ) );
+    }
+    
+    /**
+     * Creates a {@link XReader} which reads the xml file provided from <code>reader</code>.
+     * @param reader the reader from which characters will be read
+     * @return the new reader, pointing to the root element
+     * @throws IOException if an I/O-error occurs
+     */
+    public static XReader reader( Reader reader ) throws IOException{
+        return new XReader( reader );
+    }
+
+    /**
+     * Tells whether the streaming variant of a method, working with a {@link XReader} or a {@link XWriter}, can
+     * be used instead of the variant working with {@link XElement}s. Classes offering both variants call this
+     * method to find out whether a subclass overrides only the {@link XElement} variant, in which case the
+     * streaming variant would ignore that subclass and must not be used.
+     * @param type the class whose methods are checked
+     * @param name the name of both variants of the method
+     * @param elementParameters the parameters of the variant working with {@link XElement}s
+     * @param streamingParameters the parameters of the streaming variant
+     * @return <code>true</code> if the streaming variant is declared in the same class as the
+     * {@link XElement} variant, or in a subclass of that class
+     */
+    public static boolean isStreamingSupported( Class<?> type, String name, Class<?>[] elementParameters, Class<?>[] streamingParameters ){
+        try{
+            Class<?> element = getDeclaringClass( type, name, elementParameters );
+            if( element == null ){
+                return true;
+            }
+            Class<?> streaming = getDeclaringClass( type, name, streamingParameters );
+            if( streaming == null ){
+                return false;
+            }
+            return element.isAssignableFrom( streaming );
+        }
+        catch( SecurityException e ){
+            // without knowing the subclasses, only the XElement variant is safe
+            return false;
+        }
+    }
+
+    /**
+     * Searches the first class in the hierarchy of <code>type</code> that declares a method.
+     * @param type the first class to search
+     * @param name the name of the method
+     * @param parameters the parameters of the method
+     * @return the declaring class or <code>null</code> if not found
+     */
+    private static Class<?> getDeclaringClass( Class<?> type, String name, Class<?>[] parameters ){
+        while( type != null ){
+            try{
+                type.getDeclaredMethod( name, parameters );
+                return type;
+            }
+            catch( NoSuchMethodException e ){
+                type = type.getSuperclass();
+            }
+        }
+        return null;
+    }
+
     /**
      * A handler used to read from a {@link SAXParser}.
      * @author Benjamin Sigg
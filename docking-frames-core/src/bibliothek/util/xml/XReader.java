@@ -0,0 +1,250 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ *
+ * Copyright (C) 2007 Benjamin Sigg
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ *
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A pull based reader for xml-files. Other than {@link XIO#read(Reader)} this reader does not
+ * build up the whole tree of {@link XElement}s, instead the client walks through the file
+ * element by element and decides which subtrees to {@link #readElement() materialize} and
+ * which to {@link #skipElement() skip}. Only the elements that are currently materialized
+ * occupy memory.<br>
+ * The reader always points to a <i>current element</i>. Initially that is the root element of the
+ * file. Each time {@link #nextChild()} returns <code>true</code> the current element is a new child, and
+ * the client must either call {@link #readElement()}, {@link #skipElement()} or call {@link #nextChild()}
+ * until it returns <code>false</code> before moving to the next sibling.<br>
+ * Text content of elements that are not materialized is ignored.
+ * @author Benjamin Sigg
+ */
+public class XReader implements Closeable{
+    /** the stream that is read */
+    private XMLStreamReader reader;
+
+    /**
+     * Creates a new reader. The new reader immediately points to the root
+     * element of <code>in</code>.
+     * @param in the source of characters
+     * @throws IOException if the stream cannot be read or does not contain any element
+     */
+    public XReader( Reader in ) throws IOException{
+        try{
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            reader = factory.createXMLStreamReader( in );
+            while( reader.getEventType() != XMLStreamConstants.START_ELEMENT ){
+                if( !reader.hasNext() ){
+                    throw new IOException( "no root element found" );
+                }
+                reader.next();
+            }
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+
+    /**
+     * Gets the name of the current element.
+     * @return the name of the element
+     * @throws IllegalStateException if the current element was already consumed
+     */
+    public String getName(){
+        ensureStart();
+        return name( reader.getPrefix(), reader.getLocalName() );
+    }
+
+    /**
+     * Gets the value of an attribute of the current element.
+     * @param name the name of the attribute
+     * @return the value of the attribute or <code>null</code> if not present
+     * @throws IllegalStateException if the current element was already consumed
+     */
+    public String getAttribute( String name ){
+        ensureStart();
+        for( int i = 0, n = reader.getAttributeCount(); i<n; i++ ){
+            if( name.equals( name( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i ) ))){
+                return reader.getAttributeValue( i );
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value of an attribute of the current element.
+     * @param name the name of the attribute
+     * @return the value of the attribute
+     * @throws XException if the attribute does not exist
+     * @see #getAttribute(String)
+     */
+    public String getString( String name ){
+        String value = getAttribute( name );
+        if( value == null )
+            throw new XException( "no attribute known with name: " + name );
+        return value;
+    }
+
+    /**
+     * Gets the value of an attribute of the current element as boolean.
+     * @param name the name of the attribute
+     * @return the value of the attribute
+     * @throws XException if the attribute does not exist
+     * @see #getAttribute(String)
+     */
+    public boolean getBoolean( String name ){
+        return Boolean.parseBoolean( getString( name ) );
+    }
+
+    /**
+     * Moves to the next child of the current element. If there is no child left,
+     * then the end of the current element is consumed and this method returns <code>false</code>.
+     * Afterwards the parent of the old current element is the current element again.
+     * @return <code>true</code> if a new child was found, <code>false</code> if the end of
+     * the current element was reached
+     * @throws IOException if the stream cannot be read
+     */
+    public boolean nextChild() throws IOException{
+        try{
+            while( reader.hasNext() ){
+                switch( reader.next() ){
+                    case XMLStreamConstants.START_ELEMENT:
+                        return true;
+                    case XMLStreamConstants.END_ELEMENT:
+                        return false;
+                }
+            }
+            return false;
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+
+    /**
+     * Reads the current element and all its children into a new {@link XElement}.
+     * Afterwards the parent of the current element is the current element again.
+     * @return the element that was read
+     * @throws IOException if the stream cannot be read
+     */
+    public XElement readElement() throws IOException{
+        ensureStart();
+        try{
+            return read();
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+
+    /**
+     * Skips the current element and all its children without storing them.
+     * Afterwards the parent of the current element is the current element again.
+     * @throws IOException if the stream cannot be read
+     */
+    public void skipElement() throws IOException{
+        ensureStart();
+        try{
+            int depth = 1;
+            while( depth > 0 ){
+                switch( reader.next() ){
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        break;
+                }
+            }
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+
+    public void close() throws IOException{
+        try{
+            reader.close();
+        }
+        catch( XMLStreamException e ){
+            throw new IOException( e.getMessage() );
+        }
+    }
+
+    /**
+     * Reads the element the stream currently points to.
+     * @return the new element
+     * @throws XMLStreamException if the stream cannot be read
+     */
+    private XElement read() throws XMLStreamException{
+        XElement element = new XElement( name( reader.getPrefix(), reader.getLocalName() ) );
+        for( int i = 0, n = reader.getAttributeCount(); i<n; i++ ){
+            XAttribute attr = new XAttribute( name( reader.getAttributePrefix( i ), reader.getAttributeLocalName( i ) ));
+            attr.setString( reader.getAttributeValue( i ));
+            element.addAttribute( attr );
+        }
+
+        StringBuilder value = null;
+        while( true ){
+            switch( reader.next() ){
+                case XMLStreamConstants.START_ELEMENT:
+                    element.addElement( read() );
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if( value == null ){
+                        value = new StringBuilder();
+                    }
+                    value.append( reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength() );
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if( value != null ){
+                        element.setValue( value.toString().trim() );
+                    }
+                    return element;
+            }
+        }
+    }
+
+    private void ensureStart(){
+        if( reader.getEventType() != XMLStreamConstants.START_ELEMENT ){
+            throw new IllegalStateException( "the current element was already consumed" );
+        }
+    }
+
+    private static String name( String prefix, String localName ){
+        if( prefix == null || prefix.length() == 0 ){
+            return localName;
+        }
+        return prefix + ":" + localName;
+    }
+}
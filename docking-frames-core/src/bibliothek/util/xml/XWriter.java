@@ -0,0 +1,439 @@
+/*
+ * Bibliothek - DockingFrames
+ * Library built on Java/Swing, allows the user to "drag and drop"
+ * panels containing any Swing-Component the developer likes to add.
+ * 
+ * Copyright (C) 2012 Benjamin Sigg
+ * 
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 2.1 of the License, or (at your option) any later version.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ * 
+ * Benjamin Sigg
+ * benjamin_sigg@gmx.ch
+ * CH - Switzerland
+ */
+package bibliothek.util.xml;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * A push based writer for xml-files. Other than {@link XIO#write(XElement, Appendable)} this
+ * writer does not need a tree of {@link XElement}s, instead the client calls {@link #startElement(String)},
+ * adds attributes and a value to the new element, writes the children and finally calls
+ * {@link #endElement()}. Everything is written directly into the underlying stream, only the names of
+ * the currently open elements are stored.<br>
+ * The output of this writer is the same as the output of {@link XIO#write(XElement, Appendable)}, and
+ * can be read by {@link XIO#read(java.io.Reader)} or by a {@link XReader}. Since the value of an
+ * element is written before its children, the value must be set before the first child is started.
+ * @author Benjamin Sigg
+ */
+public class XWriter implements Closeable, Flushable{
+    /** the stream to write into */
+    private Appendable out;
+    
+    /** the names of the open elements */
+    private String[] names = new String[ 16 ];
+    /** the values of the open elements that were not yet written */
+    private String[] values = new String[ 16 ];
+    /** whether the open elements already have children */
+    private boolean[] children = new boolean[ 16 ];
+    /** the number of open elements */
+    private int depth = 0;
+    
+    /** whether the start tag of the innermost element is not yet closed, and attributes can be written */
+    private boolean open = false;
+    /** whether the root element was already written */
+    private boolean finished = false;
+    
+    /**
+     * Creates a new writer and writes the xml declaration into <code>out</code>.
+     * @param out the stream to write into
+     * @throws IOException if <code>out</code> cannot be written
+     * @see XIO#writerUTF(java.io.OutputStream)
+     */
+    public XWriter( Appendable out ) throws IOException{
+        if( out == null ){
+            throw new IllegalArgumentException( "out must not be null" );
+        }
+        this.out = out;
+        out.append( "<?xml version='1.0'?>\n" );
+    }
+    
+    /**
+     * Starts a new element. If there is an open element, the new element becomes its child. The
+     * new element remains open until {@link #endElement()} is called.
+     * @param name the name of the new element
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalStateException if the root element was already closed
+     */
+    public XWriter startElement( String name ) throws IOException{
+        if( name == null ){
+            throw new IllegalArgumentException( "name must not be null" );
+        }
+        if( depth == 0 ){
+            if( finished ){
+                throw new IllegalStateException( "the root element was already written" );
+            }
+        }
+        else{
+            int parent = depth-1;
+            closeStart();
+            if( !children[ parent ] ){
+                children[ parent ] = true;
+                String value = values[ parent ];
+                if( value != null && value.length() > 0 ){
+                    out.append( "\n" );
+                    indent( depth );
+                    encode( value );
+                }
+                values[ parent ] = null;
+            }
+            out.append( "\n" );
+        }
+        
+        if( depth == names.length ){
+            grow();
+        }
+        indent( depth );
+        out.append( "<" );
+        out.append( name );
+        
+        names[ depth ] = name;
+        values[ depth ] = null;
+        children[ depth ] = false;
+        depth++;
+        open = true;
+        return this;
+    }
+    
+    /**
+     * Writes an attribute of the element that was started last.
+     * @param name the name of the attribute
+     * @param value the value of the attribute
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalStateException if the element already has children or no element is open
+     */
+    public XWriter attribute( String name, String value ) throws IOException{
+        if( !open ){
+            throw new IllegalStateException( "attributes can only be written before the first child of an element" );
+        }
+        if( value == null ){
+            throw new IllegalArgumentException( "value must not be null" );
+        }
+        out.append( " " );
+        out.append( name );
+        out.append( "=\"" );
+        encode( value );
+        out.append( "\"" );
+        return this;
+    }
+    
+    /**
+     * Writes an attribute of the element that was started last.
+     * @param name the name of the attribute
+     * @param value the value of the attribute
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @see #attribute(String, String)
+     */
+    public XWriter attribute( String name, int value ) throws IOException{
+        return attribute( name, String.valueOf( value ) );
+    }
+    
+    /**
+     * Writes an attribute of the element that was started last.
+     * @param name the name of the attribute
+     * @param value the value of the attribute
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @see #attribute(String, String)
+     */
+    public XWriter attribute( String name, long value ) throws IOException{
+        return attribute( name, String.valueOf( value ) );
+    }
+    
+    /**
+     * Writes an attribute of the element that was started last.
+     * @param name the name of the attribute
+     * @param value the value of the attribute
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @see #attribute(String, String)
+     */
+    public XWriter attribute( String name, double value ) throws IOException{
+        return attribute( name, String.valueOf( value ) );
+    }
+    
+    /**
+     * Writes an attribute of the element that was started last.
+     * @param name the name of the attribute
+     * @param value the value of the attribute
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @see #attribute(String, String)
+     */
+    public XWriter attribute( String name, boolean value ) throws IOException{
+        return attribute( name, String.valueOf( value ) );
+    }
+    
+    /**
+     * Sets the value of the element that was started last. The value is encoded like
+     * {@link XElement#setString(String)} does, hence it can be read by {@link XElement#getString()}.
+     * @param value the new value
+     * @return <code>this</code>
+     * @throws IllegalStateException if the element already has children or no element is open
+     */
+    public XWriter value( String value ){
+        if( value == null ){
+            throw new IllegalArgumentException( "value must not be null" );
+        }
+        return rawValue( XElement.wrapString( value ) );
+    }
+    
+    /**
+     * Sets the value of the element that was started last.
+     * @param value the new value
+     * @return <code>this</code>
+     * @see #value(String)
+     */
+    public XWriter value( int value ){
+        return rawValue( String.valueOf( value ) );
+    }
+    
+    /**
+     * Sets the value of the element that was started last.
+     * @param value the new value
+     * @return <code>this</code>
+     * @see #value(String)
+     */
+    public XWriter value( long value ){
+        return rawValue( String.valueOf( value ) );
+    }
+    
+    /**
+     * Sets the value of the element that was started last.
+     * @param value the new value
+     * @return <code>this</code>
+     * @see #value(String)
+     */
+    public XWriter value( double value ){
+        return rawValue( String.valueOf( value ) );
+    }
+    
+    /**
+     * Sets the value of the element that was started last.
+     * @param value the new value
+     * @return <code>this</code>
+     * @see #value(String)
+     */
+    public XWriter value( boolean value ){
+        return rawValue( String.valueOf( value ) );
+    }
+    
+    private XWriter rawValue( String value ){
+        if( depth == 0 || children[ depth-1 ] ){
+            throw new IllegalStateException( "the value must be set before the first child of an element" );
+        }
+        values[ depth-1 ] = value;
+        return this;
+    }
+    
+    /**
+     * Closes the element that was started last.
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalStateException if there is no open element
+     */
+    public XWriter endElement() throws IOException{
+        if( depth == 0 ){
+            throw new IllegalStateException( "there is no open element" );
+        }
+        depth--;
+        String name = names[ depth ];
+        String value = values[ depth ];
+        names[ depth ] = null;
+        values[ depth ] = null;
+        
+        if( children[ depth ] ){
+            out.append( "\n" );
+            indent( depth );
+            out.append( "</" );
+            out.append( name );
+            out.append( ">" );
+        }
+        else if( value != null && value.length() > 0 ){
+            out.append( ">" );
+            encode( value );
+            out.append( "</" );
+            out.append( name );
+            out.append( ">" );
+        }
+        else{
+            out.append( "/>" );
+        }
+        open = false;
+        
+        if( depth == 0 ){
+            finished = true;
+        }
+        return this;
+    }
+    
+    /**
+     * Writes <code>element</code> and all its children as child of the currently open element,
+     * or as root element if no element is open.
+     * @param element the element to write
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     */
+    public XWriter element( XElement element ) throws IOException{
+        startElement( element.getName() );
+        for( XAttribute attribute : element.attributes() ){
+            attribute( attribute.getName(), attribute.getString() );
+        }
+        rawValue( element.getValue() );
+        for( XElement child : element.children() ){
+            element( child );
+        }
+        return endElement();
+    }
+    
+    /**
+     * Writes the attributes, the value and the children of <code>element</code> into the currently
+     * open element. The name of <code>element</code> is ignored. This method can be used to copy an
+     * element that was created by code that does not support a {@link XWriter}.
+     * @param element the element whose content is written
+     * @return <code>this</code>
+     * @throws IOException if the stream cannot be written
+     */
+    public XWriter contents( XElement element ) throws IOException{
+        for( XAttribute attribute : element.attributes() ){
+            attribute( attribute.getName(), attribute.getString() );
+        }
+        String value = element.getValue();
+        if( value != null && value.length() > 0 ){
+            rawValue( value );
+        }
+        for( XElement child : element.children() ){
+            element( child );
+        }
+        return this;
+    }
+    
+    /**
+     * Tells whether the root element was written completely.
+     * @return <code>true</code> if the root element was closed
+     */
+    public boolean isFinished(){
+        return finished;
+    }
+    
+    /**
+     * Flushes the underlying stream, if the stream is {@link Flushable}.
+     * @throws IOException if the stream cannot be flushed
+     */
+    public void flush() throws IOException{
+        if( out instanceof Flushable ){
+            ((Flushable)out).flush();
+        }
+    }
+    
+    /**
+     * Flushes and closes the underlying stream, if the stream is {@link Closeable}.
+     * @throws IOException if the stream cannot be closed
+     * @throws IllegalStateException if there are still open elements
+     */
+    public void close() throws IOException{
+        if( depth > 0 ){
+            throw new IllegalStateException( "there are still " + depth + " open elements" );
+        }
+        flush();
+        if( out instanceof Closeable ){
+            ((Closeable)out).close();
+        }
+    }
+    
+    private void closeStart() throws IOException{
+        if( open ){
+            out.append( ">" );
+            open = false;
+        }
+    }
+    
+    private void indent( int tabs ) throws IOException{
+        for( int i = 0; i < tabs; i++ ){
+            out.append( '\t' );
+        }
+    }
+    
+    private void grow(){
+        int length = names.length * 2;
+        String[] newNames = new String[ length ];
+        String[] newValues = new String[ length ];
+        boolean[] newChildren = new boolean[ length ];
+        System.arraycopy( names, 0, newNames, 0, depth );
+        System.arraycopy( values, 0, newValues, 0, depth );
+        System.arraycopy( children, 0, newChildren, 0, depth );
+        names = newNames;
+        values = newValues;
+        children = newChildren;
+    }
+    
+    /**
+     * Encodes <code>value</code> such that it is a valid string in a xml-file. Characters that
+     * do not need to be escaped are written in chunks.
+     * @param value the value to encode
+     * @throws IOException if the stream cannot be written
+     */
+    private void encode( String value ) throws IOException{
+        int start = 0;
+        for( int i = 0, n = value.length(); i<n; i++ ){
+            String replacement;
+            switch( value.charAt( i ) ){
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '\'':
+                    replacement = "&apos;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                default:
+                    continue;
+            }
+            if( start < i ){
+                out.append( value, start, i );
+            }
+            out.append( replacement );
+            start = i+1;
+        }
+        if( start == 0 ){
+            out.append( value );
+        }
+        else if( start < value.length() ){
+            out.append( value, start, value.length() );
+        }
+    }
+}
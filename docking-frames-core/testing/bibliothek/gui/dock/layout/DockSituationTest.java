@@ -0,0 +1,150 @@
+package bibliothek.gui.dock.layout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bibliothek.gui.DockController;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.dockable.DefaultDockableFactory;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+import bibliothek.gui.dock.station.split.SplitDockStationFactory;
+import bibliothek.gui.dock.station.stack.StackDockStationFactory;
+import bibliothek.util.Version;
+import bibliothek.util.xml.XElement;
+
+/**
+ * Checks that the compact binary format written by a {@link DockSituation} can be read again, that
+ * the old format can still be read, and that data of missing factories survives the compact format.
+ */
+public class DockSituationTest {
+	@Test
+	public void compactRoundTrip() throws IOException{
+		DockController controller = new DockController();
+		try{
+			DockLayoutComposition composition = createLayout( controller );
+			DockSituation situation = createSituation( true );
+
+			byte[] written = write( situation, composition );
+			Assert.assertEquals( Version.VERSION_1_1_3, Version.read( new DataInputStream( new ByteArrayInputStream( written ) ) ) );
+
+			DockLayoutComposition read = read( situation, written );
+			Assert.assertEquals( toXML( situation, composition ), toXML( situation, read ) );
+			Assert.assertTrue( Arrays.equals( written, write( situation, read ) ) );
+		}
+		finally{
+			controller.kill();
+		}
+	}
+
+	@Test
+	public void readOldFormat() throws IOException{
+		DockController controller = new DockController();
+		try{
+			DockLayoutComposition composition = createLayout( controller );
+			DockSituation old = createSituation( true );
+			old.setCompactFormat( false );
+
+			byte[] written = write( old, composition );
+			Assert.assertEquals( Version.VERSION_1_0_8, Version.read( new DataInputStream( new ByteArrayInputStream( written ) ) ) );
+
+			DockSituation situation = createSituation( true );
+			DockLayoutComposition read = read( situation, written );
+			Assert.assertEquals( toXML( situation, composition ), toXML( situation, read ) );
+		}
+		finally{
+			controller.kill();
+		}
+	}
+
+	@Test
+	public void missingFactory() throws IOException{
+		DockController controller = new DockController();
+		try{
+			DockLayoutComposition composition = createLayout( controller );
+			DockSituation situation = createSituation( true );
+			byte[] written = write( situation, composition );
+
+			// the data of the dockables is kept as raw bytes and written again
+			DockSituation missing = createSituation( false );
+			DockLayoutComposition incomplete = read( missing, written );
+			byte[] rewritten = write( missing, incomplete );
+
+			DockLayoutComposition read = read( situation, rewritten );
+			Assert.assertEquals( toXML( situation, composition ), toXML( situation, read ) );
+
+			// the old format cannot store data that refers to the table of strings
+			missing.setCompactFormat( false );
+			try{
+				write( missing, incomplete );
+				Assert.fail( "the raw data of a missing factory cannot be written in the old format" );
+			}
+			catch( IOException e ){
+				Assert.assertTrue( e.getMessage(), e.getMessage().contains( "old format" ) );
+			}
+		}
+		finally{
+			controller.kill();
+		}
+	}
+
+	private DockLayoutComposition createLayout( DockController controller ){
+		SplitDockStation split = new SplitDockStation();
+		controller.add( split );
+
+		Dockable[] dockables = new Dockable[5];
+		for( int i = 0; i < dockables.length; i++ ){
+			dockables[i] = new DefaultDockable( "dockable " + i );
+		}
+
+		SplitDockGrid grid = new SplitDockGrid();
+		grid.addDockable( 0, 0, 1, 1, dockables[0], dockables[1] );
+		grid.addDockable( 1, 0, 1, 1, dockables[2] );
+		grid.addDockable( 0, 1, 2, 1, dockables[3] );
+		split.dropTree( grid.toTree() );
+
+		StackDockStation stack = new StackDockStation();
+		split.drop( stack );
+		stack.drop( dockables[4] );
+
+		return createSituation( true ).convert( split );
+	}
+
+	private DockSituation createSituation( boolean dockableFactory ){
+		if( dockableFactory ){
+			return new DockSituation( new DefaultDockableFactory(), new SplitDockStationFactory(), new StackDockStationFactory() );
+		}
+		return new DockSituation( new SplitDockStationFactory(), new StackDockStationFactory() );
+	}
+
+	private byte[] write( DockSituation situation, DockLayoutComposition composition ) throws IOException{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream( bytes );
+		situation.writeComposition( composition, out );
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private DockLayoutComposition read( DockSituation situation, byte[] data ) throws IOException{
+		DataInputStream in = new DataInputStream( new ByteArrayInputStream( data ) );
+		DockLayoutComposition result = situation.readComposition( in );
+		Assert.assertEquals( -1, in.read() );
+		return result;
+	}
+
+	private String toXML( DockSituation situation, DockLayoutComposition composition ){
+		XElement element = new XElement( "layout" );
+		situation.writeCompositionXML( composition, element );
+		return element.toString();
+	}
+}
@@ -0,0 +1,371 @@
+package bibliothek.gui.dock.station.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bibliothek.gui.DockStation;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.util.Path;
+
+/**
+ * Applies the same random modifications to a {@link DockablePlaceholderList} and to the linked
+ * implementation it replaced, {@link ReferenceDockablePlaceholderList}, and checks that both lists
+ * can not be distinguished by their clients.
+ */
+public class PlaceholderListTest {
+	private static final int PLACEHOLDERS = 25;
+	private static final int DOCKABLES = 30;
+
+	@Test
+	public void randomOperations(){
+		for( long seed = 0; seed < 50; seed++ ){
+			compare( seed, 400 );
+		}
+	}
+
+	@Test
+	public void longRandomOperations(){
+		compare( 1234, 5000 );
+	}
+
+	@Test
+	public void readAndWrite(){
+		Random random = new Random( 42 );
+		List<Dockable> pool = createPool();
+		DockablePlaceholderList<Dockable> list = new DockablePlaceholderList<Dockable>();
+		ReferenceDockablePlaceholderList<Dockable> reference = new ReferenceDockablePlaceholderList<Dockable>();
+		Tested tested = new Current( list );
+		Tested expected = new Reference( reference );
+
+		for( int i = 0; i < 300; i++ ){
+			step( random, pool, tested, expected, i );
+		}
+
+		PlaceholderListItemConverter<Dockable, Dockable> converter = new StrategyPlaceholderListItemConverter<Dockable>( null );
+
+		PlaceholderMap map = list.toMap( converter );
+		PlaceholderMap referenceMap = reference.toMap( converter );
+		Assert.assertEquals( referenceMap.toString(), map.toString() );
+
+		Tested copy = new Current( new DockablePlaceholderList<Dockable>( map ) );
+		Tested referenceCopy = new Reference( new ReferenceDockablePlaceholderList<Dockable>( referenceMap ) );
+		Assert.assertEquals( referenceCopy.describe(), copy.describe() );
+	}
+
+	private void compare( long seed, int steps ){
+		Random random = new Random( seed );
+		List<Dockable> pool = createPool();
+		Tested tested = new Current( new DockablePlaceholderList<Dockable>() );
+		Tested expected = new Reference( new ReferenceDockablePlaceholderList<Dockable>() );
+
+		for( int i = 0; i < steps; i++ ){
+			step( random, pool, tested, expected, i );
+		}
+	}
+
+	private void step( Random random, List<Dockable> pool, Tested tested, Tested expected, int step ){
+		int operation = random.nextInt( 14 );
+		Path placeholder = new Path( "p" + random.nextInt( PLACEHOLDERS ) );
+		Dockable dockable = pool.get( random.nextInt( pool.size() ) );
+		int first = random.nextInt( 1000 );
+		int second = random.nextInt( 1000 );
+
+		String expectedResult = expected.apply( operation, placeholder, dockable, first, second );
+		String result = tested.apply( operation, placeholder, dockable, first, second );
+
+		String message = "step " + step + ", operation " + operation;
+		Assert.assertEquals( message, expectedResult, result );
+		Assert.assertEquals( message, expected.describe(), tested.describe() );
+	}
+
+	private List<Dockable> createPool(){
+		List<Dockable> pool = new ArrayList<Dockable>();
+		for( int i = 0; i < DOCKABLES; i++ ){
+			pool.add( new DefaultDockable( "d" + i ) );
+		}
+		return pool;
+	}
+
+	private static String describe( Iterable<Set<Path>> placeholders ){
+		List<String> result = new ArrayList<String>();
+		for( Set<Path> set : placeholders ){
+			List<String> paths = new ArrayList<String>();
+			for( Path path : set ){
+				paths.add( path.toString() );
+			}
+			Collections.sort( paths );
+			result.add( paths.toString() );
+		}
+		return result.toString();
+	}
+
+	/**
+	 * One of the two implementations that are compared.
+	 */
+	private interface Tested {
+		/**
+		 * Modifies the list.
+		 * @param operation the kind of modification
+		 * @param placeholder a placeholder that may be used
+		 * @param dockable an element that may be used
+		 * @param first a random number to pick an index
+		 * @param second another random number to pick an index
+		 * @return the results of the operation
+		 */
+		public String apply( int operation, Path placeholder, Dockable dockable, int first, int second );
+
+		/**
+		 * Describes everything a client can observe of the list.
+		 * @return the description
+		 */
+		public String describe();
+	}
+
+	private static class Current implements Tested {
+		private DockablePlaceholderList<Dockable> list;
+
+		public Current( DockablePlaceholderList<Dockable> list ){
+			this.list = list;
+		}
+
+		public String apply( int operation, Path placeholder, Dockable dockable, int first, int second ){
+			PlaceholderList.Filter<Dockable> dockables = list.dockables();
+			PlaceholderList.Filter<Set<Path>> placeholders = list.purePlaceholders();
+			PlaceholderList.Filter<PlaceholderList<Dockable, DockStation, Dockable>.Item> items = list.list();
+
+			try{
+				switch( operation ){
+					case 0:
+						if( dockables.indexOf( dockable ) < 0 ){
+							dockables.add( first % (dockables.size()+1), dockable );
+						}
+						break;
+					case 1:
+						placeholders.insertPlaceholder( first % (placeholders.size()+1), placeholder );
+						break;
+					case 2:
+						items.insertPlaceholder( first % (items.size()+1), placeholder );
+						break;
+					case 3:
+						if( dockables.size() > 0 ){
+							dockables.remove( first % dockables.size() );
+						}
+						break;
+					case 4:
+						if( dockables.size() > 0 ){
+							int index = first % dockables.size();
+							dockables.addPlaceholder( index, placeholder );
+							return String.valueOf( list.remove( index ) );
+						}
+						break;
+					case 5:
+						if( dockables.indexOf( dockable ) < 0 ){
+							return String.valueOf( list.put( placeholder, dockable ) );
+						}
+						break;
+					case 6:
+						list.removeAll( placeholder );
+						break;
+					case 7:
+						if( items.size() > 1 ){
+							items.move( first % items.size(), second % items.size() );
+						}
+						break;
+					case 8:
+						if( dockables.size() > 1 ){
+							dockables.move( first % dockables.size(), second % dockables.size() );
+						}
+						break;
+					case 9:
+						if( items.size() > 0 ){
+							items.addPlaceholder( first % items.size(), placeholder );
+						}
+						break;
+					case 10:
+						if( dockables.size() > 0 ){
+							list.addPlaceholder( dockables.get( first % dockables.size() ), placeholder );
+						}
+						break;
+					case 11:
+						if( items.size() > 0 && second % 4 == 0 ){
+							items.remove( first % items.size() );
+						}
+						break;
+					case 12:
+						if( placeholders.size() > 1 ){
+							placeholders.move( first % placeholders.size(), second % placeholders.size() );
+						}
+						break;
+					case 13:
+						if( second % 40 == 0 ){
+							list.clear();
+						}
+						break;
+				}
+			}
+			catch( RuntimeException e ){
+				return e.getClass().getName();
+			}
+			return "";
+		}
+
+		public String describe(){
+			StringBuilder builder = new StringBuilder();
+			builder.append( list.list().size() ).append( '/' ).append( list.dockables().size() ).append( '/' ).append( list.purePlaceholders().size() ).append( '\n' );
+			for( int i = 0; i < PLACEHOLDERS; i++ ){
+				Path path = new Path( "p" + i );
+				builder.append( list.getListIndex( path ) ).append( ',' );
+				builder.append( list.getDockableIndex( path ) ).append( ',' );
+				builder.append( list.dockables().indexOfPlaceholder( path ) ).append( ',' );
+				builder.append( list.purePlaceholders().indexOfPlaceholder( path ) ).append( ',' );
+				builder.append( list.listPlaceholders().indexOfPlaceholder( path ) ).append( ' ' );
+			}
+			builder.append( '\n' );
+			for( int i = 0, n = list.list().size(); i < n; i++ ){
+				builder.append( list.baseToLevel( i, PlaceholderList.Level.DOCKABLE ) ).append( ',' );
+				builder.append( list.baseToLevel( i, PlaceholderList.Level.PLACEHOLDER ) ).append( ' ' );
+			}
+			builder.append( '\n' );
+			for( int i = 0, n = list.dockables().size(); i < n; i++ ){
+				builder.append( list.levelToBase( i, PlaceholderList.Level.DOCKABLE ) ).append( ',' );
+				builder.append( list.dockables().get( i ).getTitleText() ).append( ' ' );
+			}
+			builder.append( '\n' );
+			for( int i = 0, n = list.purePlaceholders().size(); i < n; i++ ){
+				builder.append( list.levelToBase( i, PlaceholderList.Level.PLACEHOLDER ) ).append( ' ' );
+			}
+			builder.append( '\n' );
+			builder.append( PlaceholderListTest.describe( list.listPlaceholders() ) ).append( '\n' );
+			builder.append( PlaceholderListTest.describe( list.purePlaceholders() ) );
+			return builder.toString();
+		}
+	}
+
+	private static class Reference implements Tested {
+		private ReferenceDockablePlaceholderList<Dockable> list;
+
+		public Reference( ReferenceDockablePlaceholderList<Dockable> list ){
+			this.list = list;
+		}
+
+		public String apply( int operation, Path placeholder, Dockable dockable, int first, int second ){
+			ReferencePlaceholderList.Filter<Dockable> dockables = list.dockables();
+			ReferencePlaceholderList.Filter<Set<Path>> placeholders = list.purePlaceholders();
+			ReferencePlaceholderList.Filter<ReferencePlaceholderList<Dockable, DockStation, Dockable>.Item> items = list.list();
+
+			try{
+				switch( operation ){
+					case 0:
+						if( dockables.indexOf( dockable ) < 0 ){
+							dockables.add( first % (dockables.size()+1), dockable );
+						}
+						break;
+					case 1:
+						placeholders.insertPlaceholder( first % (placeholders.size()+1), placeholder );
+						break;
+					case 2:
+						items.insertPlaceholder( first % (items.size()+1), placeholder );
+						break;
+					case 3:
+						if( dockables.size() > 0 ){
+							dockables.remove( first % dockables.size() );
+						}
+						break;
+					case 4:
+						if( dockables.size() > 0 ){
+							int index = first % dockables.size();
+							dockables.addPlaceholder( index, placeholder );
+							return String.valueOf( list.remove( index ) );
+						}
+						break;
+					case 5:
+						if( dockables.indexOf( dockable ) < 0 ){
+							return String.valueOf( list.put( placeholder, dockable ) );
+						}
+						break;
+					case 6:
+						list.removeAll( placeholder );
+						break;
+					case 7:
+						if( items.size() > 1 ){
+							items.move( first % items.size(), second % items.size() );
+						}
+						break;
+					case 8:
+						if( dockables.size() > 1 ){
+							dockables.move( first % dockables.size(), second % dockables.size() );
+						}
+						break;
+					case 9:
+						if( items.size() > 0 ){
+							items.addPlaceholder( first % items.size(), placeholder );
+						}
+						break;
+					case 10:
+						if( dockables.size() > 0 ){
+							list.addPlaceholder( dockables.get( first % dockables.size() ), placeholder );
+						}
+						break;
+					case 11:
+						if( items.size() > 0 && second % 4 == 0 ){
+							items.remove( first % items.size() );
+						}
+						break;
+					case 12:
+						if( placeholders.size() > 1 ){
+							placeholders.move( first % placeholders.size(), second % placeholders.size() );
+						}
+						break;
+					case 13:
+						if( second % 40 == 0 ){
+							list.clear();
+						}
+						break;
+				}
+			}
+			catch( RuntimeException e ){
+				return e.getClass().getName();
+			}
+			return "";
+		}
+
+		public String describe(){
+			StringBuilder builder = new StringBuilder();
+			builder.append( list.list().size() ).append( '/' ).append( list.dockables().size() ).append( '/' ).append( list.purePlaceholders().size() ).append( '\n' );
+			for( int i = 0; i < PLACEHOLDERS; i++ ){
+				Path path = new Path( "p" + i );
+				builder.append( list.getListIndex( path ) ).append( ',' );
+				builder.append( list.getDockableIndex( path ) ).append( ',' );
+				builder.append( list.dockables().indexOfPlaceholder( path ) ).append( ',' );
+				builder.append( list.purePlaceholders().indexOfPlaceholder( path ) ).append( ',' );
+				builder.append( list.listPlaceholders().indexOfPlaceholder( path ) ).append( ' ' );
+			}
+			builder.append( '\n' );
+			for( int i = 0, n = list.list().size(); i < n; i++ ){
+				builder.append( list.baseToLevel( i, ReferencePlaceholderList.Level.DOCKABLE ) ).append( ',' );
+				builder.append( list.baseToLevel( i, ReferencePlaceholderList.Level.PLACEHOLDER ) ).append( ' ' );
+			}
+			builder.append( '\n' );
+			for( int i = 0, n = list.dockables().size(); i < n; i++ ){
+				builder.append( list.levelToBase( i, ReferencePlaceholderList.Level.DOCKABLE ) ).append( ',' );
+				builder.append( list.dockables().get( i ).getTitleText() ).append( ' ' );
+			}
+			builder.append( '\n' );
+			for( int i = 0, n = list.purePlaceholders().size(); i < n; i++ ){
+				builder.append( list.levelToBase( i, ReferencePlaceholderList.Level.PLACEHOLDER ) ).append( ' ' );
+			}
+			builder.append( '\n' );
+			builder.append( PlaceholderListTest.describe( list.listPlaceholders() ) ).append( '\n' );
+			builder.append( PlaceholderListTest.describe( list.purePlaceholders() ) );
+			return builder.toString();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package bibliothek.util.xml;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Checks that reading a file with a {@link XReader} creates the same {@link XElement}s as reading
+ * the whole file with {@link XIO#read(CharSequence)}.
+ */
+public class XReaderTest {
+	@Test
+	public void entities() throws IOException{
+		assertSameElements( "<root a=\"&lt;&amp;&gt;\"><child b=\"&quot;x&apos;\">1 &lt; 2 &amp;&amp; 3 &gt; 2</child></root>" );
+	}
+
+	@Test
+	public void cdata() throws IOException{
+		assertSameElements( "<root><child>before <![CDATA[<not> & an element]]> after</child></root>" );
+	}
+
+	@Test
+	public void comments() throws IOException{
+		assertSameElements( "<?xml version='1.0'?><!-- head --><root><!-- inside --><child>a<!-- between -->b</child><!-- tail --></root>" );
+	}
+
+	@Test
+	public void selfClosing() throws IOException{
+		assertSameElements( "<root><empty/><child a=\"1\"/><other><empty/></other></root>" );
+	}
+
+	@Test
+	public void skipAndRead() throws IOException{
+		XReader reader = new XReader( new StringReader( "<root a=\"x\"><skip><deep><deeper/></deep></skip><read b=\"y\">value</read><last/></root>" ) );
+		Assert.assertEquals( "root", reader.getName() );
+		Assert.assertEquals( "x", reader.getString( "a" ) );
+
+		Assert.assertTrue( reader.nextChild() );
+		Assert.assertEquals( "skip", reader.getName() );
+		reader.skipElement();
+
+		Assert.assertTrue( reader.nextChild() );
+		XElement read = reader.readElement();
+		Assert.assertEquals( "read", read.getName() );
+		Assert.assertEquals( "y", read.getString( "b" ) );
+		Assert.assertEquals( "value", read.getString() );
+
+		Assert.assertTrue( reader.nextChild() );
+		Assert.assertEquals( "last", reader.getName() );
+		Assert.assertFalse( reader.nextChild() );
+
+		Assert.assertFalse( reader.nextChild() );
+		reader.close();
+	}
+
+	@Test
+	public void consumedElement() throws IOException{
+		XReader reader = new XReader( new StringReader( "<root><child/></root>" ) );
+		Assert.assertTrue( reader.nextChild() );
+		reader.skipElement();
+		try{
+			reader.getName();
+			Assert.fail( "the skipped element must not be accessible" );
+		}
+		catch( IllegalStateException e ){
+			// expected
+		}
+		reader.close();
+	}
+
+	@Test
+	public void mismatchedTags(){
+		assertMalformed( "<root><child></root></child>" );
+	}
+
+	@Test
+	public void unclosedRoot(){
+		assertMalformed( "<root><child/>" );
+	}
+
+	@Test
+	public void noRootElement(){
+		assertMalformed( "<!-- nothing -->" );
+	}
+
+	private void assertMalformed( String xml ){
+		try{
+			XReader reader = new XReader( new StringReader( xml ) );
+			while( reader.nextChild() ){
+				reader.readElement();
+			}
+			Assert.fail( "malformed input was accepted: " + xml );
+		}
+		catch( IOException e ){
+			// expected
+		}
+	}
+
+	private void assertSameElements( String xml ) throws IOException{
+		XElement expected = XIO.read( xml );
+
+		XReader reader = new XReader( new StringReader( xml ) );
+		XElement read = reader.readElement();
+		reader.close();
+		Assert.assertEquals( expected.toString(), read.toString() );
+
+		reader = new XReader( new StringReader( xml ) );
+		XElement copy = new XElement( reader.getName() );
+		for( XAttribute attribute : expected.attributes() ){
+			copy.addString( attribute.getName(), reader.getString( attribute.getName() ) );
+		}
+		while( reader.nextChild() ){
+			copy.addElement( reader.readElement() );
+		}
+		reader.close();
+		copy.setValue( expected.getValue() );
+		Assert.assertEquals( expected.toString(), copy.toString() );
+	}
+}
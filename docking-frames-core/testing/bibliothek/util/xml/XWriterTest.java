@@ -0,0 +1,101 @@
+package bibliothek.util.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+import bibliothek.gui.DockFrontend;
+import bibliothek.gui.Dockable;
+import bibliothek.gui.dock.DefaultDockable;
+import bibliothek.gui.dock.SplitDockStation;
+import bibliothek.gui.dock.StackDockStation;
+import bibliothek.gui.dock.frontend.Setting;
+import bibliothek.gui.dock.station.split.SplitDockGrid;
+
+/**
+ * Checks that writing a layout through a {@link XWriter} creates the same file as building up
+ * a tree of {@link XElement}s and writing the tree.
+ */
+public class XWriterTest {
+	@Test
+	public void frontendLayout() throws IOException{
+		DockFrontend frontend = createFrontend( new DockFrontend() );
+		try{
+			assertSameOutput( frontend );
+		}
+		finally{
+			frontend.getController().kill();
+		}
+	}
+
+	@Test
+	public void subclassOverridingElementVariant() throws IOException{
+		DockFrontend frontend = createFrontend( new DockFrontend(){
+			@Override
+			protected void writeXML( Setting setting, boolean entry, XElement element ){
+				super.writeXML( setting, entry, element );
+				element.addElement( "custom" ).setBoolean( entry );
+			}
+		});
+		try{
+			String streamed = assertSameOutput( frontend );
+			Assert.assertTrue( streamed.contains( "<custom>" ) );
+		}
+		finally{
+			frontend.getController().kill();
+		}
+	}
+
+	private DockFrontend createFrontend( DockFrontend frontend ){
+		SplitDockStation split = new SplitDockStation();
+		SplitDockStation other = new SplitDockStation();
+		frontend.addRoot( "split", split );
+		frontend.addRoot( "other", other );
+
+		Dockable[] dockables = new Dockable[6];
+		for( int i = 0; i < dockables.length; i++ ){
+			dockables[i] = new DefaultDockable( "dockable " + i );
+			frontend.addDockable( "d" + i, dockables[i] );
+			frontend.setHideable( dockables[i], true );
+		}
+
+		SplitDockGrid grid = new SplitDockGrid();
+		grid.addDockable( 0, 0, 1, 1, dockables[0], dockables[1] );
+		grid.addDockable( 1, 0, 1, 1, dockables[2] );
+		grid.addDockable( 0, 1, 2, 1, dockables[3] );
+		grid.addDockable( 2, 0, 1, 2, dockables[4] );
+		split.dropTree( grid.toTree() );
+		StackDockStation stack = new StackDockStation();
+		other.drop( stack );
+		stack.drop( dockables[5] );
+
+		frontend.save( "first" );
+		frontend.hide( dockables[2] );
+		frontend.hide( dockables[5] );
+		frontend.save( "second" );
+		return frontend;
+	}
+
+	private String assertSameOutput( DockFrontend frontend ) throws IOException{
+		XElement root = new XElement( "root" );
+		frontend.writeXML( root );
+		ByteArrayOutputStream tree = new ByteArrayOutputStream();
+		XIO.writeUTF( root, tree );
+
+		ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+		XWriter writer = XIO.writerUTF( streamed );
+		writer.startElement( "root" );
+		frontend.writeXML( writer );
+		writer.endElement();
+		writer.close();
+
+		String result = new String( streamed.toByteArray(), "UTF-8" );
+		Assert.assertEquals( new String( tree.toByteArray(), "UTF-8" ), result );
+		Assert.assertTrue( Arrays.equals( tree.toByteArray(), streamed.toByteArray() ));
+		return result;
+	}
+}